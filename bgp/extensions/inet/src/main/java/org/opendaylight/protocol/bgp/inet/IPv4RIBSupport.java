@@ -13,8 +13,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingNormalizedNodeSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.PathIdUtil;
+import org.opendaylight.protocol.bgp.rib.spi.util.Ipv4PrefixRouteKeyMap;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCaseBuilder;
@@ -45,6 +47,8 @@ final class IPv4RIBSupport extends AbstractIPRibSupport<Ipv4RoutesCase, Ipv4Rout
     private static final Ipv4Routes EMPTY_CONTAINER
             = new Ipv4RoutesBuilder().setIpv4Route(Collections.emptyList()).build();
     private static final Ipv4RoutesCase EMPTY_CASE = new Ipv4RoutesCaseBuilder().setIpv4Routes(EMPTY_CONTAINER).build();
+    // 4-byte Path Identifier, prefix length and up to 4 bytes of prefix
+    private static final int MAX_ROUTE_LENGTH = 9;
     private static IPv4RIBSupport SINGLETON = null;
 
     private IPv4RIBSupport(final BindingNormalizedNodeSerializer mappingService) {
@@ -103,6 +107,16 @@ final class IPv4RIBSupport extends AbstractIPRibSupport<Ipv4RoutesCase, Ipv4Rout
         return builder.build();
     }
 
+    @Override
+    public int maxRouteEncodedLength() {
+        return MAX_ROUTE_LENGTH;
+    }
+
+    @Override
+    public <V> Map<String, V> createRouteKeyMap() {
+        return new Ipv4PrefixRouteKeyMap<>();
+    }
+
     @Override
     public Ipv4RoutesCase emptyRoutesCase() {
         return EMPTY_CASE;
@@ -13,8 +13,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingNormalizedNodeSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.PathIdUtil;
+import org.opendaylight.protocol.bgp.rib.spi.util.Ipv6PrefixRouteKeyMap;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv6Prefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv6RoutesCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv6RoutesCaseBuilder;
@@ -44,6 +46,8 @@ final class IPv6RIBSupport extends AbstractIPRibSupport<Ipv6RoutesCase, Ipv6Rout
     private static final Ipv6Routes EMPTY_CONTAINER
             = new Ipv6RoutesBuilder().setIpv6Route(Collections.emptyList()).build();
     private static final Ipv6RoutesCase EMPTY_CASE = new Ipv6RoutesCaseBuilder().setIpv6Routes(EMPTY_CONTAINER).build();
+    // 4-byte Path Identifier, prefix length and up to 16 bytes of prefix
+    private static final int MAX_ROUTE_LENGTH = 21;
     private static IPv6RIBSupport SINGLETON;
 
     private IPv6RIBSupport(final BindingNormalizedNodeSerializer mappingService) {
@@ -99,6 +103,16 @@ final class IPv6RIBSupport extends AbstractIPRibSupport<Ipv6RoutesCase, Ipv6Rout
         return builder.withKey(key).setAttributes(attributes).build();
     }
 
+    @Override
+    public int maxRouteEncodedLength() {
+        return MAX_ROUTE_LENGTH;
+    }
+
+    @Override
+    public <V> Map<String, V> createRouteKeyMap() {
+        return new Ipv6PrefixRouteKeyMap<>();
+    }
+
     @Override
     public Ipv6RoutesCase emptyRoutesCase() {
         return EMPTY_CASE;
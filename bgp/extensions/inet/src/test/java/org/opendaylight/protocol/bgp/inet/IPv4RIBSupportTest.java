@@ -16,6 +16,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import org.opendaylight.protocol.bgp.rib.spi.AbstractRIBSupportTest;
@@ -42,6 +43,7 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
 import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidates;
 
@@ -81,9 +83,11 @@ public final class IPv4RIBSupportTest extends AbstractRIBSupportTest<Ipv4RoutesC
 
     @Test
     public void testDeleteRoutes() {
-        this.ribSupport.deleteRoutes(this.tx, getTablePath(), createNlriWithDrawnRoute(UNREACH_NLRI));
+        final Collection<NodeIdentifierWithPredicates> routeKeys = this.ribSupport.deleteRoutes(this.tx,
+            getTablePath(), createNlriWithDrawnRoute(UNREACH_NLRI));
         final InstanceIdentifier<Ipv4Route> instanceIdentifier = this.deletedRoutes.get(0);
         assertEquals(ROUTE_KEY, instanceIdentifier.firstKeyOf(Ipv4Route.class));
+        assertEquals(Collections.singletonList(createRouteNIWP(ROUTES)), routeKeys);
     }
 
     @Test
@@ -93,6 +97,21 @@ public final class IPv4RIBSupportTest extends AbstractRIBSupportTest<Ipv4RoutesC
         assertEquals(ROUTE, route);
     }
 
+    @Test
+    public void testExtractRoutes() {
+        final Map<NodeIdentifierWithPredicates, MapEntryNode> routes = this.ribSupport.extractRoutes(
+            createNlriAdvertiseRoute(REACH_NLRI), createAttributes());
+        assertEquals(Collections.singleton(createRouteNIWP(ROUTES)), routes.keySet());
+        assertTrue(this.insertedRoutes.isEmpty());
+    }
+
+    @Test
+    public void testExtractWithdrawnRoutes() {
+        final Collection<NodeIdentifierWithPredicates> routeKeys = this.ribSupport.extractWithdrawnRoutes(
+            createNlriWithDrawnRoute(UNREACH_NLRI));
+        assertEquals(Collections.singletonList(createRouteNIWP(ROUTES)), routeKeys);
+        assertTrue(this.deletedRoutes.isEmpty());
+    }
 
     @Test
     public void testEmptyRoute() {
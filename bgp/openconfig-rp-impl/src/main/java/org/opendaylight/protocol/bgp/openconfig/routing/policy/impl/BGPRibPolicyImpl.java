@@ -14,6 +14,7 @@ import static org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.regist
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -27,6 +28,8 @@ import org.opendaylight.protocol.bgp.openconfig.routing.policy.spi.registry.Stat
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRibRoutingPolicy;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryExportParameters;
 import org.opendaylight.protocol.bgp.rib.spi.policy.BGPRouteEntryImportParameters;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.Conditions1;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.policy.rev151009.routing.policy.policy.definitions.policy.definition.statements.statement.conditions.BgpConditions;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.DefaultPolicyType;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.apply.policy.group.apply.policy.Config;
@@ -36,6 +39,7 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev1
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.PolicyDefinitionKey;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.Statements;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.Statement;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.routing.policy.rev151009.routing.policy.top.routing.policy.policy.definitions.policy.definition.statements.statement.Conditions;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.ClusterIdentifier;
@@ -60,6 +64,24 @@ final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
                     return loadStatements(key);
                 }
             });
+    /*
+     * Evaluation plans: statements of all import/export policies, in order, which can apply to a particular AFI/SAFI.
+     * Statements restricted to other AFI/SAFIs are left out, as they would never match.
+     */
+    private final LoadingCache<Class<? extends AfiSafiType>, List<Statement>> importPlans = CacheBuilder.newBuilder()
+            .build(new CacheLoader<Class<? extends AfiSafiType>, List<Statement>>() {
+                @Override
+                public List<Statement> load(final Class<? extends AfiSafiType> key) {
+                    return createPlan(BGPRibPolicyImpl.this.importPolicy, key);
+                }
+            });
+    private final LoadingCache<Class<? extends AfiSafiType>, List<Statement>> exportPlans = CacheBuilder.newBuilder()
+            .build(new CacheLoader<Class<? extends AfiSafiType>, List<Statement>>() {
+                @Override
+                public List<Statement> load(final Class<? extends AfiSafiType> key) {
+                    return createPlan(BGPRibPolicyImpl.this.exportPolicy, key);
+                }
+            });
 
     BGPRibPolicyImpl(final DataBroker databroker, final StatementRegistryConsumer policyRegistry,
             final long localAs, final Ipv4Address originatorId, final ClusterIdentifier clusterId,
@@ -96,16 +118,43 @@ final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
         return result.get().getStatement();
     }
 
+    private List<Statement> createPlan(final List<String> policies, final Class<? extends AfiSafiType> afiSafi) {
+        final ImmutableList.Builder<Statement> plan = ImmutableList.builder();
+        for (final String policyName : policies) {
+            for (final Statement statement : this.statements.getUnchecked(policyName)) {
+                if (isApplicable(statement, afiSafi)) {
+                    plan.add(statement);
+                }
+            }
+        }
+        return plan.build();
+    }
+
+    private static boolean isApplicable(final Statement statement, final Class<? extends AfiSafiType> afiSafi) {
+        final Conditions conditions = statement.getConditions();
+        if (conditions == null) {
+            return true;
+        }
+        final Conditions1 bgpConditionsAug = conditions.augmentation(Conditions1.class);
+        if (bgpConditionsAug == null) {
+            return true;
+        }
+        final BgpConditions bgpConditions = bgpConditionsAug.getBgpConditions();
+        if (bgpConditions == null) {
+            return true;
+        }
+        final List<Class<? extends AfiSafiType>> afiSafiIn = bgpConditions.getAfiSafiIn();
+        return afiSafiIn == null || afiSafiIn.contains(afiSafi);
+    }
+
     @Override
     public Optional<Attributes> applyImportPolicies(final BGPRouteEntryImportParameters policyParameters,
             final Attributes attributes, final Class<? extends AfiSafiType> afiSafiType) {
         RouteAttributeContainer currentAttributes = routeAttributeContainerFalse(attributes);
-        for (final String policyName : this.importPolicy) {
-            for (final Statement statement : this.statements.getUnchecked(policyName)) {
-                currentAttributes = this.policyRegistry
-                        .applyImportStatement(this.ribBaseParameters, afiSafiType, policyParameters, currentAttributes,
-                                statement);
-            }
+        for (final Statement statement : this.importPlans.getUnchecked(afiSafiType)) {
+            currentAttributes = this.policyRegistry
+                    .applyImportStatement(this.ribBaseParameters, afiSafiType, policyParameters, currentAttributes,
+                            statement);
         }
         if (!currentAttributes.anyConditionSatisfied()) {
             if (DefaultPolicyType.REJECTROUTE.equals(this.defaultImportPolicy)) {
@@ -119,11 +168,9 @@ final class BGPRibPolicyImpl implements BGPRibRoutingPolicy {
     public Optional<Attributes> applyExportPolicies(final BGPRouteEntryExportParameters policyParameters,
             final Attributes attributes, final Class<? extends AfiSafiType> afiSafi) {
         RouteAttributeContainer currentAttributes = routeAttributeContainerFalse(attributes);
-        for (final String policyName : this.exportPolicy) {
-            for (final Statement statement : this.statements.getUnchecked(policyName)) {
-                currentAttributes = this.policyRegistry.applyExportStatement(
-                        this.ribBaseParameters, afiSafi, policyParameters, currentAttributes, statement);
-            }
+        for (final Statement statement : this.exportPlans.getUnchecked(afiSafi)) {
+            currentAttributes = this.policyRegistry.applyExportStatement(
+                    this.ribBaseParameters, afiSafi, policyParameters, currentAttributes, statement);
         }
         if (!currentAttributes.anyConditionSatisfied()) {
             if (DefaultPolicyType.REJECTROUTE.equals(this.defaultExportPolicy)) {
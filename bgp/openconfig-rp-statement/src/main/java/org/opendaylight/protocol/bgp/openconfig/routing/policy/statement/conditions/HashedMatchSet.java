@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.HashSet;
+import javax.annotation.Nullable;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+
+/**
+ * Members of a defined set, compiled into a hash set. Matching a route attribute against the set costs time
+ * proportional to the number of attribute values, independent of the size of the set.
+ *
+ * @param <T> member type
+ */
+final class HashedMatchSet<T> {
+    private static final HashedMatchSet<?> EMPTY = new HashedMatchSet<>(ImmutableSet.of());
+
+    private final ImmutableSet<T> members;
+
+    private HashedMatchSet(final ImmutableSet<T> members) {
+        this.members = members;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> HashedMatchSet<T> of(@Nullable final Collection<? extends T> members) {
+        if (members == null || members.isEmpty()) {
+            return (HashedMatchSet<T>) EMPTY;
+        }
+        return new HashedMatchSet<>(ImmutableSet.copyOf(members));
+    }
+
+    boolean isEmpty() {
+        return this.members.isEmpty();
+    }
+
+    boolean contains(final T value) {
+        return this.members.contains(value);
+    }
+
+    /**
+     * Match values against this set.
+     *
+     * @param values values to match, null is treated as no values
+     * @param matchSetOptions ALL if the values need to be equal to the set, ANY if at least one of them has to be
+     *                        a member, INVERT if none of them may be a member
+     * @return true if the values match
+     */
+    boolean match(@Nullable final Collection<T> values, final MatchSetOptionsType matchSetOptions) {
+        if (MatchSetOptionsType.ALL.equals(matchSetOptions)) {
+            if (values == null) {
+                return this.members.isEmpty();
+            }
+            if (values.size() < this.members.size() || !this.members.containsAll(values)) {
+                return false;
+            }
+            // All values are members, make sure all members are present as well
+            return new HashSet<>(values).size() == this.members.size();
+        }
+
+        boolean anyInCommon = false;
+        if (values != null) {
+            for (final T value : values) {
+                if (this.members.contains(value)) {
+                    anyInCommon = true;
+                    break;
+                }
+            }
+        }
+        if (MatchSetOptionsType.ANY.equals(matchSetOptions)) {
+            return anyInCommon;
+        }
+        //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
+        return !anyInCommon;
+    }
+}
@@ -14,13 +14,9 @@ import com.google.common.base.Optional;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadOnlyTransaction;
@@ -43,7 +39,6 @@ import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPath;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.Segments;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.AsPathSegment;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 /**
@@ -55,10 +50,11 @@ public final class MatchAsPathSetHandler implements BgpConditionsPolicy<MatchAsP
             .augmentation(DefinedSets1.class).child(BgpDefinedSets.class)
             .child(AsPathSets.class);
     private final DataBroker dataBroker;
-    private final LoadingCache<String, AsPathSet> sets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, AsPathSet>() {
+    private final LoadingCache<String, HashedMatchSet<AsNumber>> sets = CacheBuilder.newBuilder()
+            .build(new CacheLoader<String, HashedMatchSet<AsNumber>>() {
                 @Override
-                public AsPathSet load(final String key) throws ExecutionException, InterruptedException {
+                public HashedMatchSet<AsNumber> load(final String key) throws ExecutionException,
+                        InterruptedException {
                     return loadSets(key);
                 }
             });
@@ -67,11 +63,14 @@ public final class MatchAsPathSetHandler implements BgpConditionsPolicy<MatchAsP
         this.dataBroker = requireNonNull(dataBroker);
     }
 
-    private AsPathSet loadSets(final String key) throws ExecutionException, InterruptedException {
+    private HashedMatchSet<AsNumber> loadSets(final String key) throws ExecutionException, InterruptedException {
         final ReadOnlyTransaction tr = this.dataBroker.newReadOnlyTransaction();
         final Optional<AsPathSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
                 AS_PATHS_SETS_IID.child(AsPathSet.class, new AsPathSetKey(key))).get();
-        return result.orNull();
+        if (!result.isPresent()) {
+            return HashedMatchSet.of(null);
+        }
+        return HashedMatchSet.of(result.get().getAsPathSetMember());
     }
 
     @Override
@@ -109,40 +108,31 @@ public final class MatchAsPathSetHandler implements BgpConditionsPolicy<MatchAsP
         if (asPath == null) {
             return false;
         }
-        final AsPathSet asPathSetFilter = this.sets.getUnchecked(StringUtils
+        final HashedMatchSet<AsNumber> asPathSetFilter = this.sets.getUnchecked(StringUtils
                 .substringBetween(asPathSetName, "=\"", "\""));
 
         final List<Segments> segments = asPath.getSegments();
-        if (asPathSetFilter == null || segments == null) {
+        if (asPathSetFilter.isEmpty() || segments == null) {
             return false;
         }
 
-        final List<AsNumber> l1 = segments.stream()
-                .map(AsPathSegment::getAsSequence)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        final List<AsNumber> l2 = segments.stream()
-                .map(AsPathSegment::getAsSet)
-                .filter(Objects::nonNull)
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        List<AsNumber> allAs = Stream.of(l1, l2).flatMap(Collection::stream).collect(Collectors.toList());
-
-        final List<AsNumber> asPathSetFilterList = asPathSetFilter.getAsPathSetMember();
-        if (matchSetOptions.equals(MatchSetOptionsType.ALL)) {
-            return allAs.containsAll(asPathSetFilterList)
-                    && asPathSetFilterList.containsAll(allAs);
+        final List<AsNumber> allAs = new ArrayList<>();
+        for (final Segments segment : segments) {
+            addAll(allAs, segment.getAsSequence());
+        }
+        for (final Segments segment : segments) {
+            addAll(allAs, segment.getAsSet());
         }
-        final boolean noneInCommon = Collections.disjoint(allAs, asPathSetFilterList);
-        if (matchSetOptions.equals(MatchSetOptionsType.ANY)) {
-            return !noneInCommon;
+        return asPathSetFilter.match(allAs, matchSetOptions);
+    }
+
+    private static void addAll(final List<AsNumber> allAs, final List<AsNumber> asNumbers) {
+        if (asNumbers != null) {
+            for (final AsNumber asNumber : asNumbers) {
+                if (asNumber != null) {
+                    allAs.add(asNumber);
+                }
+            }
         }
-        //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
-        return noneInCommon;
     }
 }
\ No newline at end of file
@@ -14,8 +14,6 @@ import com.google.common.base.Optional;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
-import java.util.Collections;
-import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -53,10 +51,10 @@ public final class MatchBgpNeighborSetHandler
             .child(DefinedSets.class)
             .child(NeighborSets.class);
     private final DataBroker dataBroker;
-    private final LoadingCache<String, List<PeerId>> peerSets = CacheBuilder.newBuilder()
-            .build(new CacheLoader<String, List<PeerId>>() {
+    private final LoadingCache<String, HashedMatchSet<PeerId>> peerSets = CacheBuilder.newBuilder()
+            .build(new CacheLoader<String, HashedMatchSet<PeerId>>() {
                 @Override
-                public List<PeerId> load(final String key) throws ExecutionException, InterruptedException {
+                public HashedMatchSet<PeerId> load(final String key) throws ExecutionException, InterruptedException {
                     return loadRoleSets(key);
                 }
             });
@@ -65,16 +63,16 @@ public final class MatchBgpNeighborSetHandler
         this.dataBroker = requireNonNull(dataBroker);
     }
 
-    private List<PeerId> loadRoleSets(final String key) throws ExecutionException, InterruptedException {
+    private HashedMatchSet<PeerId> loadRoleSets(final String key) throws ExecutionException, InterruptedException {
         final ReadOnlyTransaction tr = this.dataBroker.newReadOnlyTransaction();
         final Optional<NeighborSet> result = tr.read(LogicalDatastoreType.CONFIGURATION,
                 NEIGHBOR_SET_IID.child(NeighborSet.class, new NeighborSetKey(key))).get();
         if (!result.isPresent()) {
-            return Collections.emptyList();
+            return HashedMatchSet.of(null);
         }
-        return result.get().getNeighbor().stream()
+        return HashedMatchSet.of(result.get().getNeighbor().stream()
                 .map(nei -> RouterIds.createPeerId(nei.getAddress()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -126,7 +124,7 @@ public final class MatchBgpNeighborSetHandler
             final String neighborSetName,
             final PeerId peerId,
             final MatchSetOptionsRestrictedType matchSetOptions) {
-        final List<PeerId> roles = this.peerSets.getUnchecked(StringUtils
+        final HashedMatchSet<PeerId> roles = this.peerSets.getUnchecked(StringUtils
                 .substringBetween(neighborSetName, "=\"", "\""));
 
         final boolean found = roles.contains(peerId);
@@ -8,7 +8,9 @@
 
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import java.util.Collections;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -28,6 +30,14 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
  */
 public final class MatchCommunitySetHandler
         extends AbstractCommunityHandler implements BgpConditionsPolicy<MatchCommunitySet, List<Communities>> {
+    private final LoadingCache<String, HashedMatchSet<Communities>> matchSets = CacheBuilder.newBuilder()
+            .build(new CacheLoader<String, HashedMatchSet<Communities>>() {
+                @Override
+                public HashedMatchSet<Communities> load(final String key) {
+                    return HashedMatchSet.of(MatchCommunitySetHandler.this.communitySets.getUnchecked(key));
+                }
+            });
+
     public MatchCommunitySetHandler(final DataBroker databroker) {
         super(databroker);
     }
@@ -66,29 +76,11 @@ public final class MatchCommunitySetHandler
 
         final String setKey = StringUtils
                 .substringBetween(communitySetName, "=\"", "\"");
-        final List<Communities> communityFilter = this.communitySets.getUnchecked(setKey);
+        final HashedMatchSet<Communities> communityFilter = this.matchSets.getUnchecked(setKey);
 
-        if (communityFilter == null || communityFilter.isEmpty()) {
+        if (communityFilter.isEmpty()) {
             return false;
         }
-
-        List<Communities> commAttributeList;
-        if (communities == null) {
-            commAttributeList = Collections.emptyList();
-        } else {
-            commAttributeList = communities;
-        }
-
-        if (matchSetOptions.equals(MatchSetOptionsType.ALL)) {
-            return commAttributeList.containsAll(communityFilter)
-                    && communityFilter.containsAll(commAttributeList);
-        }
-        final boolean noneInCommon = Collections.disjoint(commAttributeList, communityFilter);
-
-        if (matchSetOptions.equals(MatchSetOptionsType.ANY)) {
-            return !noneInCommon;
-        }
-        //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
-        return noneInCommon;
+        return communityFilter.match(communities, matchSetOptions);
     }
 }
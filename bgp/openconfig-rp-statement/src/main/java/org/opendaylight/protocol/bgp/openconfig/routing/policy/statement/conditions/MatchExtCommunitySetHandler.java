@@ -7,7 +7,9 @@
  */
 package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
 
-import java.util.Collections;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
@@ -27,6 +29,13 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
  */
 public final class MatchExtCommunitySetHandler extends AbstractExtCommunityHandler
         implements BgpConditionsPolicy<MatchExtCommunitySet, List<ExtendedCommunities>> {
+    private final LoadingCache<String, HashedMatchSet<ExtendedCommunities>> matchSets = CacheBuilder.newBuilder()
+            .build(new CacheLoader<String, HashedMatchSet<ExtendedCommunities>>() {
+                @Override
+                public HashedMatchSet<ExtendedCommunities> load(final String key) {
+                    return HashedMatchSet.of(MatchExtCommunitySetHandler.this.extCommunitySets.getUnchecked(key));
+                }
+            });
 
     public MatchExtCommunitySetHandler(final DataBroker databroker) {
         super(databroker);
@@ -37,30 +46,12 @@ public final class MatchExtCommunitySetHandler extends AbstractExtCommunityHandl
 
         final String setKey = StringUtils
                 .substringBetween(matchExtCommunitySetName, "=\"", "\"");
-        final List<ExtendedCommunities> extCommunityfilter = this.extCommunitySets.getUnchecked(setKey);
+        final HashedMatchSet<ExtendedCommunities> extCommunityfilter = this.matchSets.getUnchecked(setKey);
 
-        if (extCommunityfilter == null || extCommunityfilter.isEmpty()) {
+        if (extCommunityfilter.isEmpty()) {
             return false;
         }
-
-        List<ExtendedCommunities> extCommList;
-        if (extendedCommunities == null) {
-            extCommList = Collections.emptyList();
-        } else {
-            extCommList = extendedCommunities;
-        }
-
-
-        if (matchSetOptions.equals(MatchSetOptionsType.ALL)) {
-            return extCommList.containsAll(extCommunityfilter)
-                    && extCommunityfilter.containsAll(extCommList);
-        }
-        final boolean noneInCommon = Collections.disjoint(extCommList, extCommunityfilter);
-        if (matchSetOptions.equals(MatchSetOptionsType.ANY)) {
-            return !noneInCommon;
-        }
-        //(matchSetOptions.equals(MatchSetOptionsType.INVERT))
-        return noneInCommon;
+        return extCommunityfilter.match(extendedCommunities, matchSetOptions);
     }
 
     @Override
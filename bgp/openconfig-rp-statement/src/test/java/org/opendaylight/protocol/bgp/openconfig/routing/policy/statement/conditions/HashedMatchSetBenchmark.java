@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Communities;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.CommunitiesBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures matching of route communities against a large community set, as done by
+ * {@link MatchCommunitySetHandler} for every route passing through a statement referencing the set. Run via
+ * {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class HashedMatchSetBenchmark {
+    @Param({"10000"})
+    public int setSize;
+
+    @Param({"8"})
+    public int routeCommunities;
+
+    @Param({"ANY", "ALL", "INVERT"})
+    public MatchSetOptionsType matchSetOptions;
+
+    private HashedMatchSet<Communities> set;
+    private List<Communities> hit;
+    private List<Communities> miss;
+
+    @Setup
+    public void setup() {
+        final List<Communities> members = new ArrayList<>(this.setSize);
+        for (int i = 0; i < this.setSize; i++) {
+            members.add(createCommunity(i));
+        }
+        this.set = HashedMatchSet.of(members);
+
+        this.hit = new ArrayList<>(this.routeCommunities);
+        this.miss = new ArrayList<>(this.routeCommunities);
+        for (int i = 0; i < this.routeCommunities; i++) {
+            this.hit.add(createCommunity(this.setSize - 1 - i));
+            this.miss.add(createCommunity(this.setSize + i));
+        }
+    }
+
+    @Benchmark
+    public boolean matchHit() {
+        return this.set.match(this.hit, this.matchSetOptions);
+    }
+
+    @Benchmark
+    public boolean matchMiss() {
+        return this.set.match(this.miss, this.matchSetOptions);
+    }
+
+    private static Communities createCommunity(final int value) {
+        return new CommunitiesBuilder().setAsNumber(new AsNumber((long) (value >>> 16)))
+                .setSemantics(value & 0xFFFF).build();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HashedMatchSetBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.openconfig.routing.policy.statement.conditions;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151009.MatchSetOptionsType;
+
+public class HashedMatchSetTest {
+    private final HashedMatchSet<Long> set = HashedMatchSet.of(Arrays.asList(1L, 2L, 3L));
+
+    @Test
+    public void testMatchAll() {
+        assertTrue(this.set.match(Arrays.asList(3L, 2L, 1L), MatchSetOptionsType.ALL));
+        assertTrue(this.set.match(Arrays.asList(3L, 2L, 1L, 1L), MatchSetOptionsType.ALL));
+        assertFalse(this.set.match(Arrays.asList(1L, 2L, 2L), MatchSetOptionsType.ALL));
+        assertFalse(this.set.match(Arrays.asList(1L, 2L, 3L, 4L), MatchSetOptionsType.ALL));
+        assertFalse(this.set.match(null, MatchSetOptionsType.ALL));
+    }
+
+    @Test
+    public void testMatchAny() {
+        assertTrue(this.set.match(Arrays.asList(5L, 3L), MatchSetOptionsType.ANY));
+        assertFalse(this.set.match(Arrays.asList(5L, 6L), MatchSetOptionsType.ANY));
+        assertFalse(this.set.match(Collections.emptyList(), MatchSetOptionsType.ANY));
+        assertFalse(this.set.match(null, MatchSetOptionsType.ANY));
+    }
+
+    @Test
+    public void testMatchInvert() {
+        assertFalse(this.set.match(Arrays.asList(5L, 3L), MatchSetOptionsType.INVERT));
+        assertTrue(this.set.match(Arrays.asList(5L, 6L), MatchSetOptionsType.INVERT));
+        assertTrue(this.set.match(null, MatchSetOptionsType.INVERT));
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(HashedMatchSet.of(null).isEmpty());
+        assertTrue(HashedMatchSet.of(Collections.emptyList()).isEmpty());
+        assertFalse(this.set.isEmpty());
+        assertTrue(this.set.contains(2L));
+        assertFalse(this.set.contains(4L));
+    }
+}
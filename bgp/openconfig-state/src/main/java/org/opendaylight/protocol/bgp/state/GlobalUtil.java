@@ -8,8 +8,12 @@
 
 package org.opendaylight.protocol.bgp.state;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
@@ -24,6 +28,8 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.t
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.types.rev151009.AfiSafiType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.GlobalAfiSafiStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.global.afi.safis.afi.safi.state.LocRibShard;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.global.afi.safis.afi.safi.state.LocRibShardBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 
 public final class GlobalUtil {
@@ -94,7 +100,28 @@ public final class GlobalUtil {
                 .addAugmentation(GlobalAfiSafiStateAugmentation.class, new GlobalAfiSafiStateAugmentationBuilder()
                         .setTotalPaths(ribState.getPathCount(tablesKey))
                         .setTotalPrefixes(ribState.getPrefixesCount(tablesKey))
+                        .setLocRibShard(buildLocRibShards(ribState, tablesKey))
                         .build()).build();
         return new AfiSafiBuilder().setAfiSafiName(optAfiSafi.get()).setState(state).build();
     }
+
+    /**
+     * Build Loc-RIB shards State.
+     *
+     * @param ribState  containing RIb Operational State
+     * @param tablesKey table Key
+     * @return per shard Operational State
+     */
+    public static List<LocRibShard> buildLocRibShards(final BGPRibState ribState, final TablesKey tablesKey) {
+        final List<Long> latencies = ribState.getLocRibShardSelectionLatencies()
+                .getOrDefault(tablesKey, Collections.emptyList());
+        final List<LocRibShard> shards = new ArrayList<>(latencies.size());
+        for (int i = 0; i < latencies.size(); i++) {
+            shards.add(new LocRibShardBuilder()
+                    .setIndex(i)
+                    .setSelectionLatency(BigInteger.valueOf(TimeUnit.NANOSECONDS.toMicros(latencies.get(i))))
+                    .build());
+        }
+        return shards;
+    }
 }
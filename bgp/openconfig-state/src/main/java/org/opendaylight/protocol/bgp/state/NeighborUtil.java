@@ -75,7 +75,13 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTimersStateAugmentationBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTransportStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTransportStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.AdjRibIn;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.AdjRibInBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.AttributesCache;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.AttributesCacheBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.MessagesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.Queues;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.QueuesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.Received;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.ReceivedBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.Sent;
@@ -281,7 +287,37 @@ public final class NeighborUtil {
         return new BgpNeighborStateAugmentationBuilder()
                 .setMessages(new MessagesBuilder()
                         .setReceived(buildMessagesReceived(neighbor))
-                        .setSent(buildMessagesSent(neighbor)).build()).build();
+                        .setSent(buildMessagesSent(neighbor)).build())
+                .setQueues(buildQueues(neighbor))
+                .setAdjRibIn(buildAdjRibIn(neighbor))
+                .setAttributesCache(buildAttributesCache(neighbor)).build();
+    }
+
+    private static AdjRibIn buildAdjRibIn(@Nonnull final BGPPeerMessagesState neighbor) {
+        return new AdjRibInBuilder()
+                .setBatchSize(toUint32(neighbor.getAdjRibInBatchSize()))
+                .setMaxBatchSize(toUint32(neighbor.getAdjRibInMaxBatchSize()))
+                .setCommitLatency(toBigInteger(neighbor.getAdjRibInCommitLatency()))
+                .setMaxCommitLatency(toBigInteger(neighbor.getAdjRibInMaxCommitLatency()))
+                .build();
+    }
+
+    private static AttributesCache buildAttributesCache(@Nonnull final BGPPeerMessagesState neighbor) {
+        return new AttributesCacheBuilder()
+                .setHits(toBigInteger(neighbor.getAttributesCacheHits()))
+                .setMisses(toBigInteger(neighbor.getAttributesCacheMisses()))
+                .build();
+    }
+
+    private static Queues buildQueues(@Nonnull final BGPPeerMessagesState neighbor) {
+        return new QueuesBuilder()
+                .setOutput(toUint32(neighbor.getOutputQueueMessagesCount()))
+                .setOutputBytes(toBigInteger(neighbor.getOutputQueueBytes()))
+                .setOutputStallTime(toBigInteger(neighbor.getOutputQueueStallTime()))
+                .setAdjRibOutPending(toUint32(neighbor.getAdjRibOutPendingCount()))
+                .setAdjRibOutLatency(toBigInteger(neighbor.getAdjRibOutLatency()))
+                .setAdjRibOutMaxLatency(toBigInteger(neighbor.getAdjRibOutMaxLatency()))
+                .build();
     }
 
     private static Received buildMessagesReceived(@Nonnull final BGPPeerMessagesState neighbor) {
@@ -291,6 +327,10 @@ public final class NeighborUtil {
                 .build();
     }
 
+    private static long toUint32(final long counter) {
+        return Math.min(counter, UnsignedInteger.MAX_VALUE.longValue());
+    }
+
     public static BigInteger toBigInteger(final long updateReceivedCounter) {
         return UnsignedLong.valueOf(updateReceivedCounter).bigIntegerValue();
     }
@@ -11,12 +11,18 @@ package org.opendaylight.protocol.bgp.state;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.Executors;
@@ -25,6 +31,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import org.opendaylight.controller.md.sal.binding.api.BindingTransactionChain;
@@ -34,11 +41,16 @@ import org.opendaylight.controller.md.sal.common.api.data.AsyncTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChain;
 import org.opendaylight.controller.md.sal.common.api.data.TransactionChainListener;
+import org.opendaylight.controller.sal.binding.api.BindingAwareBroker.RpcRegistration;
+import org.opendaylight.controller.sal.binding.api.RpcProviderRegistry;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPPeerState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibState;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPStateConsumer;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.neighbors.Neighbor;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.neighbors.NeighborBuilder;
+import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.neighbors.NeighborKey;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.top.Bgp;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.top.BgpBuilder;
 import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.bgp.rev151009.bgp.top.bgp.Global;
@@ -54,25 +66,53 @@ import org.opendaylight.yang.gen.v1.http.openconfig.net.yang.policy.types.rev151
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NetworkInstanceProtocol;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.Rib;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.RibKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.state.config.rev161107.BgpStateConfigService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.state.config.rev161107.RefreshBgpStateInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.state.config.rev161107.RefreshBgpStateOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.state.config.rev161107.RefreshBgpStateOutputBuilder;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Periodically publishes BGP operational state to the openconfig network instance tree. Each tick compares the
+ * current state of every RIB and neighbor with what was published last and writes only the parts which differ.
+ * Ticks which find nothing changed make the provider back off up to the configured maximum interval. Complete state,
+ * including neighbor uptime, is published once every configured number of ticks, and on demand through
+ * {@link #refreshBgpState(RefreshBgpStateInput)}.
+ */
 @ThreadSafe
-public final class StateProviderImpl implements TransactionChainListener, AutoCloseable {
+public final class StateProviderImpl implements TransactionChainListener, BgpStateConfigService, AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(StateProviderImpl.class);
     private final BGPStateConsumer stateCollector;
     private final BGPTableTypeRegistryConsumer bgpTableTypeRegistry;
     private final KeyedInstanceIdentifier<NetworkInstance, NetworkInstanceKey> networkInstanceIId;
     private final int timeout;
+    private final int maxTicksPerPoll;
+    private final int fullRefreshTicks;
     private final DataBroker dataBroker;
+    private final RpcProviderRegistry rpcRegistry;
     @GuardedBy("this")
     private final Map<String, InstanceIdentifier<Bgp>> instanceIdentifiersCache = new HashMap<>();
     @GuardedBy("this")
+    private final Map<String, PublishedState> publishedStates = new HashMap<>();
+    @GuardedBy("this")
     private BindingTransactionChain transactionChain;
     @GuardedBy("this")
+    private WriteTransaction pendingTx;
+    @GuardedBy("this")
     private ScheduledFuture<?> scheduleTask;
+    @GuardedBy("this")
+    private RpcRegistration<BgpStateConfigService> rpcRegistration;
+    @GuardedBy("this")
+    private int ticksPerPoll = 1;
+    @GuardedBy("this")
+    private int ticksSincePoll;
+    @GuardedBy("this")
+    private int ticksSinceFullRefresh;
     private final ScheduledExecutorService scheduler;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
@@ -84,73 +124,133 @@ public final class StateProviderImpl implements TransactionChainListener, AutoCl
                 Executors.newScheduledThreadPool(1));
     }
 
+    public StateProviderImpl(@Nonnull final DataBroker dataBroker, final int timeout, final int maxTimeout,
+            final int fullRefreshTimeout,
+            @Nonnull final BGPTableTypeRegistryConsumer bgpTableTypeRegistry,
+            @Nonnull final BGPStateConsumer stateCollector,
+            @Nonnull final String networkInstanceName,
+            @Nonnull final RpcProviderRegistry rpcRegistry) {
+        this(dataBroker, timeout, maxTimeout, fullRefreshTimeout, bgpTableTypeRegistry, stateCollector,
+                networkInstanceName, requireNonNull(rpcRegistry), Executors.newScheduledThreadPool(1));
+    }
+
     public StateProviderImpl(@Nonnull final DataBroker dataBroker, final int timeout,
             @Nonnull final BGPTableTypeRegistryConsumer bgpTableTypeRegistry,
             @Nonnull final BGPStateConsumer stateCollector,
             @Nonnull final String networkInstanceName,
             @Nonnull final ScheduledExecutorService scheduler) {
+        this(dataBroker, timeout, timeout, timeout, bgpTableTypeRegistry, stateCollector, networkInstanceName, null,
+                scheduler);
+    }
+
+    @VisibleForTesting
+    StateProviderImpl(@Nonnull final DataBroker dataBroker, final int timeout, final int maxTimeout,
+            final int fullRefreshTimeout,
+            @Nonnull final BGPTableTypeRegistryConsumer bgpTableTypeRegistry,
+            @Nonnull final BGPStateConsumer stateCollector,
+            @Nonnull final String networkInstanceName,
+            @Nullable final RpcProviderRegistry rpcRegistry,
+            @Nonnull final ScheduledExecutorService scheduler) {
         this.dataBroker = requireNonNull(dataBroker);
         this.bgpTableTypeRegistry = requireNonNull(bgpTableTypeRegistry);
         this.stateCollector = requireNonNull(stateCollector);
         this.networkInstanceIId = InstanceIdentifier.create(NetworkInstances.class)
                 .child(NetworkInstance.class, new NetworkInstanceKey(networkInstanceName));
         this.timeout = timeout;
+        this.maxTicksPerPoll = Math.max(1, maxTimeout / Math.max(1, timeout));
+        this.fullRefreshTicks = fullRefreshTimeout <= 0 ? 0 : Math.max(1, fullRefreshTimeout / Math.max(1, timeout));
+        this.rpcRegistry = rpcRegistry;
         this.scheduler = scheduler;
     }
 
     public synchronized void init() {
         this.transactionChain = this.dataBroker.createTransactionChain(this);
+        this.ticksSinceFullRefresh = 0;
+        if (this.rpcRegistry != null) {
+            this.rpcRegistration = this.rpcRegistry.addRpcImplementation(BgpStateConfigService.class, this);
+        }
         final TimerTask task = new TimerTask() {
             @Override
-            @SuppressWarnings("checkstyle:IllegalCatch")
             public void run() {
-                synchronized (StateProviderImpl.this) {
-                    final WriteTransaction wTx = StateProviderImpl.this.transactionChain.newWriteOnlyTransaction();
-                    try {
-                        updateBGPStats(wTx);
-
-                        wTx.commit().addCallback(new FutureCallback<CommitInfo>() {
-                            @Override
-                            public void onSuccess(CommitInfo result) {
-                                LOG.debug("Successfully committed BGP stats update");
-                            }
-
-                            @Override
-                            public void onFailure(Throwable ex) {
-                                LOG.error("Failed to commit BGP stats update", ex);
-                            }
-                        }, MoreExecutors.directExecutor());
-                    } catch (final Exception e) {
-                        LOG.warn("Failed to prepare Tx for BGP stats update", e);
-                        wTx.cancel();
-                    }
-                }
+                onTick();
             }
         };
 
         this.scheduleTask = this.scheduler.scheduleAtFixedRate(task, 0, this.timeout, SECONDS);
     }
 
-    private synchronized void updateBGPStats(final WriteTransaction wtx) {
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private synchronized void onTick() {
+        ++this.ticksSinceFullRefresh;
+        if (++this.ticksSincePoll < this.ticksPerPoll) {
+            return;
+        }
+        this.ticksSincePoll = 0;
+
+        final boolean changed;
+        try {
+            changed = updateBGPStats(isFullRefreshDue());
+        } catch (final Exception e) {
+            LOG.warn("Failed to prepare Tx for BGP stats update", e);
+            if (this.pendingTx != null) {
+                this.pendingTx.cancel();
+                this.pendingTx = null;
+            }
+            this.publishedStates.clear();
+            this.ticksPerPoll = 1;
+            return;
+        }
+        commitPendingTransaction();
+
+        // Back off while nothing changes, resume the configured rate as soon as something does
+        this.ticksPerPoll = changed ? 1 : Math.min(this.ticksPerPoll * 2, this.maxTicksPerPoll);
+    }
+
+    @GuardedBy("this")
+    private boolean isFullRefreshDue() {
+        return this.fullRefreshTicks > 0 && this.ticksSinceFullRefresh >= this.fullRefreshTicks;
+    }
+
+    /**
+     * Publish state of all active RIBs and their neighbors into the pending transaction.
+     *
+     * @param fullRefresh true if complete state should be written, false if only state which changed since the last
+     *                    publication should be written
+     * @return true if any state changed since the last publication
+     */
+    private synchronized boolean updateBGPStats(final boolean fullRefresh) {
         final Set<String> oldStats = new HashSet<>(this.instanceIdentifiersCache.keySet());
-        this.stateCollector.getRibStats().stream().filter(BGPRibState::isActive).forEach(bgpStateConsumer -> {
+        boolean changed = false;
+        for (final BGPRibState bgpStateConsumer : this.stateCollector.getRibStats()) {
+            if (!bgpStateConsumer.isActive()) {
+                continue;
+            }
             final KeyedInstanceIdentifier<Rib, RibKey> ribId = bgpStateConsumer.getInstanceIdentifier();
             final List<BGPPeerState> peerStats = this.stateCollector.getPeerStats().stream()
                     .filter(BGPPeerState::isActive).filter(peerState -> ribId.equals(peerState.getInstanceIdentifier()))
                     .collect(Collectors.toList());
-            storeOperationalState(bgpStateConsumer, peerStats, ribId.getKey().getId().getValue(), wtx);
+            changed |= storeOperationalState(bgpStateConsumer, peerStats, ribId.getKey().getId().getValue(),
+                fullRefresh);
             oldStats.remove(ribId.getKey().getId().getValue());
-        });
-        oldStats.forEach(ribId -> removeStoredOperationalState(ribId, wtx));
+        }
+        for (final String ribId : oldStats) {
+            removeStoredOperationalState(ribId, pendingTransaction());
+            changed = true;
+        }
+        if (fullRefresh) {
+            this.ticksSinceFullRefresh = 0;
+        }
+        return changed;
     }
 
     private synchronized void removeStoredOperationalState(final String ribId, final WriteTransaction wtx) {
         final InstanceIdentifier<Bgp> bgpIID = this.instanceIdentifiersCache.remove(ribId);
+        this.publishedStates.remove(ribId);
         wtx.delete(LogicalDatastoreType.OPERATIONAL, bgpIID);
     }
 
-    private synchronized void storeOperationalState(final BGPRibState bgpStateConsumer,
-            final List<BGPPeerState> peerStats, final String ribId, final WriteTransaction wtx) {
+    private synchronized boolean storeOperationalState(final BGPRibState bgpStateConsumer,
+            final List<BGPPeerState> peerStats, final String ribId, final boolean fullRefresh) {
         final Global global = GlobalUtil.buildGlobal(bgpStateConsumer, this.bgpTableTypeRegistry);
         final PeerGroups peerGroups = PeerGroupUtil.buildPeerGroups(peerStats);
         final Neighbors neighbors = NeighborUtil.buildNeighbors(peerStats, this.bgpTableTypeRegistry);
@@ -164,18 +264,114 @@ public final class StateProviderImpl implements TransactionChainListener, AutoCl
             this.instanceIdentifiersCache.put(ribId, bgpIID);
         }
 
-        final Bgp bgp = new BgpBuilder().setGlobal(global).setNeighbors(neighbors).setPeerGroups(peerGroups).build();
-        wtx.put(LogicalDatastoreType.OPERATIONAL, bgpIID, bgp, WriteTransaction.CREATE_MISSING_PARENTS);
+        final PublishedState published = this.publishedStates.get(ribId);
+        if (published == null || fullRefresh) {
+            final Bgp bgp = new BgpBuilder().setGlobal(global).setNeighbors(neighbors).setPeerGroups(peerGroups)
+                    .build();
+            pendingTransaction().put(LogicalDatastoreType.OPERATIONAL, bgpIID, bgp,
+                WriteTransaction.CREATE_MISSING_PARENTS);
+            final PublishedState current = new PublishedState(global, peerGroups, neighbors);
+            this.publishedStates.put(ribId, current);
+            return !current.equals(published);
+        }
+
+        boolean changed = false;
+        if (!global.equals(published.global)) {
+            pendingTransaction().put(LogicalDatastoreType.OPERATIONAL, bgpIID.child(Global.class), global,
+                WriteTransaction.CREATE_MISSING_PARENTS);
+            published.global = global;
+            changed = true;
+        }
+        if (!Objects.equals(peerGroups, published.peerGroups)) {
+            if (peerGroups == null) {
+                pendingTransaction().delete(LogicalDatastoreType.OPERATIONAL, bgpIID.child(PeerGroups.class));
+            } else {
+                pendingTransaction().put(LogicalDatastoreType.OPERATIONAL, bgpIID.child(PeerGroups.class), peerGroups,
+                    WriteTransaction.CREATE_MISSING_PARENTS);
+            }
+            published.peerGroups = peerGroups;
+            changed = true;
+        }
+        if (neighbors == null) {
+            if (!published.neighbors.isEmpty()) {
+                pendingTransaction().delete(LogicalDatastoreType.OPERATIONAL, bgpIID.child(Neighbors.class));
+                published.neighbors.clear();
+                changed = true;
+            }
+            return changed;
+        }
+
+        final Set<NeighborKey> withdrawn = new HashSet<>(published.neighbors.keySet());
+        for (final Neighbor neighbor : neighbors.getNeighbor()) {
+            final NeighborKey key = neighbor.key();
+            withdrawn.remove(key);
+            final Neighbor tracked = PublishedState.tracked(neighbor);
+            if (!tracked.equals(published.neighbors.put(key, tracked))) {
+                pendingTransaction().put(LogicalDatastoreType.OPERATIONAL,
+                    bgpIID.child(Neighbors.class).child(Neighbor.class, key), neighbor,
+                    WriteTransaction.CREATE_MISSING_PARENTS);
+                changed = true;
+            }
+        }
+        for (final NeighborKey key : withdrawn) {
+            published.neighbors.remove(key);
+            pendingTransaction().delete(LogicalDatastoreType.OPERATIONAL,
+                bgpIID.child(Neighbors.class).child(Neighbor.class, key));
+            changed = true;
+        }
+        return changed;
+    }
+
+    @GuardedBy("this")
+    private WriteTransaction pendingTransaction() {
+        if (this.pendingTx == null) {
+            this.pendingTx = this.transactionChain.newWriteOnlyTransaction();
+        }
+        return this.pendingTx;
+    }
+
+    private synchronized FluentFuture<? extends CommitInfo> commitPendingTransaction() {
+        final WriteTransaction wTx = this.pendingTx;
+        if (wTx == null) {
+            return CommitInfo.emptyFluentFuture();
+        }
+        this.pendingTx = null;
+
+        final FluentFuture<? extends CommitInfo> future = wTx.commit();
+        future.addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.debug("Successfully committed BGP stats update");
+            }
+
+            @Override
+            public void onFailure(final Throwable ex) {
+                LOG.error("Failed to commit BGP stats update", ex);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    @Override
+    public synchronized ListenableFuture<RpcResult<RefreshBgpStateOutput>> refreshBgpState(
+            final RefreshBgpStateInput input) {
+        updateBGPStats(true);
+        return Futures.transform(commitPendingTransaction(),
+            result -> RpcResultBuilder.success(new RefreshBgpStateOutputBuilder().build()).build(),
+            MoreExecutors.directExecutor());
     }
 
     @Override
     public synchronized void close() {
         if (closed.compareAndSet(false, true)) {
+            if (this.rpcRegistration != null) {
+                this.rpcRegistration.close();
+            }
             this.scheduleTask.cancel(true);
             if (!this.instanceIdentifiersCache.keySet().isEmpty()) {
                 final WriteTransaction wTx = this.transactionChain.newWriteOnlyTransaction();
-                this.instanceIdentifiersCache.keySet().iterator()
-                .forEachRemaining(ribId -> removeStoredOperationalState(ribId, wTx));
+                new ArrayList<>(this.instanceIdentifiersCache.keySet())
+                .forEach(ribId -> removeStoredOperationalState(ribId, wTx));
                 wTx.commit().addCallback(new FutureCallback<CommitInfo>() {
                     @Override
                     public void onSuccess(final CommitInfo result) {
@@ -200,6 +396,10 @@ public final class StateProviderImpl implements TransactionChainListener, AutoCl
                 chain, transaction != null ? transaction.getIdentifier() : null, cause);
 
         if (!closed.get()) {
+            // What was published is no longer known, make sure the next tick writes everything
+            this.publishedStates.clear();
+            this.pendingTx = null;
+            this.ticksPerPoll = 1;
             transactionChain.close();
             transactionChain = dataBroker.createTransactionChain(this);
         }
@@ -209,4 +409,44 @@ public final class StateProviderImpl implements TransactionChainListener, AutoCl
     public void onTransactionChainSuccessful(final TransactionChain<?, ?> chain) {
         LOG.debug("Transaction chain {} successful.", chain);
     }
+
+    /**
+     * State of a single RIB as last written to the datastore. Neighbors are tracked without their timers, as uptime
+     * changes on every tick, and are refreshed whenever anything else about them changes or a full refresh occurs.
+     */
+    private static final class PublishedState {
+        private final Map<NeighborKey, Neighbor> neighbors = new HashMap<>();
+        private Global global;
+        private PeerGroups peerGroups;
+
+        PublishedState(final Global global, final PeerGroups peerGroups, final Neighbors neighbors) {
+            this.global = global;
+            this.peerGroups = peerGroups;
+            if (neighbors != null) {
+                neighbors.getNeighbor().forEach(neighbor -> this.neighbors.put(neighbor.key(), tracked(neighbor)));
+            }
+        }
+
+        static Neighbor tracked(final Neighbor neighbor) {
+            return new NeighborBuilder(neighbor).setTimers(null).build();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.global, this.peerGroups, this.neighbors);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof PublishedState)) {
+                return false;
+            }
+            final PublishedState other = (PublishedState) obj;
+            return Objects.equals(this.global, other.global) && Objects.equals(this.peerGroups, other.peerGroups)
+                    && this.neighbors.equals(other.neighbors);
+        }
+    }
 }
@@ -44,6 +44,7 @@ import java.util.concurrent.atomic.LongAdder;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.AdditionalAnswers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -133,7 +134,11 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NetworkInstanceProtocol;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupStateAugmentation;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupStateAugmentationBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.global.afi.safis.afi.safi.state.LocRibShardBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.AdjRibInBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.AttributesCacheBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.MessagesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.QueuesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.ReceivedBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.network.instances.network.instance.protocols.protocol.bgp.neighbors.neighbor.state.messages.SentBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.BgpRib;
@@ -141,6 +146,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.Rib;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.RibKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.state.config.rev161107.RefreshBgpStateInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
@@ -223,6 +229,8 @@ public class StateProviderImplTest extends ConstantSchemaAbstractDataBrokerTest
             this.totalPrefixesCounter.longValue())).when(this.bgpRibState).getTablesPrefixesCount();
         doAnswer(invocation -> Collections.singletonMap(TABLES_KEY,
             this.totalPathsCounter.longValue())).when(this.bgpRibState).getPathsCount();
+        doReturn(Collections.singletonMap(TABLES_KEY, Collections.singletonList(2000L)))
+                .when(this.bgpRibState).getLocRibShardSelectionLatencies();
 
         // Mock Peer
         doReturn("test-group").when(this.bgpPeerState).getGroupId();
@@ -237,6 +245,18 @@ public class StateProviderImplTest extends ConstantSchemaAbstractDataBrokerTest
         doReturn(1L).when(this.bgpPeerMessagesState).getNotificationMessagesSentCount();
         doReturn(1L).when(this.bgpPeerMessagesState).getUpdateMessagesReceivedCount();
         doReturn(1L).when(this.bgpPeerMessagesState).getUpdateMessagesSentCount();
+        doReturn(1L).when(this.bgpPeerMessagesState).getOutputQueueMessagesCount();
+        doReturn(1L).when(this.bgpPeerMessagesState).getOutputQueueBytes();
+        doReturn(1L).when(this.bgpPeerMessagesState).getOutputQueueStallTime();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibOutPendingCount();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibOutLatency();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibOutMaxLatency();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAttributesCacheHits();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAttributesCacheMisses();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibInBatchSize();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibInMaxBatchSize();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibInCommitLatency();
+        doReturn(1L).when(this.bgpPeerMessagesState).getAdjRibInMaxCommitLatency();
         doReturn(State.UP).when(this.bgpSessionState).getSessionState();
         doReturn(true).when(this.bgpSessionState).isAddPathCapabilitySupported();
         doReturn(true).when(this.bgpSessionState).isAsn32CapabilitySupported();
@@ -470,11 +490,91 @@ public class StateProviderImplTest extends ConstantSchemaAbstractDataBrokerTest
         }
     }
 
+    @Test
+    public void testPublishChangedStateOnly() throws Exception {
+        doReturn(true).when(this.bgpRibState).isActive();
+        doReturn(true).when(this.bgpPeerState).isActive();
+        this.bgpRibStates.add(this.bgpRibState);
+        this.bgpPeerStates.add(this.bgpPeerState);
+
+        final ScheduledExecutorService mockScheduler = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class)).when(mockScheduler).scheduleAtFixedRate(any(Runnable.class), anyLong(),
+                anyLong(), any(TimeUnit.class));
+
+        final List<DOMStoreTransactionChain> txChains = new ArrayList<>();
+        doAnswer(invocation -> {
+            final DOMStoreTransactionChain txChain = mock(DOMStoreTransactionChain.class,
+                AdditionalAnswers.delegatesTo(this.realOperStore.createTransactionChain()));
+            txChains.add(txChain);
+            return txChain;
+        }).when(this.spiedOperStore).createTransactionChain();
+
+        try (StateProviderImpl stateProvider = new StateProviderImpl(getDataBroker(), 10, 40, 0,
+                this.tableTypeRegistry, this.stateCollector, "global-bgp", null, mockScheduler)) {
+            stateProvider.init();
+
+            final ArgumentCaptor<Runnable> timerTask = ArgumentCaptor.forClass(Runnable.class);
+            verify(mockScheduler).scheduleAtFixedRate(timerTask.capture(), eq(0L), eq(10L), eq(TimeUnit.SECONDS));
+            final DOMStoreTransactionChain txChain = txChains.get(0);
+
+            timerTask.getValue().run();
+            final Global globalExpected = buildGlobalExpected(0);
+            readDataOperational(getDataBroker(), this.bgpInstanceIdentifier, bgpRib -> {
+                assertEquals(globalExpected, bgpRib.getGlobal());
+                Assert.assertNotNull(bgpRib.getNeighbors());
+                return bgpRib;
+            });
+            verify(txChain, times(1)).newWriteOnlyTransaction();
+
+            // Nothing changed, nothing is written and polling backs off to every second and then fourth tick
+            timerTask.getValue().run();
+            timerTask.getValue().run();
+            timerTask.getValue().run();
+            verify(txChain, times(1)).newWriteOnlyTransaction();
+
+            this.totalPathsCounter.increment();
+            this.totalPrefixesCounter.increment();
+            timerTask.getValue().run();
+            timerTask.getValue().run();
+            timerTask.getValue().run();
+            verify(txChain, times(1)).newWriteOnlyTransaction();
+            timerTask.getValue().run();
+            verify(txChain, times(2)).newWriteOnlyTransaction();
+            final Global globalExpected2 = buildGlobalExpected(1);
+            readDataOperational(getDataBroker(), this.bgpInstanceIdentifier, bgpRib -> {
+                assertEquals(globalExpected2, bgpRib.getGlobal());
+                return bgpRib;
+            });
+
+            // Snapshot is written on demand even though nothing changed
+            stateProvider.refreshBgpState(new RefreshBgpStateInputBuilder().build()).get();
+            verify(txChain, times(3)).newWriteOnlyTransaction();
+
+            // Change was seen recently, so the next tick polls and withdraws the neighbor
+            this.bgpPeerStates.clear();
+            timerTask.getValue().run();
+            verify(txChain, times(4)).newWriteOnlyTransaction();
+            readDataOperational(getDataBroker(), this.bgpInstanceIdentifier, bgpRib -> {
+                assertEquals(globalExpected2, bgpRib.getGlobal());
+                Assert.assertNull(bgpRib.getNeighbors());
+                Assert.assertNull(bgpRib.getPeerGroups());
+                return bgpRib;
+            });
+        }
+    }
+
     private static BgpNeighborStateAugmentation buildBgpNeighborStateAugmentation() {
         final BgpNeighborStateAugmentation augmentation = new BgpNeighborStateAugmentationBuilder()
                 .setMessages(new MessagesBuilder().setReceived(new ReceivedBuilder()
                         .setNOTIFICATION(BigInteger.ONE).setUPDATE(BigInteger.ONE).build())
                         .setSent(new SentBuilder().setNOTIFICATION(BigInteger.ONE).setUPDATE(BigInteger.ONE).build())
+                        .build())
+                .setQueues(new QueuesBuilder().setOutput(1L).setOutputBytes(BigInteger.ONE)
+                        .setOutputStallTime(BigInteger.ONE).setAdjRibOutPending(1L)
+                        .setAdjRibOutLatency(BigInteger.ONE).setAdjRibOutMaxLatency(BigInteger.ONE).build())
+                .setAdjRibIn(new AdjRibInBuilder().setBatchSize(1L).setMaxBatchSize(1L)
+                        .setCommitLatency(BigInteger.ONE).setMaxCommitLatency(BigInteger.ONE).build())
+                .setAttributesCache(new AttributesCacheBuilder().setHits(BigInteger.ONE).setMisses(BigInteger.ONE)
                         .build()).build();
         return augmentation;
     }
@@ -571,6 +671,9 @@ public class StateProviderImplTest extends ConstantSchemaAbstractDataBrokerTest
                                 .addAugmentation(GlobalAfiSafiStateAugmentation.class,
                                         new GlobalAfiSafiStateAugmentationBuilder()
                                                 .setTotalPaths(prefixesAndPaths).setTotalPrefixes(prefixesAndPaths)
+                                                .setLocRibShard(Collections.singletonList(new LocRibShardBuilder()
+                                                        .setIndex(0)
+                                                        .setSelectionLatency(BigInteger.valueOf(2)).build()))
                                                 .build()).build()).build()))
                         .build()).build();
     }
@@ -23,9 +23,12 @@ import org.opendaylight.protocol.bgp.parser.BGPParsingException;
 import org.opendaylight.protocol.bgp.parser.BGPTreatAsWithdrawException;
 import org.opendaylight.protocol.bgp.parser.BgpTableTypeImpl;
 import org.opendaylight.protocol.bgp.parser.impl.message.update.AsPathAttributeParser;
+import org.opendaylight.protocol.bgp.parser.impl.message.update.MPReachAttributeParser;
+import org.opendaylight.protocol.bgp.parser.impl.message.update.MPUnreachAttributeParser;
 import org.opendaylight.protocol.bgp.parser.impl.message.update.NextHopAttributeParser;
 import org.opendaylight.protocol.bgp.parser.impl.message.update.OriginAttributeParser;
 import org.opendaylight.protocol.bgp.parser.spi.AttributeRegistry;
+import org.opendaylight.protocol.bgp.parser.spi.AttributesCache;
 import org.opendaylight.protocol.bgp.parser.spi.MessageParser;
 import org.opendaylight.protocol.bgp.parser.spi.MessageSerializer;
 import org.opendaylight.protocol.bgp.parser.spi.MessageUtil;
@@ -74,6 +77,10 @@ public final class BGPUpdateMessageParser implements MessageParser, MessageSeria
 
     private static final int TOTAL_PATH_ATTR_LENGTH_SIZE = 2;
 
+    private static final int ATTRIBUTE_HEADER_LENGTH = 3;
+
+    private static final int EXTENDED_LENGTH_FLAG = 0x10;
+
     private final AttributeRegistry attrReg;
 
     private final NlriRegistry nlriReg;
@@ -88,30 +95,31 @@ public final class BGPUpdateMessageParser implements MessageParser, MessageSeria
         Preconditions.checkArgument(message instanceof Update, "Message needs to be of type Update");
         final Update update = (Update) message;
 
-        final ByteBuf messageBody = Unpooled.buffer();
+        // Encode directly into the target buffer, filling in length fields once their content has been written
+        final int messageStart = MessageUtil.startMessage(TYPE, bytes);
+        final int withdrawnRoutesStart = bytes.writerIndex();
+        bytes.writeZero(WITHDRAWN_ROUTES_LENGTH_SIZE);
         final List<WithdrawnRoutes> withdrawnRoutes = update.getWithdrawnRoutes();
         if (withdrawnRoutes != null) {
-            final ByteBuf withdrawnRoutesBuf = Unpooled.buffer();
-            withdrawnRoutes.forEach(withdrawnRoute -> writePathIdPrefix(withdrawnRoutesBuf, withdrawnRoute.getPathId(),
+            withdrawnRoutes.forEach(withdrawnRoute -> writePathIdPrefix(bytes, withdrawnRoute.getPathId(),
                     withdrawnRoute.getPrefix()));
-            messageBody.writeShort(withdrawnRoutesBuf.writerIndex());
-            messageBody.writeBytes(withdrawnRoutesBuf);
-        } else {
-            messageBody.writeZero(WITHDRAWN_ROUTES_LENGTH_SIZE);
+            setLength(bytes, withdrawnRoutesStart, WITHDRAWN_ROUTES_LENGTH_SIZE);
         }
+        final int pathAttributesStart = bytes.writerIndex();
+        bytes.writeZero(TOTAL_PATH_ATTR_LENGTH_SIZE);
         if (update.getAttributes() != null) {
-            final ByteBuf pathAttributesBuf = Unpooled.buffer();
-            this.attrReg.serializeAttribute(update.getAttributes(), pathAttributesBuf);
-            messageBody.writeShort(pathAttributesBuf.writerIndex());
-            messageBody.writeBytes(pathAttributesBuf);
-        } else {
-            messageBody.writeZero(TOTAL_PATH_ATTR_LENGTH_SIZE);
+            this.attrReg.serializeAttribute(update.getAttributes(), bytes);
+            setLength(bytes, pathAttributesStart, TOTAL_PATH_ATTR_LENGTH_SIZE);
         }
         final List<Nlri> nlris = update.getNlri();
         if (nlris != null) {
-            nlris.forEach(nlri -> writePathIdPrefix(messageBody, nlri.getPathId(), nlri.getPrefix()));
+            nlris.forEach(nlri -> writePathIdPrefix(bytes, nlri.getPathId(), nlri.getPrefix()));
         }
-        MessageUtil.formatMessage(TYPE, messageBody, bytes);
+        MessageUtil.endMessage(bytes, messageStart);
+    }
+
+    private static void setLength(final ByteBuf bytes, final int lengthIndex, final int lengthSize) {
+        bytes.setShort(lengthIndex, bytes.writerIndex() - lengthIndex - lengthSize);
     }
 
     private static void writePathIdPrefix(final ByteBuf byteBuf, final PathId pathId, final Ipv4Prefix ipv4Prefix) {
@@ -204,17 +212,109 @@ public final class BGPUpdateMessageParser implements MessageParser, MessageSeria
         return msg;
     }
 
-    @SuppressWarnings("checkstyle:illegalCatch")
     private ParsedAttributes parseAttributes(final ByteBuf buffer, final int totalPathAttrLength,
             final PeerSpecificParserConstraint constraint) throws BGPDocumentedException {
+        final ByteBuf encoded = buffer.readSlice(totalPathAttrLength);
+        final AttributesCache cache = constraint == null ? null
+                : constraint.getPeerConstraint(AttributesCache.class).orElse(null);
+        final SplitAttributes split = cache == null ? null : SplitAttributes.split(encoded);
+        if (split == null || !split.common.isReadable()) {
+            return parseEncodedAttributes(encoded, constraint);
+        }
+
+        final Attributes cached = cache.getAttributes(split.common);
+        if (cached != null) {
+            if (split.multiprotocol == null) {
+                return new ParsedAttributes(cached, null);
+            }
+
+            final ParsedAttributes mp = parseEncodedAttributes(split.multiprotocol, constraint);
+            return new ParsedAttributes(new AttributesBuilder(cached)
+                .addAugmentation(Attributes1.class, mp.getAttributes().augmentation(Attributes1.class))
+                .addAugmentation(Attributes2.class, mp.getAttributes().augmentation(Attributes2.class))
+                .build(), mp.getWithdrawCause().orElse(null));
+        }
+
+        final ParsedAttributes parsed = parseEncodedAttributes(encoded, constraint);
+        // Treat-as-withdraw has to be re-evaluated for each message
+        if (!parsed.getWithdrawCause().isPresent()) {
+            final Attributes attributes = parsed.getAttributes();
+            cache.putAttributes(split.common, split.multiprotocol == null ? attributes
+                : new AttributesBuilder(attributes).addAugmentation(Attributes1.class, null)
+                    .addAugmentation(Attributes2.class, null).build());
+        }
+        return parsed;
+    }
+
+    @SuppressWarnings("checkstyle:illegalCatch")
+    private ParsedAttributes parseEncodedAttributes(final ByteBuf encoded,
+            final PeerSpecificParserConstraint constraint) throws BGPDocumentedException {
         try {
-            return attrReg.parseAttributes(buffer.readSlice(totalPathAttrLength), constraint);
+            return attrReg.parseAttributes(encoded.duplicate(), constraint);
         } catch (final RuntimeException | BGPParsingException e) {
             // Catch everything else and turn it into a BGPDocumentedException
             throw new BGPDocumentedException("Could not parse BGP attributes.", BGPError.MALFORMED_ATTR_LIST, e);
         }
     }
 
+    /*
+     * MP_REACH_NLRI and MP_UNREACH_NLRI carry the routes of the message, hence they do not repeat across messages even
+     * when the other attributes do. The encoding is split into the two, so the other attributes can be cached on their
+     * own and only the multiprotocol ones parsed for each message.
+     */
+    private static final class SplitAttributes {
+        final ByteBuf common;
+        final ByteBuf multiprotocol;
+
+        private SplitAttributes(final ByteBuf common, final ByteBuf multiprotocol) {
+            this.common = common;
+            this.multiprotocol = multiprotocol;
+        }
+
+        /*
+         * Walk the attribute headers without copying any data. Malformed encodings are not split, but left to the
+         * attribute parsers to report.
+         */
+        static SplitAttributes split(final ByteBuf encoded) {
+            final List<ByteBuf> common = new ArrayList<>();
+            final List<ByteBuf> multiprotocol = new ArrayList<>(2);
+            int offset = encoded.readerIndex();
+            final int end = encoded.writerIndex();
+            while (offset < end) {
+                if (end - offset < ATTRIBUTE_HEADER_LENGTH) {
+                    return null;
+                }
+                final int next;
+                if ((encoded.getUnsignedByte(offset) & EXTENDED_LENGTH_FLAG) != 0) {
+                    if (end - offset < ATTRIBUTE_HEADER_LENGTH + 1) {
+                        return null;
+                    }
+                    next = offset + ATTRIBUTE_HEADER_LENGTH + 1 + encoded.getUnsignedShort(offset + 2);
+                } else {
+                    next = offset + ATTRIBUTE_HEADER_LENGTH + encoded.getUnsignedByte(offset + 2);
+                }
+                if (next > end) {
+                    return null;
+                }
+
+                final int type = encoded.getUnsignedByte(offset + 1);
+                final ByteBuf attribute = encoded.slice(offset, next - offset);
+                if (type == MPReachAttributeParser.TYPE || type == MPUnreachAttributeParser.TYPE) {
+                    multiprotocol.add(attribute);
+                } else {
+                    common.add(attribute);
+                }
+                offset = next;
+            }
+
+            if (multiprotocol.isEmpty()) {
+                return new SplitAttributes(encoded, null);
+            }
+            return new SplitAttributes(Unpooled.wrappedBuffer(common.toArray(new ByteBuf[0])),
+                Unpooled.wrappedBuffer(multiprotocol.toArray(new ByteBuf[0])));
+        }
+    }
+
     private static Ipv4Prefix readPrefix(final ByteBuf buf, final RevisedErrorHandling errorHandling,
             final String fieldName) throws BGPDocumentedException {
         final int prefixLength = buf.readUnsignedByte();
@@ -10,7 +10,6 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 import static java.util.Objects.requireNonNull;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -63,20 +62,20 @@ public final class AsPathAttributeParser extends AbstractAttributeParser impleme
         if (asPath == null) {
             return;
         }
-        final ByteBuf segmentsBuffer = Unpooled.buffer();
+        final int start = AttributeUtil.startAttribute(AttributeUtil.TRANSITIVE, TYPE, byteAggregator);
         if (asPath.getSegments() != null) {
             for (final Segments segments : asPath.getSegments()) {
                 if (segments.getAsSequence() != null) {
                     AsPathSegmentParser.serializeAsList(segments.getAsSequence(), SegmentType.AS_SEQUENCE,
-                        segmentsBuffer);
+                        byteAggregator);
                 } else if (segments.getAsSet() != null) {
-                    AsPathSegmentParser.serializeAsList(segments.getAsSet(), SegmentType.AS_SET, segmentsBuffer);
+                    AsPathSegmentParser.serializeAsList(segments.getAsSet(), SegmentType.AS_SET, byteAggregator);
                 } else {
                     LOG.warn("Segment doesn't have AsSequence nor AsSet list.");
                 }
             }
         }
-        AttributeUtil.formatAttribute(AttributeUtil.TRANSITIVE, TYPE, segmentsBuffer, byteAggregator);
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 
     /**
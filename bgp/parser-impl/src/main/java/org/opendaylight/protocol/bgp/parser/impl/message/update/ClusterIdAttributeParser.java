@@ -8,7 +8,6 @@
 package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import java.util.List;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
@@ -71,10 +70,10 @@ public final class ClusterIdAttributeParser extends AbstractAttributeParser impl
         if (cluster == null || cluster.isEmpty()) {
             return;
         }
-        final ByteBuf clusterIdBuffer = Unpooled.buffer();
+        final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL, TYPE, byteAggregator);
         for (final ClusterIdentifier clusterIdentifier : cid.getCluster()) {
-            clusterIdBuffer.writeBytes(Ipv4Util.bytesForAddress(clusterIdentifier));
+            byteAggregator.writeBytes(Ipv4Util.bytesForAddress(clusterIdentifier));
         }
-        AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL, TYPE, clusterIdBuffer, byteAggregator);
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 }
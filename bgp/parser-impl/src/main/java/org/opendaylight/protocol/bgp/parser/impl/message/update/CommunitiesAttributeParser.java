@@ -10,7 +10,6 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 import static java.util.Objects.requireNonNull;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -107,12 +106,12 @@ public final class CommunitiesAttributeParser extends AbstractAttributeParser im
         if (communities == null || communities.isEmpty()) {
             return;
         }
-        final ByteBuf communitiesBuffer = Unpooled.buffer();
+        final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL | AttributeUtil.TRANSITIVE, TYPE,
+                byteAggregator);
         for (final Community community : communities) {
-            communitiesBuffer.writeShort(community.getAsNumber().getValue().shortValue());
-            communitiesBuffer.writeShort(community.getSemantics().shortValue());
+            byteAggregator.writeShort(community.getAsNumber().getValue().shortValue());
+            byteAggregator.writeShort(community.getSemantics().shortValue());
         }
-        AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL | AttributeUtil.TRANSITIVE,
-                TYPE, communitiesBuffer, byteAggregator);
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 }
@@ -10,7 +10,6 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 import static java.util.Objects.requireNonNull;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import java.util.List;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
@@ -73,13 +72,16 @@ public final class ExtendedCommunitiesAttributeParser extends AbstractAttributeP
         if (communitiesList == null || communitiesList.isEmpty()) {
             return;
         }
-        final ByteBuf extendedCommunitiesBuffer = Unpooled.buffer();
+        final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL | AttributeUtil.TRANSITIVE, TYPE,
+                byteAggregator);
+        final int valueStart = byteAggregator.writerIndex();
         for (final ExtendedCommunities extendedCommunities : communitiesList) {
-            this.ecReg.serializeExtendedCommunity(extendedCommunities, extendedCommunitiesBuffer);
+            this.ecReg.serializeExtendedCommunity(extendedCommunities, byteAggregator);
         }
-        if (extendedCommunitiesBuffer.readableBytes() > 0) {
-            AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL | AttributeUtil.TRANSITIVE, TYPE,
-                    extendedCommunitiesBuffer, byteAggregator);
+        if (byteAggregator.writerIndex() > valueStart) {
+            AttributeUtil.endAttribute(byteAggregator, start);
+        } else {
+            byteAggregator.writerIndex(start);
         }
     }
 }
@@ -8,7 +8,6 @@
 package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BGPTreatAsWithdrawException;
@@ -53,8 +52,9 @@ public final class LocalPreferenceAttributeParser extends AbstractAttributeParse
         if (lp != null) {
             final Long pref = lp.getPref();
             if (pref != null) {
-                AttributeUtil.formatAttribute(AttributeUtil.TRANSITIVE, TYPE, Unpooled.copyInt(pref.intValue()),
-                    byteAggregator);
+                final int start = AttributeUtil.startAttribute(AttributeUtil.TRANSITIVE, TYPE, byteAggregator);
+                byteAggregator.writeInt(pref.intValue());
+                AttributeUtil.endAttribute(byteAggregator, start);
             }
         }
     }
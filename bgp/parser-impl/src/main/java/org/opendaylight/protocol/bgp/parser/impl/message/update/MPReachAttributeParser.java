@@ -10,7 +10,6 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 import static java.util.Objects.requireNonNull;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BGPParsingException;
@@ -55,12 +54,12 @@ public final class MPReachAttributeParser extends ReachAttributeParser {
             return;
         }
         final MpReachNlri mpReachNlri = pathAttributes1.getMpReachNlri();
-        final ByteBuf reachBuffer = Unpooled.buffer();
-        this.reg.serializeMpReach(mpReachNlri, reachBuffer);
+        final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL, TYPE, byteAggregator);
+        this.reg.serializeMpReach(mpReachNlri, byteAggregator);
 
         for (final NlriSerializer nlriSerializer : this.reg.getSerializers()) {
-            nlriSerializer.serializeAttribute(pathAttributes, reachBuffer);
+            nlriSerializer.serializeAttribute(pathAttributes, byteAggregator);
         }
-        AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL, TYPE, reachBuffer, byteAggregator);
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 }
@@ -10,7 +10,6 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 import static java.util.Objects.requireNonNull;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BGPParsingException;
@@ -55,11 +54,11 @@ public final class MPUnreachAttributeParser extends ReachAttributeParser {
             return;
         }
         final MpUnreachNlri mpUnreachNlri = pathAttributes2.getMpUnreachNlri();
-        final ByteBuf unreachBuffer = Unpooled.buffer();
-        this.reg.serializeMpUnReach(mpUnreachNlri, unreachBuffer);
+        final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL, TYPE, byteAggregator);
+        this.reg.serializeMpUnReach(mpUnreachNlri, byteAggregator);
         for (final NlriSerializer nlriSerializer : this.reg.getSerializers()) {
-            nlriSerializer.serializeAttribute(attribute, unreachBuffer);
+            nlriSerializer.serializeAttribute(attribute, byteAggregator);
         }
-        AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL, TYPE, unreachBuffer, byteAggregator);
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 }
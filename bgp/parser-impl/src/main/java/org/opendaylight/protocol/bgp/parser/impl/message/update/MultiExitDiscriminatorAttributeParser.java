@@ -8,7 +8,6 @@
 package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BGPTreatAsWithdrawException;
@@ -44,8 +43,9 @@ public final class MultiExitDiscriminatorAttributeParser extends AbstractAttribu
         if (multiExitDisc != null) {
             final Long med = multiExitDisc.getMed();
             if (med != null) {
-                AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL, TYPE, Unpooled.copyInt(med.intValue()),
-                    byteAggregator);
+                final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL, TYPE, byteAggregator);
+                byteAggregator.writeInt(med.intValue());
+                AttributeUtil.endAttribute(byteAggregator, start);
             }
         }
     }
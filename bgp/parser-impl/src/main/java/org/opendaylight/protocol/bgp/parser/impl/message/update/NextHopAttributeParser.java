@@ -11,7 +11,6 @@ import static org.opendaylight.protocol.util.Ipv4Util.IP4_LENGTH;
 import static org.opendaylight.protocol.util.Ipv6Util.IPV6_LENGTH;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.bgp.concepts.NextHopUtil;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
@@ -59,8 +58,8 @@ public final class NextHopAttributeParser extends AbstractAttributeParser implem
         if (cNextHop == null) {
             return;
         }
-        final ByteBuf nextHopBuffer = Unpooled.buffer();
-        NextHopUtil.serializeNextHop(cNextHop, nextHopBuffer);
-        AttributeUtil.formatAttribute(AttributeUtil.TRANSITIVE, TYPE, nextHopBuffer, byteAggregator);
+        final int start = AttributeUtil.startAttribute(AttributeUtil.TRANSITIVE, TYPE, byteAggregator);
+        NextHopUtil.serializeNextHop(cNextHop, byteAggregator);
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 }
@@ -9,7 +9,6 @@ package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import com.google.common.primitives.UnsignedBytes;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BGPTreatAsWithdrawException;
@@ -67,8 +66,8 @@ public final class OriginAttributeParser extends AbstractAttributeParser impleme
         if (origin == null) {
             return;
         }
-        AttributeUtil.formatAttribute(AttributeUtil.TRANSITIVE, TYPE,
-                Unpooled.wrappedBuffer(new byte[]{UnsignedBytes.checkedCast(origin.getValue().getIntValue())}),
-                byteAggregator);
+        final int start = AttributeUtil.startAttribute(AttributeUtil.TRANSITIVE, TYPE, byteAggregator);
+        byteAggregator.writeByte(UnsignedBytes.checkedCast(origin.getValue().getIntValue()));
+        AttributeUtil.endAttribute(byteAggregator, start);
     }
 }
@@ -8,7 +8,6 @@
 package org.opendaylight.protocol.bgp.parser.impl.message.update;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BGPTreatAsWithdrawException;
@@ -55,8 +54,9 @@ public final class OriginatorIdAttributeParser extends AbstractAttributeParser i
         if (originator != null) {
             final Ipv4Address address = originator.getOriginator();
             if (address != null) {
-                AttributeUtil.formatAttribute(AttributeUtil.OPTIONAL, TYPE,
-                    Unpooled.wrappedBuffer(Ipv4Util.bytesForAddress(address)), byteAggregator);
+                final int start = AttributeUtil.startAttribute(AttributeUtil.OPTIONAL, TYPE, byteAggregator);
+                byteAggregator.writeBytes(Ipv4Util.bytesForAddress(address));
+                AttributeUtil.endAttribute(byteAggregator, start);
             }
         }
     }
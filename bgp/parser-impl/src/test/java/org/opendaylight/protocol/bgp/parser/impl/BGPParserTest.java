@@ -11,6 +11,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 
 import com.google.common.collect.Lists;
@@ -29,11 +30,13 @@ import org.mockito.Mockito;
 import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
 import org.opendaylight.protocol.bgp.parser.impl.message.BGPUpdateMessageParser;
 import org.opendaylight.protocol.bgp.parser.impl.message.update.CommunityUtil;
+import org.opendaylight.protocol.bgp.parser.spi.AttributesCache;
 import org.opendaylight.protocol.bgp.parser.spi.MessageUtil;
 import org.opendaylight.protocol.bgp.parser.spi.MultiPathSupport;
 import org.opendaylight.protocol.bgp.parser.spi.NlriRegistry;
 import org.opendaylight.protocol.bgp.parser.spi.PeerSpecificParserConstraint;
 import org.opendaylight.protocol.bgp.parser.spi.RevisedErrorHandlingSupport;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.AttributesCacheImpl;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.PeerSpecificParserConstraintImpl;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.RevisedErrorHandlingSupportImpl;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.ServiceLoaderBGPExtensionProviderContext;
@@ -64,6 +67,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.NlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.Attributes1;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.Attributes2;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.AddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
@@ -785,4 +789,85 @@ public class BGPParserTest {
         assertNotNull(withdrawnRoutes);
         assertEquals(1, withdrawnRoutes.size());
     }
+
+    @Test
+    public void testAttributesCache() throws BGPDocumentedException {
+        final AttributesCacheImpl cache = new AttributesCacheImpl(16);
+        final PeerSpecificParserConstraintImpl constraint = new PeerSpecificParserConstraintImpl();
+        constraint.addPeerConstraint(AttributesCache.class, cache);
+
+        // repeated IPv4 attributes are parsed once
+        final Update first = parseMessage(INPUT_BYTES.get(0), constraint);
+        final Update second = parseMessage(INPUT_BYTES.get(0), constraint);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertSame(first.getAttributes(), second.getAttributes());
+        assertEquals(first, second);
+
+        // attributes consisting only of MP_UNREACH_NLRI bypass the cache
+        parseMessage(INPUT_BYTES.get(6), constraint);
+        final Update eor = parseMessage(INPUT_BYTES.get(6), constraint);
+        assertNotNull(eor.getAttributes().augmentation(Attributes2.class).getMpUnreachNlri());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testAttributesCacheMultiprotocol() throws BGPDocumentedException {
+        final AttributesCacheImpl cache = new AttributesCacheImpl(16);
+        final PeerSpecificParserConstraintImpl constraint = new PeerSpecificParserConstraintImpl();
+        constraint.addPeerConstraint(AttributesCache.class, cache);
+
+        // MP_REACH_NLRI differs, the other attributes are parsed once
+        final Update first = parseMessage(mpReachUpdate(1), constraint);
+        final Update second = parseMessage(mpReachUpdate(2), constraint);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertSame(first.getAttributes().getLocalPref(), second.getAttributes().getLocalPref());
+        assertEquals(first.getAttributes().getOrigin(), second.getAttributes().getOrigin());
+        assertEquals(new Ipv4Address("10.0.0.1"), ((Ipv4NextHopCase) first.getAttributes()
+            .augmentation(Attributes1.class).getMpReachNlri().getCNextHop()).getIpv4NextHop().getGlobal());
+        assertEquals(new Ipv4Address("10.0.0.2"), ((Ipv4NextHopCase) second.getAttributes()
+            .augmentation(Attributes1.class).getMpReachNlri().getCNextHop()).getIpv4NextHop().getGlobal());
+
+        // the cached attributes do not retain the multiprotocol ones
+        final Attributes cached = cache.getAttributes(Unpooled.wrappedBuffer(
+            ByteArray.subByte(mpReachUpdate(1), MessageUtil.COMMON_HEADER_LENGTH + 4 + 16, 14)));
+        assertNotNull(cached);
+        assertNull(cached.augmentation(Attributes1.class));
+    }
+
+    /*
+     * ff ff ff ff ff ff ff ff ff ff ff ff ff ff ff ff <- marker
+     * 00 35 <- length (53) - including header
+     * 02 <- message type
+     * 00 00 <- withdrawn routes length
+     * 00 1e <- total path attribute length (30)
+     * 80 0e 0d <- MP_REACH
+     * 00 01 01 <- AFI (Ipv4), SAFI (Unicast)
+     * 04 0a 00 00 xx <- next hop (10.0.0.xx)
+     * 00 <- reserved
+     * 18 0a 00 01 <- prefix (10.0.1.0/24)
+     * 40 01 01 00 <- ORIGIN (IGP)
+     * 40 02 00 <- empty AS_PATH
+     * 40 05 04 00 00 00 64 <- LOCAL_PREF (100)
+     */
+    private static byte[] mpReachUpdate(final int nextHop) {
+        final ByteBuf buffer = Unpooled.buffer();
+        buffer.writeBytes(new byte[MessageUtil.MARKER_LENGTH]).writeShort(53).writeByte(BGPUpdateMessageParser.TYPE)
+            .writeShort(0).writeShort(30)
+            .writeBytes(new byte[] { (byte) 0x80, 0x0e, 0x0d, 0x00, 0x01, 0x01, 0x04, 0x0a, 0x00, 0x00,
+                (byte) nextHop, 0x00, 0x18, 0x0a, 0x00, 0x01 })
+            .writeBytes(new byte[] { 0x40, 0x01, 0x01, 0x00, 0x40, 0x02, 0x00, 0x40, 0x05, 0x04, 0x00, 0x00, 0x00,
+                0x64 });
+        return ByteArray.readAllBytes(buffer);
+    }
+
+    private static Update parseMessage(final byte[] bytes, final PeerSpecificParserConstraint constraint)
+            throws BGPDocumentedException {
+        final byte[] body = ByteArray.cutBytes(bytes, MessageUtil.COMMON_HEADER_LENGTH);
+        final int messageLength = ByteArray.bytesToInt(ByteArray.subByte(bytes, MessageUtil.MARKER_LENGTH,
+            LENGTH_FIELD_LENGTH));
+        return BGPParserTest.updateParser.parseMessageBody(Unpooled.copiedBuffer(body), messageLength, constraint);
+    }
 }
@@ -17,6 +17,8 @@ public final class AttributeUtil {
     public static final int TRANSITIVE = 64;
     public static final int PARTIAL = 32;
     private static final int EXTENDED = 16;
+    private static final int EXTENDED_LENGTH_SIZE = 2;
+    private static final int EXTENDED_HEADER_SIZE = 2 + EXTENDED_LENGTH_SIZE;
 
     private AttributeUtil() {
     }
@@ -42,4 +44,46 @@ public final class AttributeUtil {
         }
         buffer.writeBytes(value);
     }
+
+    /**
+     * Writes attribute header with a provisional length directly into the target buffer. The attribute value is
+     * expected to be written to the buffer afterwards, followed by a call to {@link #endAttribute(ByteBuf, int)}.
+     *
+     * @param flags attribute flags
+     * @param type of the attribute
+     * @param buffer ByteBuf where the attribute will be written
+     * @return start of the attribute, to be passed to {@link #endAttribute(ByteBuf, int)}
+     */
+    public static int startAttribute(final int flags, final int type, final ByteBuf buffer) {
+        final int start = buffer.writerIndex();
+        buffer.writeByte(flags);
+        buffer.writeByte(type);
+        buffer.writeZero(EXTENDED_LENGTH_SIZE);
+        return start;
+    }
+
+    /**
+     * Completes attribute started by {@link #startAttribute(int, int, ByteBuf)}, filling in its length. If the value
+     * fits into one-byte length field, it is moved back by one byte, so the result is identical to what
+     * {@link #formatAttribute(int, int, ByteBuf, ByteBuf)} would produce.
+     *
+     * @param buffer ByteBuf holding the attribute
+     * @param start start of the attribute, as returned by {@link #startAttribute(int, int, ByteBuf)}
+     */
+    public static void endAttribute(final ByteBuf buffer, final int start) {
+        final int valueStart = start + EXTENDED_HEADER_SIZE;
+        final int length = buffer.writerIndex() - valueStart;
+        if (length > MAX_ATTR_LENGTH_FOR_SINGLE_BYTE) {
+            buffer.setByte(start, buffer.getByte(start) | EXTENDED);
+            buffer.setShort(start + 2, length);
+            return;
+        }
+
+        final int lengthIndex = start + 2;
+        buffer.setByte(lengthIndex, length);
+        for (int i = 0; i < length; i++) {
+            buffer.setByte(lengthIndex + 1 + i, buffer.getByte(valueStart + i));
+        }
+        buffer.writerIndex(buffer.writerIndex() - 1);
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.parser.spi;
+
+import io.netty.buffer.ByteBuf;
+import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.jdt.annotation.Nullable;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+
+/**
+ * Peer constraint holding a cache of already-parsed path attributes. Presence of this class in
+ * {@link PeerSpecificParserConstraint} allows the UPDATE message parser to reuse the {@link Attributes} object built
+ * for a previous message carrying exactly the same encoded path attributes.
+ */
+public interface AttributesCache extends PeerConstraint {
+    /**
+     * Look up the attributes parsed from an identical encoding. Buffer indices are not modified.
+     *
+     * @param encoded Encoded path attributes
+     * @return Cached attributes, or null if the encoding has not been seen
+     */
+    @Nullable Attributes getAttributes(@NonNull ByteBuf encoded);
+
+    /**
+     * Remember the attributes parsed from an encoding. Buffer indices are not modified.
+     *
+     * @param encoded Encoded path attributes
+     * @param attributes Attributes parsed from the encoding
+     */
+    void putAttributes(@NonNull ByteBuf encoded, @NonNull Attributes attributes);
+
+    /**
+     * Return the number of lookups which found cached attributes.
+     *
+     * @return Number of cache hits
+     */
+    long getHitCount();
+
+    /**
+     * Return the number of lookups which did not find cached attributes.
+     *
+     * @return Number of cache misses
+     */
+    long getMissCount();
+}
@@ -50,6 +50,32 @@ public final class MessageUtil {
         buffer.writeBytes(body);
     }
 
+    /**
+     * Writes message header with a provisional length directly into the target buffer. The message body is expected
+     * to be written to the buffer afterwards, followed by a call to {@link #endMessage(ByteBuf, int)}.
+     *
+     * @param type of the message
+     * @param buffer ByteBuf where the message will be written
+     * @return start of the message, to be passed to {@link #endMessage(ByteBuf, int)}
+     */
+    public static int startMessage(final int type, final ByteBuf buffer) {
+        final int start = buffer.writerIndex();
+        buffer.writeBytes(MARKER);
+        buffer.writeShort(COMMON_HEADER_LENGTH);
+        buffer.writeByte(type);
+        return start;
+    }
+
+    /**
+     * Completes message started by {@link #startMessage(int, ByteBuf)}, filling in its length.
+     *
+     * @param buffer ByteBuf holding the message
+     * @param start start of the message, as returned by {@link #startMessage(int, ByteBuf)}
+     */
+    public static void endMessage(final ByteBuf buffer, final int start) {
+        buffer.setShort(start + MARKER_LENGTH, buffer.writerIndex() - start);
+    }
+
     /**
      * Check for NLRI attribute in Update message.
      *
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.parser.spi.pojo;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.base.MoreObjects;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.NotThreadSafe;
+import org.opendaylight.protocol.bgp.parser.spi.AttributesCache;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+
+/**
+ * Bounded {@link AttributesCache}, evicting the least recently used entry. Encodings are compared byte-by-byte, hence
+ * a hash collision can never return attributes of a different encoding. It is meant to be used from a single session's
+ * decoder, only the counters may be read from other threads.
+ */
+@NotThreadSafe
+public final class AttributesCacheImpl implements AttributesCache {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final Map<ByteBuf, Attributes> cache;
+    private int maximumSize;
+
+    public AttributesCacheImpl(final int maximumSize) {
+        checkArgument(maximumSize > 0, "Invalid maximum size %s", maximumSize);
+        this.maximumSize = maximumSize;
+        this.cache = new LinkedHashMap<ByteBuf, Attributes>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ByteBuf, Attributes> eldest) {
+                return size() > AttributesCacheImpl.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Change the maximum number of cached entries, evicting the least recently used entries above the new limit.
+     *
+     * @param newMaximumSize New maximum number of entries
+     */
+    public void setMaximumSize(final int newMaximumSize) {
+        checkArgument(newMaximumSize > 0, "Invalid maximum size %s", newMaximumSize);
+        this.maximumSize = newMaximumSize;
+        final Iterator<ByteBuf> it = this.cache.keySet().iterator();
+        while (this.cache.size() > newMaximumSize) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    @Override
+    public Attributes getAttributes(final ByteBuf encoded) {
+        // ByteBuf equality and hash code are defined by readable content
+        final Attributes ret = this.cache.get(requireNonNull(encoded));
+        if (ret != null) {
+            this.hits.increment();
+        } else {
+            this.misses.increment();
+        }
+        return ret;
+    }
+
+    @Override
+    public void putAttributes(final ByteBuf encoded, final Attributes attributes) {
+        // The message buffer is released once decoded, keep a private copy
+        this.cache.put(Unpooled.copiedBuffer(encoded), requireNonNull(attributes));
+    }
+
+    @Override
+    public long getHitCount() {
+        return this.hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maximumSize", this.maximumSize).add("size", this.cache.size())
+                .toString();
+    }
+}
@@ -12,7 +12,6 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.Iterables;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -180,10 +179,10 @@ final class SimpleNlriRegistry implements NlriRegistry {
             final Entry<Class<? extends CNextHop>, BgpTableType> key = new SimpleEntry(
                     cNextHop.getImplementedInterface(), new BgpTableTypeImpl(afi, safi));
             final NextHopParserSerializer nextHopSerializer = this.nextHopSerializers.get(key);
-            final ByteBuf nextHopBuffer = Unpooled.buffer();
-            nextHopSerializer.serializeNextHop(cNextHop, nextHopBuffer);
-            byteAggregator.writeByte(nextHopBuffer.writerIndex());
-            byteAggregator.writeBytes(nextHopBuffer);
+            final int lengthIndex = byteAggregator.writerIndex();
+            byteAggregator.writeZero(NEXT_HOP_LENGHT);
+            nextHopSerializer.serializeNextHop(cNextHop, byteAggregator);
+            byteAggregator.setByte(lengthIndex, byteAggregator.writerIndex() - lengthIndex - NEXT_HOP_LENGHT);
 
         } else {
             byteAggregator.writeZero(NEXT_HOP_LENGHT);
@@ -64,6 +64,20 @@ public class UtilsTest {
         assertArrayEquals(result, ByteArray.getAllBytes(formattedMessage));
     }
 
+    @Test
+    public void testMessageUtilInPlace() {
+        final ByteBuf expected = Unpooled.buffer();
+        MessageUtil.formatMessage(3, Unpooled.wrappedBuffer(new byte[] { 32, 5, 14, 21 }), expected);
+
+        final ByteBuf formattedMessage = Unpooled.buffer();
+        formattedMessage.writeByte(1);
+        final int start = MessageUtil.startMessage(3, formattedMessage);
+        formattedMessage.writeBytes(new byte[] { 32, 5, 14, 21 });
+        MessageUtil.endMessage(formattedMessage, start);
+        assertEquals(1, formattedMessage.readByte());
+        assertEquals(expected, formattedMessage);
+    }
+
     @Test
     public void testParameterUtil() {
         final byte[] result = new byte[] { 1, 2, 4, 8 };
@@ -93,6 +107,31 @@ public class UtilsTest {
         assertArrayEquals(result, ByteArray.getAllBytes(aggregator));
     }
 
+    @Test
+    public void testAttributeUtilInPlace() {
+        final byte[] result = new byte[] { 1, 0x40, 03, 04, 10, 00, 00, 02 };
+        final ByteBuf aggregator = Unpooled.buffer();
+        aggregator.writeByte(1);
+        final int start = AttributeUtil.startAttribute(64, 3, aggregator);
+        aggregator.writeBytes(new byte[] { 10, 0, 0, 2 });
+        AttributeUtil.endAttribute(aggregator, start);
+        assertArrayEquals(result, ByteArray.getAllBytes(aggregator));
+    }
+
+    @Test
+    public void testAttributeUtilInPlaceExtended() {
+        final byte[] value = new byte[258];
+        Arrays.fill(value, 0, 258, UnsignedBytes.MAX_VALUE);
+        final ByteBuf expected = Unpooled.buffer();
+        AttributeUtil.formatAttribute(AttributeUtil.TRANSITIVE, 3, Unpooled.wrappedBuffer(value), expected);
+
+        final ByteBuf aggregator = Unpooled.buffer();
+        final int start = AttributeUtil.startAttribute(AttributeUtil.TRANSITIVE, 3, aggregator);
+        aggregator.writeBytes(value);
+        AttributeUtil.endAttribute(aggregator, start);
+        assertEquals(expected, aggregator);
+    }
+
     @Test
     public void testMultiprotocolCapabilitiesUtil() throws BGPParsingException {
         final byte[] bytes = new byte[] {0, 1, 0, 1};
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.parser.spi.pojo;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+
+public class AttributesCacheImplTest {
+    private static final Attributes ATTRS_1 = new AttributesBuilder()
+            .setLocalPref(new LocalPrefBuilder().setPref(1L).build()).build();
+    private static final Attributes ATTRS_2 = new AttributesBuilder()
+            .setLocalPref(new LocalPrefBuilder().setPref(2L).build()).build();
+
+    private static ByteBuf encoded(final int value) {
+        // Surround the encoding to check only readable bytes are considered
+        final ByteBuf buf = Unpooled.buffer().writeByte(0xff).writeInt(value).writeByte(0xfe);
+        return buf.slice(1, Integer.BYTES);
+    }
+
+    @Test
+    public void testHitAndMiss() {
+        final AttributesCacheImpl cache = new AttributesCacheImpl(2);
+        final ByteBuf first = encoded(1);
+        assertNull(cache.getAttributes(first));
+        cache.putAttributes(first, ATTRS_1);
+        assertEquals(0, first.readerIndex());
+
+        // The cached copy must not be affected by the original buffer being recycled
+        first.setInt(0, 2);
+        assertSame(ATTRS_1, cache.getAttributes(encoded(1)));
+        assertNull(cache.getAttributes(encoded(2)));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        final AttributesCacheImpl cache = new AttributesCacheImpl(2);
+        cache.putAttributes(encoded(1), ATTRS_1);
+        cache.putAttributes(encoded(2), ATTRS_2);
+        assertSame(ATTRS_1, cache.getAttributes(encoded(1)));
+
+        cache.putAttributes(encoded(3), ATTRS_1);
+        assertNull(cache.getAttributes(encoded(2)));
+        assertSame(ATTRS_1, cache.getAttributes(encoded(1)));
+        assertSame(ATTRS_1, cache.getAttributes(encoded(3)));
+    }
+
+    @Test
+    public void testShrink() {
+        final AttributesCacheImpl cache = new AttributesCacheImpl(3);
+        cache.putAttributes(encoded(1), ATTRS_1);
+        cache.putAttributes(encoded(2), ATTRS_2);
+        cache.putAttributes(encoded(3), ATTRS_1);
+        assertSame(ATTRS_1, cache.getAttributes(encoded(1)));
+
+        cache.setMaximumSize(1);
+        assertNull(cache.getAttributes(encoded(2)));
+        assertNull(cache.getAttributes(encoded(3)));
+        assertSame(ATTRS_1, cache.getAttributes(encoded(1)));
+
+        cache.putAttributes(encoded(2), ATTRS_2);
+        assertNull(cache.getAttributes(encoded(1)));
+        assertSame(ATTRS_2, cache.getAttributes(encoded(2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new AttributesCacheImpl(0);
+    }
+}
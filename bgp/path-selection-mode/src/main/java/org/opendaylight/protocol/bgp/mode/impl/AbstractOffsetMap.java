@@ -8,11 +8,9 @@
 package org.opendaylight.protocol.bgp.mode.impl;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.Beta;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.ImmutableSet.Builder;
-import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
 import org.opendaylight.yangtools.concepts.Immutable;
@@ -30,11 +28,16 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
     private static final String INVALIDOFFSET = "Invalid offset %s for %s router IDs";
 
     private final K[] keys;
-
-    protected AbstractOffsetMap(final K[] emptyKeys, final Comparator<K> comparator, final ImmutableSet<K> routerIds) {
-        final K[] array = routerIds.toArray(emptyKeys);
-        Arrays.sort(array, comparator);
-        this.keys = array;
+    private final int hashCode;
+
+    /**
+     * Create a new instance backed by specified keys. The array is retained and must not be modified afterwards.
+     *
+     * @param keys Keys, sorted according to {@link #comparator()} and without duplicates
+     */
+    protected AbstractOffsetMap(final K[] keys) {
+        this.keys = requireNonNull(keys);
+        this.hashCode = Arrays.hashCode(keys);
     }
 
     public final K getKey(final int offset) {
@@ -53,27 +56,28 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
         return keys.length;
     }
 
+    @SuppressWarnings("unchecked")
     public final T with(final K key) {
-        // TODO: we could make this faster if we had an array-backed Set and requiring
-        //       the caller to give us the result of offsetOf() -- as that indicates
-        //       where to insert the new routerId while maintaining the sorted nature
-        //       of the array
-        final Builder<K> builder = ImmutableSet.builderWithExpectedSize(size() + 1);
-        builder.add(keys);
-        builder.add(key);
-        return instanceForKeys(builder.build());
+        final int offset = offsetOf(key);
+        if (offset >= 0) {
+            return (T) this;
+        }
+
+        // Keys are kept sorted, hence the insertion point is where binary search ended up
+        final int insert = -offset - 1;
+        final K[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        System.arraycopy(keys, insert, newKeys, insert + 1, keys.length - insert);
+        newKeys[insert] = key;
+        return instanceForKeys(newKeys);
     }
 
     public final T without(final K key) {
-        final ImmutableSet<K> set;
-        final int index = indexOf(key);
+        final int index = offsetOf(key);
         if (index < 0) {
             LOG.trace("Router key {} not found", key);
-            set = ImmutableSet.of();
-        } else {
-            set = ImmutableSet.copyOf(removeValue(keys, index, emptyKeys()));
+            return instanceForKeys(emptyKeys());
         }
-        return instanceForKeys(set);
+        return instanceForKeys(removeValue(keys, index, emptyKeys()));
     }
 
     public final <C> C getValue(final C[] array, final int offset) {
@@ -87,11 +91,13 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
     }
 
     public final <C> C[] expand(final T oldOffsets, final C[] oldArray, final int offset) {
-        @SuppressWarnings("unchecked")
-        final C[] ret = (C[]) Array.newInstance(oldArray.getClass().getComponentType(), keys.length);
-
-        System.arraycopy(oldArray, 0, ret, 0, offset);
-        System.arraycopy(oldArray, offset, ret, offset + 1, oldOffsets.size() - offset);
+        // Arrays.copyOf() is intrinsified, unlike Array.newInstance()
+        final C[] ret = Arrays.copyOf(oldArray, keys.length);
+        final int tail = oldOffsets.size() - offset;
+        if (tail > 0) {
+            System.arraycopy(oldArray, offset, ret, offset + 1, tail);
+            ret[offset] = null;
+        }
         return ret;
     }
 
@@ -106,9 +112,7 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
             return emptyArray;
         }
 
-        @SuppressWarnings("unchecked")
-        final C[] ret = (C[]) Array.newInstance(oldArray.getClass().getComponentType(), newLength);
-        System.arraycopy(oldArray, 0, ret, 0, offset);
+        final C[] ret = Arrays.copyOf(oldArray, newLength);
         if (offset < newLength) {
             System.arraycopy(oldArray, offset + 1, ret, offset, newLength - offset);
         }
@@ -120,15 +124,30 @@ public abstract class AbstractOffsetMap<K extends Immutable & Comparable<K>, T e
 
     protected abstract K[] emptyKeys();
 
-    protected abstract T instanceForKeys(ImmutableSet<K> newKeys);
+    /**
+     * Return an instance for specified keys. Implementations are expected to canonicalize instances, so that route
+     * entries with the same set of keys share the same instance.
+     *
+     * @param newKeys Sorted keys, which the returned instance may retain
+     * @return An instance for specified keys
+     */
+    protected abstract T instanceForKeys(K[] newKeys);
+
+    @Override
+    public final int hashCode() {
+        return hashCode;
+    }
 
-    private int indexOf(final K key) {
-        for (int i = 0; i < keys.length; i++) {
-            if (key.equals(keys[i])) {
-                return i;
-            }
+    @Override
+    public final boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
         }
-        return -1;
+        final AbstractOffsetMap<?, ?> other = (AbstractOffsetMap<?, ?>) obj;
+        return hashCode == other.hashCode && Arrays.equals(keys, other.keys);
     }
 
     private void checkAccessOffest(final int offset) {
@@ -23,6 +23,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.MultiExitDisc;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.Origin;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.Segments;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
 
 public final class BestPathStateImpl implements BestPathState {
@@ -40,6 +41,22 @@ public final class BestPathStateImpl implements BestPathState {
         resolveValues();
     }
 
+    /**
+     * Return the state of a route, reusing the previous state when the attributes have not changed, which is the common
+     * case with interned attributes.
+     *
+     * @param prev previous state of the route, may be null
+     * @param route route
+     * @return state of the route, or null if the route has no attributes
+     */
+    public static BestPathStateImpl of(final BestPathStateImpl prev, final Route route) {
+        final Attributes attrs = route.getAttributes();
+        if (attrs == null) {
+            return null;
+        }
+        return prev != null && prev.attributes.equals(attrs) ? prev : new BestPathStateImpl(attrs);
+    }
+
     private static int countAsPath(final List<Segments> segments) {
         // an AS_SET counts as 1, no matter how many ASs are in the set.
         int count = 0;
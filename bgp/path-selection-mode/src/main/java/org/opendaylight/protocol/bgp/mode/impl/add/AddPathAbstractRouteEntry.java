@@ -91,10 +91,13 @@ public abstract class AddPathAbstractRouteEntry<C extends Routes & DataObject &
     private static final Logger LOG = LoggerFactory.getLogger(AddPathAbstractRouteEntry.class);
     private static final Long[] EMPTY_PATHS_ID = new Long[0];
     private static final Route[] EMPTY_VALUES = new Route[0];
+    private static final BestPathStateImpl[] EMPTY_STATES = new BestPathStateImpl[0];
 
     private RouteKeyOffsets offsets = RouteKeyOffsets.EMPTY;
     private R[] values = (R[]) EMPTY_VALUES;
     private Long[] pathsId = EMPTY_PATHS_ID;
+    // Selection state of each path, computed when the path is added, so that selection does not need to recompute it
+    private BestPathStateImpl[] states = EMPTY_STATES;
     private List<AddPathBestPath> bestPath;
     private List<AddPathBestPath> bestPathRemoved;
     private List<AddPathBestPath> newBestPathToBeAdvertised;
@@ -119,12 +122,15 @@ public abstract class AddPathAbstractRouteEntry<C extends Routes & DataObject &
             offset = newOffsets.offsetOf(key);
             final R[] newRoute = newOffsets.expand(this.offsets, this.values, offset);
             final Long[] newPathsId = newOffsets.expand(this.offsets, this.pathsId, offset);
+            final BestPathStateImpl[] newStates = newOffsets.expand(this.offsets, this.states, offset);
             this.values = newRoute;
             this.offsets = newOffsets;
             this.pathsId = newPathsId;
+            this.states = newStates;
             this.offsets.setValue(this.pathsId, offset, ++this.pathIdCounter);
         }
         this.offsets.setValue(this.values, offset, route);
+        this.offsets.setValue(this.states, offset, BestPathStateImpl.of(this.offsets.getValue(this.states, offset), route));
         LOG.trace("Added route {} from {}", route, routerId);
         return offset;
     }
@@ -136,6 +142,7 @@ public abstract class AddPathAbstractRouteEntry<C extends Routes & DataObject &
         final Long pathId = this.offsets.getValue(this.pathsId, offset);
         this.values = this.offsets.removeValue(this.values, offset, (R[]) EMPTY_VALUES);
         this.pathsId = this.offsets.removeValue(this.pathsId, offset, EMPTY_PATHS_ID);
+        this.states = this.offsets.removeValue(this.states, offset, EMPTY_STATES);
         this.offsets = this.offsets.without(key);
         if (this.removedPathsId == null) {
             this.removedPathsId = new ArrayList<>();
@@ -220,16 +227,15 @@ public abstract class AddPathAbstractRouteEntry<C extends Routes & DataObject &
      */
     protected final void processOffset(final AddPathSelector selector, final int offset) {
         final RouteKey key = offsets.getKey(offset);
-        final R route = offsets.getValue(values, offset);
+        final BestPathStateImpl state = offsets.getValue(states, offset);
         final Long pathId = offsets.getValue(pathsId, offset);
-        LOG.trace("Processing router key {} route {}", key, route);
-        selector.processPath(route.getAttributes(), key, offset, pathId);
+        LOG.trace("Processing router key {} state {}", key, state);
+        selector.processPath(state, key, offset, pathId);
     }
 
     protected final AddPathBestPath bestPathAt(final int offset) {
-        final Route route = verifyNotNull(offsets.getValue(values, offset));
-        return new AddPathBestPath(new BestPathStateImpl(route.getAttributes()), offsets.getKey(offset),
-            offsets.getValue(pathsId, offset), offset);
+        final BestPathStateImpl state = verifyNotNull(offsets.getValue(states, offset));
+        return new AddPathBestPath(state, offsets.getKey(offset), offsets.getValue(pathsId, offset), offset);
     }
 
     private boolean isBestPathNew(final ImmutableList<AddPathBestPath> newBestPathList) {
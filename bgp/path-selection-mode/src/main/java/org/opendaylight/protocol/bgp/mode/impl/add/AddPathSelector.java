@@ -8,10 +8,8 @@
 package org.opendaylight.protocol.bgp.mode.impl.add;
 
 import org.opendaylight.protocol.bgp.mode.api.BestPathState;
-import org.opendaylight.protocol.bgp.mode.impl.BestPathStateImpl;
 import org.opendaylight.protocol.bgp.mode.spi.AbstractBestPathSelector;
 import org.opendaylight.protocol.bgp.rib.spi.RouterId;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,20 +24,17 @@ public final class AddPathSelector extends AbstractBestPathSelector {
         super(ourAs);
     }
 
-    void processPath(final Attributes attrs, final RouteKey key, final int offsetPosition, final Long pathId) {
+    void processPath(final BestPathState state, final RouteKey key, final int offsetPosition, final Long pathId) {
         // Consider only non-null attributes
-        if (attrs != null) {
-            final RouterId routerId = key.getRouterId();
-            final RouterId originatorId = replaceOriginator(routerId, attrs.getOriginatorId());
-
+        if (state != null) {
             /*
              * Store the new details if we have nothing stored or when the selection algorithm indicates new details
              * are better.
              */
-            final BestPathState state = new BestPathStateImpl(attrs);
             if (this.bestOriginatorId == null || !isExistingPathBetter(state)) {
+                final RouterId routerId = key.getRouterId();
                 LOG.trace("Selecting path from router {}", routerId);
-                this.bestOriginatorId = originatorId;
+                this.bestOriginatorId = replaceOriginator(routerId, state.getAttributes().getOriginatorId());
                 this.bestState = state;
                 this.bestRouteKey = key;
                 this.bestOffset = offsetPosition;
@@ -31,7 +31,6 @@ final class BasePathSelector extends AbstractBestPathSelector {
 
         // Consider only non-null attributes
         if (attrs != null) {
-            final RouterId originatorId = replaceOriginator(routerId, attrs.getOriginatorId());
             /*
              * Store the new details if we have nothing stored or when the selection algorithm indicates new details
              * are better.
@@ -39,7 +38,7 @@ final class BasePathSelector extends AbstractBestPathSelector {
             final BestPathState state = new BestPathStateImpl(attrs);
             if (this.bestOriginatorId == null || !isExistingPathBetter(state)) {
                 LOG.trace("Selecting path from router {}", routerId);
-                this.bestOriginatorId = originatorId;
+                this.bestOriginatorId = replaceOriginator(routerId, attrs.getOriginatorId());
                 this.bestRouterId = routerId;
                 this.bestState = state;
             }
@@ -7,18 +7,20 @@
  */
 package org.opendaylight.protocol.bgp.mode.impl.base;
 
+import com.google.common.annotations.VisibleForTesting;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.protocol.bgp.mode.api.RouteEntry;
+import org.opendaylight.protocol.bgp.mode.impl.BestPathStateImpl;
+import org.opendaylight.protocol.bgp.mode.spi.AbstractBestPathSelector;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.protocol.bgp.rib.spi.RouterId;
 import org.opendaylight.protocol.bgp.rib.spi.entry.ActualBestPathRoutes;
 import org.opendaylight.protocol.bgp.rib.spi.entry.AdvertizedRoute;
 import org.opendaylight.protocol.bgp.rib.spi.entry.RouteEntryInfo;
 import org.opendaylight.protocol.bgp.rib.spi.entry.StaleBestPathRoute;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.Tables;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.tables.Routes;
@@ -59,19 +61,28 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
 
     private static final Logger LOG = LoggerFactory.getLogger(BaseRouteEntry.class);
     private static final Route[] EMPTY_VALUES = new Route[0];
+    private static final BestPathStateImpl[] EMPTY_STATES = new BestPathStateImpl[0];
 
     private RouterIdOffsets offsets = RouterIdOffsets.EMPTY;
     private R[] values = (R[]) EMPTY_VALUES;
+    // Selection state of each path, computed when the path is added, so that selection does not need to recompute it
+    private BestPathStateImpl[] states = EMPTY_STATES;
     private BaseBestPath bestPath;
     private BaseBestPath removedBestPath;
 
     BaseRouteEntry() {
     }
 
+    @VisibleForTesting
+    BaseBestPath getBestPath() {
+        return this.bestPath;
+    }
+
     @Override
     public boolean removeRoute(final RouterId routerId, final Long remotePathId) {
         final int offset = this.offsets.offsetOf(routerId);
         this.values = this.offsets.removeValue(this.values, offset, (R[]) EMPTY_VALUES);
+        this.states = this.offsets.removeValue(this.states, offset, EMPTY_STATES);
         this.offsets = this.offsets.without(routerId);
         return this.offsets.isEmpty();
     }
@@ -87,27 +98,39 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
         /*
          * FIXME: optimize flaps by making sure we consider stability of currently-selected route.
          */
-        final BasePathSelector selector = new BasePathSelector(localAs);
-
-        // Select the best route.
+        // Select the best route. This is equivalent to running a BasePathSelector over all paths, but operates on
+        // precomputed states and does not allocate anything unless the best path changes.
+        int bestOffset = -1;
+        BestPathStateImpl bestState = null;
         for (int i = 0; i < this.offsets.size(); ++i) {
-            final RouterId routerId = this.offsets.getKey(i);
-            final Attributes attributes = this.offsets.getValue(this.values, i).getAttributes();
-            LOG.trace("Processing router id {} attributes {}", routerId, attributes);
-            selector.processPath(routerId, attributes);
+            final BestPathStateImpl state = this.offsets.getValue(this.states, i);
+            LOG.trace("Processing router id {} state {}", this.offsets.getKey(i), state);
+            if (state != null && (bestState == null
+                    || !AbstractBestPathSelector.isExistingPathBetter(localAs, bestState, state))) {
+                bestOffset = i;
+                bestState = state;
+            }
         }
 
         // Get the newly-selected best path.
-        final BaseBestPath newBestPath = selector.result();
-        final boolean modified = newBestPath == null || !newBestPath.equals(this.bestPath);
-        if (modified) {
-            if (this.offsets.isEmpty()) {
-                this.removedBestPath = this.bestPath;
+        final BaseBestPath newBestPath;
+        if (bestOffset < 0) {
+            newBestPath = null;
+        } else {
+            final RouterId bestRouterId = this.offsets.getKey(bestOffset);
+            if (this.bestPath != null && bestRouterId.equals(this.bestPath.getRouterId())
+                    && bestState.equals(this.bestPath.getState())) {
+                return false;
             }
-            LOG.trace("Previous best {}, current best {}", this.bestPath, newBestPath);
-            this.bestPath = newBestPath;
+            newBestPath = new BaseBestPath(bestRouterId, bestState);
+        }
+
+        if (this.offsets.isEmpty()) {
+            this.removedBestPath = this.bestPath;
         }
-        return modified;
+        LOG.trace("Previous best {}, current best {}", this.bestPath, newBestPath);
+        this.bestPath = newBestPath;
+        return true;
     }
 
     @Override
@@ -118,10 +141,12 @@ final class BaseRouteEntry<C extends Routes & DataObject & ChoiceIn<Tables>,
             offset = newOffsets.offsetOf(routerId);
 
             this.values = newOffsets.expand(this.offsets, this.values, offset);
+            this.states = newOffsets.expand(this.offsets, this.states, offset);
             this.offsets = newOffsets;
         }
 
         this.offsets.setValue(this.values, offset, route);
+        this.offsets.setValue(this.states, offset, BestPathStateImpl.of(this.offsets.getValue(this.states, offset), route));
         LOG.trace("Added route {} from {}", route, routerId);
         return offset;
     }
@@ -7,10 +7,8 @@
  */
 package org.opendaylight.protocol.bgp.mode.impl.base;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
-import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import java.util.Comparator;
 import org.opendaylight.protocol.bgp.mode.impl.AbstractOffsetMap;
 import org.opendaylight.protocol.bgp.rib.spi.RouterId;
@@ -21,20 +19,14 @@ import org.opendaylight.protocol.bgp.rib.spi.RouterId;
  * @see AbstractOffsetMap
  */
 final class RouterIdOffsets extends AbstractOffsetMap<RouterId, RouterIdOffsets> {
-    private static final LoadingCache<ImmutableSet<RouterId>, RouterIdOffsets> OFFSETMAPS = CacheBuilder.newBuilder()
-            .weakValues().build(new CacheLoader<ImmutableSet<RouterId>, RouterIdOffsets>() {
-                @Override
-                public RouterIdOffsets load(final ImmutableSet<RouterId> key) {
-                    return new RouterIdOffsets(key);
-                }
-            });
+    private static final Interner<RouterIdOffsets> INTERNER = Interners.newWeakInterner();
     private static final Comparator<RouterId> COMPARATOR = RouterId::compareTo;
     private static final RouterId[] EMPTY_KEYS = new RouterId[0];
 
-    static final RouterIdOffsets EMPTY = new RouterIdOffsets(ImmutableSet.of());
+    static final RouterIdOffsets EMPTY = INTERNER.intern(new RouterIdOffsets(EMPTY_KEYS));
 
-    RouterIdOffsets(final ImmutableSet<RouterId> routerIds) {
-        super(EMPTY_KEYS, COMPARATOR, routerIds);
+    private RouterIdOffsets(final RouterId[] keys) {
+        super(keys);
     }
 
     @Override
@@ -48,7 +40,7 @@ final class RouterIdOffsets extends AbstractOffsetMap<RouterId, RouterIdOffsets>
     }
 
     @Override
-    protected RouterIdOffsets instanceForKeys(final ImmutableSet<RouterId> newKeys) {
-        return OFFSETMAPS.getUnchecked(newKeys);
+    protected RouterIdOffsets instanceForKeys(final RouterId[] newKeys) {
+        return INTERNER.intern(new RouterIdOffsets(newKeys));
     }
 }
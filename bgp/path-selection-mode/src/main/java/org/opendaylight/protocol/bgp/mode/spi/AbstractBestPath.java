@@ -9,7 +9,6 @@ package org.opendaylight.protocol.bgp.mode.spi;
 
 import static java.util.Objects.requireNonNull;
 
-import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
 import org.opendaylight.protocol.bgp.mode.api.BestPath;
@@ -27,7 +26,6 @@ public abstract class AbstractBestPath implements BestPath {
         return toStringHelper.add("state", state);
     }
 
-    @VisibleForTesting
     public final BestPathState getState() {
         return this.state;
     }
@@ -42,9 +42,23 @@ public class AbstractBestPathSelector {
      * @return true if the existing path is better, false if the new path is better
      */
     protected boolean isExistingPathBetter(@Nonnull final BestPathState state) {
+        return isExistingPathBetter(this.ourAs, this.bestState, state);
+    }
+
+    /**
+     * Chooses best route according to BGP best path selection. This method does not retain any state, hence it can
+     * be used to run selection over precomputed {@link BestPathState}s without instantiating a selector.
+     *
+     * @param ourAs our AS number
+     * @param bestState attributes of the currently-selected route
+     * @param state attributes of the new route
+     * @return true if the existing path is better, false if the new path is better
+     */
+    public static boolean isExistingPathBetter(final long ourAs, @Nonnull final BestPathState bestState,
+            @Nonnull final BestPathState state) {
         // 0. draft-uttaro-idr-bgp-persistence-04 defines "depreferenced" paths
         final boolean stateDepref = state.isDepreferenced();
-        if (this.bestState.isDepreferenced() != stateDepref) {
+        if (bestState.isDepreferenced() != stateDepref) {
             return stateDepref;
         }
 
@@ -56,7 +70,7 @@ public class AbstractBestPathSelector {
          * FIXME: for eBGP cases (when the LOCAL_PREF is missing), we should assign a policy-based preference
          *        before we ever get here.
          */
-        final Long bestLocal = this.bestState.getLocalPref();
+        final Long bestLocal = bestState.getLocalPref();
         final Long stateLocal = state.getLocalPref();
         if (stateLocal != null) {
             if (bestLocal == null) {
@@ -75,21 +89,21 @@ public class AbstractBestPathSelector {
         // - we assume that all paths are learned
 
         // 4. prefer the path with the shortest AS_PATH.
-        if (this.bestState.getAsPathLength() != state.getAsPathLength()) {
-            return this.bestState.getAsPathLength() < state.getAsPathLength();
+        if (bestState.getAsPathLength() != state.getAsPathLength()) {
+            return bestState.getAsPathLength() < state.getAsPathLength();
         }
 
         // 5. prefer the path with the lowest origin type
         // - IGP is lower than Exterior Gateway Protocol (EGP), and EGP is lower than INCOMPLETE
-        if (!this.bestState.getOrigin().equals(state.getOrigin())) {
-            final BgpOrigin bo = this.bestState.getOrigin();
+        if (!bestState.getOrigin().equals(state.getOrigin())) {
+            final BgpOrigin bo = bestState.getOrigin();
             final BgpOrigin no = state.getOrigin();
 
             // This trick relies on the order in which the values are declared in the model.
             return no.ordinal() > bo.ordinal();
         }
         // FIXME: we should be able to cache the best AS
-        final long bestAs = this.bestState.getPeerAs();
+        final long bestAs = bestState.getPeerAs();
         final long newAs = state.getPeerAs();
 
         /*
@@ -101,7 +115,7 @@ public class AbstractBestPathSelector {
          */
         if (bestAs == newAs) {
             // 6. prefer the path with the lowest multi-exit discriminator (MED)
-            final Boolean cmp = firstLower(this.bestState.getMultiExitDisc(), state.getMultiExitDisc());
+            final Boolean cmp = firstLower(bestState.getMultiExitDisc(), state.getMultiExitDisc());
             if (cmp != null) {
                 return cmp;
             }
@@ -114,7 +128,7 @@ public class AbstractBestPathSelector {
              *
              * FIXME: we should know this information from the peer directly.
              */
-            if (this.ourAs != bestAs && this.ourAs == newAs) {
+            if (ourAs != bestAs && ourAs == newAs) {
                 return true;
             }
         }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Route;
+
+public class BestPathStateImplTest {
+    private static Attributes attributes(final long localPref) {
+        return new AttributesBuilder().setLocalPref(new LocalPrefBuilder().setPref(localPref).build()).build();
+    }
+
+    private static Route route(final Attributes attributes) {
+        final Route route = mock(Route.class);
+        doReturn(attributes).when(route).getAttributes();
+        return route;
+    }
+
+    @Test
+    public void testOf() {
+        final BestPathStateImpl state = BestPathStateImpl.of(null, route(attributes(100L)));
+        assertEquals(Long.valueOf(100L), state.getLocalPref());
+
+        // equal attributes reuse the previous state
+        assertSame(state, BestPathStateImpl.of(state, route(attributes(100L))));
+
+        final BestPathStateImpl changed = BestPathStateImpl.of(state, route(attributes(200L)));
+        assertNotSame(state, changed);
+        assertEquals(Long.valueOf(200L), changed.getLocalPref());
+
+        assertNull(BestPathStateImpl.of(state, route(null)));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.protocol.bgp.parser.spi.PathIdUtil.NON_PATH_ID;
+import static org.opendaylight.protocol.bgp.parser.spi.PathIdUtil.NON_PATH_ID_VALUE;
+
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.Ipv4Routes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+
+public class BaseRouteEntryTest {
+    private static final long LOCAL_AS = 20L;
+    private static final RouterId ROUTER_ID1 = RouterId.forAddress("127.0.0.1");
+    private static final RouterId ROUTER_ID2 = RouterId.forAddress("127.0.0.2");
+    private static final Attributes LOW_PREF = createAttributes(100L);
+    private static final Attributes HIGH_PREF = createAttributes(200L);
+
+    private final BaseRouteEntry<Ipv4RoutesCase, Ipv4Routes, Ipv4Route, Ipv4RouteKey> entry = new BaseRouteEntry<>();
+
+    private static Attributes createAttributes(final long localPref) {
+        return new AttributesBuilder().setLocalPref(new LocalPrefBuilder().setPref(localPref).build())
+                .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build()).build();
+    }
+
+    private static Ipv4Route createRoute(final Attributes attributes) {
+        return new Ipv4RouteBuilder().withKey(new Ipv4RouteKey(NON_PATH_ID, "10.0.0.0/8"))
+                .setAttributes(attributes).build();
+    }
+
+    @Test
+    public void testSelectBest() {
+        this.entry.addRoute(ROUTER_ID1, NON_PATH_ID_VALUE, createRoute(LOW_PREF));
+        this.entry.addRoute(ROUTER_ID2, NON_PATH_ID_VALUE, createRoute(HIGH_PREF));
+        assertTrue(this.entry.selectBest(LOCAL_AS));
+        assertSame(HIGH_PREF, this.entry.getBestPath().getAttributes());
+
+        // Re-running selection without changes does not change the best path
+        assertFalse(this.entry.selectBest(LOCAL_AS));
+
+        // Replacing attributes is reflected in selection
+        this.entry.addRoute(ROUTER_ID1, NON_PATH_ID_VALUE, createRoute(createAttributes(300L)));
+        assertTrue(this.entry.selectBest(LOCAL_AS));
+        assertSame(ROUTER_ID1, this.entry.getBestPath().getRouterId());
+
+        this.entry.removeRoute(ROUTER_ID1, NON_PATH_ID_VALUE);
+        assertTrue(this.entry.selectBest(LOCAL_AS));
+        assertSame(HIGH_PREF, this.entry.getBestPath().getAttributes());
+
+        assertTrue(this.entry.removeRoute(ROUTER_ID2, NON_PATH_ID_VALUE));
+        assertTrue(this.entry.selectBest(LOCAL_AS));
+    }
+}
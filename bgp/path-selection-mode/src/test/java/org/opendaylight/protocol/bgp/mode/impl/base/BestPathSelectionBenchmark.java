@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import static org.opendaylight.protocol.bgp.parser.spi.PathIdUtil.NON_PATH_ID;
+import static org.opendaylight.protocol.bgp.parser.spi.PathIdUtil.NON_PATH_ID_VALUE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.Ipv4Routes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.MultiExitDiscBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.SegmentsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares best path selection using a {@link BasePathSelector} over route attributes with the selection performed
+ * by {@link BaseRouteEntry} over path state precomputed when routes are added. Run via {@link #main(String[])}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BestPathSelectionBenchmark {
+    private static final long LOCAL_AS = 65000L;
+    private static final String PREFIX = "10.0.0.0/8";
+
+    @Param({"2", "8", "64"})
+    public int paths;
+
+    private BaseRouteEntry<Ipv4RoutesCase, Ipv4Routes, Ipv4Route, Ipv4RouteKey> entry;
+    private RouterId[] routerIds;
+    private Attributes[] attributes;
+
+    @Setup
+    public void setup() {
+        this.entry = new BaseRouteEntry<>();
+        this.routerIds = new RouterId[this.paths];
+        this.attributes = new Attributes[this.paths];
+
+        for (int i = 0; i < this.paths; i++) {
+            this.routerIds[i] = RouterId.forAddress("192.0." + (i >> 8) + "." + (i & 0xFF));
+            this.attributes[i] = createAttributes(i);
+            this.entry.addRoute(this.routerIds[i], NON_PATH_ID_VALUE, new Ipv4RouteBuilder()
+                .withKey(new Ipv4RouteKey(NON_PATH_ID, PREFIX)).setAttributes(this.attributes[i]).build());
+        }
+        this.entry.selectBest(LOCAL_AS);
+    }
+
+    @Benchmark
+    public BaseBestPath selectorOverAttributes() {
+        final BasePathSelector selector = new BasePathSelector(LOCAL_AS);
+        for (int i = 0; i < this.paths; i++) {
+            selector.processPath(this.routerIds[i], this.attributes[i]);
+        }
+        return selector.result();
+    }
+
+    @Benchmark
+    public boolean routeEntrySelectBest() {
+        return this.entry.selectBest(LOCAL_AS);
+    }
+
+    /*
+     * Make the paths tie on LOCAL_PREF and spread them over AS_PATH lengths and MEDs, so that selection has to walk
+     * through most of the decision process.
+     */
+    private static Attributes createAttributes(final int index) {
+        final List<AsNumber> asPath = new ArrayList<>();
+        for (int i = 0; i <= index % 4; i++) {
+            asPath.add(new AsNumber(64512L + index % 8 + i));
+        }
+        return new AttributesBuilder()
+                .setLocalPref(new LocalPrefBuilder().setPref(100L).build())
+                .setMultiExitDisc(new MultiExitDiscBuilder().setMed((long) index % 16).build())
+                .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+                .setAsPath(new AsPathBuilder().setSegments(Collections.singletonList(
+                    new SegmentsBuilder().setAsSequence(asPath).build())).build())
+                .build();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BestPathSelectionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.mode.impl.base;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.rib.spi.RouterId;
+
+public class RouterIdOffsetsTest {
+    private static final RouterId ROUTER_ID1 = RouterId.forAddress("127.0.0.1");
+    private static final RouterId ROUTER_ID2 = RouterId.forAddress("127.0.0.2");
+    private static final RouterId ROUTER_ID3 = RouterId.forAddress("127.0.0.3");
+
+    @Test
+    public void testWithKeepsKeysSorted() {
+        final RouterIdOffsets offsets = RouterIdOffsets.EMPTY.with(ROUTER_ID3).with(ROUTER_ID1).with(ROUTER_ID2);
+        assertEquals(3, offsets.size());
+        assertSame(ROUTER_ID1, offsets.getKey(0));
+        assertSame(ROUTER_ID2, offsets.getKey(1));
+        assertSame(ROUTER_ID3, offsets.getKey(2));
+        assertEquals(1, offsets.offsetOf(ROUTER_ID2));
+        assertSame(offsets, offsets.with(ROUTER_ID2));
+    }
+
+    @Test
+    public void testInstancesAreShared() {
+        final RouterIdOffsets first = RouterIdOffsets.EMPTY.with(ROUTER_ID1).with(ROUTER_ID2);
+        final RouterIdOffsets second = RouterIdOffsets.EMPTY.with(ROUTER_ID2).with(ROUTER_ID1);
+        assertSame(first, second);
+        assertSame(RouterIdOffsets.EMPTY.with(ROUTER_ID1), first.without(ROUTER_ID2));
+        assertSame(RouterIdOffsets.EMPTY, first.without(ROUTER_ID1).without(ROUTER_ID2));
+        assertTrue(RouterIdOffsets.EMPTY.isEmpty());
+    }
+
+    @Test
+    public void testValues() {
+        final RouterIdOffsets one = RouterIdOffsets.EMPTY.with(ROUTER_ID1).with(ROUTER_ID3);
+        final String[] values = { "1", "3" };
+
+        final RouterIdOffsets two = one.with(ROUTER_ID2);
+        final String[] expanded = two.expand(one, values, two.offsetOf(ROUTER_ID2));
+        assertArrayEquals(new String[] { "1", null, "3" }, expanded);
+        two.setValue(expanded, 1, "2");
+        assertEquals("2", two.getValue(expanded, 1));
+
+        assertArrayEquals(new String[] { "1", "3" }, two.removeValue(expanded, 1, new String[0]));
+    }
+}
@@ -31,6 +31,7 @@ import org.opendaylight.protocol.bgp.mode.impl.BGPRouteEntryExportParametersImpl
 import org.opendaylight.protocol.bgp.rib.impl.spi.PeerTransactionChain;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
 import org.opendaylight.protocol.bgp.rib.impl.state.BGPPeerStateImpl;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.AdjRibOutExportCounters;
 import org.opendaylight.protocol.bgp.rib.spi.BGPPeerTracker;
 import org.opendaylight.protocol.bgp.rib.spi.IdentifierUtils;
 import org.opendaylight.protocol.bgp.rib.spi.Peer;
@@ -144,6 +145,10 @@ abstract class AbstractPeer extends BGPPeerStateImpl implements BGPRouteEntryImp
                 .rev180329.bgp.rib.rib.Peer.QNAME).node(IdentifierUtils.domPeerId(this.peerId));
     }
 
+    final void setAdjRibOutExportCounters(final AdjRibOutExportCounters counters) {
+        registerAdjRibOutExportCounters(counters);
+    }
+
     @Override
     public final synchronized PeerId getPeerId() {
         return this.peerId;
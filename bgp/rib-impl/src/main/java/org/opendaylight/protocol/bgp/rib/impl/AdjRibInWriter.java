@@ -10,36 +10,35 @@ package org.opendaylight.protocol.bgp.rib.impl;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.dom.api.DOMDataReadOnlyTransaction;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.protocol.bgp.rib.impl.ApplicationPeer.RegisterAppPeerListener;
 import org.opendaylight.protocol.bgp.rib.impl.spi.PeerTransactionChain;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.AdjRibInBatchCounters;
 import org.opendaylight.protocol.bgp.rib.spi.IdentifierUtils;
 import org.opendaylight.protocol.bgp.rib.spi.PeerRoleUtil;
 import org.opendaylight.protocol.bgp.rib.spi.RibSupportUtils;
@@ -64,8 +63,6 @@ import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdent
 import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
 import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
 import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
-import org.opendaylight.yangtools.yang.data.api.schema.MapNode;
-import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
 import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
 import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.opendaylight.yangtools.yang.data.impl.schema.builder.api.DataContainerNodeAttrBuilder;
@@ -77,6 +74,12 @@ import org.slf4j.LoggerFactory;
 /**
  * Writer of Adjacency-RIB-In for a single peer. An instance of this object
  * is attached to each {@link BGPPeer} and {@link ApplicationPeer}.
+ *
+ * <p>
+ * Routes received in consecutive UPDATE messages can be coalesced into a single transaction. A batch is committed
+ * once it holds the configured number of routes, once it is older than the configured time budget, when
+ * {@link #flush()} is invoked and before any other transaction is allocated on the chain. A zero batch size commits
+ * each UPDATE message separately.
  */
 @NotThreadSafe
 final class AdjRibInWriter {
@@ -112,17 +115,27 @@ final class AdjRibInWriter {
     private final YangInstanceIdentifier ribPath;
     private final PeerTransactionChain chain;
     private final PeerRole role;
-    @GuardedBy("this")
-    private final Map<TablesKey, Collection<NodeIdentifierWithPredicates>> staleRoutesRegistry = new HashMap<>();
+    private final int maxBatchRoutes;
+    private final long maxBatchNanos;
+    private final BatchCounters counters;
+    private final Map<TablesKey, RouteGenerations> routeGenerations = new HashMap<>();
+    private Set<TablesKey> gracefulTables = Collections.emptySet();
     @GuardedBy("this")
     private FluentFuture<? extends CommitInfo> submitted;
+    private DOMDataWriteTransaction batch;
+    private int batchRoutes;
+    private long batchStart;
 
     private AdjRibInWriter(final YangInstanceIdentifier ribPath, final PeerTransactionChain chain, final PeerRole role,
-            final Map<TablesKey, TableContext> tables) {
+            final Map<TablesKey, TableContext> tables, final int maxBatchRoutes, final long maxBatchNanos,
+            final BatchCounters counters) {
         this.ribPath = requireNonNull(ribPath);
         this.chain = requireNonNull(chain);
         this.tables = requireNonNull(tables);
         this.role = requireNonNull(role);
+        this.maxBatchRoutes = maxBatchRoutes;
+        this.maxBatchNanos = maxBatchNanos;
+        this.counters = requireNonNull(counters);
     }
 
     /**
@@ -133,7 +146,22 @@ final class AdjRibInWriter {
      */
     static AdjRibInWriter create(@Nonnull final YangInstanceIdentifier ribId, @Nonnull final PeerRole role,
             @Nonnull final PeerTransactionChain chain) {
-        return new AdjRibInWriter(ribId, chain, role, Collections.emptyMap());
+        return create(ribId, role, chain, 0, 0);
+    }
+
+    /**
+     * Create a new writer using a transaction chain, coalescing routes received in consecutive UPDATE messages.
+     *
+     * @param role                peer's role
+     * @param chain               transaction chain
+     * @param maxBatchRoutes      maximum number of routes written in a single transaction, zero disables batching
+     * @param maxBatchTime        maximum time in milliseconds routes are held in an uncommitted transaction
+     * @return A fresh writer instance
+     */
+    static AdjRibInWriter create(@Nonnull final YangInstanceIdentifier ribId, @Nonnull final PeerRole role,
+            @Nonnull final PeerTransactionChain chain, final int maxBatchRoutes, final int maxBatchTime) {
+        return new AdjRibInWriter(ribId, chain, role, Collections.emptyMap(), maxBatchRoutes,
+            TimeUnit.MILLISECONDS.toNanos(maxBatchTime), new BatchCounters());
     }
 
     /**
@@ -158,6 +186,7 @@ final class AdjRibInWriter {
             final RIBSupportContextRegistry registry, final Set<TablesKey> tableTypes,
             final Map<TablesKey, SendReceive> addPathTablesType,
             @Nullable final RegisterAppPeerListener registerAppPeerListener) {
+        flush();
         final DOMDataWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
 
         createEmptyPeerStructure(newPeerId, peerPath, tx);
@@ -183,7 +212,8 @@ final class AdjRibInWriter {
                 }
             }
         }, MoreExecutors.directExecutor());
-        return new AdjRibInWriter(this.ribPath, this.chain, this.role, tb);
+        return new AdjRibInWriter(this.ribPath, this.chain, this.role, tb, this.maxBatchRoutes, this.maxBatchNanos,
+            this.counters);
     }
 
     /**
@@ -266,6 +296,7 @@ final class AdjRibInWriter {
     }
 
     void markTableUptodate(final TablesKey tableTypes) {
+        flush();
         final DOMDataWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
         final TableContext ctx = this.tables.get(tableTypes);
         tx.merge(LogicalDatastoreType.OPERATIONAL, ctx.getTableId().node(Attributes.QNAME)
@@ -292,26 +323,14 @@ final class AdjRibInWriter {
             return;
         }
 
-        final DOMDataWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
-        final Collection<NodeIdentifierWithPredicates> routeKeys = ctx.writeRoutes(tx, nlri, attributes);
-        final Collection<NodeIdentifierWithPredicates> staleRoutes = this.staleRoutesRegistry.get(key);
-        if (staleRoutes != null) {
-            staleRoutes.removeAll(routeKeys);
+        final Collection<NodeIdentifierWithPredicates> routeKeys = ctx.writeRoutes(batchTransaction(), nlri,
+            attributes);
+        final RouteGenerations generations = this.routeGenerations.get(key);
+        if (generations != null) {
+            generations.learned(routeKeys);
         }
         LOG.trace("Write routes {}", nlri);
-        final FluentFuture<? extends CommitInfo> future = tx.commit();
-        this.submitted = future;
-        future.addCallback(new FutureCallback<CommitInfo>() {
-            @Override
-            public void onSuccess(final CommitInfo result) {
-                LOG.trace("Write routes {}, succeed", nlri);
-            }
-
-            @Override
-            public void onFailure(final Throwable throwable) {
-                LOG.error("Write routes failed", throwable);
-            }
-        }, MoreExecutors.directExecutor());
+        addToBatch(routeKeys.size());
     }
 
     void removeRoutes(final MpUnreachNlri nlri) {
@@ -322,24 +341,76 @@ final class AdjRibInWriter {
             return;
         }
         LOG.trace("Removing routes {}", nlri);
-        final DOMDataWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
-        ctx.removeRoutes(tx, nlri);
+        final Collection<NodeIdentifierWithPredicates> routeKeys = ctx.removeRoutes(batchTransaction(), nlri);
+        final RouteGenerations generations = this.routeGenerations.get(key);
+        if (generations != null) {
+            generations.withdrawn(routeKeys);
+        }
+        addToBatch(routeKeys.size());
+    }
+
+    /**
+     * Check whether there are routes written into a transaction which has not been committed yet.
+     *
+     * @return True if a batch is pending
+     */
+    boolean hasPendingBatch() {
+        return this.batch != null;
+    }
+
+    /**
+     * Commit the pending batch, if there is one.
+     */
+    void flush() {
+        final DOMDataWriteTransaction tx = this.batch;
+        if (tx == null) {
+            return;
+        }
+        this.batch = null;
+
+        final int routes = this.batchRoutes;
+        final long start = System.nanoTime();
         final FluentFuture<? extends CommitInfo> future = tx.commit();
         this.submitted = future;
+        this.counters.batchCommitted(routes);
         future.addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
-                LOG.trace("Removing routes {}, succeed", nlri);
+                LOG.trace("Write of {} routes succeeded", routes);
+                AdjRibInWriter.this.counters.commitCompleted(System.nanoTime() - start);
             }
 
             @Override
             public void onFailure(final Throwable throwable) {
-                LOG.error("Removing routes failed", throwable);
+                LOG.error("Write routes failed", throwable);
             }
         }, MoreExecutors.directExecutor());
     }
 
+    AdjRibInBatchCounters getBatchCounters() {
+        return this.counters;
+    }
+
+    private DOMDataWriteTransaction batchTransaction() {
+        DOMDataWriteTransaction tx = this.batch;
+        if (tx == null) {
+            tx = this.chain.getDomChain().newWriteOnlyTransaction();
+            this.batch = tx;
+            this.batchRoutes = 0;
+            this.batchStart = System.nanoTime();
+        }
+        return tx;
+    }
+
+    private void addToBatch(final int routes) {
+        this.batchRoutes += routes;
+        if (this.batchRoutes >= this.maxBatchRoutes || System.nanoTime() - this.batchStart >= this.maxBatchNanos) {
+            flush();
+        }
+    }
+
     void releaseChain() {
+        flush();
         if (this.submitted != null) {
             try {
                 this.submitted.get();
@@ -349,54 +420,35 @@ final class AdjRibInWriter {
         }
     }
 
-    void storeStaleRoutes(final Set<TablesKey> gracefulTables) {
-        final CountDownLatch latch = new CountDownLatch(gracefulTables.size());
-
-        try (DOMDataReadOnlyTransaction tx = this.chain.getDomChain().newReadOnlyTransaction()) {
-            for (TablesKey tablesKey : gracefulTables) {
-                final TableContext ctx = this.tables.get(tablesKey);
-                if (ctx == null) {
-                    LOG.warn("Missing table for address family {}", tablesKey);
-                    latch.countDown();
-                    continue;
-                }
+    /**
+     * Set the tables which are preserved across a graceful restart of the session. Route keys are tracked only in
+     * these tables, other tables are cleared when the session goes down. A table which still holds stale routes
+     * remains tracked until they are swept.
+     *
+     * @param tablesKeys tables negotiated for graceful restart
+     */
+    void setGracefulTables(final Set<TablesKey> tablesKeys) {
+        this.gracefulTables = ImmutableSet.copyOf(tablesKeys);
+        this.routeGenerations.entrySet().removeIf(entry -> !this.gracefulTables.contains(entry.getKey())
+            && !entry.getValue().hasStale());
+        this.gracefulTables.forEach(key -> this.routeGenerations.computeIfAbsent(key, k -> new RouteGenerations()));
+    }
 
-                Futures.addCallback(tx.read(LogicalDatastoreType.OPERATIONAL, ctx.routesPath()),
-                    new FutureCallback<Optional<NormalizedNode<?, ?>>>() {
-                        @Override
-                        public void onSuccess(final Optional<NormalizedNode<?, ?>> routesOptional) {
-                            try {
-                                if (routesOptional.isPresent()) {
-                                    synchronized (AdjRibInWriter.this.staleRoutesRegistry) {
-                                        final MapNode routesNode = (MapNode) routesOptional.get();
-                                        final List<NodeIdentifierWithPredicates> routes = routesNode.getValue().stream()
-                                                .map(MapEntryNode::getIdentifier)
-                                                .collect(Collectors.toList());
-                                        if (!routes.isEmpty()) {
-                                            AdjRibInWriter.this.staleRoutesRegistry.put(tablesKey, routes);
-                                        }
-                                    }
-                                }
-                            } finally {
-                                latch.countDown();
-                            }
-                        }
-
-                        @Override
-                        public void onFailure(final Throwable throwable) {
-                            LOG.warn("Failed to store stale routes for table {}", tablesKey, throwable);
-                            latch.countDown();
-                        }
-                    }, MoreExecutors.directExecutor());
+    /**
+     * Start a new route generation in specified tables. Routes learned so far become stale unless they are
+     * advertised again before {@link #removeStaleRoutes(TablesKey)} is invoked for their table.
+     *
+     * @param gracefulTables tables preserved across the restart
+     */
+    void storeStaleRoutes(final Set<TablesKey> gracefulTables) {
+        flush();
+        for (final TablesKey tablesKey : gracefulTables) {
+            final RouteGenerations generations = this.routeGenerations.get(tablesKey);
+            if (generations != null) {
+                generations.advance();
+                LOG.debug("Table {} entered route generation {}", tablesKey, generations.getEpoch());
             }
         }
-
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            LOG.warn("Interrupted while waiting to store stale routes with {} tasks of {} to finish", latch.getCount(),
-                gracefulTables, e);
-        }
     }
 
     void removeStaleRoutes(final TablesKey tableKey) {
@@ -405,12 +457,18 @@ final class AdjRibInWriter {
             LOG.debug("No table for {}, not removing any stale routes", tableKey);
             return;
         }
-        final Collection<NodeIdentifierWithPredicates> routeKeys = this.staleRoutesRegistry.get(tableKey);
-        if (routeKeys == null || routeKeys.isEmpty()) {
+        final RouteGenerations generations = this.routeGenerations.get(tableKey);
+        final Collection<NodeIdentifierWithPredicates> routeKeys = generations == null ? Collections.emptySet()
+                : generations.sweep();
+        if (generations != null && !this.gracefulTables.contains(tableKey)) {
+            this.routeGenerations.remove(tableKey);
+        }
+        if (routeKeys.isEmpty()) {
             LOG.debug("No stale routes present in table {}", tableKey);
             return;
         }
         LOG.trace("Removing routes {}", routeKeys);
+        flush();
         final DOMDataWriteTransaction tx = this.chain.getDomChain().newWriteOnlyTransaction();
         routeKeys.forEach(routeKey -> {
             tx.delete(LogicalDatastoreType.OPERATIONAL, ctx.routePath(routeKey));
@@ -421,9 +479,6 @@ final class AdjRibInWriter {
             @Override
             public void onSuccess(final CommitInfo result) {
                 LOG.trace("Removing routes {}, succeed", routeKeys);
-                synchronized (AdjRibInWriter.this.staleRoutesRegistry) {
-                    staleRoutesRegistry.remove(tableKey);
-                }
             }
 
             @Override
@@ -438,11 +493,100 @@ final class AdjRibInWriter {
             return CommitInfo.emptyFluentFuture();
         }
 
+        flush();
         final DOMDataWriteTransaction wtx = this.chain.getDomChain().newWriteOnlyTransaction();
         tablesToClear.forEach(tableKey -> {
             final TableContext ctx = this.tables.get(tableKey);
+            this.routeGenerations.remove(tableKey);
             wtx.delete(LogicalDatastoreType.OPERATIONAL, ctx.routesPath().getParent());
         });
         return wtx.commit();
     }
+
+    /**
+     * Route keys present in a single Adj-RIB-In table, split by generation. Each graceful restart of the peer starts
+     * a new generation, routes which are not advertised again in the new generation are stale.
+     */
+    private static final class RouteGenerations {
+        private Set<NodeIdentifierWithPredicates> current = new HashSet<>();
+        private Set<NodeIdentifierWithPredicates> stale = new HashSet<>();
+        private int epoch;
+
+        int getEpoch() {
+            return this.epoch;
+        }
+
+        boolean hasStale() {
+            return !this.stale.isEmpty();
+        }
+
+        void learned(final Collection<NodeIdentifierWithPredicates> routeKeys) {
+            this.current.addAll(routeKeys);
+            if (!this.stale.isEmpty()) {
+                this.stale.removeAll(routeKeys);
+            }
+        }
+
+        void withdrawn(final Collection<NodeIdentifierWithPredicates> routeKeys) {
+            this.current.removeAll(routeKeys);
+            if (!this.stale.isEmpty()) {
+                this.stale.removeAll(routeKeys);
+            }
+        }
+
+        void advance() {
+            if (this.stale.isEmpty()) {
+                this.stale = this.current;
+            } else {
+                // Previous generation has not been swept yet, its routes remain stale
+                this.stale.addAll(this.current);
+            }
+            this.current = new HashSet<>();
+            this.epoch++;
+        }
+
+        Set<NodeIdentifierWithPredicates> sweep() {
+            final Set<NodeIdentifierWithPredicates> ret = this.stale;
+            this.stale = new HashSet<>();
+            return ret;
+        }
+    }
+
+    private static final class BatchCounters implements AdjRibInBatchCounters {
+        private final AtomicLong maxBatchSize = new AtomicLong();
+        private final AtomicLong maxCommitLatency = new AtomicLong();
+        private volatile long lastBatchSize;
+        private volatile long commitLatency;
+
+        void batchCommitted(final long routes) {
+            this.lastBatchSize = routes;
+            this.maxBatchSize.accumulateAndGet(routes, Math::max);
+        }
+
+        void commitCompleted(final long nanos) {
+            final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            this.commitLatency = micros;
+            this.maxCommitLatency.accumulateAndGet(micros, Math::max);
+        }
+
+        @Override
+        public long getLastBatchSize() {
+            return this.lastBatchSize;
+        }
+
+        @Override
+        public long getMaxBatchSize() {
+            return this.maxBatchSize.get();
+        }
+
+        @Override
+        public long getCommitLatency() {
+            return this.commitLatency;
+        }
+
+        @Override
+        public long getMaxCommitLatency() {
+            return this.maxCommitLatency.get();
+        }
+    }
 }
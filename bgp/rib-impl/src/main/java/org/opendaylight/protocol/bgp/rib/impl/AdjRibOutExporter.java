@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.AdjRibOutExportCounters;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules computation of peers' Adj-RIB-Out updates on an executor. Updates of a particular peer are executed
+ * serially in the order they were scheduled, while updates of different peers run in parallel. Once closed, the
+ * exporter drops any further updates, so its executor can be shut down safely.
+ */
+@ThreadSafe
+final class AdjRibOutExporter implements AutoCloseable {
+    private static final class PeerQueue implements AdjRibOutExportCounters {
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicLong maxLatency = new AtomicLong();
+        private final Executor executor;
+        private volatile long latency;
+
+        PeerQueue(final Executor executor) {
+            this.executor = MoreExecutors.newSequentialExecutor(executor);
+        }
+
+        void execute(final Runnable task) {
+            final long scheduled = System.nanoTime();
+            this.pending.incrementAndGet();
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        this.pending.decrementAndGet();
+                        final long elapsed = System.nanoTime() - scheduled;
+                        this.latency = elapsed;
+                        this.maxLatency.accumulateAndGet(elapsed, Math::max);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                this.pending.decrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public long getPendingExportsCount() {
+            return this.pending.get();
+        }
+
+        @Override
+        public long getExportLatency() {
+            return TimeUnit.NANOSECONDS.toMicros(this.latency);
+        }
+
+        @Override
+        public long getMaxExportLatency() {
+            return TimeUnit.NANOSECONDS.toMicros(this.maxLatency.get());
+        }
+    }
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdjRibOutExporter.class);
+
+    /*
+     * Peers are not removed explicitly, their queues go away once the peer instance is no longer reachable.
+     */
+    @GuardedBy("this")
+    private final Map<Peer, PeerQueue> queues = new WeakHashMap<>();
+    private final Executor executor;
+    private volatile boolean closed;
+
+    AdjRibOutExporter(final Executor executor) {
+        this.executor = requireNonNull(executor);
+    }
+
+    /**
+     * Create an exporter which computes updates on the thread scheduling them.
+     *
+     * @return A new exporter
+     */
+    static AdjRibOutExporter direct() {
+        return new AdjRibOutExporter(MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Schedule an update of the specified peer's Adj-RIB-Out.
+     *
+     * @param peer Peer being updated
+     * @param task Update of the peer's Adj-RIB-Out
+     */
+    void export(final Peer peer, final Runnable task) {
+        if (this.closed) {
+            LOG.debug("Exporter closed, dropping Adj-RIB-Out update of peer {}", peer.getPeerId());
+            return;
+        }
+        try {
+            queueFor(peer).execute(() -> {
+                try {
+                    task.run();
+                } catch (final RuntimeException e) {
+                    LOG.error("Failed to update Adj-RIB-Out of peer {}", peer.getPeerId(), e);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            // Raced with close(), the executor is going away along with the RIB
+            LOG.debug("Executor rejected Adj-RIB-Out update of peer {}", peer.getPeerId(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        this.closed = true;
+    }
+
+    private synchronized PeerQueue queueFor(final Peer peer) {
+        PeerQueue queue = this.queues.get(peer);
+        if (queue == null) {
+            queue = new PeerQueue(this.executor);
+            this.queues.put(peer, queue);
+            if (peer instanceof AbstractPeer) {
+                ((AbstractPeer) peer).setAdjRibOutExportCounters(queue);
+            }
+        }
+        return queue;
+    }
+}
@@ -9,30 +9,41 @@ package org.opendaylight.protocol.bgp.rib.impl;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.dom.api.ClusteredDOMDataTreeChangeListener;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeService;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.protocol.bgp.parser.spi.MessageUtil;
 import org.opendaylight.protocol.bgp.rib.impl.spi.Codecs;
 import org.opendaylight.protocol.bgp.rib.impl.spi.CodecsRegistry;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesSentCounters;
 import org.opendaylight.protocol.bgp.rib.spi.IdentifierUtils;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.protocol.bgp.rib.spi.RibSupportUtils;
+import org.opendaylight.protocol.util.Ipv6Util;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.Nlri;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.NlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutes;
@@ -59,11 +70,38 @@ import org.slf4j.LoggerFactory;
  * Instantiated for each peer and table, listens on a particular peer's adj-rib-out,
  * performs transcoding to BA form (message) and sends it down the channel.
  */
-@NotThreadSafe
+@ThreadSafe
 final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, PrefixesSentCounters {
 
     private static final Logger LOG = LoggerFactory.getLogger(AdjRibOutListener.class);
 
+    /*
+     * Common header, withdrawn routes length and total path attribute length.
+     */
+    static final int UPDATE_OVERHEAD = MessageUtil.COMMON_HEADER_LENGTH + 4;
+    /*
+     * Attribute flags, type and extended length.
+     */
+    private static final int EXTENDED_ATTRIBUTE_HEADER_LENGTH = 4;
+    private static final int AFI_SAFI_LENGTH = 3;
+    /*
+     * MP_UNREACH_NLRI header preceding the withdrawn routes, RFC4760 section 4.
+     */
+    @VisibleForTesting
+    static final int MP_UNREACH_OVERHEAD = EXTENDED_ATTRIBUTE_HEADER_LENGTH + AFI_SAFI_LENGTH;
+    /*
+     * MP_REACH_NLRI header preceding the advertised routes, RFC4760 section 3: the next hop length octet, the longest
+     * next hop, which is a global and a link-local IPv6 address as per RFC2545, and the reserved octet.
+     */
+    @VisibleForTesting
+    static final int MP_REACH_OVERHEAD = EXTENDED_ATTRIBUTE_HEADER_LENGTH + AFI_SAFI_LENGTH + 1
+            + 2 * Ipv6Util.IPV6_LENGTH + 1;
+    /*
+     * Used only when the session cannot serialize path attributes, a fraction of the message is reserved for them.
+     */
+    private static final int ATTRIBUTES_RESERVE_RATIO = 4;
+    private static final Attributes EMPTY_ATTRIBUTES = new AttributesBuilder().build();
+
     private static final QName PREFIX_QNAME = QName.create(Ipv4Route.QNAME, "prefix").intern();
     private static final QName PATHID_QNAME = QName.create(Ipv4Route.QNAME, "path-id").intern();
     private final YangInstanceIdentifier.NodeIdentifier routeKeyPrefixLeaf = new YangInstanceIdentifier
@@ -78,6 +116,12 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
     private final ListenerRegistration<AdjRibOutListener> registerDataTreeChangeListener;
     private final LongAdder prefixesSentCounter = new LongAdder();
     private final TablesKey tablesKey;
+    private final int messageSize;
+    private final int routeLength;
+    private final int maxWithdrawnRoutes;
+    @GuardedBy("this")
+    private final List<Collection<DataTreeCandidate>> deferredChanges = new ArrayList<>();
+    @GuardedBy("this")
     private boolean initalState;
 
     private AdjRibOutListener(final PeerId peerId, final TablesKey tablesKey, final YangInstanceIdentifier ribId,
@@ -88,6 +132,9 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
         this.codecs = registry.getCodecs(this.support);
         this.mpSupport = mpSupport;
         this.tablesKey = requireNonNull(tablesKey);
+        this.messageSize = session.getMaxMessageSize();
+        this.routeLength = support.maxRouteEncodedLength();
+        this.maxWithdrawnRoutes = maxRoutesPerUpdate(this.messageSize, MP_UNREACH_OVERHEAD, this.routeLength);
         final YangInstanceIdentifier adjRibOutId = ribId.node(Peer.QNAME).node(IdentifierUtils.domPeerId(peerId))
                 .node(AdjRibOut.QNAME).node(Tables.QNAME).node(RibSupportUtils.toYangTablesKey(tablesKey));
         /*
@@ -113,14 +160,42 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
     }
 
     @Override
-    public void onDataTreeChanged(final Collection<DataTreeCandidate> changes) {
+    public synchronized void onDataTreeChanged(final Collection<DataTreeCandidate> changes) {
         LOG.debug("Data change received for AdjRibOut {}", changes);
+        if (!this.deferredChanges.isEmpty() || this.session.pauseProducer(this::resume)) {
+            // Output queue is over its limit, hold the changes back until it drains
+            this.deferredChanges.add(changes);
+            return;
+        }
+        processChanges(changes);
+    }
+
+    /*
+     * Deferred changes are processed in one pass, so a route changed several times while the session was paused
+     * is sent only once.
+     */
+    private synchronized void resume() {
+        if (this.deferredChanges.isEmpty()) {
+            return;
+        }
+        LOG.debug("Resuming {} deferred changes for AdjRibOut {}", this.deferredChanges.size(), this.tablesKey);
+        final List<Collection<DataTreeCandidate>> deferred = new ArrayList<>(this.deferredChanges);
+        this.deferredChanges.clear();
+        processChanges(Iterables.concat(deferred));
+    }
+
+    @GuardedBy("this")
+    private void processChanges(final Iterable<DataTreeCandidate> changes) {
+        final Map<PathArgument, MapEntryNode> advertised = new LinkedHashMap<>();
+        final Map<PathArgument, MapEntryNode> withdrawn = new LinkedHashMap<>();
         for (final DataTreeCandidate tc : changes) {
             LOG.trace("Change {} type {}", tc.getRootNode(), tc.getRootNode().getModificationType());
             for (final DataTreeCandidateNode child : tc.getRootNode().getChildNodes()) {
-                processSupportedFamilyRoutes(child);
+                processSupportedFamilyRoutes(child, advertised, withdrawn);
             }
         }
+        withdraw(withdrawn.values());
+        advertise(advertised.values());
         if (initalState) {
             final Update endOfRib = BgpPeerUtil.createEndOfRib(this.tablesKey);
             this.session.write(endOfRib);
@@ -129,36 +204,40 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
         this.session.flush();
     }
 
-    private void processSupportedFamilyRoutes(final DataTreeCandidateNode child) {
+    private void processSupportedFamilyRoutes(final DataTreeCandidateNode child,
+            final Map<PathArgument, MapEntryNode> advertised, final Map<PathArgument, MapEntryNode> withdrawn) {
         final Collection<DataTreeCandidateNode> changedRoutes = this.support.changedRoutes(child);
         for (final DataTreeCandidateNode route : changedRoutes) {
-            processRouteChange(route);
+            processRouteChange(route, advertised, withdrawn);
         }
     }
 
-    private void processRouteChange(final DataTreeCandidateNode route) {
-        final Update update;
+    /*
+     * Only the last change of a particular route within a single batch is relevant, hence a route is tracked either
+     * as advertised or as withdrawn, never both.
+     */
+    private static void processRouteChange(final DataTreeCandidateNode route,
+            final Map<PathArgument, MapEntryNode> advertised, final Map<PathArgument, MapEntryNode> withdrawn) {
+        final PathArgument routeId = route.getIdentifier();
         switch (route.getModificationType()) {
             case UNMODIFIED:
-                LOG.debug("Skipping unmodified route {}", route.getIdentifier());
+                LOG.debug("Skipping unmodified route {}", routeId);
                 return;
             case DELETE:
             case DISAPPEARED:
-                // FIXME: we can batch deletions into a single batch
-                update = withdraw((MapEntryNode) route.getDataBefore().get());
-                LOG.debug("Withdrawing routes {}", update);
+                advertised.remove(routeId);
+                withdrawn.put(routeId, (MapEntryNode) route.getDataBefore().get());
                 break;
             case APPEARED:
             case SUBTREE_MODIFIED:
             case WRITE:
-                update = advertise((MapEntryNode) route.getDataAfter().get());
-                LOG.debug("Advertising routes {}", update);
+                withdrawn.remove(routeId);
+                advertised.put(routeId, (MapEntryNode) route.getDataAfter().get());
                 break;
             default:
                 LOG.warn("Ignoring unhandled modification type {}", route.getModificationType());
                 return;
         }
-        this.session.write(update);
     }
 
     private Attributes routeAttributes(final MapEntryNode route) {
@@ -170,19 +249,86 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
         return this.codecs.deserializeAttributes(advertisedAttrs);
     }
 
-    private Update withdraw(final MapEntryNode route) {
-        if (!this.mpSupport) {
-            return buildUpdate(Collections.emptyList(), Collections.singleton(route), routeAttributes(route));
+    /*
+     * Withdrawals do not carry any attributes, hence all of them can be packed together.
+     */
+    private void withdraw(final Collection<MapEntryNode> routes) {
+        if (routes.isEmpty()) {
+            return;
+        }
+        for (final List<MapEntryNode> batch : Iterables.partition(routes, this.maxWithdrawnRoutes)) {
+            final Update update;
+            if (!this.mpSupport) {
+                update = buildUpdate(Collections.emptyList(), batch, EMPTY_ATTRIBUTES);
+            } else {
+                update = this.support.buildUpdate(Collections.emptyList(), batch, EMPTY_ATTRIBUTES);
+            }
+            LOG.debug("Withdrawing routes {}", update);
+            this.session.write(update);
+        }
+    }
+
+    /*
+     * Advertised routes are grouped by their attributes, so that each group can be packed into as few messages
+     * as possible.
+     */
+    private void advertise(final Collection<MapEntryNode> routes) {
+        if (routes.isEmpty()) {
+            return;
+        }
+        final Map<Attributes, List<MapEntryNode>> groups = new LinkedHashMap<>();
+        for (final MapEntryNode route : routes) {
+            groups.computeIfAbsent(routeAttributes(route), key -> new ArrayList<>()).add(route);
+        }
+        for (final Entry<Attributes, List<MapEntryNode>> group : groups.entrySet()) {
+            final Attributes attributes = group.getKey();
+            final List<MapEntryNode> groupRoutes = group.getValue();
+            final int maxRoutes = groupRoutes.size() == 1 ? 1 : maxAdvertisedRoutes(attributes);
+            for (final List<MapEntryNode> batch : Lists.partition(groupRoutes, maxRoutes)) {
+                final Update update;
+                if (!this.mpSupport) {
+                    update = buildUpdate(batch, Collections.emptyList(), attributes);
+                } else {
+                    update = this.support.buildUpdate(batch, Collections.emptyList(), attributes);
+                }
+                LOG.debug("Advertising routes {}", update);
+                this.prefixesSentCounter.add(batch.size());
+                this.session.write(update);
+            }
+        }
+    }
+
+    /*
+     * The space left for routes depends on the serialized length of the group's path attributes, which can easily
+     * exceed any fixed reserve, e.g. with a long AS_PATH or many communities. The encoder remembers the length of
+     * recently sized attributes, so a group is serialized for sizing only the first time its attributes are seen.
+     */
+    private int maxAdvertisedRoutes(final Attributes attributes) {
+        if (this.routeLength <= 0) {
+            return 1;
+        }
+        final int updateLength = this.session.getUpdateLength(attributes);
+        int reserved = updateLength < 0 ? this.messageSize / ATTRIBUTES_RESERVE_RATIO : updateLength - UPDATE_OVERHEAD;
+        if (this.mpSupport) {
+            reserved += MP_REACH_OVERHEAD;
         }
-        return this.support.buildUpdate(Collections.emptyList(), Collections.singleton(route), routeAttributes(route));
+        return maxRoutesPerUpdate(this.messageSize, reserved, this.routeLength);
     }
 
-    private Update advertise(final MapEntryNode route) {
-        this.prefixesSentCounter.increment();
-        if (!this.mpSupport) {
-            return buildUpdate(Collections.singleton(route), Collections.emptyList(), routeAttributes(route));
+    /**
+     * Calculate how many routes can be packed into a single UPDATE message.
+     *
+     * @param messageSize maximum message size negotiated on the session
+     * @param reserved number of bytes reserved for path attributes
+     * @param routeLength maximum encoded length of a single route, 0 if unknown
+     * @return number of routes, at least 1
+     */
+    @VisibleForTesting
+    static int maxRoutesPerUpdate(final int messageSize, final int reserved, final int routeLength) {
+        if (routeLength <= 0) {
+            return 1;
         }
-        return this.support.buildUpdate(Collections.singleton(route), Collections.emptyList(), routeAttributes(route));
+        return Math.max(1, (messageSize - UPDATE_OVERHEAD - reserved) / routeLength);
     }
 
     private Update buildUpdate(
@@ -216,8 +362,9 @@ final class AdjRibOutListener implements ClusteredDOMDataTreeChangeListener, Pre
         return pathId.map(dataContainerChild -> new PathId((Long) dataContainerChild.getValue())).orElse(null);
     }
 
-    public void close() {
+    public synchronized void close() {
         this.registerDataTreeChangeListener.close();
+        this.deferredChanges.clear();
     }
 
     boolean isMpSupported() {
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.protocol.bgp.rib.impl.spi.AttributesInterner;
+import org.opendaylight.protocol.bgp.rib.impl.state.rib.InternedAttributesCounter;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+
+/**
+ * Hash-consing implementation of {@link AttributesInterner}. Interned instances are weakly referenced, hence an
+ * attribute set is evicted once the last route referencing it is removed from Adj-RIB-In, Effective-RIB-In,
+ * Loc-RIB and Adj-RIB-Out, without the need for explicit reference counting by the RIB writers.
+ */
+@ThreadSafe
+public final class AttributesInternerImpl implements AttributesInterner, InternedAttributesCounter {
+    private final WeakInterner<ContainerNode> containers = new WeakInterner<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Override
+    public ContainerNode intern(final ContainerNode attrs) {
+        if (attrs == null) {
+            return null;
+        }
+
+        final ContainerNode ret = this.containers.intern(attrs);
+        if (ret != null) {
+            this.hits.increment();
+            return ret;
+        }
+        this.misses.increment();
+        return attrs;
+    }
+
+    @Override
+    public long getUniqueAttributesCount() {
+        return this.containers.size();
+    }
+
+    @Override
+    public double getAttributesHitRate() {
+        final long hitCount = this.hits.sum();
+        final long total = hitCount + this.misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private static final class WeakInterner<T> {
+        private final ConcurrentMap<InternedReference<T>, InternedReference<T>> map = new ConcurrentHashMap<>();
+        private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+        /**
+         * Look up an equal instance, registering the sample if there is none.
+         *
+         * @param sample object to be interned
+         * @return Previously interned instance, or null if sample has been registered
+         */
+        T intern(final T sample) {
+            expungeCleared();
+
+            InternedReference<T> existing = this.map.get(new InternedReference<>(sample, null));
+            if (existing != null) {
+                final T interned = existing.get();
+                if (interned != null) {
+                    return interned;
+                }
+            }
+
+            final InternedReference<T> ref = new InternedReference<>(sample, this.queue);
+            while (true) {
+                existing = this.map.putIfAbsent(ref, ref);
+                if (existing == null) {
+                    return null;
+                }
+                final T interned = existing.get();
+                if (interned != null) {
+                    return interned;
+                }
+                // Collected while we were looking at it, replace it
+                this.map.remove(existing, existing);
+            }
+        }
+
+        int size() {
+            expungeCleared();
+            return this.map.size();
+        }
+
+        private void expungeCleared() {
+            Reference<? extends T> ref;
+            while ((ref = this.queue.poll()) != null) {
+                this.map.remove(ref);
+            }
+        }
+    }
+
+    /**
+     * Weak reference comparing by referent equality. Cleared references are equal only to themselves.
+     */
+    private static final class InternedReference<T> extends WeakReference<T> {
+        private final int hash;
+
+        InternedReference(final T referent, final ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof InternedReference)) {
+                return false;
+            }
+            final InternedReference<?> other = (InternedReference<?>) obj;
+            if (this.hash != other.hash) {
+                return false;
+            }
+            final T referent = get();
+            return referent != null && referent.equals(other.get());
+        }
+    }
+}
@@ -22,9 +22,9 @@ final class BGPMessageHeaderDecoder extends LengthFieldBasedFrameDecoder {
      */
     private static final int LENGTH_SIZE = 2;
 
-    private static final int MAX_FRAME_SIZE = 4096;
+    static final int MAX_FRAME_SIZE = 4096;
 
-    private static final int EXTENDED_MAX_FRAME_SIZE = 65535;
+    static final int EXTENDED_MAX_FRAME_SIZE = 65535;
 
     /*
 
@@ -9,12 +9,18 @@ package org.opendaylight.protocol.bgp.rib.impl;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import org.opendaylight.protocol.bgp.parser.spi.MessageRegistry;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yangtools.yang.binding.Notification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,12 +28,27 @@ import org.slf4j.LoggerFactory;
 @Sharable
 final class BGPMessageToByteEncoder extends MessageToByteEncoder<Notification> {
     private static final Logger LOG = LoggerFactory.getLogger(BGPMessageToByteEncoder.class);
+    // UPDATE messages are serialized in place, size the buffer so it does not need to grow while being filled
+    private static final int UPDATE_BUFFER_SIZE = 4096;
+    // Lengths of recently sized path attributes, shared by all sessions using this encoder
+    private static final int MAX_CACHED_UPDATE_LENGTHS = 4096;
+    private final Cache<Attributes, Integer> updateLengths = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_UPDATE_LENGTHS).build();
     private final MessageRegistry registry;
 
     BGPMessageToByteEncoder(final MessageRegistry registry) {
         this.registry = requireNonNull(registry);
     }
 
+    @Override
+    protected ByteBuf allocateBuffer(final ChannelHandlerContext ctx, final Notification msg,
+            final boolean preferDirect) {
+        if (!(msg instanceof Update)) {
+            return super.allocateBuffer(ctx, msg, preferDirect);
+        }
+        return preferDirect ? ctx.alloc().ioBuffer(UPDATE_BUFFER_SIZE) : ctx.alloc().heapBuffer(UPDATE_BUFFER_SIZE);
+    }
+
     @Override
     protected void encode(final ChannelHandlerContext ctx, final Notification msg, final ByteBuf out) {
         LOG.trace("Encoding message: {}", msg);
@@ -37,4 +58,29 @@ final class BGPMessageToByteEncoder extends MessageToByteEncoder<Notification> {
         }
         LOG.debug("Message sent to output: {}", msg);
     }
+
+    /**
+     * Return the length of an UPDATE message carrying specified path attributes and no routes. The attributes are
+     * serialized only if their length is not known from a previous invocation.
+     *
+     * @param attributes path attributes
+     * @return Serialized message length, including the common header
+     */
+    int updateLength(final Attributes attributes) {
+        final Integer cached = this.updateLengths.getIfPresent(attributes);
+        if (cached != null) {
+            return cached;
+        }
+
+        final ByteBuf buffer = Unpooled.buffer(UPDATE_BUFFER_SIZE);
+        final int length;
+        try {
+            this.registry.serializeMessage(new UpdateBuilder().setAttributes(attributes).build(), buffer);
+            length = buffer.readableBytes();
+        } finally {
+            buffer.release();
+        }
+        this.updateLengths.put(attributes, length);
+        return length;
+    }
 }
@@ -82,6 +82,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mult
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.mp.reach.nlri.AdvertizedRoutesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.mp.unreach.nlri.WithdrawnRoutesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.OutputQueueOverflowPolicy;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.peer.rpc.rev180329.BgpPeerRpcService;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.peer.rpc.rev180329.PeerContext;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
@@ -119,6 +120,11 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     private final RpcProviderRegistry rpcRegistry;
     private final BGPTableTypeRegistryConsumer tableTypeRegistry;
     private final BgpPeer bgpPeer;
+    private final int outputQueueLimit;
+    private final OutputQueueOverflowPolicy outputQueueOverflowPolicy;
+    private final int adjRibInBatchRoutes;
+    private final int adjRibInBatchTime;
+    private final int attributesCacheSize;
     private InstanceIdentifier<AdjRibOut> peerRibOutIId;
     private KeyedInstanceIdentifier<org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib
             .rev180329.bgp.rib.rib.Peer, PeerKey> peerIId;
@@ -147,6 +153,8 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     private Stopwatch peerRestartStopwatch;
     private long selectionDeferralTimerSeconds;
     private final List<TablesKey> missingEOT = new ArrayList<>();
+    @GuardedBy("this")
+    private boolean adjRibInFlushScheduled;
 
     public BGPPeer(
             final BGPTableTypeRegistryConsumer tableTypeRegistry,
@@ -161,12 +169,60 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             final Set<TablesKey> afiSafisGracefulAdvertized,
             final Map<TablesKey, Integer> llGracefulTablesAdvertised,
             final BgpPeer bgpPeer) {
+        this(tableTypeRegistry, neighborAddress, peerGroupName, rib, role, clusterId, localAs, rpcRegistry,
+            afiSafisAdvertized, afiSafisGracefulAdvertized, llGracefulTablesAdvertised, bgpPeer,
+            ChannelOutputLimiter.DEFAULT_QUEUE_LIMIT, OutputQueueOverflowPolicy.Pause);
+    }
+
+    public BGPPeer(
+            final BGPTableTypeRegistryConsumer tableTypeRegistry,
+            final IpAddress neighborAddress,
+            final String peerGroupName,
+            final RIB rib,
+            final PeerRole role,
+            final ClusterIdentifier clusterId,
+            final AsNumber localAs,
+            final RpcProviderRegistry rpcRegistry,
+            final Set<TablesKey> afiSafisAdvertized,
+            final Set<TablesKey> afiSafisGracefulAdvertized,
+            final Map<TablesKey, Integer> llGracefulTablesAdvertised,
+            final BgpPeer bgpPeer,
+            final int outputQueueLimit,
+            final OutputQueueOverflowPolicy outputQueueOverflowPolicy) {
+        this(tableTypeRegistry, neighborAddress, peerGroupName, rib, role, clusterId, localAs, rpcRegistry,
+            afiSafisAdvertized, afiSafisGracefulAdvertized, llGracefulTablesAdvertised, bgpPeer, outputQueueLimit,
+            outputQueueOverflowPolicy, 0, 0, BGPSessionImpl.DEFAULT_ATTRIBUTES_CACHE_SIZE);
+    }
+
+    public BGPPeer(
+            final BGPTableTypeRegistryConsumer tableTypeRegistry,
+            final IpAddress neighborAddress,
+            final String peerGroupName,
+            final RIB rib,
+            final PeerRole role,
+            final ClusterIdentifier clusterId,
+            final AsNumber localAs,
+            final RpcProviderRegistry rpcRegistry,
+            final Set<TablesKey> afiSafisAdvertized,
+            final Set<TablesKey> afiSafisGracefulAdvertized,
+            final Map<TablesKey, Integer> llGracefulTablesAdvertised,
+            final BgpPeer bgpPeer,
+            final int outputQueueLimit,
+            final OutputQueueOverflowPolicy outputQueueOverflowPolicy,
+            final int adjRibInBatchRoutes,
+            final int adjRibInBatchTime,
+            final int attributesCacheSize) {
         super(rib, Ipv4Util.toStringIP(neighborAddress), peerGroupName, role, clusterId,
                 localAs, neighborAddress, afiSafisAdvertized, afiSafisGracefulAdvertized, llGracefulTablesAdvertised);
         this.tableTypeRegistry = requireNonNull(tableTypeRegistry);
         this.rib = requireNonNull(rib);
         this.rpcRegistry = rpcRegistry;
         this.bgpPeer = bgpPeer;
+        this.outputQueueLimit = outputQueueLimit;
+        this.outputQueueOverflowPolicy = requireNonNull(outputQueueOverflowPolicy);
+        this.adjRibInBatchRoutes = adjRibInBatchRoutes;
+        this.adjRibInBatchTime = adjRibInBatchTime;
+        this.attributesCacheSize = attributesCacheSize;
     }
 
     private static Attributes nextHopToAttribute(final Attributes attrs, final MpReachNlri mpReach) {
@@ -233,7 +289,9 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
     }
 
     public synchronized void instantiateServiceInstance() {
-        this.ribWriter = AdjRibInWriter.create(this.rib.getYangRibId(), this.peerRole, this);
+        this.ribWriter = AdjRibInWriter.create(this.rib.getYangRibId(), this.peerRole, this,
+            this.adjRibInBatchRoutes, this.adjRibInBatchTime);
+        registerAdjRibInBatchCounters(this.ribWriter.getBatchCounters());
         setActive(true);
     }
 
@@ -262,16 +320,32 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
 
         final TablesKey key = new TablesKey(rrAfi, rrSafi);
         synchronized (this) {
-            final AdjRibOutListener listener = this.adjRibOutListenerSet.remove(key);
-            if (listener != null) {
-                listener.close();
-                createAdjRibOutListener(key, listener.isMpSupported());
-            } else {
+            this.ribWriter.flush();
+            if (!refreshAdjRibOut(key)) {
                 LOG.info("Ignoring RouteRefresh message. Afi/Safi is not supported: {}, {}.", rrAfi, rrSafi);
             }
         }
     }
 
+    /**
+     * Re-advertise the complete Adj-RIB-Out of all tables, invoked once the session's output queue has been drained
+     * after it overflowed.
+     */
+    private synchronized void refreshAdjRibOut() {
+        ImmutableSet.copyOf(this.adjRibOutListenerSet.keySet()).forEach(this::refreshAdjRibOut);
+    }
+
+    @GuardedBy("this")
+    private boolean refreshAdjRibOut(final TablesKey key) {
+        final AdjRibOutListener listener = this.adjRibOutListenerSet.remove(key);
+        if (listener == null) {
+            return false;
+        }
+        listener.close();
+        createAdjRibOutListener(key, listener.isMpSupported());
+        return true;
+    }
+
     /**
      * Check for presence of well known mandatory attribute LOCAL_PREF in Update message.
      *
@@ -316,6 +390,9 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             mpUnreach = MessageUtil.getMpUnreachNlri(attrs);
         }
         final boolean endOfRib = BgpPeerUtil.isEndOfRib(message);
+        if (endOfRib) {
+            this.ribWriter.flush();
+        }
         if (mpUnreach != null) {
             if (endOfRib) {
                 final TablesKey tablesKey = new TablesKey(mpUnreach.getAfi(), mpUnreach.getSafi());
@@ -330,6 +407,24 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
             this.missingEOT.remove(IPV4_UCAST_TABLE_KEY);
             handleGracefulEndOfRib();
         }
+        scheduleAdjRibInFlush();
+    }
+
+    /**
+     * Make sure a partial Adj-RIB-In batch is committed once its time budget expires, even if the peer does not send
+     * any further UPDATE messages.
+     */
+    @GuardedBy("this")
+    private void scheduleAdjRibInFlush() {
+        if (!this.adjRibInFlushScheduled && this.session != null && this.ribWriter.hasPendingBatch()) {
+            this.adjRibInFlushScheduled = true;
+            this.session.schedule(this::flushAdjRibIn, this.adjRibInBatchTime, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void flushAdjRibIn() {
+        this.adjRibInFlushScheduled = false;
+        this.ribWriter.flush();
     }
 
     @GuardedBy("this")
@@ -356,6 +451,13 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
         if (this.session instanceof BGPSessionStateProvider) {
             ((BGPSessionStateProvider) this.session).registerMessagesCounter(this);
         }
+        if (this.session instanceof BGPSessionImpl) {
+            final ChannelOutputLimiter limiter = ((BGPSessionImpl) this.session).getLimiter();
+            limiter.setOverflowPolicy(this.outputQueueLimit, this.outputQueueOverflowPolicy, this::refreshAdjRibOut);
+            registerOutputQueueCounters(limiter);
+            ((BGPSessionImpl) this.session).setAttributesCacheSize(this.attributesCacheSize);
+            registerAttributesCache(((BGPSessionImpl) this.session).getAttributesCache());
+        }
         final GracefulRestartCapability advertisedGracefulRestartCapability =
                 session.getAdvertisedGracefulRestartCapability();
         final List<org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.mp
@@ -425,6 +527,7 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
                     .map(t -> new TablesKey(t.getAfi(), t.getSafi())).collect(Collectors.toList()));
         }
         setAfiSafiGracefulRestartState(advertisedGracefulRestartCapability.getRestartTime(), false, restartingLocally);
+        this.ribWriter.setGracefulTables(getGracefulTables());
 
         final Map<TablesKey, Integer> llTablesReceived;
         if (advertisedLLTables != null) {
@@ -551,6 +654,8 @@ public class BGPPeer extends AbstractPeer implements BGPSessionListener {
                 LOG.warn("Error closing session with peer", e);
             }
             this.session = null;
+            registerOutputQueueCounters(null);
+            registerAttributesCache(null);
         }
         return future;
     }
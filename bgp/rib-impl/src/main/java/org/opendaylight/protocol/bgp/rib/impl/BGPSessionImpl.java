@@ -38,8 +38,10 @@ import org.opendaylight.protocol.bgp.parser.BGPError;
 import org.opendaylight.protocol.bgp.parser.BgpExtendedMessageUtil;
 import org.opendaylight.protocol.bgp.parser.BgpTableTypeImpl;
 import org.opendaylight.protocol.bgp.parser.GracefulRestartUtil;
+import org.opendaylight.protocol.bgp.parser.spi.AttributesCache;
 import org.opendaylight.protocol.bgp.parser.spi.MultiPathSupport;
 import org.opendaylight.protocol.bgp.parser.spi.PeerConstraint;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.AttributesCacheImpl;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.MultiPathSupportImpl;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPMessagesListener;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPPeerRegistry;
@@ -64,6 +66,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.open.message.BgpParameters;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.open.message.bgp.parameters.OptionalCapabilities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.open.message.bgp.parameters.optional.capabilities.CParameters;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.BgpTableType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.CParameters1;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.MpCapabilities;
@@ -91,6 +94,8 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
 
     private static final String EXTENDED_MSG_DECODER = "EXTENDED_MSG_DECODER";
 
+    static final int DEFAULT_ATTRIBUTES_CACHE_SIZE = 1024;
+
     static final String END_OF_INPUT = "End of input detected. Close the session.";
 
     /**
@@ -123,10 +128,13 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
     private final Ipv4Address bgpId;
     private final BGPPeerRegistry peerRegistry;
     private final ChannelOutputLimiter limiter;
+    private volatile AttributesCacheImpl attributesCache;
+    private volatile BGPMessageToByteEncoder encoder;
     private final BGPSessionStateImpl sessionState;
     private final GracefulRestartCapability gracefulCapability;
     private final LlGracefulRestartCapability llGracefulCapability;
     private boolean terminationReasonNotified;
+    private volatile int maxMessageSize = BGPMessageHeaderDecoder.MAX_FRAME_SIZE;
 
     public BGPSessionImpl(final BGPSessionListener listener, final Channel channel, final Open remoteOpen,
             final BGPSessionPreferences localPreferences, final BGPPeerRegistry peerRegistry) {
@@ -243,9 +251,31 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
         if (enableExMess) {
             this.channel.pipeline().replace(BGPMessageHeaderDecoder.class, EXTENDED_MSG_DECODER,
                     BGPMessageHeaderDecoder.getExtendedBGPMessageHeaderDecoder());
+            this.maxMessageSize = BGPMessageHeaderDecoder.EXTENDED_MAX_FRAME_SIZE;
         }
     }
 
+    /**
+     * Return the maximum size of a message which can be sent on this session, including the common header.
+     *
+     * @return 65535 if BGP Extended Message capability was negotiated, 4096 otherwise
+     */
+    int getMaxMessageSize() {
+        return this.maxMessageSize;
+    }
+
+    /**
+     * Return the length of an UPDATE message carrying specified path attributes and no routes, as serialized
+     * by this session's encoder.
+     *
+     * @param attributes path attributes
+     * @return Serialized message length, or -1 if the session is not attached to an encoder
+     */
+    int getUpdateLength(final Attributes attributes) {
+        final BGPMessageToByteEncoder enc = this.encoder;
+        return enc == null ? -1 : enc.updateLength(attributes);
+    }
+
     @Override
     public synchronized void close() {
         if (this.state != State.IDLE) {
@@ -516,8 +546,36 @@ public class BGPSessionImpl extends SimpleChannelInboundHandler<Notification> im
         this.handleMessage(msg);
     }
 
+    /**
+     * Return the cache of parsed path attributes used by this session's decoder.
+     *
+     * @return Attributes cache, or null if the session is not attached to a decoder
+     */
+    public AttributesCache getAttributesCache() {
+        return this.attributesCache;
+    }
+
+    /**
+     * Set the maximum number of entries kept in the cache of parsed path attributes used by this session's decoder.
+     *
+     * @param size Maximum number of cached entries
+     */
+    public void setAttributesCacheSize(final int size) {
+        final AttributesCacheImpl cache = this.attributesCache;
+        if (cache != null) {
+            cache.setMaximumSize(size);
+        }
+    }
+
     @Override
     public final void handlerAdded(final ChannelHandlerContext ctx) {
+        final BGPByteToMessageDecoder decoder = ctx.pipeline().get(BGPByteToMessageDecoder.class);
+        if (decoder != null) {
+            final AttributesCacheImpl cache = new AttributesCacheImpl(DEFAULT_ATTRIBUTES_CACHE_SIZE);
+            decoder.addDecoderConstraint(AttributesCache.class, cache);
+            this.attributesCache = cache;
+        }
+        this.encoder = ctx.pipeline().get(BGPMessageToByteEncoder.class);
         this.sessionUp();
     }
 
@@ -7,86 +7,339 @@
  */
 package org.opendaylight.protocol.bgp.rib.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelPromise;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
+import org.opendaylight.protocol.bgp.parser.BGPError;
+import org.opendaylight.protocol.bgp.parser.spi.MessageUtil;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.OutputQueueCounters;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.OutputQueueOverflowPolicy;
 import org.opendaylight.yangtools.yang.binding.Notification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * A best-effort output limiter. It does not provide any fairness, and acts as a blocking gate-keeper
- * for a sessions' channel.
+ * A best-effort output limiter. It does not provide any fairness. While the session's channel is not writable,
+ * messages, including control messages written through {@link #writeAndFlush(Notification)}, are queued in order and
+ * written out once the channel becomes writable again, so callers are never blocked. Once the number of queued
+ * messages exceeds the configured limit, the configured {@link OutputQueueOverflowPolicy} is applied:
+ * <ul>
+ *   <li>{@link OutputQueueOverflowPolicy#Pause} asks producers to hold back further messages until the queue drains
+ *       below the limit, see {@link #pauseProducer(Runnable)},</li>
+ *   <li>{@link OutputQueueOverflowPolicy#Refresh} drops queued advertisements and re-advertises the complete
+ *       Adj-RIB-Out once the queue has been drained,</li>
+ *   <li>{@link OutputQueueOverflowPolicy#TearDown} terminates the session.</li>
+ * </ul>
+ * The limit counts messages rather than bytes, as queued messages are encoded only once they are written to the
+ * channel. Encoded data is bounded in bytes by the channel's write buffer water marks.
  */
 @ThreadSafe
-public final class ChannelOutputLimiter extends ChannelInboundHandlerAdapter {
+public final class ChannelOutputLimiter extends ChannelInboundHandlerAdapter implements OutputQueueCounters {
+    static final int DEFAULT_QUEUE_LIMIT = 65536;
+
     private static final Logger LOG = LoggerFactory.getLogger(ChannelOutputLimiter.class);
     private final BGPSessionImpl session;
-    private volatile boolean blocked;
+    @GuardedBy("this")
+    private final Deque<QueuedMessage> queue = new ArrayDeque<>();
+    @GuardedBy("this")
+    private final List<Runnable> pausedProducers = new ArrayList<>();
+    @GuardedBy("this")
+    private int queueLimit = DEFAULT_QUEUE_LIMIT;
+    @GuardedBy("this")
+    private OutputQueueOverflowPolicy overflowPolicy = OutputQueueOverflowPolicy.Pause;
+    @GuardedBy("this")
+    private Runnable refreshHandler;
+    @GuardedBy("this")
+    private boolean blocked;
+    @GuardedBy("this")
+    private boolean paused;
+    @GuardedBy("this")
+    private boolean refreshPending;
+    @GuardedBy("this")
+    private long stallStart;
+    @GuardedBy("this")
+    private long stallTime;
+    private volatile Channel channel;
 
     ChannelOutputLimiter(final BGPSessionImpl session) {
         this.session = requireNonNull(session);
     }
 
-    private void ensureWritable() {
-        if (this.blocked) {
-            LOG.trace("Blocked slow path tripped on session {}", this.session);
-            synchronized (this) {
-                while (this.blocked) {
-                    try {
-                        LOG.debug("Waiting for session {} to become writable", this.session);
-                        flush();
-                        this.wait();
-                    } catch (final InterruptedException e) {
-                        throw new IllegalStateException("Interrupted while waiting for channel to come back", e);
-                    }
-                }
+    /**
+     * Set the policy applied when the number of queued messages exceeds the limit.
+     *
+     * @param limit maximum number of queued messages
+     * @param policy overflow policy
+     * @param refresh action re-advertising the complete Adj-RIB-Out, used by {@link OutputQueueOverflowPolicy#Refresh}
+     */
+    synchronized void setOverflowPolicy(final int limit, final OutputQueueOverflowPolicy policy,
+            final Runnable refresh) {
+        checkArgument(limit > 0, "Invalid queue limit %s", limit);
+        this.queueLimit = limit;
+        this.overflowPolicy = requireNonNull(policy);
+        this.refreshHandler = requireNonNull(refresh);
+    }
 
-                LOG.debug("Resuming write on session {}", this.session);
+    public void write(final Notification msg) {
+        final boolean tearDown;
+        synchronized (this) {
+            if (!this.blocked && this.queue.isEmpty()) {
+                this.session.write(msg);
+                return;
             }
+            if (this.refreshPending && isAdvertisement(msg)) {
+                LOG.trace("Dropping message {} on session {}, refresh pending", msg, this.session);
+                return;
+            }
+            tearDown = enqueue(new QueuedMessage(msg, null));
         }
-    }
 
-    public void write(final Notification msg) {
-        ensureWritable();
-        this.session.write(msg);
+        if (tearDown) {
+            terminate();
+        }
     }
 
+    /*
+     * Used for control messages, which are flushed immediately and never dropped by the Refresh policy. While
+     * the queue is not empty they are queued behind previously written messages, the returned future completes once
+     * they are actually written.
+     */
     ChannelFuture writeAndFlush(final Notification msg) {
-        ensureWritable();
-        return this.session.writeAndFlush(msg);
+        final ChannelPromise promise;
+        final boolean tearDown;
+        synchronized (this) {
+            final Channel chan = this.channel;
+            if (chan == null || !this.blocked && this.queue.isEmpty()) {
+                return this.session.writeAndFlush(msg);
+            }
+            promise = chan.newPromise();
+            tearDown = enqueue(new QueuedMessage(msg, promise));
+        }
+
+        if (tearDown) {
+            terminate();
+        }
+        return promise;
+    }
+
+    /**
+     * Check whether a producer should hold back its messages, because the queue limit has been exceeded under
+     * {@link OutputQueueOverflowPolicy#Pause}. If so, the supplied action is run once the queue drains below
+     * the limit, unless the session goes down first.
+     *
+     * @param resume action resuming the producer
+     * @return true if the producer should hold back its messages
+     */
+    synchronized boolean pauseProducer(final Runnable resume) {
+        if (!this.paused) {
+            return false;
+        }
+        this.pausedProducers.add(requireNonNull(resume));
+        return true;
     }
 
     public void flush() {
         this.session.flush();
     }
 
+    int getMaxMessageSize() {
+        return this.session.getMaxMessageSize();
+    }
+
+    int getUpdateLength(final Attributes attributes) {
+        return this.session.getUpdateLength(attributes);
+    }
+
+    @Override
+    public synchronized long getQueuedMessagesCount() {
+        return this.queue.size();
+    }
+
+    @Override
+    public long getQueuedBytes() {
+        final Channel chan = this.channel;
+        if (chan == null) {
+            return 0;
+        }
+        final ChannelOutboundBuffer buffer = chan.unsafe().outboundBuffer();
+        return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+    }
+
+    @Override
+    public synchronized long getStallTime() {
+        long nanos = this.stallTime;
+        if (this.blocked) {
+            nanos += System.nanoTime() - this.stallStart;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @GuardedBy("this")
+    private boolean enqueue(final QueuedMessage queued) {
+        this.queue.add(queued);
+        return this.queue.size() > this.queueLimit && handleOverflow();
+    }
+
+    @GuardedBy("this")
+    private boolean handleOverflow() {
+        switch (this.overflowPolicy) {
+            case Refresh:
+                LOG.info("Output queue limit exceeded on session {}, dropping queued advertisements", this.session);
+                this.queue.removeIf(QueuedMessage::isDroppable);
+                this.refreshPending = true;
+                return false;
+            case TearDown:
+                LOG.warn("Output queue limit exceeded on session {}, terminating it", this.session);
+                discardQueue();
+                return true;
+            case Pause:
+            default:
+                if (!this.paused) {
+                    LOG.debug("Output queue limit exceeded on session {}, pausing producers", this.session);
+                    this.paused = true;
+                }
+                return false;
+        }
+    }
+
+    private void terminate() {
+        this.session.terminate(new BGPDocumentedException("Output queue limit exceeded", BGPError.OUT_OF_RESOURCES));
+    }
+
+    /*
+     * A re-advertisement of the Adj-RIB-Out cannot retract routes from the peer, hence only advertisements can be
+     * dropped, while withdrawals and End-of-RIB markers are always kept.
+     */
+    private static boolean isAdvertisement(final Notification msg) {
+        return msg instanceof Update && MessageUtil.isAnyNlriPresent((Update) msg);
+    }
+
+    @GuardedBy("this")
+    private void discardQueue() {
+        for (final QueuedMessage queued : this.queue) {
+            if (queued.promise != null) {
+                queued.promise.tryFailure(new ClosedChannelException());
+            }
+        }
+        this.queue.clear();
+    }
+
+    @GuardedBy("this")
+    private void drain(final Channel chan) {
+        boolean written = false;
+        while (!this.queue.isEmpty() && chan.isWritable()) {
+            final QueuedMessage queued = this.queue.poll();
+            if (queued.promise == null) {
+                this.session.write(queued.msg);
+            } else {
+                final ChannelPromise promise = queued.promise;
+                this.session.writeAndFlush(queued.msg).addListener((ChannelFutureListener) future -> {
+                    if (future.isSuccess()) {
+                        promise.trySuccess();
+                    } else {
+                        promise.tryFailure(future.cause());
+                    }
+                });
+            }
+            written = true;
+        }
+        if (written) {
+            this.session.flush();
+        }
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
+        this.channel = ctx.channel();
+        super.handlerAdded(ctx);
+    }
+
     @Override
     public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
         final boolean w = ctx.channel().isWritable();
+        Runnable refresh = null;
+        List<Runnable> resumed = null;
 
         synchronized (this) {
-            this.blocked = !w;
             LOG.debug("Writes on session {} {}", this.session, w ? "unblocked" : "blocked");
-
             if (w) {
-                notifyAll();
+                if (this.blocked) {
+                    this.stallTime += System.nanoTime() - this.stallStart;
+                    this.blocked = false;
+                }
+                drain(ctx.channel());
+                if (this.refreshPending && this.queue.isEmpty()) {
+                    this.refreshPending = false;
+                    refresh = this.refreshHandler;
+                }
+                if (this.paused && this.queue.size() < this.queueLimit) {
+                    this.paused = false;
+                    resumed = new ArrayList<>(this.pausedProducers);
+                    this.pausedProducers.clear();
+                }
+            } else if (!this.blocked) {
+                this.blocked = true;
+                this.stallStart = System.nanoTime();
             }
         }
 
+        if (refresh != null) {
+            LOG.info("Output queue on session {} drained, re-advertising Adj-RIB-Out", this.session);
+            refresh.run();
+        }
+        if (resumed != null) {
+            LOG.debug("Output queue on session {} drained below limit, resuming {} producers", this.session,
+                resumed.size());
+            resumed.forEach(Runnable::run);
+        }
         super.channelWritabilityChanged(ctx);
     }
 
     @Override
     public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
         synchronized (this) {
-            this.blocked = false;
-            notifyAll();
+            if (this.blocked) {
+                this.stallTime += System.nanoTime() - this.stallStart;
+                this.blocked = false;
+            }
+            this.paused = false;
+            this.pausedProducers.clear();
+            this.refreshPending = false;
+            discardQueue();
         }
 
         super.channelInactive(ctx);
     }
+
+    private static final class QueuedMessage {
+        final Notification msg;
+        final ChannelPromise promise;
+
+        QueuedMessage(final Notification msg, final ChannelPromise promise) {
+            this.msg = requireNonNull(msg);
+            this.promise = promise;
+        }
+
+        boolean isDroppable() {
+            return this.promise == null && isAdvertisement(this.msg);
+        }
+    }
 }
@@ -16,6 +16,7 @@ import java.util.Set;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingCodecTree;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingCodecTreeNode;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingNormalizedNodeCachingCodec;
+import org.opendaylight.protocol.bgp.rib.impl.spi.AttributesInterner;
 import org.opendaylight.protocol.bgp.rib.impl.spi.Codecs;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.ClusterId;
@@ -90,9 +91,11 @@ public final class CodecsImpl implements Codecs {
     private BindingNormalizedNodeCachingCodec<MpUnreachNlri> unreachNlriCodec;
 
     private final RIBSupport<?, ?, ?, ?> ribSupport;
+    private final AttributesInterner interner;
 
-    public CodecsImpl(final RIBSupport<?, ?, ?, ?> ribSupport) {
+    public CodecsImpl(final RIBSupport<?, ?, ?, ?> ribSupport, final AttributesInterner interner) {
         this.ribSupport = requireNonNull(ribSupport);
+        this.interner = requireNonNull(interner);
         final Builder<Class<? extends DataObject>> acb = ImmutableSet.builder();
         acb.addAll(ATTRIBUTE_CACHEABLES);
         acb.addAll(this.ribSupport.cacheableAttributeObjects());
@@ -143,6 +146,6 @@ public final class CodecsImpl implements Codecs {
         final AttributesBuilder a = new AttributesBuilder(pathAttr);
         a.addAugmentation(Attributes1.class, null);
         a.addAugmentation(Attributes2.class, null);
-        return (ContainerNode) this.attributesCodec.serialize(a.build());
+        return this.interner.intern((ContainerNode) this.attributesCodec.serialize(a.build()));
     }
 }
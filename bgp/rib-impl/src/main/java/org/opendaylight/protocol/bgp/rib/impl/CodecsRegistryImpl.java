@@ -36,6 +36,7 @@ public final class CodecsRegistryImpl implements CodecsRegistry {
         });
     private final BindingCodecTreeFactory codecFactory;
     private final GeneratedClassLoadingStrategy classContext;
+    private final AttributesInternerImpl attributesInterner = new AttributesInternerImpl();
     private volatile BindingCodecTree latestCodecTree;
 
     private CodecsRegistryImpl(final BindingCodecTreeFactory codecFactory,
@@ -50,7 +51,7 @@ public final class CodecsRegistryImpl implements CodecsRegistry {
     }
 
     private Codecs createContext(final RIBSupport<?, ?, ?, ?> ribSupport) {
-        final Codecs codecs = new CodecsImpl(ribSupport);
+        final Codecs codecs = new CodecsImpl(ribSupport, this.attributesInterner);
         if (this.latestCodecTree != null) {
             // FIXME: Do we need to recalculate latestCodecTree? E.g. new rib support was added
             // after bgp was started.
@@ -75,4 +76,9 @@ public final class CodecsRegistryImpl implements CodecsRegistry {
     public Codecs getCodecs(final RIBSupport<?, ?, ?, ?> ribSupport) {
         return this.contexts.getUnchecked(ribSupport);
     }
+
+    @Override
+    public AttributesInternerImpl getAttributesInterner() {
+        return this.attributesInterner;
+    }
 }
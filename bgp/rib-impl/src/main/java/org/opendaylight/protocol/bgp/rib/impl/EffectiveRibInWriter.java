@@ -36,6 +36,7 @@ import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.protocol.bgp.openconfig.spi.BGPTableTypeRegistryConsumer;
 import org.opendaylight.protocol.bgp.parser.impl.message.update.CommunityUtil;
+import org.opendaylight.protocol.bgp.rib.impl.spi.AttributesInterner;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIB;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
@@ -120,6 +121,7 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
     private final BGPRibRoutingPolicy ribPolicies;
     private final BGPRouteEntryImportParameters peerImportParameters;
     private final BGPTableTypeRegistryConsumer tableTypeRegistry;
+    private final AttributesInterner attributesInterner;
     @GuardedBy("this")
     private FluentFuture<? extends CommitInfo> submitted;
     private boolean rtMembershipsUpdated;
@@ -142,6 +144,7 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
         this.ribPolicies = requireNonNull(rib.getRibPolicies());
         this.service = requireNonNull(rib.getService());
         this.tableTypeRegistry = requireNonNull(tableTypeRegistry);
+        this.attributesInterner = rib.getCodecsRegistry().getAttributesInterner();
         this.peerImportParameters = peer;
         this.rtMemberships = rtMemberships;
         this.rtCache = rtCache;
@@ -397,7 +400,8 @@ final class EffectiveRibInWriter implements PrefixesReceivedCounters, PrefixesIn
                 final YangInstanceIdentifier attPath = routePath.node(ribSupport.routeAttributesIdentifier());
                 final Attributes attToStore = optEffAtt.get();
                 if(!attToStore.equals(routeAttrs)) {
-                    final ContainerNode finalAttribute = ribSupport.attributeToContainerNode(attPath, attToStore);
+                    final ContainerNode finalAttribute = this.attributesInterner.intern(
+                        ribSupport.attributeToContainerNode(attPath, attToStore));
                     tx.put(LogicalDatastoreType.OPERATIONAL, attPath, finalAttribute);
                 }
                 break;
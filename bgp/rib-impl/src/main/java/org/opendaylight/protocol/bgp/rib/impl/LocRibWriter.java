@@ -7,6 +7,7 @@
  */
 package org.opendaylight.protocol.bgp.rib.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.util.concurrent.FutureCallback;
@@ -18,7 +19,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -34,6 +39,7 @@ import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.protocol.bgp.mode.api.PathSelectionMode;
 import org.opendaylight.protocol.bgp.mode.api.RouteEntry;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RibOutRefresh;
+import org.opendaylight.protocol.bgp.rib.impl.state.rib.LocRibShardsCounter;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPathsCounter;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPrefixesCounter;
 import org.opendaylight.protocol.bgp.rib.spi.BGPPeerTracker;
@@ -73,12 +79,55 @@ import org.slf4j.LoggerFactory;
 @NotThreadSafe
 final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S extends ChildOf<? super C>,
         R extends Route & ChildOf<? super S> & Identifiable<I>, I extends Identifier<R>>
-        implements AutoCloseable, RibOutRefresh, TotalPrefixesCounter, TotalPathsCounter,
+        implements AutoCloseable, RibOutRefresh, TotalPrefixesCounter, TotalPathsCounter, LocRibShardsCounter,
         ClusteredDataTreeChangeListener<Tables> {
+    /**
+     * Result of best path selection over a set of route entries.
+     */
+    private final class SelectionResult {
+        final List<StaleBestPathRoute<C, S, R, I>> staleRoutes = new ArrayList<>();
+        final List<AdvertizedRoute<C, S, R, I>> newRoutes = new ArrayList<>();
+
+        void addAll(final SelectionResult other) {
+            this.staleRoutes.addAll(other.staleRoutes);
+            this.newRoutes.addAll(other.newRoutes);
+        }
+    }
+
+    /**
+     * A partition of route entries, selected by prefix hash. Route entries are not shared across shards, hence best
+     * path selection in one shard can run concurrently with selection in other shards.
+     */
+    private final class LocRibShard {
+        private volatile long selectionLatency;
+
+        SelectionResult selectBest(final Collection<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
+            final long start = System.nanoTime();
+            final SelectionResult result = new SelectionResult();
+            try {
+                for (final Entry<RouteUpdateKey, RouteEntry<C, S, R, I>> e : toUpdate) {
+                    LOG.trace("Walking through {}", e);
+                    final RouteEntry<C, S, R, I> entry = e.getValue();
+
+                    if (!entry.selectBest(LocRibWriter.this.ourAs)) {
+                        LOG.trace("Best path has not changed, continuing");
+                        continue;
+                    }
+
+                    final String routeId = e.getKey().getRouteId();
+                    entry.removeStalePaths(LocRibWriter.this.ribSupport, routeId).ifPresent(result.staleRoutes::add);
+                    result.newRoutes.addAll(entry.newBestPaths(LocRibWriter.this.ribSupport, routeId));
+                }
+            } finally {
+                this.selectionLatency = System.nanoTime() - start;
+            }
+            return result;
+        }
+    }
 
     private static final Logger LOG = LoggerFactory.getLogger(LocRibWriter.class);
 
-    private final Map<String, RouteEntry<C, S, R, I>> routeEntries = new HashMap<>();
+    private final Map<String, RouteEntry<C, S, R, I>> routeEntries;
     private final long ourAs;
     private final RIBSupport<C, S, R, I> ribSupport;
     private final DataBroker dataBroker;
@@ -90,6 +139,9 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
     private final KeyedInstanceIdentifier<Rib, RibKey> ribIId;
     private final TablesKey tk;
     private final KeyedInstanceIdentifier<Tables, TablesKey> locRibTableIID;
+    private final List<LocRibShard> shards;
+    private final Executor shardExecutor;
+    private final AdjRibOutExporter exporter;
 
     private BindingTransactionChain chain;
     @GuardedBy("this")
@@ -104,7 +156,13 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
             final BGPPeerTracker peerTracker,
             final TablesKey tablesKey,
             final Class<? extends AfiSafiType> afiSafiType,
-            final PathSelectionMode pathSelectionMode) {
+            final PathSelectionMode pathSelectionMode,
+            final int shardCount,
+            final Executor shardExecutor,
+            final AdjRibOutExporter exporter) {
+        checkArgument(shardCount > 0, "Invalid shard count %s", shardCount);
+        checkArgument(shardCount == 1 || shardExecutor != null, "Shard executor is required for %s shards",
+            shardCount);
         this.chain = requireNonNull(chain);
         this.ribIId = requireNonNull(ribIId);
         this.tk = requireNonNull(tablesKey);
@@ -112,8 +170,15 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
         this.ourAs = ourAs;
         this.dataBroker = requireNonNull(dataBroker);
         this.ribSupport = requireNonNull(ribSupport);
+        this.routeEntries = ribSupport.createRouteKeyMap();
         this.peerTracker = peerTracker;
         this.pathSelectionMode = pathSelectionMode;
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            this.shards.add(new LocRibShard());
+        }
+        this.shardExecutor = shardExecutor;
+        this.exporter = requireNonNull(exporter);
 
         this.entryDep = new RouteEntryDependenciesContainerImpl(this.ribSupport, this.peerTracker, ribPolicies,
                 tablesKey, afiSafiType, this.locRibTableIID);
@@ -133,8 +198,34 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
             final BGPRibRoutingPolicy ribPolicies,
             @Nonnull final BGPPeerTracker peerTracker,
             @Nonnull final PathSelectionMode pathSelectionStrategy) {
+        return create(ribSupport, tablesKey, afiSafiType, chain, ribIId, ourAs, dataBroker, ribPolicies, peerTracker,
+            pathSelectionStrategy, 1, null, AdjRibOutExporter.direct());
+    }
+
+    /**
+     * Create a LocRibWriter which partitions its route entries into specified number of shards. Best path selection
+     * in each shard is executed on the provided executor, with the results being written in a single transaction.
+     * Peers' Adj-RIB-Out updates are computed by the provided exporter.
+     */
+    public static <C extends Routes & DataObject & ChoiceIn<Tables>, S extends ChildOf<? super C>,
+                R extends Route & ChildOf<? super S> & Identifiable<I>, I extends Identifier<R>>
+                LocRibWriter<C, S, R, I> create(
+            @Nonnull final RIBSupport<C, S, R, I> ribSupport,
+            @Nonnull final TablesKey tablesKey,
+            @Nonnull final Class<? extends AfiSafiType> afiSafiType,
+            @Nonnull final BindingTransactionChain chain,
+            @Nonnull final KeyedInstanceIdentifier<Rib, RibKey> ribIId,
+            @Nonnull final AsNumber ourAs,
+            @Nonnull final DataBroker dataBroker,
+            final BGPRibRoutingPolicy ribPolicies,
+            @Nonnull final BGPPeerTracker peerTracker,
+            @Nonnull final PathSelectionMode pathSelectionStrategy,
+            final int shardCount,
+            final Executor shardExecutor,
+            @Nonnull final AdjRibOutExporter exporter) {
         return new LocRibWriter<>(ribSupport, chain, ribIId, ourAs.getValue(), dataBroker, ribPolicies,
-                peerTracker, tablesKey, afiSafiType, pathSelectionStrategy);
+                peerTracker, tablesKey, afiSafiType, pathSelectionStrategy, shardCount, shardExecutor,
+                exporter);
     }
 
     private synchronized void init() {
@@ -254,7 +345,7 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
                                 .actualBestPaths(this.ribSupport, new RouteEntryInfoImpl(toPeer, entry.getKey()));
                         routesToStore.addAll(filteredRoute);
                     }
-                    toPeer.initializeRibOut(this.entryDep, routesToStore);
+                    this.exporter.export(toPeer, () -> toPeer.initializeRibOut(this.entryDep, routesToStore));
                 }
             }
             /*
@@ -330,23 +421,57 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
 
     private void walkThrough(final WriteTransaction tx,
             final Set<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
-        final List<StaleBestPathRoute<C, S, R, I>> staleRoutes = new ArrayList<>();
-        final List<AdvertizedRoute<C, S, R, I>> newRoutes = new ArrayList<>();
+        final SelectionResult result = this.shards.size() == 1 ? selectBest(toUpdate) : selectBestSharded(toUpdate);
+        final List<StaleBestPathRoute<C, S, R, I>> staleRoutes = result.staleRoutes;
+        final List<AdvertizedRoute<C, S, R, I>> newRoutes = result.newRoutes;
+        updateLocRib(newRoutes, staleRoutes, tx);
+        for (final org.opendaylight.protocol.bgp.rib.spi.Peer toPeer : this.peerTracker.getNonInternalPeers()) {
+            this.exporter.export(toPeer, () -> toPeer.refreshRibOut(this.entryDep, staleRoutes, newRoutes));
+        }
+    }
+
+    private SelectionResult selectBest(final Set<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
+        return this.shards.get(0).selectBest(toUpdate);
+    }
+
+    /*
+     * Partition route entries by prefix, so that all paths of a particular prefix are handled by the same shard,
+     * run selection in all shards concurrently and merge the results.
+     */
+    private SelectionResult selectBestSharded(final Set<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> toUpdate) {
+        final int shardCount = this.shards.size();
+        final List<List<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>>> partitions = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
         for (final Entry<RouteUpdateKey, RouteEntry<C, S, R, I>> e : toUpdate) {
-            LOG.trace("Walking through {}", e);
-            final RouteEntry<C, S, R, I> entry = e.getValue();
+            partitions.get(Math.floorMod(e.getKey().getRouteId().hashCode(), shardCount)).add(e);
+        }
 
-            if (!entry.selectBest(this.ourAs)) {
-                LOG.trace("Best path has not changed, continuing");
-                continue;
+        final List<CompletableFuture<SelectionResult>> futures = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            final List<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> partition = partitions.get(i);
+            if (!partition.isEmpty()) {
+                futures.add(selectBestAsync(this.shards.get(i), partition));
             }
+        }
 
-            entry.removeStalePaths(this.ribSupport, e.getKey().getRouteId()).ifPresent(staleRoutes::add);
-            newRoutes.addAll(entry.newBestPaths(this.ribSupport, e.getKey().getRouteId()));
+        final SelectionResult result = new SelectionResult();
+        for (final CompletableFuture<SelectionResult> future : futures) {
+            result.addAll(future.join());
+        }
+        return result;
+    }
+
+    private CompletableFuture<SelectionResult> selectBestAsync(final LocRibShard shard,
+            final List<Entry<RouteUpdateKey, RouteEntry<C, S, R, I>>> partition) {
+        try {
+            return CompletableFuture.supplyAsync(() -> shard.selectBest(partition), this.shardExecutor);
+        } catch (final RejectedExecutionException e) {
+            // The executor is being shut down along with the RIB, finish the selection we have already started
+            LOG.debug("Shard executor rejected selection in LocRib {}, selecting inline", this, e);
+            return CompletableFuture.completedFuture(shard.selectBest(partition));
         }
-        updateLocRib(newRoutes, staleRoutes, tx);
-        this.peerTracker.getNonInternalPeers().parallelStream().forEach(
-            toPeer -> toPeer.refreshRibOut(this.entryDep, staleRoutes, newRoutes));
     }
 
     private void updateLocRib(final List<AdvertizedRoute<C, S, R, I>> newRoutes,
@@ -382,6 +507,11 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
         return this.totalPathsCounter.longValue();
     }
 
+    @Override
+    public List<Long> getShardSelectionLatencies() {
+        return this.shards.stream().map(shard -> shard.selectionLatency).collect(Collectors.toList());
+    }
+
     TablesKey getTableKey() {
         return this.tk;
     }
@@ -397,7 +527,7 @@ final class LocRibWriter<C extends Routes & DataObject & ChoiceIn<Tables>, S ext
                         .actualBestPaths(this.ribSupport, new RouteEntryInfoImpl(toPeer, entry.getKey()));
                 routesToStore.addAll(filteredRoute);
             }
-            toPeer.reEvaluateAdvertizement(this.entryDep, routesToStore);
+            this.exporter.export(toPeer, () -> toPeer.reEvaluateAdvertizement(this.entryDep, routesToStore));
         }
     }
 }
@@ -7,6 +7,7 @@
  */
 package org.opendaylight.protocol.bgp.rib.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.MoreObjects;
@@ -14,12 +15,15 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -107,9 +111,17 @@ public final class RIBImpl extends BGPRIBStateImpl implements RIB, TransactionCh
     private final RibId ribId;
     private final BGPPeerTracker peerTracker = new BGPPeerTrackerImpl();
     private final BGPRibRoutingPolicy ribPolicies;
+    private final int locRibShards;
+    private final int adjRibOutExportThreads;
     @GuardedBy("this")
     private ClusterSingletonServiceRegistration registration;
     @GuardedBy("this")
+    private ExecutorService locRibExecutor;
+    @GuardedBy("this")
+    private ExecutorService adjRibOutExecutor;
+    @GuardedBy("this")
+    private AdjRibOutExporter adjRibOutExporter;
+    @GuardedBy("this")
     private DOMTransactionChain domChain;
     @GuardedBy("this")
     private boolean isServiceInstantiated;
@@ -128,6 +140,45 @@ public final class RIBImpl extends BGPRIBStateImpl implements RIB, TransactionCh
             final BGPRibRoutingPolicy ribPolicies,
             final List<BgpTableType> localTables,
             final Map<TablesKey, PathSelectionMode> bestPathSelectionStrategies
+    ) {
+        this(tableTypeRegistry, ribId, localAs, localBgpId, extensions, dispatcher, codecsRegistry, domDataBroker,
+            dataBroker, ribPolicies, localTables, bestPathSelectionStrategies, 1);
+    }
+
+    public RIBImpl(
+            final BGPTableTypeRegistryConsumer tableTypeRegistry,
+            final RibId ribId,
+            final AsNumber localAs,
+            final BgpId localBgpId,
+            final RIBExtensionConsumerContext extensions,
+            final BGPDispatcher dispatcher,
+            final CodecsRegistryImpl codecsRegistry,
+            final DOMDataBroker domDataBroker,
+            final DataBroker dataBroker,
+            final BGPRibRoutingPolicy ribPolicies,
+            final List<BgpTableType> localTables,
+            final Map<TablesKey, PathSelectionMode> bestPathSelectionStrategies,
+            final int locRibShards
+    ) {
+        this(tableTypeRegistry, ribId, localAs, localBgpId, extensions, dispatcher, codecsRegistry, domDataBroker,
+            dataBroker, ribPolicies, localTables, bestPathSelectionStrategies, locRibShards, 0);
+    }
+
+    public RIBImpl(
+            final BGPTableTypeRegistryConsumer tableTypeRegistry,
+            final RibId ribId,
+            final AsNumber localAs,
+            final BgpId localBgpId,
+            final RIBExtensionConsumerContext extensions,
+            final BGPDispatcher dispatcher,
+            final CodecsRegistryImpl codecsRegistry,
+            final DOMDataBroker domDataBroker,
+            final DataBroker dataBroker,
+            final BGPRibRoutingPolicy ribPolicies,
+            final List<BgpTableType> localTables,
+            final Map<TablesKey, PathSelectionMode> bestPathSelectionStrategies,
+            final int locRibShards,
+            final int adjRibOutExportThreads
     ) {
         super(InstanceIdentifier.create(BgpRib.class).child(Rib.class, new RibKey(requireNonNull(ribId))),
                 localBgpId, localAs);
@@ -144,11 +195,17 @@ public final class RIBImpl extends BGPRIBStateImpl implements RIB, TransactionCh
         this.ribPolicies = requireNonNull(ribPolicies);
         this.codecsRegistry = codecsRegistry;
         this.ribContextRegistry = RIBSupportContextRegistryImpl.create(extensions, this.codecsRegistry);
+        registerInternedAttributesCounter(this.codecsRegistry.getAttributesInterner());
         final InstanceIdentifierBuilder yangRibIdBuilder = YangInstanceIdentifier.builder().node(BgpRib.QNAME)
                 .node(Rib.QNAME);
         this.yangRibId = yangRibIdBuilder.nodeWithKey(Rib.QNAME, RIB_ID_QNAME, ribId.getValue()).build();
         this.bestPathSelectionStrategies = requireNonNull(bestPathSelectionStrategies);
         this.ribId = ribId;
+        checkArgument(locRibShards > 0, "Invalid Loc-RIB shard count %s", locRibShards);
+        this.locRibShards = locRibShards;
+        checkArgument(adjRibOutExportThreads >= 0, "Invalid Adj-RIB-Out export thread count %s",
+            adjRibOutExportThreads);
+        this.adjRibOutExportThreads = adjRibOutExportThreads;
 
         for (final BgpTableType t : this.localTables) {
             final TablesKey key = new TablesKey(t.getAfi(), t.getSafi());
@@ -202,10 +259,14 @@ public final class RIBImpl extends BGPRIBStateImpl implements RIB, TransactionCh
                 getDataBroker(),
                 this.ribPolicies,
                 this.peerTracker,
-                pathSelectionStrategy);
+                pathSelectionStrategy,
+                this.locRibShards,
+                this.locRibExecutor,
+                this.adjRibOutExporter);
         this.vpnTableRefresher.put(key, locRibWriter);
         registerTotalPathCounter(key, locRibWriter);
         registerTotalPrefixesCounter(key, locRibWriter);
+        registerLocRibShardsCounter(key, locRibWriter);
         this.txChainToLocRibWriter.put(txChain, locRibWriter);
     }
 
@@ -367,6 +428,18 @@ public final class RIBImpl extends BGPRIBStateImpl implements RIB, TransactionCh
 
         LOG.debug("Effective RIB created.");
 
+        if (this.locRibShards > 1) {
+            this.locRibExecutor = Executors.newFixedThreadPool(this.locRibShards, new ThreadFactoryBuilder()
+                .setNameFormat("bgp-loc-rib-" + this.ribId.getValue() + "-%d").setDaemon(true).build());
+        }
+        if (this.adjRibOutExportThreads > 0) {
+            this.adjRibOutExecutor = Executors.newFixedThreadPool(this.adjRibOutExportThreads,
+                new ThreadFactoryBuilder().setNameFormat("bgp-rib-out-" + this.ribId.getValue() + "-%d")
+                    .setDaemon(true).build());
+            this.adjRibOutExporter = new AdjRibOutExporter(this.adjRibOutExecutor);
+        } else {
+            this.adjRibOutExporter = AdjRibOutExporter.direct();
+        }
         this.localTablesKeys.forEach(this::startLocRib);
         this.localTablesKeys.forEach(this::createLocRibWriter);
     }
@@ -380,8 +453,19 @@ public final class RIBImpl extends BGPRIBStateImpl implements RIB, TransactionCh
         this.isServiceInstantiated = false;
         setActive(false);
 
+        // Stop Loc-RIB writers before shutting down executors they submit work to
         this.txChainToLocRibWriter.values().forEach(LocRibWriter::close);
         this.txChainToLocRibWriter.clear();
+        if (this.locRibExecutor != null) {
+            this.locRibExecutor.shutdown();
+            this.locRibExecutor = null;
+        }
+        this.adjRibOutExporter.close();
+        this.adjRibOutExporter = null;
+        if (this.adjRibOutExecutor != null) {
+            this.adjRibOutExecutor.shutdown();
+            this.adjRibOutExecutor = null;
+        }
 
         final DOMDataWriteTransaction t = this.domChain.newWriteOnlyTransaction();
         t.delete(LogicalDatastoreType.OPERATIONAL, getYangRibId());
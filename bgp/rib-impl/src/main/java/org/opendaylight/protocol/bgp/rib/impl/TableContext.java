@@ -53,8 +53,8 @@ final class TableContext {
         return this.tableSupport.writeRoutes(tx, this.tableId, nlri, attributes);
     }
 
-    void removeRoutes(final DOMDataWriteTransaction tx, final MpUnreachNlri nlri) {
-        this.tableSupport.deleteRoutes(tx, this.tableId, nlri);
+    Collection<NodeIdentifierWithPredicates> removeRoutes(final DOMDataWriteTransaction tx, final MpUnreachNlri nlri) {
+        return this.tableSupport.deleteRoutes(tx, this.tableId, nlri);
     }
 
     YangInstanceIdentifier routesPath() {
@@ -285,7 +285,11 @@ public class BgpPeer implements PeerBean, BGPPeerStateConsumer {
             this.errorHandling = OpenConfigMappingUtil.getRevisedErrorHandling(role, peerGroup, neighbor);
             this.bgpPeer = new BGPPeer(tableTypeRegistry, this.neighborAddress, peerGroupName, rib, role, clusterId,
                     neighborLocalAs, BgpPeer.this.rpcRegistry, afiSafisAdvertized, gracefulTables, llGracefulTimers,
-                    BgpPeer.this);
+                    BgpPeer.this, OpenConfigMappingUtil.getOutputQueueLimit(neighbor, peerGroup),
+                    OpenConfigMappingUtil.getOutputQueueOverflowPolicy(neighbor, peerGroup),
+                    OpenConfigMappingUtil.getAdjRibInBatchRoutes(neighbor, peerGroup),
+                    OpenConfigMappingUtil.getAdjRibInBatchTime(neighbor, peerGroup),
+                    OpenConfigMappingUtil.getAttributesCacheSize(neighbor, peerGroup));
             this.prefs = new BGPSessionPreferences(neighborLocalAs, hold, rib.getBgpIdentifier(),
                     neighborRemoteAs, bgpParameters, getPassword(keyMapping));
             this.activeConnection = OpenConfigMappingUtil.isActive(neighbor, peerGroup);
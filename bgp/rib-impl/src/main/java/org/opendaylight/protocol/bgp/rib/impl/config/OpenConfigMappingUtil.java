@@ -18,6 +18,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -61,6 +62,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.open
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborAddPathsConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborPeerGroupConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.NeighborTransportConfig;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.OutputQueueOverflowPolicy;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.PeerGroupTransportConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.TransportConfig;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
@@ -74,10 +76,14 @@ final class OpenConfigMappingUtil {
     static final String APPLICATION_PEER_GROUP_NAME = "application-peers";
     static final Optional<String> APPLICATION_PEER_GROUP_NAME_OPT = Optional.of(APPLICATION_PEER_GROUP_NAME);
     static final int HOLDTIMER = 90;
+    static final int DEFAULT_LOC_RIB_SHARDS = 1;
     private static final AfiSafi IPV4_AFISAFI = new AfiSafiBuilder().setAfiSafiName(IPV4UNICAST.class).build();
     private static final List<AfiSafi> DEFAULT_AFISAFI = ImmutableList.of(IPV4_AFISAFI);
     private static final int CONNECT_RETRY = 30;
     private static final PortNumber PORT = new PortNumber(179);
+    private static final int OUTPUT_QUEUE_LIMIT = 65536;
+    private static final int ADJ_RIB_IN_BATCH_TIME = 50;
+    private static final int ATTRIBUTES_CACHE_SIZE = 1024;
 
     private OpenConfigMappingUtil() {
         throw new UnsupportedOperationException();
@@ -134,6 +140,26 @@ final class OpenConfigMappingUtil {
         return new ClusterIdentifier(globalConfig.getRouterId());
     }
 
+    static int getGlobalLocRibShards(final org.opendaylight.yang.gen.v1.http.openconfig.net
+            .yang.bgp.rev151009.bgp.global.base.Config globalConfig) {
+        final GlobalConfigAugmentation globalConfigAugmentation
+                = globalConfig.augmentation(GlobalConfigAugmentation.class);
+        if (globalConfigAugmentation != null && globalConfigAugmentation.getLocRibShards() != null) {
+            return globalConfigAugmentation.getLocRibShards();
+        }
+        return DEFAULT_LOC_RIB_SHARDS;
+    }
+
+    static int getGlobalAdjRibOutExportThreads(final org.opendaylight.yang.gen.v1.http.openconfig.net
+            .yang.bgp.rev151009.bgp.global.base.Config globalConfig) {
+        final GlobalConfigAugmentation globalConfigAugmentation
+                = globalConfig.augmentation(GlobalConfigAugmentation.class);
+        if (globalConfigAugmentation != null && globalConfigAugmentation.getAdjRibOutExportThreads() != null) {
+            return globalConfigAugmentation.getAdjRibOutExportThreads();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
     @Nullable
     static ClusterIdentifier getNeighborClusterIdentifier(
             @Nullable final RouteReflector routeReflector,
@@ -454,13 +480,82 @@ final class OpenConfigMappingUtil {
     @Nullable
     private static <T extends TransportConfig & Augmentation<Config>> PortNumber getPort(
             @Nullable final Transport transport, final Class<T> augment) {
+        final T peerTc = getTransportConfig(transport, augment);
+        return peerTc != null ? peerTc.getRemotePort() : null;
+    }
+
+    static int getOutputQueueLimit(final Neighbor neighbor, final PeerGroup peerGroup) {
+        final Long limit = getTransportValue(neighbor, peerGroup, TransportConfig::getOutputQueueLimit);
+        if (limit == null) {
+            return OUTPUT_QUEUE_LIMIT;
+        }
+
+        return (int) Math.min(limit, Integer.MAX_VALUE);
+    }
+
+    @Nonnull
+    static OutputQueueOverflowPolicy getOutputQueueOverflowPolicy(final Neighbor neighbor,
+            final PeerGroup peerGroup) {
+        final OutputQueueOverflowPolicy policy = getTransportValue(neighbor, peerGroup,
+            TransportConfig::getOutputQueueOverflowPolicy);
+        return policy == null ? OutputQueueOverflowPolicy.Pause : policy;
+    }
+
+    static int getAdjRibInBatchRoutes(final Neighbor neighbor, final PeerGroup peerGroup) {
+        final Long routes = getTransportValue(neighbor, peerGroup, TransportConfig::getAdjRibInBatchRoutes);
+        if (routes == null) {
+            return 0;
+        }
+
+        return (int) Math.min(routes, Integer.MAX_VALUE);
+    }
+
+    static int getAdjRibInBatchTime(final Neighbor neighbor, final PeerGroup peerGroup) {
+        final Integer time = getTransportValue(neighbor, peerGroup, TransportConfig::getAdjRibInBatchTime);
+        return time == null ? ADJ_RIB_IN_BATCH_TIME : time;
+    }
+
+    static int getAttributesCacheSize(final Neighbor neighbor, final PeerGroup peerGroup) {
+        final Long size = getTransportValue(neighbor, peerGroup, TransportConfig::getAttributesCacheSize);
+        if (size == null) {
+            return ATTRIBUTES_CACHE_SIZE;
+        }
+
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /*
+     * Peer group configuration takes precedence over neighbor configuration.
+     */
+    @Nullable
+    private static <V> V getTransportValue(final Neighbor neighbor, final PeerGroup peerGroup,
+            final Function<TransportConfig, V> getter) {
+        V value = null;
+        if (peerGroup != null) {
+            final PeerGroupTransportConfig peerTc = getTransportConfig(peerGroup.getTransport(),
+                PeerGroupTransportConfig.class);
+            if (peerTc != null) {
+                value = getter.apply(peerTc);
+            }
+        }
+
+        if (value == null) {
+            final NeighborTransportConfig neighborTc = getTransportConfig(neighbor.getTransport(),
+                NeighborTransportConfig.class);
+            if (neighborTc != null) {
+                value = getter.apply(neighborTc);
+            }
+        }
+        return value;
+    }
+
+    @Nullable
+    private static <T extends TransportConfig & Augmentation<Config>> T getTransportConfig(
+            @Nullable final Transport transport, final Class<T> augment) {
         if (transport != null) {
             final Config config = transport.getConfig();
             if (config != null) {
-                final T peerTc = config.augmentation(augment);
-                if (peerTc != null) {
-                    return peerTc.getRemotePort();
-                }
+                return config.augmentation(augment);
             }
         }
         return null;
@@ -9,7 +9,9 @@
 package org.opendaylight.protocol.bgp.rib.impl.config;
 
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getAfiSafiWithDefault;
+import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getGlobalAdjRibOutExportThreads;
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getGlobalClusterIdentifier;
+import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.getGlobalLocRibShards;
 import static org.opendaylight.protocol.bgp.rib.impl.config.OpenConfigMappingUtil.toTableTypes;
 
 import com.google.common.base.Preconditions;
@@ -80,6 +82,8 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
     private Ipv4Address routerId;
 
     private ClusterIdentifier clusterId;
+    private int locRibShards;
+    private int adjRibOutExportThreads;
     private final DataBroker dataBroker;
 
     public RibImpl(
@@ -116,7 +120,9 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
         return this.afiSafi.containsAll(globalAfiSafi) && globalAfiSafi.containsAll(this.afiSafi)
                 && globalAs.equals(this.asNumber)
                 && globalRouterId.getValue().equals(this.routerId.getValue())
-                && globalClusterId.getValue().equals(this.clusterId.getValue());
+                && globalClusterId.getValue().equals(this.clusterId.getValue())
+                && getGlobalLocRibShards(globalConfig) == this.locRibShards
+                && getGlobalAdjRibOutExportThreads(globalConfig) == this.adjRibOutExportThreads;
     }
 
     @Override
@@ -253,6 +259,8 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
         this.asNumber = globalConfig.getAs();
         this.routerId = globalConfig.getRouterId();
         this.clusterId = getGlobalClusterIdentifier(globalConfig);
+        this.locRibShards = getGlobalLocRibShards(globalConfig);
+        this.adjRibOutExportThreads = getGlobalAdjRibOutExportThreads(globalConfig);
         final Map<TablesKey, PathSelectionMode> pathSelectionModes = OpenConfigMappingUtil
                 .toPathSelectionMode(this.afiSafi, tableTypeRegistry).entrySet()
                 .stream()
@@ -276,7 +284,9 @@ public final class RibImpl implements RIB, BGPRibStateConsumer, AutoCloseable {
                 this.dataBroker,
                 ribPolicy,
                 toTableTypes(this.afiSafi, tableTypeRegistry),
-                pathSelectionModes);
+                pathSelectionModes,
+                this.locRibShards,
+                this.adjRibOutExportThreads);
     }
 
     @Override
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.spi;
+
+import javax.annotation.Nullable;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+
+/**
+ * Registry of unique path attribute sets shared by all routes of a RIB. Attributes are interned once, as routes enter
+ * Adj-RIB-In or are rewritten by import policies, hence routes carrying equal attributes reference the same instance
+ * throughout the RIB. An interned instance is retained only as long as at least one route references it.
+ */
+public interface AttributesInterner {
+    /**
+     * Return the canonical instance of route attributes in DOM representation.
+     *
+     * @param attributes route attributes
+     * @return Interned attributes, equal to the provided ones, null if attributes are null
+     */
+    @Nullable
+    ContainerNode intern(@Nullable ContainerNode attributes);
+}
@@ -20,4 +20,11 @@ public interface CodecsRegistry {
      * @return Codecs
      */
     Codecs getCodecs(RIBSupport<?, ?, ?, ?> ribSupport);
+
+    /**
+     * Return the path attributes interner shared by all Codecs classes of this registry.
+     *
+     * @return AttributesInterner
+     */
+    AttributesInterner getAttributesInterner();
 }
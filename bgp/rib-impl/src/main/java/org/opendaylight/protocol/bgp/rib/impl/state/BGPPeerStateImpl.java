@@ -21,8 +21,12 @@ import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.protocol.bgp.parser.spi.AttributesCache;
 import org.opendaylight.protocol.bgp.rib.DefaultRibReference;
 import org.opendaylight.protocol.bgp.rib.impl.spi.BGPMessagesListener;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.AdjRibInBatchCounters;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.AdjRibOutExportCounters;
+import org.opendaylight.protocol.bgp.rib.impl.state.peer.OutputQueueCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesInstalledCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesReceivedCounters;
 import org.opendaylight.protocol.bgp.rib.impl.state.peer.PrefixesSentCounters;
@@ -65,6 +69,14 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
     @GuardedBy("this")
     private final Map<TablesKey, PrefixesSentCounters> prefixesSent = new HashMap<>();
     @GuardedBy("this")
+    private OutputQueueCounters outputQueue;
+    @GuardedBy("this")
+    private AdjRibOutExportCounters adjRibOutExport;
+    @GuardedBy("this")
+    private AttributesCache attributesCache;
+    @GuardedBy("this")
+    private AdjRibInBatchCounters adjRibInBatch;
+    @GuardedBy("this")
     private PrefixesReceivedCounters prefixesReceived;
     @GuardedBy("this")
     private PrefixesInstalledCounters prefixesInstalled;
@@ -205,6 +217,23 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
         this.prefixesSent.put(tablesKey, prefixesSentCounter);
     }
 
+    protected final synchronized void registerOutputQueueCounters(@Nullable final OutputQueueCounters counters) {
+        this.outputQueue = counters;
+    }
+
+    protected final synchronized void registerAttributesCache(@Nullable final AttributesCache cache) {
+        this.attributesCache = cache;
+    }
+
+    protected final synchronized void registerAdjRibInBatchCounters(@Nonnull final AdjRibInBatchCounters counters) {
+        this.adjRibInBatch = requireNonNull(counters);
+    }
+
+    protected final synchronized void registerAdjRibOutExportCounters(
+            @Nonnull final AdjRibOutExportCounters counters) {
+        this.adjRibOutExport = requireNonNull(counters);
+    }
+
     protected final synchronized void registerPrefixesCounters(@Nonnull final PrefixesReceivedCounters prefixesReceived,
         @Nonnull final PrefixesInstalledCounters prefixesInstalled) {
         this.prefixesReceived = prefixesReceived;
@@ -256,6 +285,66 @@ public abstract class BGPPeerStateImpl extends DefaultRibReference implements BG
         return this.notificationReceivedCounter.longValue();
     }
 
+    @Override
+    public final synchronized long getOutputQueueMessagesCount() {
+        return this.outputQueue == null ? NONE : this.outputQueue.getQueuedMessagesCount();
+    }
+
+    @Override
+    public final synchronized long getOutputQueueBytes() {
+        return this.outputQueue == null ? NONE : this.outputQueue.getQueuedBytes();
+    }
+
+    @Override
+    public final synchronized long getOutputQueueStallTime() {
+        return this.outputQueue == null ? NONE : this.outputQueue.getStallTime();
+    }
+
+    @Override
+    public final synchronized long getAdjRibOutPendingCount() {
+        return this.adjRibOutExport == null ? NONE : this.adjRibOutExport.getPendingExportsCount();
+    }
+
+    @Override
+    public final synchronized long getAdjRibOutLatency() {
+        return this.adjRibOutExport == null ? NONE : this.adjRibOutExport.getExportLatency();
+    }
+
+    @Override
+    public final synchronized long getAdjRibOutMaxLatency() {
+        return this.adjRibOutExport == null ? NONE : this.adjRibOutExport.getMaxExportLatency();
+    }
+
+    @Override
+    public final synchronized long getAttributesCacheHits() {
+        return this.attributesCache == null ? NONE : this.attributesCache.getHitCount();
+    }
+
+    @Override
+    public final synchronized long getAttributesCacheMisses() {
+        return this.attributesCache == null ? NONE : this.attributesCache.getMissCount();
+    }
+
+    @Override
+    public final synchronized long getAdjRibInBatchSize() {
+        return this.adjRibInBatch == null ? NONE : this.adjRibInBatch.getLastBatchSize();
+    }
+
+    @Override
+    public final synchronized long getAdjRibInMaxBatchSize() {
+        return this.adjRibInBatch == null ? NONE : this.adjRibInBatch.getMaxBatchSize();
+    }
+
+    @Override
+    public final synchronized long getAdjRibInCommitLatency() {
+        return this.adjRibInBatch == null ? NONE : this.adjRibInBatch.getCommitLatency();
+    }
+
+    @Override
+    public final synchronized long getAdjRibInMaxCommitLatency() {
+        return this.adjRibInBatch == null ? NONE : this.adjRibInBatch.getMaxCommitLatency();
+    }
+
     @Override
     public final void messageSent(final Notification msg) {
         if (msg instanceof Notify) {
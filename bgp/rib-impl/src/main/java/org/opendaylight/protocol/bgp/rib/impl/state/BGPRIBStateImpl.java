@@ -10,11 +10,14 @@ package org.opendaylight.protocol.bgp.rib.impl.state;
 import static java.util.Objects.requireNonNull;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.protocol.bgp.rib.DefaultRibReference;
+import org.opendaylight.protocol.bgp.rib.impl.state.rib.InternedAttributesCounter;
+import org.opendaylight.protocol.bgp.rib.impl.state.rib.LocRibShardsCounter;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPathsCounter;
 import org.opendaylight.protocol.bgp.rib.impl.state.rib.TotalPrefixesCounter;
 import org.opendaylight.protocol.bgp.rib.spi.state.BGPRibState;
@@ -34,6 +37,10 @@ public class BGPRIBStateImpl extends DefaultRibReference implements BGPRibState,
     @GuardedBy("this")
     private final Map<TablesKey, TotalPrefixesCounter> totalPrefixes = new HashMap<>();
     @GuardedBy("this")
+    private final Map<TablesKey, LocRibShardsCounter> locRibShards = new HashMap<>();
+    @GuardedBy("this")
+    private InternedAttributesCounter internedAttributes;
+    @GuardedBy("this")
     private boolean active;
 
     protected BGPRIBStateImpl(final KeyedInstanceIdentifier<Rib, RibKey> instanceIdentifier,
@@ -75,6 +82,22 @@ public class BGPRIBStateImpl extends DefaultRibReference implements BGPRibState,
         return this.totalPrefixes.get(tablesKey).getPrefixesCount();
     }
 
+    @Override
+    public final synchronized long getUniqueAttributesCount() {
+        return this.internedAttributes == null ? 0 : this.internedAttributes.getUniqueAttributesCount();
+    }
+
+    @Override
+    public final synchronized double getAttributesHitRate() {
+        return this.internedAttributes == null ? 0 : this.internedAttributes.getAttributesHitRate();
+    }
+
+    @Override
+    public final synchronized Map<TablesKey, List<Long>> getLocRibShardSelectionLatencies() {
+        return this.locRibShards.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+            (entry) -> entry.getValue().getShardSelectionLatencies()));
+    }
+
     @Override
     public final AsNumber getAs() {
         return this.localAs;
@@ -95,6 +118,16 @@ public class BGPRIBStateImpl extends DefaultRibReference implements BGPRibState,
         this.totalPrefixes.put(key, totalPrefixesCounter);
     }
 
+    protected final synchronized void registerLocRibShardsCounter(@Nonnull final TablesKey key,
+        @Nonnull final LocRibShardsCounter locRibShardsCounter) {
+        this.locRibShards.put(key, locRibShardsCounter);
+    }
+
+    protected final synchronized void registerInternedAttributesCounter(
+        @Nonnull final InternedAttributesCounter internedAttributesCounter) {
+        this.internedAttributes = requireNonNull(internedAttributesCounter);
+    }
+
     @Override
     public final synchronized boolean isActive() {
         return this.active;
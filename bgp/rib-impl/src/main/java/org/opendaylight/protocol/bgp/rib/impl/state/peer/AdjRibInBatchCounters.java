@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.state.peer;
+
+/**
+ * Expose Adj-RIB-In write batching state of a peer.
+ */
+public interface AdjRibInBatchCounters {
+    /**
+     * Routes written by the most recently committed Adj-RIB-In transaction.
+     *
+     * @return count
+     */
+    long getLastBatchSize();
+
+    /**
+     * Maximum number of routes written by a single Adj-RIB-In transaction.
+     *
+     * @return count
+     */
+    long getMaxBatchSize();
+
+    /**
+     * Time needed to commit the most recently completed Adj-RIB-In transaction.
+     *
+     * @return time in microseconds
+     */
+    long getCommitLatency();
+
+    /**
+     * Maximum time needed to commit an Adj-RIB-In transaction.
+     *
+     * @return time in microseconds
+     */
+    long getMaxCommitLatency();
+}
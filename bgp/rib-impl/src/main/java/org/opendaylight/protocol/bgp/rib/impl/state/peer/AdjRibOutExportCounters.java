@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.state.peer;
+
+/**
+ * Expose Adj-RIB-Out export state of a peer.
+ */
+public interface AdjRibOutExportCounters {
+    /**
+     * Adj-RIB-Out updates scheduled, but not yet completed.
+     *
+     * @return count
+     */
+    long getPendingExportsCount();
+
+    /**
+     * Time between scheduling and completing the most recent Adj-RIB-Out update.
+     *
+     * @return time in microseconds
+     */
+    long getExportLatency();
+
+    /**
+     * Maximum time between scheduling and completing an Adj-RIB-Out update.
+     *
+     * @return time in microseconds
+     */
+    long getMaxExportLatency();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.state.peer;
+
+/**
+ * Expose output queue state of a peer session.
+ */
+public interface OutputQueueCounters {
+    /**
+     * Messages waiting for the session's channel to become writable.
+     *
+     * @return count
+     */
+    long getQueuedMessagesCount();
+
+    /**
+     * Encoded bytes pending write on the session's channel.
+     *
+     * @return bytes
+     */
+    long getQueuedBytes();
+
+    /**
+     * Total time the session's channel was not writable.
+     *
+     * @return time in milliseconds
+     */
+    long getStallTime();
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.state.rib;
+
+/**
+ * Expose path attributes interning statistics per RIB.
+ */
+public interface InternedAttributesCounter {
+    /**
+     * Unique path attribute sets currently retained by RIB.
+     *
+     * @return count
+     */
+    long getUniqueAttributesCount();
+
+    /**
+     * Ratio of lookups which have been satisfied by an already interned attribute set.
+     *
+     * @return hit rate, between 0 and 1
+     */
+    double getAttributesHitRate();
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl.state.rib;
+
+import java.util.List;
+import javax.annotation.Nonnull;
+
+/**
+ * Expose Loc-RIB best path selection statistics per shard.
+ */
+public interface LocRibShardsCounter {
+    /**
+     * Duration of the most recent best path selection run in each shard.
+     *
+     * @return latency in nanoseconds per shard
+     */
+    @Nonnull
+    List<Long> getShardSelectionLatencies();
+}
@@ -14,6 +14,7 @@ import static org.opendaylight.protocol.util.CheckUtil.waitFutureSuccess;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.concurrent.Future;
@@ -184,16 +185,26 @@ public abstract class AbstractAddPathTest extends DefaultRibPoliciesMockTest {
 
     void sendRouteAndCheckIsOnLocRib(final BGPSessionImpl session, final Ipv4Prefix prefix, final long localPreference,
         final int expectedRoutesOnDS) throws Exception {
-        waitFutureSuccess(session.writeAndFlush(createSimpleUpdate(prefix, null, null, localPreference)));
+        waitFutureSuccess(sendRoute(session, prefix, localPreference));
         checkLocRib(expectedRoutesOnDS);
     }
 
     void sendWithdrawalRouteAndCheckIsOnLocRib(final BGPSessionImpl session, final Ipv4Prefix prefix,
         final long localPreference, final int expectedRoutesOnDS) throws Exception {
-        waitFutureSuccess(session.writeAndFlush(createSimpleWithdrawalUpdate(prefix, localPreference)));
+        waitFutureSuccess(sendWithdrawalRoute(session, prefix, localPreference));
         checkLocRib(expectedRoutesOnDS);
     }
 
+    static ChannelFuture sendRoute(final BGPSessionImpl session, final Ipv4Prefix prefix,
+            final long localPreference) {
+        return session.writeAndFlush(createSimpleUpdate(prefix, null, null, localPreference));
+    }
+
+    static ChannelFuture sendWithdrawalRoute(final BGPSessionImpl session, final Ipv4Prefix prefix,
+            final long localPreference) {
+        return session.writeAndFlush(createSimpleWithdrawalUpdate(prefix, localPreference));
+    }
+
     void sendNotification(final BGPSessionImpl session) {
         final Notification notMsg = new NotifyBuilder().setErrorCode(BGPError.OPT_PARAM_NOT_SUPPORTED.getCode())
             .setErrorSubcode(BGPError.OPT_PARAM_NOT_SUPPORTED.getSubcode()).setData(new byte[] { 4, 9 }).build();
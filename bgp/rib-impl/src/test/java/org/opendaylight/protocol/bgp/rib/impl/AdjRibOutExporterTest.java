@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.rib.spi.Peer;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+
+public class AdjRibOutExporterTest {
+    private static final int UPDATES = 1000;
+
+    private ExecutorService executor;
+    private AdjRibOutExporter exporter;
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newFixedThreadPool(4);
+        this.exporter = new AdjRibOutExporter(this.executor);
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testPerPeerOrdering() throws InterruptedException {
+        final Peer first = mock(Peer.class);
+        final Peer second = mock(Peer.class);
+        final List<Integer> firstUpdates = new ArrayList<>();
+        final List<Integer> secondUpdates = new ArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(2 * UPDATES);
+
+        for (int i = 0; i < UPDATES; i++) {
+            final int update = i;
+            this.exporter.export(first, () -> {
+                firstUpdates.add(update);
+                latch.countDown();
+            });
+            this.exporter.export(second, () -> {
+                secondUpdates.add(update);
+                latch.countDown();
+            });
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < UPDATES; i++) {
+            assertEquals(i, firstUpdates.get(i).intValue());
+            assertEquals(i, secondUpdates.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testFailedUpdate() throws InterruptedException {
+        final Peer peer = mock(Peer.class);
+        doReturn(new PeerId("bgp://127.0.0.1")).when(peer).getPeerId();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        this.exporter.export(peer, () -> {
+            throw new IllegalStateException("Failed update");
+        });
+        this.exporter.export(peer, latch::countDown);
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testExportAfterClose() {
+        final Peer peer = mock(Peer.class);
+        doReturn(new PeerId("bgp://127.0.0.1")).when(peer).getPeerId();
+        final AtomicBoolean exported = new AtomicBoolean();
+
+        this.exporter.close();
+        this.executor.shutdown();
+        this.exporter.export(peer, () -> exported.set(true));
+        assertFalse(exported.get());
+    }
+
+    @Test
+    public void testExportAfterShutdown() {
+        final Peer peer = mock(Peer.class);
+        doReturn(new PeerId("bgp://127.0.0.1")).when(peer).getPeerId();
+        final AtomicBoolean exported = new AtomicBoolean();
+
+        // Executor going away before the exporter is closed must not fail the caller
+        this.executor.shutdown();
+        this.exporter.export(peer, () -> exported.set(true));
+        assertFalse(exported.get());
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeChangeService;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataTreeIdentifier;
+import org.opendaylight.protocol.bgp.rib.impl.spi.Codecs;
+import org.opendaylight.protocol.bgp.rib.impl.spi.CodecsRegistry;
+import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPrefBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.Nlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.BgpRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.binding.Notification;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidate;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.DataTreeCandidateNode;
+import org.opendaylight.yangtools.yang.data.api.schema.tree.ModificationType;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class AdjRibOutListenerTest {
+    private static final int MAX_MESSAGE_SIZE = 4096;
+    private static final int IPV4_ROUTE_LENGTH = 9;
+    private static final QName PREFIX_QNAME = QName.create(Ipv4Route.QNAME, "prefix").intern();
+    private static final QName PATHID_QNAME = QName.create(Ipv4Route.QNAME, "path-id").intern();
+    private static final QName GROUP_QNAME = QName.create(Ipv4Route.QNAME, "group").intern();
+    private static final NodeIdentifier ATTRIBUTES_NID = new NodeIdentifier(Attributes.QNAME);
+    private static final TablesKey TABLES_KEY = new TablesKey(Ipv4AddressFamily.class,
+        UnicastSubsequentAddressFamily.class);
+
+    @Mock
+    private CodecsRegistry registry;
+    @Mock
+    private Codecs codecs;
+    @Mock
+    private RIBSupport<?, ?, ?, ?> support;
+    @Mock
+    private DOMDataTreeChangeService service;
+    @Mock
+    private ListenerRegistration<AdjRibOutListener> registration;
+    @Mock
+    private BGPSessionImpl session;
+    private final Map<Attributes, Integer> updateLengths = new HashMap<>();
+    private final List<Update> written = new ArrayList<>();
+    private AdjRibOutListener listener;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(this.codecs).when(this.registry).getCodecs(any());
+        doAnswer(invocation -> attributes((ContainerNode) invocation.getArgument(0)))
+                .when(this.codecs).deserializeAttributes(any());
+        doReturn(ATTRIBUTES_NID).when(this.support).routeAttributesIdentifier();
+        doReturn(IPV4_ROUTE_LENGTH).when(this.support).maxRouteEncodedLength();
+        doReturn(this.registration).when(this.service).registerDataTreeChangeListener(any(DOMDataTreeIdentifier.class),
+            any());
+        doNothing().when(this.registration).close();
+
+        doReturn(MAX_MESSAGE_SIZE).when(this.session).getMaxMessageSize();
+        doAnswer(invocation -> this.updateLengths.getOrDefault(invocation.getArgument(0),
+            AdjRibOutListener.UPDATE_OVERHEAD + 20)).when(this.session).getUpdateLength(any());
+        doAnswer(invocation -> {
+            this.written.add(invocation.getArgument(0));
+            return null;
+        }).when(this.session).write(any(Notification.class));
+        doNothing().when(this.session).flush();
+
+        this.listener = AdjRibOutListener.create(new PeerId("bgp://127.0.0.1"), TABLES_KEY,
+            YangInstanceIdentifier.create(new NodeIdentifier(BgpRib.QNAME)), this.registry, this.support,
+            this.service, new ChannelOutputLimiter(this.session), false);
+    }
+
+    @Test
+    public void testAttributeGrouping() {
+        this.listener.onDataTreeChanged(Collections.singletonList(candidate(
+            write(route(1, 1)), write(route(2, 2)), write(route(3, 1)), write(route(4, 2)), write(route(5, 1)))));
+
+        final List<Update> updates = updates();
+        assertEquals(2, updates.size());
+        assertEquals(Arrays.asList("10.0.0.1/32", "10.0.0.3/32", "10.0.0.5/32"), nlri(updates.get(0)));
+        assertEquals(attributes(1), updates.get(0).getAttributes());
+        assertEquals(Arrays.asList("10.0.0.2/32", "10.0.0.4/32"), nlri(updates.get(1)));
+        assertEquals(attributes(2), updates.get(1).getAttributes());
+        assertEquals(5, this.listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testAdvertisementPacking() {
+        // Attributes leave room for three routes only
+        this.updateLengths.put(attributes(1), MAX_MESSAGE_SIZE - 3 * IPV4_ROUTE_LENGTH);
+        final List<DataTreeCandidateNode> routes = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            routes.add(write(route(i, 1)));
+        }
+        this.listener.onDataTreeChanged(Collections.singletonList(candidate(
+            routes.toArray(new DataTreeCandidateNode[0]))));
+
+        final List<Update> updates = updates();
+        assertEquals(3, updates.size());
+        assertEquals(3, nlri(updates.get(0)).size());
+        assertEquals(3, nlri(updates.get(1)).size());
+        assertEquals(Collections.singletonList("10.0.0.6/32"), nlri(updates.get(2)));
+        assertEquals(7, this.listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testWithdrawPacking() {
+        final int maxWithdrawn = AdjRibOutListener.maxRoutesPerUpdate(MAX_MESSAGE_SIZE,
+            AdjRibOutListener.MP_UNREACH_OVERHEAD, IPV4_ROUTE_LENGTH);
+        final int count = 2 * maxWithdrawn + 10;
+        final List<DataTreeCandidateNode> routes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            routes.add(delete(route(i, i)));
+        }
+        this.listener.onDataTreeChanged(Collections.singletonList(candidate(
+            routes.toArray(new DataTreeCandidateNode[0]))));
+
+        // Withdrawals carry no attributes, hence routes with differing attributes share messages
+        final List<Update> updates = updates();
+        assertEquals(3, updates.size());
+        assertEquals(maxWithdrawn, withdrawn(updates.get(0)).size());
+        assertEquals(maxWithdrawn, withdrawn(updates.get(1)).size());
+        assertEquals(10, withdrawn(updates.get(2)).size());
+        for (final Update update : updates) {
+            assertTrue(update.getNlri().isEmpty());
+            assertTrue(update.getWithdrawnRoutes().size() * IPV4_ROUTE_LENGTH + AdjRibOutListener.UPDATE_OVERHEAD
+                + AdjRibOutListener.MP_UNREACH_OVERHEAD <= MAX_MESSAGE_SIZE);
+        }
+        assertEquals(0, this.listener.getPrefixesSentCount());
+    }
+
+    @Test
+    public void testLastChangeWins() {
+        final MapEntryNode first = route(1, 1);
+        final MapEntryNode second = route(2, 1);
+        final MapEntryNode third = route(3, 1);
+        this.listener.onDataTreeChanged(Arrays.asList(
+            candidate(write(first), delete(second), write(third)),
+            candidate(delete(first), write(second), write(route(3, 2)))));
+
+        // Each route is sent once, reflecting its last change only
+        final List<Update> updates = updates();
+        assertEquals(3, updates.size());
+        assertEquals(Collections.singletonList("10.0.0.1/32"), withdrawn(updates.get(0)));
+        assertEquals(Collections.singletonList("10.0.0.3/32"), nlri(updates.get(1)));
+        assertEquals(attributes(2), updates.get(1).getAttributes());
+        assertEquals(Collections.singletonList("10.0.0.2/32"), nlri(updates.get(2)));
+        assertEquals(attributes(1), updates.get(2).getAttributes());
+        assertEquals(2, this.listener.getPrefixesSentCount());
+    }
+
+    /*
+     * Strip and check the End-of-RIB marker sent after the initial changes.
+     */
+    private List<Update> updates() {
+        assertEquals(BgpPeerUtil.createEndOfRib(TABLES_KEY), this.written.get(this.written.size() - 1));
+        return this.written.subList(0, this.written.size() - 1);
+    }
+
+    private static List<String> nlri(final Update update) {
+        return update.getNlri().stream().map(Nlri::getPrefix).map(prefix -> prefix.getValue())
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> withdrawn(final Update update) {
+        return update.getWithdrawnRoutes().stream().map(WithdrawnRoutes::getPrefix).map(prefix -> prefix.getValue())
+                .collect(Collectors.toList());
+    }
+
+    private static Attributes attributes(final long group) {
+        return new AttributesBuilder().setLocalPref(new LocalPrefBuilder().setPref(group).build()).build();
+    }
+
+    private static Attributes attributes(final ContainerNode container) {
+        return attributes((Long) container.getChild(new NodeIdentifier(GROUP_QNAME)).get().getValue());
+    }
+
+    private static MapEntryNode route(final int index, final long group) {
+        final String prefix = "10.0." + (index >> 8) + "." + (index & 0xFF) + "/32";
+        return ImmutableNodes.mapEntryBuilder(Ipv4Route.QNAME, PREFIX_QNAME, prefix)
+                .withChild(ImmutableNodes.leafNode(PATHID_QNAME, 0L))
+                .withChild(Builders.containerBuilder().withNodeIdentifier(ATTRIBUTES_NID)
+                    .withChild(ImmutableNodes.leafNode(GROUP_QNAME, group)).build())
+                .build();
+    }
+
+    private static DataTreeCandidateNode write(final MapEntryNode route) {
+        final DataTreeCandidateNode node = mock(DataTreeCandidateNode.class);
+        doReturn(route.getIdentifier()).when(node).getIdentifier();
+        doReturn(ModificationType.WRITE).when(node).getModificationType();
+        doReturn(Optional.of(route)).when(node).getDataAfter();
+        return node;
+    }
+
+    private static DataTreeCandidateNode delete(final MapEntryNode route) {
+        final DataTreeCandidateNode node = mock(DataTreeCandidateNode.class);
+        doReturn(route.getIdentifier()).when(node).getIdentifier();
+        doReturn(ModificationType.DELETE).when(node).getModificationType();
+        doReturn(Optional.of(route)).when(node).getDataBefore();
+        return node;
+    }
+
+    private DataTreeCandidate candidate(final DataTreeCandidateNode... routes) {
+        final DataTreeCandidateNode routesNode = mock(DataTreeCandidateNode.class);
+        doReturn(Arrays.asList(routes)).when(this.support).changedRoutes(routesNode);
+
+        final DataTreeCandidateNode root = mock(DataTreeCandidateNode.class);
+        doReturn(ModificationType.SUBTREE_MODIFIED).when(root).getModificationType();
+        doReturn(Collections.singletonList(routesNode)).when(root).getChildNodes();
+        final DataTreeCandidate candidate = mock(DataTreeCandidate.class);
+        doReturn(root).when(candidate).getRootNode();
+        doReturn("candidate").when(candidate).toString();
+        return candidate;
+    }
+}
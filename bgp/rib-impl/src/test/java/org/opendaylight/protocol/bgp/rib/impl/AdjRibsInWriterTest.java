@@ -7,12 +7,16 @@
  */
 package org.opendaylight.protocol.bgp.rib.impl;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.google.common.collect.Sets;
@@ -33,7 +37,10 @@ import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContext;
 import org.opendaylight.protocol.bgp.rib.impl.spi.RIBSupportContextRegistry;
 import org.opendaylight.protocol.bgp.rib.spi.IdentifierUtils;
 import org.opendaylight.protocol.bgp.rib.spi.RibSupportUtils;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.SendReceive;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlriBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.Rib;
@@ -99,6 +106,39 @@ public class AdjRibsInWriterTest {
         verifyUptodateSetToFalse(peerPath);
     }
 
+    @Test
+    public void testBatchedUpdates() {
+        this.writer = AdjRibInWriter.create(YangInstanceIdentifier.of(Rib.QNAME), PeerRole.Ebgp, this.ptc, 3, 60000);
+        final YangInstanceIdentifier peerPath = YangInstanceIdentifier.builder().node(Rib.QNAME)
+                .node(Peer.QNAME).nodeWithKey(Peer.QNAME,
+                        AdjRibInWriter.PEER_ID_QNAME, this.peerIp).build();
+        this.writer = this.writer.transform(new PeerId(this.peerIp), peerPath, this.registry, this.tableTypes,
+            ADD_PATH_TABLE_MAPS);
+        verify(this.tx).commit();
+
+        final MpReachNlri nlri = new MpReachNlriBuilder().setAfi(Ipv4AddressFamily.class)
+                .setSafi(UnicastSubsequentAddressFamily.class).build();
+        doReturn(Collections.nCopies(2, RibSupportUtils.toYangTablesKey(K4))).when(this.context)
+                .writeRoutes(eq(this.tx), any(YangInstanceIdentifier.class), eq(nlri), any());
+
+        // First UPDATE opens a batch, second one fills it up
+        this.writer.updateRoutes(nlri, new AttributesBuilder().build());
+        assertTrue(this.writer.hasPendingBatch());
+        verify(this.tx).commit();
+        this.writer.updateRoutes(nlri, new AttributesBuilder().build());
+        assertFalse(this.writer.hasPendingBatch());
+        verify(this.tx, times(2)).commit();
+        assertEquals(4, this.writer.getBatchCounters().getLastBatchSize());
+
+        // A partial batch is committed on demand
+        this.writer.updateRoutes(nlri, new AttributesBuilder().build());
+        this.writer.flush();
+        assertFalse(this.writer.hasPendingBatch());
+        verify(this.tx, times(3)).commit();
+        assertEquals(2, this.writer.getBatchCounters().getLastBatchSize());
+        assertEquals(4, this.writer.getBatchCounters().getMaxBatchSize());
+    }
+
     private void verifyUptodateSetToFalse(final YangInstanceIdentifier peerPath) {
         final YangInstanceIdentifier path = peerPath.node(AdjRibIn.QNAME)
                 .node(Tables.QNAME).node(RibSupportUtils.toYangTablesKey(K4))
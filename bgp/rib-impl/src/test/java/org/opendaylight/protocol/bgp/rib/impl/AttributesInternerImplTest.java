@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.LocalPref;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+
+public class AttributesInternerImplTest {
+    private static ContainerNode createAttributes(final long localPref) {
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(Attributes.QNAME))
+            .withChild(Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(LocalPref.QNAME))
+                .withChild(ImmutableNodes.leafNode(QName.create(LocalPref.QNAME, "pref"), localPref)).build())
+            .build();
+    }
+
+    @Test
+    public void testIntern() {
+        final AttributesInternerImpl interner = new AttributesInternerImpl();
+        assertNull(interner.intern(null));
+        assertEquals(0, interner.getAttributesHitRate(), 0);
+
+        final ContainerNode first = createAttributes(100);
+        final ContainerNode second = createAttributes(100);
+        final ContainerNode other = createAttributes(200);
+        assertNotSame(first, second);
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertSame(other, interner.intern(other));
+        assertSame(other, interner.intern(createAttributes(200)));
+
+        assertEquals(2, interner.getUniqueAttributesCount());
+        assertEquals(0.5, interner.getAttributesHitRate(), 0);
+    }
+}
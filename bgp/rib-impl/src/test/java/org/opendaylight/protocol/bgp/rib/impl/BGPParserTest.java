@@ -14,16 +14,35 @@ import static org.junit.Assert.assertTrue;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.junit.Test;
 import org.opendaylight.protocol.bgp.parser.spi.MessageRegistry;
 import org.opendaylight.protocol.bgp.parser.spi.pojo.ServiceLoaderBGPExtensionProviderContext;
 import org.opendaylight.protocol.util.ByteArray;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Keepalive;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.KeepaliveBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Notify;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.Segments;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.as.path.SegmentsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.Nlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.NlriBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.c.next.hop.Ipv4NextHopCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.c.next.hop.ipv4.next.hop._case.Ipv4NextHopBuilder;
 
 public class BGPParserTest {
+    private static final int MAX_MESSAGE_SIZE = 4096;
+    private static final int IPV4_ROUTE_LENGTH = 9;
     private final MessageRegistry registry = ServiceLoaderBGPExtensionProviderContext.getSingletonInstance(
         ).getMessageRegistry();
 
@@ -63,4 +82,40 @@ public class BGPParserTest {
         assertTrue(handlers.getDecoders()[0] instanceof BGPMessageHeaderDecoder);
         assertTrue(handlers.getDecoders()[1] instanceof BGPByteToMessageDecoder);
     }
+
+    @Test
+    public void testUpdatePackingWithLargeAsPath() {
+        final BGPMessageToByteEncoder encoder = new BGPMessageToByteEncoder(this.registry);
+        final List<Segments> segments = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            final List<AsNumber> asNumbers = new ArrayList<>();
+            for (long as = 0; as < 200; as++) {
+                asNumbers.add(new AsNumber(65000L + i * 200 + as));
+            }
+            segments.add(new SegmentsBuilder().setAsSequence(asNumbers).build());
+        }
+        final Attributes attributes = new AttributesBuilder()
+                .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+                .setAsPath(new AsPathBuilder().setSegments(segments).build())
+                .setCNextHop(new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
+                        .setGlobal(new Ipv4Address("10.0.0.1")).build()).build())
+                .build();
+
+        final int updateLength = encoder.updateLength(attributes);
+        assertTrue(updateLength - AdjRibOutListener.UPDATE_OVERHEAD > MAX_MESSAGE_SIZE / 4);
+
+        final int maxRoutes = AdjRibOutListener.maxRoutesPerUpdate(MAX_MESSAGE_SIZE,
+                updateLength - AdjRibOutListener.UPDATE_OVERHEAD, IPV4_ROUTE_LENGTH);
+        assertTrue(maxRoutes < AdjRibOutListener.maxRoutesPerUpdate(MAX_MESSAGE_SIZE, MAX_MESSAGE_SIZE / 4,
+                IPV4_ROUTE_LENGTH));
+        final List<Nlri> nlris = new ArrayList<>(maxRoutes);
+        for (int i = 0; i < maxRoutes; i++) {
+            nlris.add(new NlriBuilder().setPathId(new PathId(1L))
+                    .setPrefix(new Ipv4Prefix("10.0." + (i >> 8) + "." + (i & 0xff) + "/32")).build());
+        }
+        final ByteBuf out = Unpooled.buffer();
+        encoder.encode(null, new UpdateBuilder().setAttributes(attributes).setNlri(nlris)
+                .setWithdrawnRoutes(Collections.emptyList()).build(), out);
+        assertTrue(out.readableBytes() <= MAX_MESSAGE_SIZE);
+    }
 }
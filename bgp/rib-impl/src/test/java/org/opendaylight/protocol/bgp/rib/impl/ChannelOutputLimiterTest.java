@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2018 Cisco Systems, Inc. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.protocol.bgp.parser.BGPDocumentedException;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.NlriBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.RouteRefresh;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.RouteRefreshBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.openconfig.extensions.rev180329.OutputQueueOverflowPolicy;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yangtools.yang.binding.Notification;
+
+public final class ChannelOutputLimiterTest {
+    private static final Update ADVERTISEMENT_1 = advertisement("10.0.0.0/8");
+    private static final Update ADVERTISEMENT_2 = advertisement("20.0.0.0/8");
+    private static final Update ADVERTISEMENT_3 = advertisement("30.0.0.0/8");
+    private static final Update WITHDRAWAL = new UpdateBuilder().setWithdrawnRoutes(Collections.singletonList(
+        new WithdrawnRoutesBuilder().setPrefix(new Ipv4Prefix("40.0.0.0/8")).build())).build();
+    private static final RouteRefresh ROUTE_REFRESH = new RouteRefreshBuilder().setAfi(Ipv4AddressFamily.class)
+            .setSafi(UnicastSubsequentAddressFamily.class).build();
+
+    @Mock
+    private BGPSessionImpl session;
+    private final List<Notification> written = new ArrayList<>();
+    private final AtomicInteger refreshCount = new AtomicInteger();
+    private EmbeddedChannel channel;
+    private ChannelOutputLimiter limiter;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.channel = new EmbeddedChannel();
+        doReturn("session").when(this.session).toString();
+        doAnswer(invocation -> {
+            this.written.add(invocation.getArgument(0));
+            return null;
+        }).when(this.session).write(any(Notification.class));
+        doAnswer(invocation -> {
+            this.written.add(invocation.getArgument(0));
+            return this.channel.newSucceededFuture();
+        }).when(this.session).writeAndFlush(any(Notification.class));
+        doNothing().when(this.session).flush();
+        doNothing().when(this.session).terminate(any(BGPDocumentedException.class));
+
+        this.limiter = new ChannelOutputLimiter(this.session);
+        this.channel.pipeline().addLast(this.limiter);
+    }
+
+    @After
+    public void tearDown() {
+        this.channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void testDrainOnWritability() {
+        this.limiter.write(ADVERTISEMENT_1);
+        assertEquals(Collections.singletonList(ADVERTISEMENT_1), this.written);
+
+        setWritable(false);
+        this.limiter.write(ADVERTISEMENT_2);
+        this.limiter.write(WITHDRAWAL);
+        assertEquals(2, this.limiter.getQueuedMessagesCount());
+        assertEquals(1, this.written.size());
+
+        setWritable(true);
+        assertEquals(Arrays.asList(ADVERTISEMENT_1, ADVERTISEMENT_2, WITHDRAWAL), this.written);
+        assertEquals(0, this.limiter.getQueuedMessagesCount());
+        verify(this.session).flush();
+    }
+
+    @Test
+    public void testWriteAndFlushQueued() {
+        setWritable(false);
+        this.limiter.write(ADVERTISEMENT_1);
+        final ChannelFuture future = this.limiter.writeAndFlush(ROUTE_REFRESH);
+        assertFalse(future.isDone());
+        assertTrue(this.written.isEmpty());
+
+        // control message keeps its position behind the queued advertisement
+        setWritable(true);
+        assertEquals(Arrays.asList(ADVERTISEMENT_1, ROUTE_REFRESH), this.written);
+        assertTrue(future.isSuccess());
+    }
+
+    @Test
+    public void testPause() {
+        this.limiter.setOverflowPolicy(2, OutputQueueOverflowPolicy.Pause, this.refreshCount::incrementAndGet);
+        final AtomicInteger resumed = new AtomicInteger();
+        assertFalse(this.limiter.pauseProducer(resumed::incrementAndGet));
+
+        setWritable(false);
+        this.limiter.write(ADVERTISEMENT_1);
+        this.limiter.write(ADVERTISEMENT_2);
+        assertFalse(this.limiter.pauseProducer(resumed::incrementAndGet));
+
+        // overflow neither blocks nor drops, producers are asked to hold back instead
+        this.limiter.write(ADVERTISEMENT_3);
+        assertEquals(3, this.limiter.getQueuedMessagesCount());
+        assertTrue(this.limiter.pauseProducer(resumed::incrementAndGet));
+        assertEquals(0, resumed.get());
+
+        setWritable(true);
+        assertEquals(Arrays.asList(ADVERTISEMENT_1, ADVERTISEMENT_2, ADVERTISEMENT_3), this.written);
+        assertEquals(1, resumed.get());
+        assertFalse(this.limiter.pauseProducer(resumed::incrementAndGet));
+        assertEquals(0, this.refreshCount.get());
+        verify(this.session, never()).terminate(any(BGPDocumentedException.class));
+    }
+
+    @Test
+    public void testRefresh() {
+        this.limiter.setOverflowPolicy(2, OutputQueueOverflowPolicy.Refresh, this.refreshCount::incrementAndGet);
+        setWritable(false);
+        this.limiter.write(ADVERTISEMENT_1);
+        this.limiter.write(WITHDRAWAL);
+        final ChannelFuture future = this.limiter.writeAndFlush(ROUTE_REFRESH);
+
+        // advertisements are dropped, withdrawals and control messages are kept
+        assertEquals(2, this.limiter.getQueuedMessagesCount());
+        this.limiter.write(ADVERTISEMENT_2);
+        assertEquals(2, this.limiter.getQueuedMessagesCount());
+
+        setWritable(true);
+        assertEquals(Arrays.asList(WITHDRAWAL, ROUTE_REFRESH), this.written);
+        assertTrue(future.isSuccess());
+        assertEquals(1, this.refreshCount.get());
+    }
+
+    @Test
+    public void testTearDown() {
+        this.limiter.setOverflowPolicy(1, OutputQueueOverflowPolicy.TearDown, this.refreshCount::incrementAndGet);
+        setWritable(false);
+        final ChannelFuture future = this.limiter.writeAndFlush(ROUTE_REFRESH);
+        this.limiter.write(ADVERTISEMENT_1);
+
+        verify(this.session).terminate(any(BGPDocumentedException.class));
+        assertEquals(0, this.limiter.getQueuedMessagesCount());
+        assertFalse(future.isSuccess());
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public void testChannelInactive() {
+        setWritable(false);
+        final ChannelFuture future = this.limiter.writeAndFlush(ROUTE_REFRESH);
+        this.limiter.write(ADVERTISEMENT_1);
+
+        this.channel.close();
+        assertEquals(0, this.limiter.getQueuedMessagesCount());
+        assertFalse(future.isSuccess());
+        assertTrue(future.isDone());
+        assertTrue(this.written.isEmpty());
+    }
+
+    private void setWritable(final boolean writable) {
+        this.channel.unsafe().outboundBuffer().setUserDefinedWritability(1, writable);
+        this.channel.runPendingTasks();
+    }
+
+    private static Update advertisement(final String prefix) {
+        return new UpdateBuilder().setAttributes(new AttributesBuilder().build())
+                .setNlri(Collections.singletonList(new NlriBuilder().setPrefix(new Ipv4Prefix(prefix)).build()))
+                .build();
+    }
+}
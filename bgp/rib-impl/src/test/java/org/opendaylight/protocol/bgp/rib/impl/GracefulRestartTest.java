@@ -51,7 +51,9 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mess
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.OpenBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.ProtocolVersion;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.open.message.BgpParameters;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.BgpTableType;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.BgpRib;
@@ -244,6 +246,72 @@ public class GracefulRestartTest extends AbstractAddPathTest {
         checkLocRibIpv6Routes(0);
     }
 
+    /**
+     * Routes advertised again after the restart are no longer stale and survive the End-of-RIB marker.
+     *
+     * @throws Exception on reading Rib failure
+     */
+    @Test
+    public void keepReadvertisedRoutesAfterRestartTest() throws Exception {
+        retainRoutesOnPeerRestartTest();
+        this.session = createPeerSession(PEER1, createParameter(false, true,
+                Collections.singletonMap(TABLES_KEY, true)), this.listener);
+        checkUpState(this.listener);
+        insertRoutes(Arrays.asList(new Ipv4Prefix(PREFIX1), new Ipv4Prefix(PREFIX2)), null);
+        insertRoutes(null, null);
+        checkLocRibIpv4Routes(2);
+        checkLocRibIpv6Routes(0);
+    }
+
+    /**
+     * A stale route withdrawn after the restart is removed immediately. Once advertised again it is not swept by
+     * the End-of-RIB marker, unlike the remaining stale route.
+     *
+     * @throws Exception on reading Rib failure
+     */
+    @Test
+    public void withdrawnRoutesAreNotSweptTest() throws Exception {
+        retainRoutesOnPeerRestartTest();
+        this.session = createPeerSession(PEER1, createParameter(false, true,
+                Collections.singletonMap(TABLES_KEY, true)), this.listener);
+        checkUpState(this.listener);
+        withdrawRoutes(Collections.singletonList(new Ipv4Prefix(PREFIX1)));
+        checkLocRibIpv4Routes(1);
+        insertRoutes(Collections.singletonList(new Ipv4Prefix(PREFIX1)), null);
+        checkLocRibIpv4Routes(2);
+        insertRoutes(null, null);
+        checkLocRibIpv4Routes(1);
+        checkLocRibIpv6Routes(0);
+    }
+
+    /**
+     * If the session goes down again before the End-of-RIB marker is received, routes which were stale after the
+     * first restart remain stale, together with the routes learned in the meantime.
+     *
+     * @throws Exception on reading Rib failure
+     */
+    @Test
+    public void keepStaleRoutesOnSecondRestartTest() throws Exception {
+        retainRoutesOnPeerRestartTest();
+        this.session = createPeerSession(PEER1, createParameter(false, true,
+                Collections.singletonMap(TABLES_KEY, true)), this.listener);
+        checkUpState(this.listener);
+        insertRoutes(Collections.singletonList(new Ipv4Prefix(PREFIX1)), null);
+        checkLocRibIpv4Routes(2);
+
+        this.session.close();
+        checkIdleState(this.peer);
+        checkLocRibIpv4Routes(2);
+
+        this.session = createPeerSession(PEER1, createParameter(false, true,
+                Collections.singletonMap(TABLES_KEY, true)), this.listener);
+        checkUpState(this.listener);
+        insertRoutes(Collections.singletonList(new Ipv4Prefix(PREFIX1)), null);
+        insertRoutes(null, null);
+        checkLocRibIpv4Routes(1);
+        checkLocRibIpv6Routes(0);
+    }
+
     /**
      * Perform local graceful restart and verify routes are preserved.
      *
@@ -415,6 +483,14 @@ public class GracefulRestartTest extends AbstractAddPathTest {
         }
     }
 
+    private void withdrawRoutes(final List<Ipv4Prefix> ipv4prefixes) {
+        waitFutureSuccess(this.session.writeAndFlush(new UpdateBuilder()
+                .setWithdrawnRoutes(ipv4prefixes.stream()
+                        .map(prefix -> new WithdrawnRoutesBuilder().setPrefix(prefix).build())
+                        .collect(Collectors.toList()))
+                .build()));
+    }
+
     private static Open createClassicOpen(final boolean addGraceful) {
         final Map<TablesKey, Boolean> graceful = new HashMap<>();
         if (addGraceful) {
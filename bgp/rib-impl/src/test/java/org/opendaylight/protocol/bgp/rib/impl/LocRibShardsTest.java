@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.opendaylight.protocol.util.CheckUtil.readDataOperational;
+import static org.opendaylight.protocol.util.CheckUtil.waitFutureSuccess;
+
+import com.google.common.collect.ImmutableMap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.protocol.bgp.mode.api.PathSelectionMode;
+import org.opendaylight.protocol.bgp.mode.impl.base.BasePathSelectionModeFactory;
+import org.opendaylight.protocol.util.CheckUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.bgp.rib.rib.loc.rib.tables.routes.Ipv4RoutesCase;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.open.message.BgpParameters;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.PeerRole;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.RibId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpId;
+
+/**
+ * Best path selection with Loc-RIB route entries partitioned into multiple shards.
+ */
+public class LocRibShardsTest extends AbstractAddPathTest {
+    private static final int SHARDS = 4;
+    private static final int PREFIXES = 64;
+
+    private RIBImpl ribImpl;
+    private Channel serverChannel;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        final Map<TablesKey, PathSelectionMode> pathTables = ImmutableMap.of(TABLES_KEY,
+            BasePathSelectionModeFactory.createBestPathSelectionStrategy());
+
+        this.ribImpl = new RIBImpl(this.tableRegistry, new RibId("test-rib"), AS_NUMBER, new BgpId(RIB_ID),
+                this.ribExtension, this.serverDispatcher, this.codecsRegistry, getDomBroker(), getDataBroker(),
+                this.policies, TABLES_TYPE, pathTables, SHARDS);
+        this.ribImpl.instantiateServiceInstance();
+        this.ribImpl.onGlobalContextUpdated(this.schemaService.getGlobalContext());
+        final ChannelFuture channelFuture = this.serverDispatcher.createServer(new InetSocketAddress(RIB_ID, PORT));
+        waitFutureSuccess(channelFuture);
+        this.serverChannel = channelFuture.channel();
+    }
+
+    @Override
+    @After
+    public void tearDown() throws Exception {
+        waitFutureSuccess(this.serverChannel.close());
+        this.ribImpl.closeServiceInstance();
+        super.tearDown();
+    }
+
+    @Test
+    public void testShardedSelection() throws Exception {
+        final BgpParameters nonAddPathParams = createParameter(false);
+        configurePeer(this.tableRegistry, PEER1, this.ribImpl, nonAddPathParams, PeerRole.Ibgp, this.serverRegistry);
+        final BGPSessionImpl session1 = createPeerSession(PEER1, nonAddPathParams, new SimpleSessionListener());
+        configurePeer(this.tableRegistry, PEER2, this.ribImpl, nonAddPathParams, PeerRole.Ibgp, this.serverRegistry);
+        final BGPSessionImpl session2 = createPeerSession(PEER2, nonAddPathParams, new SimpleSessionListener());
+        checkPeersPresentOnDataStore(2);
+
+        final List<Ipv4Prefix> prefixes = new ArrayList<>(PREFIXES);
+        for (int i = 0; i < PREFIXES; i++) {
+            prefixes.add(new Ipv4Prefix("10.0." + i + ".0/24"));
+        }
+
+        // a burst of prefixes spread over all shards
+        sendRoutes(session1, prefixes, 100);
+        checkLocRib(expectedLocRib(prefixes, 100));
+
+        // better paths of another peer replace the best paths in all shards
+        sendRoutes(session2, prefixes, 200);
+        final Map<Ipv4Prefix, Long> expected = expectedLocRib(prefixes, 200);
+        checkLocRib(expected);
+
+        // successive updates of a prefix are applied in the order they were received
+        final Ipv4Prefix prefix = prefixes.get(0);
+        final ChannelFuture worse = sendRoute(session2, prefix, 50);
+        final ChannelFuture better = sendRoute(session2, prefix, 300);
+        waitFutureSuccess(worse);
+        waitFutureSuccess(better);
+        expected.put(prefix, 300L);
+        checkLocRib(expected);
+
+        // withdrawing the best paths falls back to the remaining ones, then empties Loc-RIB
+        sendWithdrawals(session2, prefixes);
+        checkLocRib(expectedLocRib(prefixes, 100));
+        sendWithdrawals(session1, prefixes);
+        checkLocRib(new HashMap<>());
+
+        session1.close();
+        session2.close();
+    }
+
+    private static void sendRoutes(final BGPSessionImpl session, final List<Ipv4Prefix> prefixes,
+            final long localPreference) {
+        final List<ChannelFuture> futures = new ArrayList<>(prefixes.size());
+        for (final Ipv4Prefix prefix : prefixes) {
+            futures.add(sendRoute(session, prefix, localPreference));
+        }
+        futures.forEach(CheckUtil::waitFutureSuccess);
+    }
+
+    private static void sendWithdrawals(final BGPSessionImpl session, final List<Ipv4Prefix> prefixes) {
+        final List<ChannelFuture> futures = new ArrayList<>(prefixes.size());
+        for (final Ipv4Prefix prefix : prefixes) {
+            futures.add(sendWithdrawalRoute(session, prefix, 0));
+        }
+        futures.forEach(CheckUtil::waitFutureSuccess);
+    }
+
+    private static Map<Ipv4Prefix, Long> expectedLocRib(final List<Ipv4Prefix> prefixes, final long localPreference) {
+        final Map<Ipv4Prefix, Long> expected = new HashMap<>();
+        prefixes.forEach(prefix -> expected.put(prefix, localPreference));
+        return expected;
+    }
+
+    private void checkLocRib(final Map<Ipv4Prefix, Long> expected) throws Exception {
+        readDataOperational(getDataBroker(), BGP_IID, bgpRib -> {
+            final Ipv4RoutesCase routes = (Ipv4RoutesCase) bgpRib.getRib().get(0).getLocRib().getTables().get(0)
+                .getRoutes();
+            final Map<Ipv4Prefix, Long> actual = new HashMap<>();
+            if (routes != null && routes.getIpv4Routes() != null && routes.getIpv4Routes().getIpv4Route() != null) {
+                for (final Ipv4Route route : routes.getIpv4Routes().getIpv4Route()) {
+                    actual.put(route.getPrefix(), route.getAttributes().getLocalPref().getPref());
+                }
+            }
+            assertEquals(expected, actual);
+            return bgpRib;
+        });
+    }
+}
@@ -14,8 +14,12 @@ import com.google.common.annotations.Beta;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -296,10 +300,12 @@ public abstract class AbstractRIBSupport<
      * @param tablePath    YangInstanceIdentifier to be passed into implementation
      * @param destination  ContainerNode DOM representation of NLRI in Update message
      * @param routesNodeId NodeIdentifier
+     * @return List of processed route identifiers
      */
-    private void deleteDestinationRoutes(final DOMDataWriteTransaction tx, final YangInstanceIdentifier tablePath,
-            final ContainerNode destination, final NodeIdentifier routesNodeId) {
-        processDestination(tx, tablePath.node(routesNodeId), destination, null, DELETE_ROUTE);
+    private Collection<NodeIdentifierWithPredicates> deleteDestinationRoutes(final DOMDataWriteTransaction tx,
+            final YangInstanceIdentifier tablePath, final ContainerNode destination,
+            final NodeIdentifier routesNodeId) {
+        return processDestination(tx, tablePath.node(routesNodeId), destination, null, DELETE_ROUTE);
     }
 
     /**
@@ -393,9 +399,9 @@ public abstract class AbstractRIBSupport<
     }
 
     @Override
-    public final void deleteRoutes(final DOMDataWriteTransaction tx, final YangInstanceIdentifier tablePath,
-            final ContainerNode nlri) {
-        deleteRoutes(tx, tablePath, nlri, ROUTES);
+    public final Collection<NodeIdentifierWithPredicates> deleteRoutes(final DOMDataWriteTransaction tx,
+            final YangInstanceIdentifier tablePath, final ContainerNode nlri) {
+        return deleteRoutes(tx, tablePath, nlri, ROUTES);
     }
 
     @Override
@@ -435,17 +441,18 @@ public abstract class AbstractRIBSupport<
 
     @Override
     @SuppressWarnings("checkstyle:OverloadMethodsDeclarationOrder")
-    public final void deleteRoutes(final DOMDataWriteTransaction tx, final YangInstanceIdentifier tablePath,
-            final ContainerNode nlri, final NodeIdentifier routesNodeId) {
+    public final Collection<NodeIdentifierWithPredicates> deleteRoutes(final DOMDataWriteTransaction tx,
+            final YangInstanceIdentifier tablePath, final ContainerNode nlri, final NodeIdentifier routesNodeId) {
         final Optional<DataContainerChild<? extends PathArgument, ?>> maybeRoutes = nlri.getChild(WITHDRAWN_ROUTES);
         if (maybeRoutes.isPresent()) {
             final ContainerNode destination = getDestination(maybeRoutes.get(), destinationContainerIdentifier());
             if (destination != null) {
-                deleteDestinationRoutes(tx, tablePath, destination, routesNodeId);
+                return deleteDestinationRoutes(tx, tablePath, destination, routesNodeId);
             }
         } else {
             LOG.debug("Withdrawn routes are not present in NLRI {}", nlri);
         }
+        return Collections.emptyList();
     }
 
     @Override
@@ -466,6 +473,58 @@ public abstract class AbstractRIBSupport<
         return Collections.emptyList();
     }
 
+    @Override
+    public final Map<NodeIdentifierWithPredicates, MapEntryNode> extractRoutes(final ContainerNode nlri,
+            final ContainerNode attributes) {
+        final Optional<DataContainerChild<? extends PathArgument, ?>> maybeRoutes = nlri.getChild(ADVERTISED_ROUTES);
+        if (!maybeRoutes.isPresent()) {
+            LOG.debug("Advertized routes are not present in NLRI {}", nlri);
+            return Collections.emptyMap();
+        }
+        final ContainerNode destination = getDestination(maybeRoutes.get(), destinationContainerIdentifier());
+        if (destination == null) {
+            return Collections.emptyMap();
+        }
+
+        // All routes share a single instance of the attributes container
+        final ContainerNode routeAttributes = routeAttributesIdentifier().equals(attributes.getIdentifier())
+                ? attributes : Builders.containerBuilder(attributes).withNodeIdentifier(routeAttributesIdentifier())
+                        .build();
+        final Map<NodeIdentifierWithPredicates, MapEntryNode> routes = new LinkedHashMap<>();
+        processDestination(null, YangInstanceIdentifier.EMPTY, destination, attributes,
+            (tx, base, routeKey, route, attrs) -> routes.put(routeKey, createRouteEntry(routeKey, route,
+                routeAttributes)));
+        return routes;
+    }
+
+    @Override
+    public final Collection<NodeIdentifierWithPredicates> extractWithdrawnRoutes(final ContainerNode nlri) {
+        final Optional<DataContainerChild<? extends PathArgument, ?>> maybeRoutes = nlri.getChild(WITHDRAWN_ROUTES);
+        if (!maybeRoutes.isPresent()) {
+            LOG.debug("Withdrawn routes are not present in NLRI {}", nlri);
+            return Collections.emptyList();
+        }
+        final ContainerNode destination = getDestination(maybeRoutes.get(), destinationContainerIdentifier());
+        if (destination == null) {
+            return Collections.emptyList();
+        }
+
+        final List<NodeIdentifierWithPredicates> routeKeys = new ArrayList<>();
+        processDestination(null, YangInstanceIdentifier.EMPTY, destination, null,
+            (tx, base, routeKey, route, attrs) -> routeKeys.add(routeKey));
+        return routeKeys;
+    }
+
+    private static MapEntryNode createRouteEntry(final NodeIdentifierWithPredicates routeKey,
+            final DataContainerNode<?> route, final ContainerNode routeAttributes) {
+        final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> b =
+                ImmutableNodes.mapEntryBuilder();
+        b.withNodeIdentifier(routeKey);
+        route.getValue().forEach(b::withChild);
+        b.withChild(routeAttributes);
+        return b.build();
+    }
+
     private static final class DeleteRoute implements ApplyRoute {
         @Override
         public void apply(final DOMDataWriteTransaction tx, final YangInstanceIdentifier base,
@@ -480,18 +539,12 @@ public abstract class AbstractRIBSupport<
         public void apply(final DOMDataWriteTransaction tx, final YangInstanceIdentifier base,
                 final NodeIdentifierWithPredicates routeKey, final DataContainerNode<?> route,
                 final ContainerNode attributes) {
-            // Build the DataContainer data
-            final DataContainerNodeBuilder<NodeIdentifierWithPredicates, MapEntryNode> b =
-                    ImmutableNodes.mapEntryBuilder();
-            b.withNodeIdentifier(routeKey);
-
-            route.getValue().forEach(b::withChild);
             // Add attributes
             final DataContainerNodeAttrBuilder<NodeIdentifier, ContainerNode> cb =
                     Builders.containerBuilder(attributes);
             cb.withNodeIdentifier(routeAttributesIdentifier());
-            b.withChild(cb.build());
-            tx.put(LogicalDatastoreType.OPERATIONAL, base.node(routeKey), b.build());
+            tx.put(LogicalDatastoreType.OPERATIONAL, base.node(routeKey), createRouteEntry(routeKey, route,
+                cb.build()));
         }
     }
 
@@ -12,7 +12,9 @@ import static org.opendaylight.protocol.bgp.parser.spi.PathIdUtil.NON_PATH_ID;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
@@ -112,9 +114,10 @@ public interface RIBSupport<
      * @param tx        DOMDataWriteTransaction
      * @param tablePath YangInstanceIdentifier
      * @param nlri      ContainerNode DOM representation of NLRI in Update message
+     * @return List of processed route Identifiers
      */
-    void deleteRoutes(@Nonnull DOMDataWriteTransaction tx, @Nonnull YangInstanceIdentifier tablePath,
-            @Nonnull ContainerNode nlri);
+    Collection<NodeIdentifierWithPredicates> deleteRoutes(@Nonnull DOMDataWriteTransaction tx,
+            @Nonnull YangInstanceIdentifier tablePath, @Nonnull ContainerNode nlri);
 
 
     /**
@@ -130,9 +133,11 @@ public interface RIBSupport<
      * @param tablePath    YangInstanceIdentifier
      * @param nlri         ContainerNode DOM representation of NLRI in Update message
      * @param routesNodeId NodeIdentifier of "routes" data node
+     * @return List of processed routes identifiers
      */
-    void deleteRoutes(@Nonnull DOMDataWriteTransaction tx, @Nonnull YangInstanceIdentifier tablePath,
-            @Nonnull ContainerNode nlri, @Nonnull NodeIdentifier routesNodeId);
+    Collection<NodeIdentifierWithPredicates> deleteRoutes(@Nonnull DOMDataWriteTransaction tx,
+            @Nonnull YangInstanceIdentifier tablePath, @Nonnull ContainerNode nlri,
+            @Nonnull NodeIdentifier routesNodeId);
 
     /**
      * Given the NLRI as ContainerNode, this method should extract advertised routes
@@ -167,6 +172,27 @@ public interface RIBSupport<
             @Nonnull YangInstanceIdentifier tablePath, @Nonnull ContainerNode nlri, @Nonnull ContainerNode attributes,
             @Nonnull NodeIdentifier routesNodeId);
 
+    /**
+     * Given the NLRI as ContainerNode, this method extracts advertised routes from the DOM model without writing
+     * them anywhere. The returned entries are identical to what {@link #putRoutes} would write.
+     *
+     * @param nlri       ContainerNode DOM representation of NLRI in Update message
+     * @param attributes ContainerNode
+     * @return Map of extracted route identifiers to route entries
+     */
+    @Nonnull
+    Map<NodeIdentifierWithPredicates, MapEntryNode> extractRoutes(@Nonnull ContainerNode nlri,
+            @Nonnull ContainerNode attributes);
+
+    /**
+     * Given the NLRI as ContainerNode, this method extracts identifiers of withdrawn routes from the DOM model.
+     *
+     * @param nlri ContainerNode DOM representation of NLRI in Update message
+     * @return Collection of withdrawn route identifiers
+     */
+    @Nonnull
+    Collection<NodeIdentifierWithPredicates> extractWithdrawnRoutes(@Nonnull ContainerNode nlri);
+
     /**
      * Returns routes that were modified within this RIB support instance.
      *
@@ -215,6 +241,31 @@ public interface RIBSupport<
             @Nonnull Collection<MapEntryNode> withdrawn,
             @Nonnull Attributes attr);
 
+    /**
+     * Return the maximum number of bytes a single route of this AFI/SAFI occupies in an UPDATE message, including
+     * its optional Path Identifier. This allows multiple routes sharing the same attributes to be packed into a single
+     * UPDATE message without exceeding the negotiated message size. Families with variable-length NLRI, which cannot
+     * be bounded reasonably, return 0, in which case each route is sent in its own UPDATE message.
+     *
+     * @return Maximum encoded route length, or 0 if unknown
+     */
+    default int maxRouteEncodedLength() {
+        return 0;
+    }
+
+    /**
+     * Create a map used for indexing per-route state by route keys, as returned by {@link #extractRouteKey}.
+     * Families whose route keys have a well-known format can provide a more compact implementation than the default
+     * {@link HashMap}.
+     *
+     * @param <V> value type
+     * @return A new, empty map
+     */
+    @Nonnull
+    default <V> Map<String, V> createRouteKeyMap() {
+        return new HashMap<>();
+    }
+
     @Nonnull
     Class<? extends AddressFamily> getAfi();
 
@@ -276,7 +327,16 @@ public interface RIBSupport<
     ContainerNode attributeToContainerNode(YangInstanceIdentifier routePath, Attributes attributes);
 
     interface ApplyRoute {
-        void apply(@Nonnull DOMDataWriteTransaction tx, @Nonnull YangInstanceIdentifier base,
+        /**
+         * Apply a route.
+         *
+         * @param tx Transaction to apply the route to, null when routes are only being extracted
+         * @param base Routes path
+         * @param routeKey Route identifier
+         * @param route Route data
+         * @param attributes Route attributes, null for withdrawn routes
+         */
+        void apply(@Nullable DOMDataWriteTransaction tx, @Nonnull YangInstanceIdentifier base,
                    @Nonnull NodeIdentifierWithPredicates routeKey,
                    @Nonnull DataContainerNode<?> route, ContainerNode attributes);
     }
@@ -39,4 +39,88 @@ public interface BGPPeerMessagesState {
      * @return count
      */
     long getNotificationMessagesReceivedCount();
+
+    /**
+     * Messages queued to be sent to the peer.
+     *
+     * @return count
+     */
+    long getOutputQueueMessagesCount();
+
+    /**
+     * Encoded bytes queued to be sent to the peer.
+     *
+     * @return bytes
+     */
+    long getOutputQueueBytes();
+
+    /**
+     * Total time the output queue was stalled waiting for the peer to accept data.
+     *
+     * @return time in milliseconds
+     */
+    long getOutputQueueStallTime();
+
+    /**
+     * Adj-RIB-Out updates waiting to be computed for the peer.
+     *
+     * @return count
+     */
+    long getAdjRibOutPendingCount();
+
+    /**
+     * Latency of the most recent Adj-RIB-Out update computed for the peer.
+     *
+     * @return time in microseconds
+     */
+    long getAdjRibOutLatency();
+
+    /**
+     * Maximum latency of an Adj-RIB-Out update computed for the peer.
+     *
+     * @return time in microseconds
+     */
+    long getAdjRibOutMaxLatency();
+
+    /**
+     * UPDATE messages whose path attributes were found in the session's attributes cache.
+     *
+     * @return count
+     */
+    long getAttributesCacheHits();
+
+    /**
+     * UPDATE messages whose path attributes had to be parsed.
+     *
+     * @return count
+     */
+    long getAttributesCacheMisses();
+
+    /**
+     * Routes written to Adj-RIB-In by the most recently committed transaction.
+     *
+     * @return count
+     */
+    long getAdjRibInBatchSize();
+
+    /**
+     * Maximum number of routes written to Adj-RIB-In by a single transaction.
+     *
+     * @return count
+     */
+    long getAdjRibInMaxBatchSize();
+
+    /**
+     * Time needed to commit the most recently completed Adj-RIB-In transaction.
+     *
+     * @return time in microseconds
+     */
+    long getAdjRibInCommitLatency();
+
+    /**
+     * Maximum time needed to commit an Adj-RIB-In transaction.
+     *
+     * @return time in microseconds
+     */
+    long getAdjRibInMaxCommitLatency();
 }
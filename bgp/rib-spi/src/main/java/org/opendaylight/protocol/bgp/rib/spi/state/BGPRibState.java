@@ -8,6 +8,7 @@
 
 package org.opendaylight.protocol.bgp.rib.spi.state;
 
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
 import org.opendaylight.protocol.bgp.rib.RibReference;
@@ -74,6 +75,28 @@ public interface BGPRibState extends RibReference {
      */
     long getPrefixesCount(TablesKey tablesKey);
 
+    /**
+     * Unique path attribute sets shared by routes installed on RIB.
+     *
+     * @return count
+     */
+    long getUniqueAttributesCount();
+
+    /**
+     * Ratio of routes whose path attributes were already known to RIB, and hence did not require a new copy.
+     *
+     * @return hit rate, between 0 and 1
+     */
+    double getAttributesHitRate();
+
+    /**
+     * Duration of the most recent best path selection run in each Loc-RIB shard, per TableKey.
+     *
+     * @return latency in nanoseconds per shard
+     */
+    @Nonnull
+    Map<TablesKey, List<Long>> getLocRibShardSelectionLatencies();
+
     /**
      * AS.
      *
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.util;
+
+/**
+ * A {@link PackedRouteKeyMap} for route keys in the dotted-quad "a.b.c.d/len" format, which packs each key into
+ * a single {@code long} holding the address and the prefix length. Parsing is allocation-free.
+ *
+ * @param <V> value type
+ */
+public final class Ipv4PrefixRouteKeyMap<V> extends PackedRouteKeyMap<V> {
+    public Ipv4PrefixRouteKeyMap() {
+        super(1);
+    }
+
+    @Override
+    protected boolean pack(final String key, final long[] packed) {
+        final int length = key.length();
+        long address = 0;
+        int octets = 0;
+        int offset = 0;
+        while (true) {
+            final int end = parseDecimal(key, offset, length);
+            if (end < 0) {
+                return false;
+            }
+            final int value = decimalValue(key, offset, end);
+            octets++;
+            if (octets == 5) {
+                if (value > 32 || end != length) {
+                    return false;
+                }
+                packed[0] = address << 8 | value;
+                return true;
+            }
+            if (value > 255 || end == length || key.charAt(end) != (octets == 4 ? '/' : '.')) {
+                return false;
+            }
+            address = address << 8 | value;
+            offset = end + 1;
+        }
+    }
+
+    @Override
+    protected String unpack(final long[] packed, final int offset) {
+        final long value = packed[offset];
+        return new StringBuilder(18)
+                .append(value >>> 32 & 0xFF).append('.')
+                .append(value >>> 24 & 0xFF).append('.')
+                .append(value >>> 16 & 0xFF).append('.')
+                .append(value >>> 8 & 0xFF).append('/')
+                .append(value & 0xFF).toString();
+    }
+
+    /*
+     * Returns the end index of a canonical decimal number of at most three digits starting at offset, or -1 if there
+     * is none. Leading zeroes are rejected, as they would not survive a round-trip.
+     */
+    private static int parseDecimal(final String key, final int offset, final int length) {
+        int end = offset;
+        while (end < length && end - offset < 4 && isDigit(key.charAt(end))) {
+            end++;
+        }
+        final int digits = end - offset;
+        if (digits == 0 || digits > 3 || digits > 1 && key.charAt(offset) == '0') {
+            return -1;
+        }
+        return end;
+    }
+
+    private static boolean isDigit(final char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static int decimalValue(final String key, final int offset, final int end) {
+        int value = 0;
+        for (int i = offset; i < end; i++) {
+            value = value * 10 + key.charAt(i) - '0';
+        }
+        return value;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.util;
+
+/**
+ * A {@link PackedRouteKeyMap} for route keys in the "address/len" IPv6 prefix format, which packs each key into
+ * three {@code long}s holding the address and the prefix length. Only keys using the canonical RFC5952 textual
+ * representation of the address are packed. Keys are parsed in place, so looking up a key does not allocate.
+ *
+ * @param <V> value type
+ */
+public final class Ipv6PrefixRouteKeyMap<V> extends PackedRouteKeyMap<V> {
+    private static final int MAX_PREFIX_LENGTH = 128;
+    private static final int GROUPS = 8;
+    private static final int MAX_GROUP_DIGITS = 4;
+    private static final int MAX_KEY_LENGTH = 43;
+
+    public Ipv6PrefixRouteKeyMap() {
+        super(3);
+    }
+
+    @Override
+    protected boolean pack(final String key, final long[] packed) {
+        final int slash = key.indexOf('/');
+        if (slash <= 0) {
+            return false;
+        }
+        final int length = parsePrefixLength(key, slash + 1);
+        if (length < 0 || !parseAddress(key, slash, packed)) {
+            return false;
+        }
+        packed[2] = length;
+        return true;
+    }
+
+    @Override
+    protected String unpack(final long[] packed, final int offset) {
+        final int zeroRun = longestZeroRun(packed, offset);
+        final int runLength = zeroRun & 0xF;
+        final int runStart = runLength != 0 ? zeroRun >> 4 : -1;
+        final int runEnd = runStart + runLength;
+
+        final StringBuilder sb = new StringBuilder(MAX_KEY_LENGTH);
+        for (int i = 0; i < GROUPS; i++) {
+            if (i == runStart) {
+                sb.append("::");
+                i = runEnd - 1;
+                continue;
+            }
+            if (i != 0 && i != runEnd) {
+                sb.append(':');
+            }
+            appendHex(sb, getGroup(packed, offset, i));
+        }
+        return sb.append('/').append(packed[offset + 2]).toString();
+    }
+
+    /*
+     * Parse the address preceding the slash into the first two elements of packed. Groups have to be lowercase
+     * hexadecimal numbers without leading zeroes and the first longest run of at least two zero groups has to be
+     * compressed, which is what RFC5952 and InetAddresses.toAddrString() produce. Any other representation is
+     * rejected, as unpacking would not reproduce it.
+     */
+    private static boolean parseAddress(final String key, final int end, final long[] packed) {
+        packed[0] = 0;
+        packed[1] = 0;
+        int groups = 0;
+        int gap = -1;
+        int offset = 0;
+        if (key.startsWith("::")) {
+            gap = 0;
+            offset = 2;
+        }
+
+        while (offset < end) {
+            if (groups == GROUPS) {
+                return false;
+            }
+            int value = 0;
+            int digits = 0;
+            for (; offset < end; offset++) {
+                final int digit = hexDigit(key.charAt(offset));
+                if (digit < 0) {
+                    break;
+                }
+                if (digits == MAX_GROUP_DIGITS || digits == 1 && value == 0) {
+                    return false;
+                }
+                value = value << 4 | digit;
+                digits++;
+            }
+            if (digits == 0) {
+                return false;
+            }
+            setGroup(packed, groups++, value);
+            if (offset == end) {
+                break;
+            }
+
+            if (key.charAt(offset) != ':') {
+                return false;
+            }
+            offset++;
+            if (offset < end && key.charAt(offset) == ':') {
+                if (gap >= 0) {
+                    return false;
+                }
+                gap = groups;
+                offset++;
+            } else if (offset == end) {
+                return false;
+            }
+        }
+
+        if (gap < 0) {
+            return groups == GROUPS && longestZeroRun(packed, 0) == 0;
+        }
+        // Move the groups following the gap to the end of the address
+        final int shift = GROUPS - groups;
+        for (int i = groups - 1; i >= gap; i--) {
+            setGroup(packed, i + shift, getGroup(packed, 0, i));
+            setGroup(packed, i, 0);
+        }
+        return shift >= 2 && longestZeroRun(packed, 0) == (gap << 4 | shift);
+    }
+
+    /*
+     * Locate the first longest run of at least two zero groups, returning its start shifted by four bits ORed with its
+     * length, or zero if there is no such run.
+     */
+    private static int longestZeroRun(final long[] packed, final int offset) {
+        int bestStart = 0;
+        int bestLength = 0;
+        int runStart = -1;
+        for (int i = 0; i <= GROUPS; i++) {
+            if (i < GROUPS && getGroup(packed, offset, i) == 0) {
+                if (runStart < 0) {
+                    runStart = i;
+                }
+            } else if (runStart >= 0) {
+                final int length = i - runStart;
+                if (length > bestLength && length >= 2) {
+                    bestStart = runStart;
+                    bestLength = length;
+                }
+                runStart = -1;
+            }
+        }
+        return bestStart << 4 | bestLength;
+    }
+
+    private static int getGroup(final long[] packed, final int offset, final int index) {
+        return (int) (packed[offset + (index >> 2)] >>> 48 - 16 * (index & 3)) & 0xFFFF;
+    }
+
+    private static void setGroup(final long[] packed, final int index, final int value) {
+        final int shift = 48 - 16 * (index & 3);
+        final int word = index >> 2;
+        packed[word] = packed[word] & ~(0xFFFFL << shift) | (long) value << shift;
+    }
+
+    private static int hexDigit(final char ch) {
+        if (ch >= '0' && ch <= '9') {
+            return ch - '0';
+        }
+        return ch >= 'a' && ch <= 'f' ? ch - 'a' + 10 : -1;
+    }
+
+    private static void appendHex(final StringBuilder sb, final int value) {
+        boolean leading = true;
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            final int digit = value >>> shift & 0xF;
+            if (digit != 0 || !leading || shift == 0) {
+                sb.append(Character.forDigit(digit, 16));
+                leading = false;
+            }
+        }
+    }
+
+    private static int parsePrefixLength(final String key, final int offset) {
+        final int digits = key.length() - offset;
+        if (digits < 1 || digits > 3 || digits > 1 && key.charAt(offset) == '0') {
+            return -1;
+        }
+        int value = 0;
+        for (int i = offset; i < key.length(); i++) {
+            final char ch = key.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+            value = value * 10 + ch - '0';
+        }
+        return value <= MAX_PREFIX_LENGTH ? value : -1;
+    }
+}
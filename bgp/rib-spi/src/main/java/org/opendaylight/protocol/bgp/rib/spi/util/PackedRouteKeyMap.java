@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link Map} keyed by route keys, which stores keys that can be packed into a fixed number of {@code long}s in an
+ * open-addressing table instead of retaining their String representation. Keys which cannot be packed, or which would
+ * not be reproduced exactly by unpacking, are kept in an ordinary {@link HashMap}, hence this map behaves exactly
+ * like a {@code HashMap<String, V>}, except that it does not accept null keys or values and its entries do not support
+ * {@link Entry#setValue(Object)}. Entries of packed keys unpack the key only when it is requested, hence iterating
+ * over values does not allocate a String for each of them. Such entries remain valid until the map is modified other
+ * than through the iterator which returned them.
+ *
+ * @param <V> value type
+ */
+@NotThreadSafe
+public abstract class PackedRouteKeyMap<V> extends AbstractMap<String, V> {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final Map<String, V> overflow = new HashMap<>();
+    private final long[] scratch;
+    private final int width;
+
+    private long[] keys;
+    private Object[] values;
+    private int packedSize;
+    private int modCount;
+    private EntrySet entrySet;
+
+    protected PackedRouteKeyMap(final int width) {
+        this.width = width;
+        this.scratch = new long[width];
+        this.keys = new long[INITIAL_CAPACITY * width];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Attempt to pack a route key into {@code packed}.
+     *
+     * @param key Route key
+     * @param packed Array of at least {@link #width} elements to fill
+     * @return True if the key was packed and {@link #unpack(long[], int)} reproduces it exactly, false otherwise
+     */
+    protected abstract boolean pack(String key, long[] packed);
+
+    /**
+     * Reconstruct a route key packed by {@link #pack(String, long[])}.
+     *
+     * @param packed Array holding the packed key
+     * @param offset Offset of the first element of the packed key
+     * @return Route key
+     */
+    protected abstract String unpack(long[] packed, int offset);
+
+    @Override
+    public final int size() {
+        return this.packedSize + this.overflow.size();
+    }
+
+    @Override
+    public final boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final V get(final Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String str = (String) key;
+        if (!pack(str, this.scratch)) {
+            return this.overflow.get(str);
+        }
+        final int slot = findSlot(this.scratch);
+        return slot >= 0 ? (V) this.values[slot] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final V put(final String key, final V value) {
+        requireNonNull(value);
+        if (!pack(requireNonNull(key), this.scratch)) {
+            if (!this.overflow.containsKey(key)) {
+                this.modCount++;
+            }
+            return this.overflow.put(key, value);
+        }
+
+        final int slot = findSlot(this.scratch);
+        if (slot >= 0) {
+            final V prev = (V) this.values[slot];
+            this.values[slot] = value;
+            return prev;
+        }
+        if ((this.packedSize + 1) * 4 > this.values.length * 3) {
+            resize();
+        }
+        insert(this.scratch, value);
+        this.packedSize++;
+        this.modCount++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final V remove(final Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final String str = (String) key;
+        if (!pack(str, this.scratch)) {
+            final V prev = this.overflow.remove(str);
+            if (prev != null) {
+                this.modCount++;
+            }
+            return prev;
+        }
+        final int slot = findSlot(this.scratch);
+        if (slot < 0) {
+            return null;
+        }
+        final V prev = (V) this.values[slot];
+        deleteSlot(slot);
+        this.packedSize--;
+        this.modCount++;
+        return prev;
+    }
+
+    @Override
+    public final void clear() {
+        Arrays.fill(this.values, null);
+        this.packedSize = 0;
+        this.overflow.clear();
+        this.modCount++;
+    }
+
+    @Override
+    public final Set<Entry<String, V>> entrySet() {
+        EntrySet ret = this.entrySet;
+        if (ret == null) {
+            ret = new EntrySet();
+            this.entrySet = ret;
+        }
+        return ret;
+    }
+
+    private int mask() {
+        return this.values.length - 1;
+    }
+
+    private int hashSlot(final long[] packed, final int offset) {
+        long hash = 0;
+        for (int i = 0; i < this.width; i++) {
+            hash = (hash + packed[offset + i]) * HASH_MULTIPLIER;
+        }
+        return (int) (hash >>> 32) & mask();
+    }
+
+    private boolean keyEquals(final int slot, final long[] packed) {
+        final int base = slot * this.width;
+        for (int i = 0; i < this.width; i++) {
+            if (this.keys[base + i] != packed[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int findSlot(final long[] packed) {
+        final int mask = mask();
+        for (int slot = hashSlot(packed, 0); this.values[slot] != null; slot = slot + 1 & mask) {
+            if (keyEquals(slot, packed)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(final long[] packed, final Object value) {
+        final int mask = mask();
+        int slot = hashSlot(packed, 0);
+        while (this.values[slot] != null) {
+            slot = slot + 1 & mask;
+        }
+        System.arraycopy(packed, 0, this.keys, slot * this.width, this.width);
+        this.values[slot] = value;
+    }
+
+    private void resize() {
+        final long[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        this.keys = new long[oldKeys.length * 2];
+        this.values = new Object[oldValues.length * 2];
+
+        final long[] packed = new long[this.width];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                System.arraycopy(oldKeys, i * this.width, packed, 0, this.width);
+                insert(packed, oldValues[i]);
+            }
+        }
+    }
+
+    /*
+     * Linear probing deletion: rather than leaving a tombstone, shift subsequent entries of the cluster back into the
+     * vacated slot as long as that does not move them before their home slot.
+     */
+    private void deleteSlot(final int slot) {
+        final int mask = mask();
+        int hole = slot;
+        for (int next = hole + 1 & mask; this.values[next] != null; next = next + 1 & mask) {
+            final int home = hashSlot(this.keys, next * this.width);
+            if ((next - home & mask) >= (next - hole & mask)) {
+                System.arraycopy(this.keys, next * this.width, this.keys, hole * this.width, this.width);
+                this.values[hole] = this.values[next];
+                hole = next;
+            }
+        }
+        this.values[hole] = null;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, V>> {
+        @Override
+        public int size() {
+            return PackedRouteKeyMap.this.size();
+        }
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    /*
+     * Iteration over packed keys starts just past an empty slot and wraps around the table. No cluster of occupied
+     * slots then spans the starting point, hence deleting a slot only moves entries which have not been visited yet
+     * towards it, and the iterator revisits the vacated slot after removal.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, V>> {
+        private final Iterator<Entry<String, V>> overflowIterator = PackedRouteKeyMap.this.overflow.entrySet()
+                .iterator();
+        private final int start;
+        private int expectedModCount = PackedRouteKeyMap.this.modCount;
+        private int visited;
+        private int nextSlot = -1;
+        private PackedEntry lastPacked;
+        private boolean lastOverflow;
+
+        EntryIterator() {
+            int empty = 0;
+            while (PackedRouteKeyMap.this.values[empty] != null) {
+                empty++;
+            }
+            this.start = empty;
+            advance();
+        }
+
+        private void advance() {
+            final Object[] vals = PackedRouteKeyMap.this.values;
+            while (this.visited < vals.length) {
+                final int slot = this.start + 1 + this.visited & mask();
+                if (vals[slot] != null) {
+                    this.nextSlot = slot;
+                    return;
+                }
+                this.visited++;
+            }
+            this.nextSlot = -1;
+        }
+
+        private void checkModCount() {
+            if (this.expectedModCount != PackedRouteKeyMap.this.modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextSlot >= 0 || this.overflowIterator.hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Entry<String, V> next() {
+            checkModCount();
+            if (this.nextSlot >= 0) {
+                this.lastPacked = new PackedEntry(PackedRouteKeyMap.this.keys,
+                    this.nextSlot * PackedRouteKeyMap.this.width, (V) PackedRouteKeyMap.this.values[this.nextSlot]);
+                this.lastOverflow = false;
+                this.visited++;
+                advance();
+                return this.lastPacked;
+            }
+            if (!this.overflowIterator.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.lastPacked = null;
+            this.lastOverflow = true;
+            return new SimpleImmutableEntry<>(this.overflowIterator.next());
+        }
+
+        @Override
+        public void remove() {
+            checkModCount();
+            if (this.lastOverflow) {
+                this.overflowIterator.remove();
+                this.lastOverflow = false;
+            } else if (this.lastPacked != null) {
+                // The returned entry has to remain valid, unpack its key before the slot is reused
+                this.lastPacked.getKey();
+                final int slot = this.lastPacked.offset / PackedRouteKeyMap.this.width;
+                this.lastPacked = null;
+                deleteSlot(slot);
+                PackedRouteKeyMap.this.packedSize--;
+                // Revisit the vacated slot, an entry not visited yet may have been moved into it
+                this.visited = slot - this.start - 1 & mask();
+                advance();
+            } else {
+                throw new IllegalStateException();
+            }
+            PackedRouteKeyMap.this.modCount++;
+            this.expectedModCount = PackedRouteKeyMap.this.modCount;
+        }
+    }
+
+    private final class PackedEntry implements Entry<String, V> {
+        private final long[] packed;
+        private final int offset;
+        private final V value;
+        private String key;
+
+        PackedEntry(final long[] packed, final int offset, final V value) {
+            this.packed = packed;
+            this.offset = offset;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            String ret = this.key;
+            if (ret == null) {
+                ret = unpack(this.packed, this.offset);
+                this.key = ret;
+            }
+            return ret;
+        }
+
+        @Override
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public V setValue(final V newValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ this.value.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Entry)) {
+                return false;
+            }
+            final Entry<?, ?> other = (Entry<?, ?>) obj;
+            return getKey().equals(other.getKey()) && this.value.equals(other.getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + this.value;
+        }
+    }
+}
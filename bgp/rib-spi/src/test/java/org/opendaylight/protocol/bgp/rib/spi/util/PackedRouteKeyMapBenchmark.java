@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link Ipv4PrefixRouteKeyMap} and {@link Ipv6PrefixRouteKeyMap} with the {@code HashMap<String, V>} they
+ * replace, for lookups of freshly parsed keys, replacement of existing values and iteration over all entries. Run
+ * via {@link #main(String[])} with {@code -prof gc} to compare allocation rates; the retained footprint of the
+ * populated maps can be compared with a heap histogram taken after {@link #setup()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class PackedRouteKeyMapBenchmark {
+    public enum MapType {
+        HASH_MAP,
+        PACKED
+    }
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"IPV4", "IPV6"})
+    public String family;
+
+    @Param({"HASH_MAP", "PACKED"})
+    public MapType mapType;
+
+    private Map<String, Integer> map;
+    private String[] keys;
+    private int next;
+
+    @Setup
+    public void setup() {
+        final boolean ipv4 = "IPV4".equals(this.family);
+        if (this.mapType == MapType.HASH_MAP) {
+            this.map = new HashMap<>();
+        } else {
+            this.map = ipv4 ? new Ipv4PrefixRouteKeyMap<>() : new Ipv6PrefixRouteKeyMap<>();
+        }
+
+        this.keys = new String[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.keys[i] = ipv4 ? "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF) + "/32"
+                : "2001:db8:" + Integer.toHexString(i >> 16 & 0xFFFF) + ":" + Integer.toHexString(i & 0xFFFF)
+                    + "::/64";
+            this.map.put(this.keys[i], i);
+        }
+    }
+
+    private String nextKey() {
+        final int index = this.next;
+        this.next = index + 1 == this.size ? 0 : index + 1;
+        // Keys arrive as new Strings parsed out of the data tree, so their hash code is not cached
+        return new String(this.keys[index]);
+    }
+
+    @Benchmark
+    public Integer get() {
+        return this.map.get(nextKey());
+    }
+
+    @Benchmark
+    public Integer put() {
+        final String key = nextKey();
+        return this.map.put(key, key.length());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long iterate() {
+        long sum = 0;
+        for (final Entry<String, Integer> entry : this.map.entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PackedRouteKeyMapBenchmark.class.getSimpleName()).build()).run();
+    }
+}
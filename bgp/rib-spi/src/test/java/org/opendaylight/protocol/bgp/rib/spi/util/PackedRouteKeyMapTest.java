@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bgp.rib.spi.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.junit.Test;
+
+public class PackedRouteKeyMapTest {
+    private static final String[] IPV4_KEYS = {
+        "10.0.0.0/8", "0.0.0.0/0", "255.255.255.255/32", "1.2.3.4/24",
+        // Not packed
+        "01.2.3.4/24", "1.2.3/24", "1.2.3.4.5/24", "256.0.0.0/8", "1.2.3.4/33", "1.2.3.4", "1.2.3.4/024", "foo"
+    };
+    private static final String[] IPV6_KEYS = {
+        "2001:db8::/32", "::/0", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff/128", "2001:db8:0:1::1/64", "::1/128",
+        "1::/16", "1:0:0:2::/64", "1:2:3:4:5:6:7:0/128", "0:1:2:3:4:5:6:7/128", "1:0:2:3:4:5:6:7/128",
+        // Not packed
+        "2001:DB8::/32", "2001:db8:0:0::/32", "2001:db8::/129", "1.2.3.4/32", "::ffff:1.2.3.4/128", "bar",
+        "2001:0db8::/32", "2001:db8::0:1/64", "1:2:3:4:5:6::7/128", "1::2::3/64", "1:0:0:2:0:0:0:3/64",
+        "1:2:3:4:5:6:7/128", "1:2:3:4:5:6:7:8:9/128", ":1::/16", "1::2:/16", ":::/0", "12345::/16", "1::g/128",
+        "::/", "/0", "::/00"
+    };
+    private static final int IPV6_PACKED = 10;
+
+    @Test
+    public void testIpv4Pack() {
+        final Ipv4PrefixRouteKeyMap<Object> map = new Ipv4PrefixRouteKeyMap<>();
+        final long[] packed = new long[1];
+        assertTrue(map.pack("192.168.1.0/24", packed));
+        assertEquals(0xC0A8010018L, packed[0]);
+        assertEquals("192.168.1.0/24", map.unpack(packed, 0));
+        for (int i = 4; i < IPV4_KEYS.length; i++) {
+            assertFalse(IPV4_KEYS[i], map.pack(IPV4_KEYS[i], packed));
+        }
+    }
+
+    @Test
+    public void testIpv6Pack() {
+        final Ipv6PrefixRouteKeyMap<Object> map = new Ipv6PrefixRouteKeyMap<>();
+        final long[] packed = new long[3];
+        assertTrue(map.pack("2001:db8::1/128", packed));
+        assertArrayEquals(new long[] { 0x20010DB800000000L, 1, 128 }, packed);
+        assertEquals("2001:db8::1/128", map.unpack(packed, 0));
+        for (int i = 0; i < IPV6_PACKED; i++) {
+            assertTrue(IPV6_KEYS[i], map.pack(IPV6_KEYS[i], packed));
+            assertEquals(IPV6_KEYS[i], map.unpack(packed, 0));
+        }
+        for (int i = IPV6_PACKED; i < IPV6_KEYS.length; i++) {
+            assertFalse(IPV6_KEYS[i], map.pack(IPV6_KEYS[i], packed));
+        }
+    }
+
+    @Test
+    public void testIpv4MapOperations() {
+        assertMapOperations(new Ipv4PrefixRouteKeyMap<>(), IPV4_KEYS);
+    }
+
+    @Test
+    public void testIpv6MapOperations() {
+        assertMapOperations(new Ipv6PrefixRouteKeyMap<>(), IPV6_KEYS);
+    }
+
+    @Test
+    public void testGrowAndShrink() {
+        final Map<String, Integer> map = new Ipv4PrefixRouteKeyMap<>();
+        final Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            final String key = "10." + (i >> 8 & 0xFF) + "." + (i & 0xFF) + ".0/24";
+            assertNull(map.put(key, i));
+            expected.put(key, i);
+        }
+        assertEquals(expected, map);
+
+        for (int i = 0; i < 10000; i += 3) {
+            final String key = "10." + (i >> 8 & 0xFF) + "." + (i & 0xFF) + ".0/24";
+            assertEquals(Integer.valueOf(i), map.remove(key));
+            expected.remove(key);
+        }
+        assertEquals(expected, map);
+        for (final String key : expected.keySet()) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        final Map<String, Integer> map = new Ipv4PrefixRouteKeyMap<>();
+        final Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            final String key = "10." + (i >> 8 & 0xFF) + "." + (i & 0xFF) + ".0/24";
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        map.put("01.2.3.4/24", -1);
+        expected.put("01.2.3.4/24", -1);
+
+        int seen = 0;
+        for (final Iterator<Entry<String, Integer>> it = map.entrySet().iterator(); it.hasNext(); ) {
+            final Entry<String, Integer> entry = it.next();
+            seen++;
+            if (entry.getValue() % 2 != 0) {
+                it.remove();
+                assertEquals(entry.getValue(), expected.remove(entry.getKey()));
+            }
+        }
+        assertEquals(5001, seen);
+        assertEquals(expected, map);
+        assertEquals(expected.size(), map.size());
+
+        final Iterator<Entry<String, Integer>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        assertTrue(map.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveTwice() {
+        final Map<String, Integer> map = new Ipv6PrefixRouteKeyMap<>();
+        map.put("2001:db8::/32", 1);
+        final Iterator<Entry<String, Integer>> it = map.entrySet().iterator();
+        it.next();
+        it.remove();
+        it.remove();
+    }
+
+    @Test
+    public void testIteratorFailFast() {
+        final Map<String, Integer> map = new Ipv6PrefixRouteKeyMap<>();
+        map.put("2001:db8::/32", 1);
+        map.put("2001:db8:1::/48", 2);
+        map.put("2001:DB8::/32", 3);
+
+        final Iterator<Entry<String, Integer>> it = map.entrySet().iterator();
+        it.next();
+        // Replacing a value is not a structural modification
+        map.put("2001:db8::/32", 4);
+        it.next();
+        map.put("2001:db8:2::/48", 5);
+        try {
+            it.next();
+            fail("Iterator should have failed");
+        } catch (final ConcurrentModificationException e) {
+            // Expected
+        }
+
+        final Iterator<Entry<String, Integer>> overflow = map.entrySet().iterator();
+        overflow.next();
+        map.remove("2001:DB8::/32");
+        try {
+            overflow.remove();
+            fail("Iterator should have failed");
+        } catch (final ConcurrentModificationException e) {
+            // Expected
+        }
+    }
+
+    private static void assertMapOperations(final Map<String, Integer> map, final String[] keys) {
+        final Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            assertNull(map.put(keys[i], i));
+            expected.put(keys[i], i);
+        }
+        assertEquals(keys.length, map.size());
+        assertEquals(expected, map);
+
+        for (int i = 0; i < keys.length; i++) {
+            assertTrue(map.containsKey(keys[i]));
+            assertEquals(Integer.valueOf(i), map.put(keys[i], i + keys.length));
+        }
+        assertEquals(keys.length, map.size());
+
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i + keys.length), map.remove(keys[i]));
+            assertNull(map.get(keys[i]));
+        }
+        assertTrue(map.isEmpty());
+        assertNull(map.remove(keys[0]));
+    }
+}
@@ -9,15 +9,11 @@ package org.opendaylight.bgpcep.bgp.topology.provider;
 
 import static java.util.Objects.requireNonNull;
 
-import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
-import org.opendaylight.controller.md.sal.binding.api.ReadTransaction;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.protocol.bgp.rib.RibReference;
@@ -44,19 +40,26 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.node.attributes.igp.node.attributes.Prefix;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.node.attributes.igp.node.attributes.PrefixBuilder;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.node.attributes.igp.node.attributes.PrefixKey;
-import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Base class for topology builders which expose the prefixes reachable via each next hop. The prefixes advertized by
+ * each node are tracked in memory, so nodes can be maintained without reading back the topology.
+ */
 abstract class AbstractReachabilityTopologyBuilder<T extends Route> extends AbstractTopologyBuilder<T> {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractReachabilityTopologyBuilder.class);
     private final Map<NodeId, NodeUsage> nodes = new HashMap<>();
 
     private static final class NodeUsage {
         private final InstanceIdentifier<IgpNodeAttributes> attrId;
-        private int useCount = 1;
+        /*
+         * Number of routes advertizing each prefix via this node. With ADD-PATH a prefix may be advertized by
+         * multiple routes, the prefix is removed from the node only when the last of them is removed.
+         */
+        private final Map<IpPrefix, Integer> prefixes = new HashMap<>();
 
         NodeUsage(final InstanceIdentifier<IgpNodeAttributes> attrId) {
             this.attrId = requireNonNull(attrId);
@@ -92,22 +95,10 @@ abstract class AbstractReachabilityTopologyBuilder<T extends Route> extends Abst
         return getInstanceIdentifier().child(Node.class, new NodeKey(ni));
     }
 
-    private static <T extends DataObject> T read(final ReadTransaction rt, final InstanceIdentifier<T> id) {
-        final Optional<T> optional;
-        try {
-            optional = rt.read(LogicalDatastoreType.OPERATIONAL, id).get();
-        } catch (InterruptedException | ExecutionException e) {
-            LOG.warn("Failed to read {}, assuming non-existent", id, e);
-            return null;
-        }
-
-        return optional.orNull();
-    }
-
-    private InstanceIdentifier<IgpNodeAttributes> ensureNodePresent(final ReadWriteTransaction trans, final NodeId ni) {
+    private NodeUsage ensureNodePresent(final ReadWriteTransaction trans, final NodeId ni) {
         final NodeUsage present = this.nodes.get(ni);
         if (present != null) {
-            return present.attrId;
+            return present;
         }
 
         final KeyedInstanceIdentifier<Node, NodeKey> nii = nodeInstanceId(ni);
@@ -118,8 +109,9 @@ abstract class AbstractReachabilityTopologyBuilder<T extends Route> extends Abst
             .addAugmentation(Node1.class, new Node1Builder().setIgpNodeAttributes(
                 new IgpNodeAttributesBuilder().setPrefix(Collections.emptyList()).build()).build()).build());
 
-        this.nodes.put(ni, new NodeUsage(ret));
-        return ret;
+        final NodeUsage usage = new NodeUsage(ret);
+        this.nodes.put(ni, usage);
+        return usage;
     }
 
     protected abstract Attributes getAttributes(T value);
@@ -132,13 +124,14 @@ abstract class AbstractReachabilityTopologyBuilder<T extends Route> extends Abst
         if (ni == null) {
             return;
         }
-        final InstanceIdentifier<IgpNodeAttributes> nii = ensureNodePresent(trans, ni);
+        final NodeUsage usage = ensureNodePresent(trans, ni);
 
         final IpPrefix prefix = getPrefix(value);
-        final PrefixKey pk = new PrefixKey(prefix);
-
-        trans.put(LogicalDatastoreType.OPERATIONAL,
-                nii.child(Prefix.class, pk), new PrefixBuilder().withKey(pk).setPrefix(prefix).build());
+        if (usage.prefixes.merge(prefix, 1, Integer::sum) == 1) {
+            final PrefixKey pk = new PrefixKey(prefix);
+            trans.put(LogicalDatastoreType.OPERATIONAL,
+                    usage.attrId.child(Prefix.class, pk), new PrefixBuilder().withKey(pk).setPrefix(prefix).build());
+        }
     }
 
     @Override
@@ -155,32 +148,23 @@ abstract class AbstractReachabilityTopologyBuilder<T extends Route> extends Abst
         final NodeUsage present = this.nodes.get(ni);
         Preconditions.checkState(present != null, "Removing prefix from non-existent node %s", present);
 
-        final PrefixKey pk = new PrefixKey(getPrefix(value));
-        trans.delete(LogicalDatastoreType.OPERATIONAL, present.attrId.child(Prefix.class, pk));
+        final IpPrefix prefix = getPrefix(value);
+        final Integer count = present.prefixes.get(prefix);
+        if (count == null) {
+            LOG.debug("Prefix {} not present on node {}, ignoring its removal", prefix, ni);
+            return;
+        }
+        if (count > 1) {
+            present.prefixes.put(prefix, count - 1);
+            return;
+        }
 
-        /*
-         * This is optimization magic: we are reading a list and we want to remove it once it
-         * hits zero. We may be in a transaction, so the read is costly, especially since we
-         * have just modified the list.
-         *
-         * Once we have performed the read, though, we can check the number of nodes, and reuse
-         * it for that number of removals. Note that since we do not track data and thus have
-         * no understanding about the difference between replace and add, we do not ever increase
-         * the life of this in createObject().
-         */
-        present.useCount--;
-        if (present.useCount == 0) {
-            final IgpNodeAttributes attrs = read(trans, present.attrId);
-            if (attrs != null) {
-                final List<Prefix> prefix = attrs.getPrefix();
-                present.useCount = prefix == null ? 0 : prefix.size();
-            } else {
-                present.useCount = 0;
-            }
-            if (present.useCount == 0) {
-                trans.delete(LogicalDatastoreType.OPERATIONAL, nodeInstanceId(ni));
-                this.nodes.remove(ni);
-            }
+        present.prefixes.remove(prefix);
+        if (present.prefixes.isEmpty()) {
+            trans.delete(LogicalDatastoreType.OPERATIONAL, nodeInstanceId(ni));
+            this.nodes.remove(ni);
+        } else {
+            trans.delete(LogicalDatastoreType.OPERATIONAL, present.attrId.child(Prefix.class, new PrefixKey(prefix)));
         }
     }
 
@@ -145,6 +145,17 @@ public abstract class AbstractTopologyBuilder<T extends Route> implements Cluste
 
     protected abstract void clearTopology();
 
+    /**
+     * Invoked once all changes delivered in a single {@link #onDataTreeChanged(Collection)} callback have been
+     * processed, just before the transaction is committed. Builders which defer materialization of their objects
+     * write out the accumulated state here. The default implementation does nothing.
+     *
+     * @param trans transaction used to process the changes
+     */
+    protected void flushObjects(final ReadWriteTransaction trans) {
+        // Nothing to do by default
+    }
+
     @Override
     public final InstanceIdentifier<Topology> getInstanceIdentifier() {
         return this.topology;
@@ -190,6 +201,13 @@ public abstract class AbstractTopologyBuilder<T extends Route> implements Cluste
                 break;
             }
         }
+        try {
+            flushObjects(trans);
+        } catch (final RuntimeException exc) {
+            LOG.warn("Deferred changes (transaction {}) were not completely propagated to listener {}",
+                    trans.getIdentifier(), this, exc);
+            transactionInError.set(true);
+        }
         trans.commit().addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
@@ -16,8 +16,12 @@ import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 import org.opendaylight.controller.md.sal.binding.api.DataBroker;
 import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
@@ -137,9 +141,17 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
     private final class NodeHolder {
         private final Map<PrefixKey, Prefix> prefixes = new HashMap<>();
         private final Map<TpId, TpHolder> tps = new HashMap<>();
+        /*
+         * Termination points and prefixes modified since the node was last materialized, mapped to their state at
+         * that time (null if they were not present).
+         */
+        private final Map<PrefixKey, Prefix> changedPrefixes = new HashMap<>();
+        private final Map<TpId, TerminationPoint> changedTps = new HashMap<>();
         private boolean advertized = false;
         private IgpNodeAttributesBuilder inab;
         private NodeBuilder nb;
+        // Node as last written out, without termination points and prefixes, null if it has not been written yet
+        private Node materialized;
 
         private NodeHolder(final NodeId id) {
             this.inab = new IgpNodeAttributesBuilder();
@@ -147,7 +159,9 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         }
 
         /**
-         * Synchronized in-core state of a node into the backing store using the transaction.
+         * Synchronized in-core state of a node into the backing store using the transaction. The full node is written
+         * only if it has not been written before or its own attributes have changed, otherwise only the termination
+         * points and prefixes which changed since the last invocation are written.
          *
          * @param trans data modification transaction which to use
          * @return True if the node has been purged, false otherwise.
@@ -155,14 +169,9 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         private boolean syncState(final WriteTransaction trans) {
             final InstanceIdentifier<Node> nid = getNodeInstanceIdentifier(this.nb.key());
 
-            /*
-             * Transaction's putOperationalData() does a merge. Force it onto a replace
-             * by removing the data. If we decide to remove the node -- we just skip the put.
-             */
-            trans.delete(LogicalDatastoreType.OPERATIONAL, nid);
-
             if (!this.advertized) {
                 if (this.tps.isEmpty() && this.prefixes.isEmpty()) {
+                    trans.delete(LogicalDatastoreType.OPERATIONAL, nid);
                     LOG.trace("Removing unadvertized unused node {}", this.nb.getNodeId());
                     return true;
                 }
@@ -171,40 +180,93 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
                         this.prefixes.size());
             }
 
-            // Re-generate termination points
-            this.nb.setTerminationPoint(Lists.newArrayList(Collections2.transform(this.tps.values(), TpHolder::getTp)));
+            this.nb.setTerminationPoint(null);
+            this.inab.setPrefix(null);
+            final Node node = buildNode();
+            if (node.equals(this.materialized)) {
+                syncTerminationPoints(trans, nid);
+                syncPrefixes(trans, nid);
+            } else {
+                /*
+                 * Transaction's putOperationalData() does a merge. Force it onto a replace
+                 * by removing the data.
+                 */
+                trans.delete(LogicalDatastoreType.OPERATIONAL, nid);
+
+                // Re-generate termination points
+                this.nb.setTerminationPoint(Lists.newArrayList(Collections2.transform(this.tps.values(),
+                    TpHolder::getTp)));
+
+                // Re-generate prefixes
+                this.inab.setPrefix(Lists.newArrayList(this.prefixes.values()));
+
+                // Write the node out
+                final Node n = buildNode();
+                trans.put(LogicalDatastoreType.OPERATIONAL, nid, n);
+                LOG.trace("Created node {} at {}", n, nid);
+                this.materialized = node;
+            }
 
-            // Re-generate prefixes
-            this.inab.setPrefix(Lists.newArrayList(this.prefixes.values()));
+            this.changedTps.clear();
+            this.changedPrefixes.clear();
+            return false;
+        }
 
-            // Write the node out
-            final Node n = this.nb.addAugmentation(Node1.class, new Node1Builder()
+        private Node buildNode() {
+            return this.nb.addAugmentation(Node1.class, new Node1Builder()
                     .setIgpNodeAttributes(this.inab.build()).build()).build();
-            trans.put(LogicalDatastoreType.OPERATIONAL, nid, n);
-            LOG.trace("Created node {} at {}", n, nid);
-            return false;
         }
 
-        private boolean checkForRemoval(final WriteTransaction trans) {
-            final InstanceIdentifier<Node> nid = getNodeInstanceIdentifier(this.nb.key());
+        private void syncTerminationPoints(final WriteTransaction trans, final InstanceIdentifier<Node> nid) {
+            for (final Entry<TpId, TerminationPoint> entry : this.changedTps.entrySet()) {
+                final TpHolder h = this.tps.get(entry.getKey());
+                final TerminationPoint tp = h == null ? null : h.getTp();
+                if (!Objects.equals(tp, entry.getValue())) {
+                    final InstanceIdentifier<TerminationPoint> tpId = nid.child(TerminationPoint.class,
+                        new TerminationPointKey(entry.getKey()));
+                    if (tp != null) {
+                        trans.put(LogicalDatastoreType.OPERATIONAL, tpId, tp);
+                    } else {
+                        trans.delete(LogicalDatastoreType.OPERATIONAL, tpId);
+                    }
+                }
+            }
+        }
 
-            if (!this.advertized) {
-                if (this.tps.isEmpty() && this.prefixes.isEmpty()) {
-                    trans.delete(LogicalDatastoreType.OPERATIONAL, nid);
-                    LOG.trace("Removing unadvertized unused node {}", this.nb.getNodeId());
-                    return true;
+        private void syncPrefixes(final WriteTransaction trans, final InstanceIdentifier<Node> nid) {
+            final InstanceIdentifier<IgpNodeAttributes> inaId = nid.builder().augmentation(Node1.class)
+                    .child(IgpNodeAttributes.class).build();
+            for (final Entry<PrefixKey, Prefix> entry : this.changedPrefixes.entrySet()) {
+                final Prefix pfx = this.prefixes.get(entry.getKey());
+                if (!Objects.equals(pfx, entry.getValue())) {
+                    final InstanceIdentifier<Prefix> pfxId = inaId.child(Prefix.class, entry.getKey());
+                    if (pfx != null) {
+                        trans.put(LogicalDatastoreType.OPERATIONAL, pfxId, pfx);
+                    } else {
+                        trans.delete(LogicalDatastoreType.OPERATIONAL, pfxId);
+                    }
                 }
+            }
+        }
 
-                LOG.trace("Node {} is still implied by {} TPs and {} prefixes", this.nb.getNodeId(),
-                        this.tps.size(), this.prefixes.size());
+        private void tpChanged(final TpId tp) {
+            if (!this.changedTps.containsKey(tp)) {
+                final TpHolder h = this.tps.get(tp);
+                this.changedTps.put(tp, h == null ? null : h.getTp());
+            }
+        }
+
+        private void prefixChanged(final PrefixKey key) {
+            if (!this.changedPrefixes.containsKey(key)) {
+                this.changedPrefixes.put(key, this.prefixes.get(key));
             }
-            return false;
         }
 
         private synchronized void removeTp(final TpId tp, final LinkId link, final boolean isRemote) {
             final TpHolder h = this.tps.get(tp);
             if (h != null) {
                 if (h.removeLink(link, isRemote)) {
+                    tpChanged(tp);
                     this.tps.remove(tp);
                     LOG.trace("Removed TP {}", tp);
                 }
@@ -214,16 +276,19 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         }
 
         private void addTp(final TerminationPoint tp, final LinkId link, final boolean isRemote) {
+            tpChanged(tp.getTpId());
             final TpHolder h = this.tps.computeIfAbsent(tp.getTpId(), k -> new TpHolder(tp));
             h.addLink(link, isRemote);
         }
 
         private void addPrefix(final Prefix pfx) {
+            prefixChanged(pfx.key());
             this.prefixes.put(pfx.key(), pfx);
         }
 
-        private void removePrefix(final PrefixCase prefixCase) {
-            this.prefixes.remove(new PrefixKey(prefixCase.getPrefixDescriptors().getIpReachabilityInformation()));
+        private void removePrefix(final PrefixKey key) {
+            prefixChanged(key);
+            this.prefixes.remove(key);
         }
 
         private void unadvertized() {
@@ -247,6 +312,14 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
 
     private static final Logger LOG = LoggerFactory.getLogger(LinkstateTopologyBuilder.class);
     private final Map<NodeId, NodeHolder> nodes = new HashMap<>();
+    /*
+     * Nodes and links modified while processing the current batch of changes. They are materialized once the whole
+     * batch has been processed, so that each of them is written at most once. A null link marks its removal.
+     */
+    private final Set<NodeHolder> dirtyNodes = new LinkedHashSet<>();
+    private final Map<LinkId, Link> dirtyLinks = new LinkedHashMap<>();
+    // Links as last written out
+    private final Map<LinkId, Link> links = new HashMap<>();
 
     public LinkstateTopologyBuilder(final DataBroker dataProvider, final RibReference locRibReference,
             final TopologyId topologyId) {
@@ -363,29 +436,27 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
     }
 
     private NodeHolder getNode(final NodeId id) {
-        if (this.nodes.containsKey(id)) {
+        NodeHolder ret = this.nodes.get(id);
+        if (ret != null) {
             LOG.debug("Node {} is already present", id);
-            return this.nodes.get(id);
+        } else {
+            ret = new NodeHolder(id);
+            this.nodes.put(id, ret);
         }
 
-        final NodeHolder ret = new NodeHolder(id);
-        this.nodes.put(id, ret);
+        this.dirtyNodes.add(ret);
         return ret;
     }
 
-    private void putNode(final WriteTransaction trans, final NodeHolder holder) {
-        if (holder.syncState(trans)) {
-            this.nodes.remove(holder.getNodeId());
-        }
-    }
-
-    private void checkNodeForRemoval(final WriteTransaction trans, final NodeHolder holder) {
-        if (holder.checkForRemoval(trans)) {
-            this.nodes.remove(holder.getNodeId());
+    private NodeHolder getExistingNode(final NodeId id) {
+        final NodeHolder ret = this.nodes.get(id);
+        if (ret != null) {
+            this.dirtyNodes.add(ret);
         }
+        return ret;
     }
 
-    private void createLink(final WriteTransaction trans, final UriBuilder base,
+    private void createLink(final UriBuilder base,
             final LinkstateRoute value, final LinkCase linkCase, final Attributes attributes) {
         // defensive lookup
         final LinkAttributes la;
@@ -432,65 +503,37 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         lb.setDestination(new DestinationBuilder().setDestNode(dstNode).setDestTp(dstTp.getTpId()).build());
 
         LOG.trace("Created TP {} as link source", srcTp);
-        NodeHolder snh = this.nodes.get(srcNode);
-        if (snh == null) {
-            snh = getNode(srcNode);
-            snh.addTp(srcTp, lb.getLinkId(), false);
-            putNode(trans, snh);
-        } else {
-            snh.addTp(srcTp, lb.getLinkId(), false);
-            final InstanceIdentifier<Node> nid = getNodeInstanceIdentifier(new NodeKey(snh.getNodeId()));
-            trans.put(LogicalDatastoreType.OPERATIONAL, nid.child(TerminationPoint.class, srcTp.key()), srcTp);
-        }
+        getNode(srcNode).addTp(srcTp, lb.getLinkId(), false);
 
         LOG.debug("Created TP {} as link destination", dstTp);
-        NodeHolder dnh = this.nodes.get(dstNode);
-        if (dnh == null) {
-            dnh = getNode(dstNode);
-            dnh.addTp(dstTp, lb.getLinkId(), true);
-            putNode(trans, dnh);
-        } else {
-            dnh.addTp(dstTp, lb.getLinkId(), true);
-            final InstanceIdentifier<Node> nid = getInstanceIdentifier().child(
-                    org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network
-                            .topology.topology.Node.class, new NodeKey(dnh.getNodeId()));
-            trans.put(LogicalDatastoreType.OPERATIONAL, nid.child(TerminationPoint.class, dstTp.key()), dstTp);
-        }
+        getNode(dstNode).addTp(dstTp, lb.getLinkId(), true);
 
-        final InstanceIdentifier<Link> lid = buildLinkIdentifier(lb.getLinkId());
         final Link link = lb.build();
-
-        trans.put(LogicalDatastoreType.OPERATIONAL, lid, link);
-        LOG.debug("Created link {} at {} for {}", link, lid, linkCase);
+        this.dirtyLinks.put(link.getLinkId(), link);
+        LOG.debug("Created link {} for {}", link, linkCase);
     }
 
-    private void removeTp(final WriteTransaction trans, final NodeId node, final TpId tp,
-            final LinkId link, final boolean isRemote) {
-        final NodeHolder nh = this.nodes.get(node);
+    private void removeTp(final NodeId node, final TpId tp, final LinkId link, final boolean isRemote) {
+        final NodeHolder nh = getExistingNode(node);
         if (nh != null) {
-            final InstanceIdentifier<Node> nid = getNodeInstanceIdentifier(new NodeKey(nh.getNodeId()));
-            trans.delete(LogicalDatastoreType.OPERATIONAL, nid.child(TerminationPoint.class,
-                    new TerminationPointKey(tp)));
             nh.removeTp(tp, link, isRemote);
-            checkNodeForRemoval(trans, nh);
         } else {
             LOG.warn("Removed non-existent node {}", node);
         }
     }
 
-    private void removeLink(final WriteTransaction trans, final UriBuilder base, final LinkCase linkCase) {
+    private void removeLink(final UriBuilder base, final LinkCase linkCase) {
         final LinkId id = buildLinkId(base, linkCase);
-        final InstanceIdentifier<?> lid = buildLinkIdentifier(id);
-        trans.delete(LogicalDatastoreType.OPERATIONAL, lid);
-        LOG.debug("Removed link {}", lid);
+        this.dirtyLinks.put(id, null);
+        LOG.debug("Removed link {}", id);
 
-        removeTp(trans, buildNodeId(base, linkCase.getLocalNodeDescriptors()),
+        removeTp(buildNodeId(base, linkCase.getLocalNodeDescriptors()),
                 buildLocalTpId(base, linkCase.getLinkDescriptors()), id, false);
-        removeTp(trans, buildNodeId(base, linkCase.getRemoteNodeDescriptors()),
+        removeTp(buildNodeId(base, linkCase.getRemoteNodeDescriptors()),
                 buildRemoteTpId(base, linkCase.getLinkDescriptors()), id, true);
     }
 
-    private void createNode(final WriteTransaction trans, final UriBuilder base,
+    private void createNode(final UriBuilder base,
             final LinkstateRoute value, final NodeCase nodeCase, final Attributes attributes) {
         final NodeAttributes na;
         //defensive lookup
@@ -537,21 +580,19 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         nb.withKey(new NodeKey(nb.getNodeId()));
 
         nh.advertized(nb, inab);
-        putNode(trans, nh);
     }
 
-    private void removeNode(final WriteTransaction trans, final UriBuilder base, final NodeCase nodeCase) {
+    private void removeNode(final UriBuilder base, final NodeCase nodeCase) {
         final NodeId id = buildNodeId(base, nodeCase.getNodeDescriptors());
-        final NodeHolder nh = this.nodes.get(id);
+        final NodeHolder nh = getExistingNode(id);
         if (nh != null) {
             nh.unadvertized();
-            putNode(trans, nh);
         } else {
             LOG.warn("Node {} does not have a holder", id);
         }
     }
 
-    private void createPrefix(final WriteTransaction trans, final UriBuilder base,
+    private void createPrefix(final UriBuilder base,
             final LinkstateRoute value, final PrefixCase prefixCase, final Attributes attributes) {
         final IpPrefix ippfx = prefixCase.getPrefixDescriptors().getIpReachabilityInformation();
         if (ippfx == null) {
@@ -589,38 +630,20 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         /*
          * All set, but... the hosting node may not exist, we may need to fake it.
          */
-        final NodeId node = buildNodeId(base, prefixCase.getAdvertisingNodeDescriptors());
-        NodeHolder nh = this.nodes.get(node);
-        if (nh == null) {
-            nh = getNode(node);
-            nh.addPrefix(pfx);
-            putNode(trans, nh);
-        } else {
-            nh.addPrefix(pfx);
-            final InstanceIdentifier<Node> nid = getNodeInstanceIdentifier(new NodeKey(nh.getNodeId()));
-            final InstanceIdentifier<IgpNodeAttributes> inaId = nid.builder().augmentation(Node1.class)
-                    .child(IgpNodeAttributes.class).build();
-            trans.put(LogicalDatastoreType.OPERATIONAL, inaId.child(Prefix.class, pk), pfx);
-        }
+        getNode(buildNodeId(base, prefixCase.getAdvertisingNodeDescriptors())).addPrefix(pfx);
     }
 
-    private void removePrefix(final WriteTransaction trans, final UriBuilder base, final PrefixCase prefixCase) {
+    private void removePrefix(final UriBuilder base, final PrefixCase prefixCase) {
         final NodeId node = buildNodeId(base, prefixCase.getAdvertisingNodeDescriptors());
-        final NodeHolder nh = this.nodes.get(node);
+        final NodeHolder nh = getExistingNode(node);
         if (nh != null) {
             LOG.debug("Removed prefix {}", prefixCase);
-            final InstanceIdentifier<Node> nid = getNodeInstanceIdentifier(new NodeKey(nh.getNodeId()));
-            final InstanceIdentifier<IgpNodeAttributes> inaId = nid.builder().augmentation(Node1.class)
-                    .child(IgpNodeAttributes.class).build();
             final IpPrefix ippfx = prefixCase.getPrefixDescriptors().getIpReachabilityInformation();
             if (ippfx == null) {
                 LOG.warn("IP reachability not present in prefix {}, skipping it", prefixCase);
                 return;
             }
-            final PrefixKey pk = new PrefixKey(ippfx);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, inaId.child(Prefix.class, pk));
-            nh.removePrefix(prefixCase);
-            checkNodeForRemoval(trans, nh);
+            nh.removePrefix(new PrefixKey(ippfx));
         } else {
             LOG.warn("Removing prefix from non-existing node {}", node);
         }
@@ -641,11 +664,11 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         Preconditions.checkArgument(t != null, "Route %s value %s has null object type", id, value);
 
         if (t instanceof LinkCase) {
-            createLink(trans, base, value, (LinkCase) t, value.getAttributes());
+            createLink(base, value, (LinkCase) t, value.getAttributes());
         } else if (t instanceof NodeCase) {
-            createNode(trans, base, value, (NodeCase) t, value.getAttributes());
+            createNode(base, value, (NodeCase) t, value.getAttributes());
         } else if (t instanceof PrefixCase) {
-            createPrefix(trans, base, value, (PrefixCase) t, value.getAttributes());
+            createPrefix(base, value, (PrefixCase) t, value.getAttributes());
         } else {
             LOG.debug(UNHANDLED_OBJECT_CLASS, t.getImplementedInterface());
         }
@@ -663,11 +686,11 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
 
         final ObjectType t = value.getObjectType();
         if (t instanceof LinkCase) {
-            removeLink(trans, base, (LinkCase) t);
+            removeLink(base, (LinkCase) t);
         } else if (t instanceof NodeCase) {
-            removeNode(trans, base, (NodeCase) t);
+            removeNode(base, (NodeCase) t);
         } else if (t instanceof PrefixCase) {
-            removePrefix(trans, base, (PrefixCase) t);
+            removePrefix(base, (PrefixCase) t);
         } else {
             LOG.debug(UNHANDLED_OBJECT_CLASS, t.getImplementedInterface());
         }
@@ -678,8 +701,36 @@ public class LinkstateTopologyBuilder extends AbstractTopologyBuilder<LinkstateR
         return tablesId.child(LinkstateRoutesCase.class, LinkstateRoutes.class).child(LinkstateRoute.class);
     }
 
+    @Override
+    protected void flushObjects(final ReadWriteTransaction trans) {
+        for (final NodeHolder holder : this.dirtyNodes) {
+            if (holder.syncState(trans)) {
+                this.nodes.remove(holder.getNodeId());
+            }
+        }
+        this.dirtyNodes.clear();
+
+        for (final Entry<LinkId, Link> entry : this.dirtyLinks.entrySet()) {
+            final InstanceIdentifier<Link> lid = buildLinkIdentifier(entry.getKey());
+            final Link link = entry.getValue();
+            if (link != null) {
+                if (!link.equals(this.links.put(entry.getKey(), link))) {
+                    trans.put(LogicalDatastoreType.OPERATIONAL, lid, link);
+                    LOG.debug("Created link {} at {}", link, lid);
+                }
+            } else if (this.links.remove(entry.getKey()) != null) {
+                trans.delete(LogicalDatastoreType.OPERATIONAL, lid);
+                LOG.debug("Removed link {}", lid);
+            }
+        }
+        this.dirtyLinks.clear();
+    }
+
     @Override
     protected void clearTopology() {
         this.nodes.clear();
+        this.dirtyNodes.clear();
+        this.dirtyLinks.clear();
+        this.links.clear();
     }
 }
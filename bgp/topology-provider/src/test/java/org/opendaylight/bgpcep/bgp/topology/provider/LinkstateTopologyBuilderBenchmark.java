@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.bgp.topology.provider;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.protocol.bgp.rib.DefaultRibReference;
+import org.opendaylight.protocol.bgp.rib.RibReference;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.AsNumber;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.Identifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.Ipv4RouterIdentifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.LinkstateAddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.LinkstateSubsequentAddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.ProtocolId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.ObjectType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.LinkCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.NodeCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.PrefixCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.link._case.LinkDescriptorsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.link._case.LocalNodeDescriptorsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.link._case.RemoteNodeDescriptorsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.node._case.NodeDescriptorsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.prefix._case.AdvertisingNodeDescriptorsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.object.type.prefix._case.PrefixDescriptorsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.LinkStateAttribute;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.link.state.attribute.LinkAttributesCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.link.state.attribute.NodeAttributesCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.link.state.attribute.PrefixAttributesCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.link.state.attribute.link.attributes._case.LinkAttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.link.state.attribute.node.attributes._case.NodeAttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.path.attribute.link.state.attribute.prefix.attributes._case.PrefixAttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.routes.linkstate.routes.LinkstateRoute;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.routes.linkstate.routes.LinkstateRouteBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.routes.linkstate.routes.LinkstateRouteKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.routes.linkstate.routes.linkstate.route.Attributes1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.linkstate.routes.linkstate.routes.linkstate.route.Attributes1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.node.identifier.CRouterIdentifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.node.identifier.c.router.identifier.IsisNodeCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate.rev180329.node.identifier.c.router.identifier.isis.node._case.IsisNodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.BgpRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.RibId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.Rib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.RibKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.rib.LocRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.Tables;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.network.concepts.rev131125.IgpMetric;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.network.concepts.rev131125.IsoSystemIdentifier;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.network.concepts.rev131125.TeMetric;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how long a {@link LinkstateTopologyBuilder} takes to process a batch of synthetic BGP-LS updates against
+ * an IS-IS domain, whose nodes are connected in a ring and each advertise a number of prefixes. Every batch either
+ * changes the TE metric of all links or re-advertises all nodes, as a single listener callback would deliver them.
+ * Datastore writes go to a no-op transaction, so the figures reflect the builder's own work. Run via
+ * {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class LinkstateTopologyBuilderBenchmark {
+    private static final RibReference LOC_RIB_REF = new DefaultRibReference(InstanceIdentifier.create(BgpRib.class)
+            .child(Rib.class, new RibKey(new RibId("benchmark-rib"))));
+    private static final InstanceIdentifier<Tables> TABLES_ID = LOC_RIB_REF.getInstanceIdentifier()
+            .child(LocRib.class).child(Tables.class, new TablesKey(LinkstateAddressFamily.class,
+                LinkstateSubsequentAddressFamily.class));
+    private static final Identifier IDENTIFIER = new Identifier(BigInteger.ONE);
+    private static final AsNumber AS_NUMBER = new AsNumber(64496L);
+
+    @Param({"1000"})
+    public int nodes;
+
+    @Param({"100"})
+    public int prefixesPerNode;
+
+    @Param({"link", "node"})
+    public String churn;
+
+    private LinkstateRoute[] current;
+    private LinkstateRoute[] updated;
+    private ReadWriteTransaction trans;
+    private LinkstateTopologyBuilder builder;
+    private InstanceIdentifier<LinkstateRoute> routeId;
+
+    @Setup
+    public void setup() {
+        this.trans = mock(ReadWriteTransaction.class, withSettings().stubOnly());
+        this.builder = new LinkstateTopologyBuilder(mock(DataBroker.class), LOC_RIB_REF,
+                new TopologyId("benchmark-topology"));
+        this.routeId = this.builder.getRouteWildcard(TABLES_ID);
+
+        this.current = new LinkstateRoute[this.nodes];
+        this.updated = new LinkstateRoute[this.nodes];
+        for (int i = 0; i < this.nodes; i++) {
+            if ("link".equals(this.churn)) {
+                this.current[i] = createLinkRoute(i, (i + 1) % this.nodes, 10L);
+                this.updated[i] = createLinkRoute(i, (i + 1) % this.nodes, 20L);
+            } else {
+                this.current[i] = createNodeRoute(i);
+                this.updated[i] = this.current[i];
+            }
+        }
+
+        // Populate the topology with all nodes, links and prefixes
+        for (int i = 0; i < this.nodes; i++) {
+            this.builder.createObject(this.trans, this.routeId, createNodeRoute(i));
+            this.builder.createObject(this.trans, this.routeId, createLinkRoute(i, (i + 1) % this.nodes, 10L));
+            for (int j = 0; j < this.prefixesPerNode; j++) {
+                this.builder.createObject(this.trans, this.routeId, createPrefixRoute(i, j));
+            }
+        }
+        this.builder.flushObjects(this.trans);
+    }
+
+    @Benchmark
+    public void churn() {
+        for (int i = 0; i < this.nodes; i++) {
+            this.builder.removeObject(this.trans, this.routeId, this.current[i]);
+            this.builder.createObject(this.trans, this.routeId, this.updated[i]);
+        }
+        this.builder.flushObjects(this.trans);
+
+        final LinkstateRoute[] tmp = this.current;
+        this.current = this.updated;
+        this.updated = tmp;
+    }
+
+    private static CRouterIdentifier createRouterId(final int node) {
+        return new IsisNodeCaseBuilder().setIsisNode(new IsisNodeBuilder().setIsoSystemId(new IsoSystemIdentifier(
+            new byte[]{0, 0, 0, 0, (byte) (node >> 8), (byte) node})).build()).build();
+    }
+
+    private static LinkstateRoute createNodeRoute(final int node) {
+        return createRoute("node-" + node, new NodeCaseBuilder()
+                .setNodeDescriptors(new NodeDescriptorsBuilder().setAsNumber(AS_NUMBER)
+                        .setCRouterIdentifier(createRouterId(node)).build()).build(),
+                createAttributes(new NodeAttributesCaseBuilder().setNodeAttributes(new NodeAttributesBuilder()
+                        .setDynamicHostname("node" + node)
+                        .setIpv4RouterId(new Ipv4RouterIdentifier("10.0." + (node >> 8) + "." + (node & 0xFF)))
+                        .build()).build()));
+    }
+
+    private static LinkstateRoute createLinkRoute(final int local, final int remote, final long teMetric) {
+        return createRoute("link-" + local + "-" + remote, new LinkCaseBuilder()
+                .setLocalNodeDescriptors(new LocalNodeDescriptorsBuilder().setAsNumber(AS_NUMBER)
+                        .setCRouterIdentifier(createRouterId(local)).build())
+                .setRemoteNodeDescriptors(new RemoteNodeDescriptorsBuilder().setAsNumber(AS_NUMBER)
+                        .setCRouterIdentifier(createRouterId(remote)).build())
+                .setLinkDescriptors(new LinkDescriptorsBuilder().setLinkLocalIdentifier((long) local)
+                        .setLinkRemoteIdentifier((long) remote).build()).build(),
+                createAttributes(new LinkAttributesCaseBuilder().setLinkAttributes(new LinkAttributesBuilder()
+                        .setTeMetric(new TeMetric(teMetric)).setLinkName("link" + local).build()).build()));
+    }
+
+    private static LinkstateRoute createPrefixRoute(final int node, final int prefix) {
+        return createRoute("prefix-" + node + "-" + prefix, new PrefixCaseBuilder()
+                .setAdvertisingNodeDescriptors(new AdvertisingNodeDescriptorsBuilder().setAsNumber(AS_NUMBER)
+                        .setCRouterIdentifier(createRouterId(node)).build())
+                .setPrefixDescriptors(new PrefixDescriptorsBuilder().setIpReachabilityInformation(new IpPrefix(
+                        new Ipv4Prefix("10." + (node >> 8 & 0xFF) + "." + (node & 0xFF) + "." + prefix + "/32")))
+                        .build()).build(),
+                createAttributes(new PrefixAttributesCaseBuilder().setPrefixAttributes(new PrefixAttributesBuilder()
+                        .setPrefixMetric(new IgpMetric(10L)).build()).build()));
+    }
+
+    private static Attributes createAttributes(final LinkStateAttribute attribute) {
+        return new AttributesBuilder().setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+                .addAugmentation(Attributes1.class, new Attributes1Builder().setLinkStateAttribute(attribute).build())
+                .build();
+    }
+
+    private static LinkstateRoute createRoute(final String key, final ObjectType objectType,
+            final Attributes attributes) {
+        return new LinkstateRouteBuilder().withKey(new LinkstateRouteKey(new PathId(0L), key)).setRouteKey(key)
+                .setIdentifier(IDENTIFIER).setProtocolId(ProtocolId.IsisLevel2).setObjectType(objectType)
+                .setAttributes(attributes).build();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LinkstateTopologyBuilderBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -31,12 +32,17 @@ import io.netty.buffer.Unpooled;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.controller.md.sal.binding.api.DataTreeModification;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
 import org.opendaylight.controller.md.sal.binding.api.WriteTransaction;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.common.api.data.ReadFailedException;
@@ -92,11 +98,13 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.isis.topo
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.isis.topology.rev131021.IgpNodeAttributes1;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Link;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.node.TerminationPoint;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.Link1;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.Node1;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.link.attributes.IgpLinkAttributes;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.node.attributes.IgpNodeAttributes;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.node.attributes.igp.node.attributes.Prefix;
+import org.opendaylight.yangtools.yang.binding.DataObject;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
@@ -118,6 +126,8 @@ public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
 
     private LinkstateTopologyBuilder linkstateTopoBuilder;
     private InstanceIdentifier<LinkstateRoute> linkstateRouteIID;
+    private final Map<InstanceIdentifier<?>, DataObject> written = new LinkedHashMap<>();
+    private final List<InstanceIdentifier<?>> removed = new ArrayList<>();
 
     @Before
     @Override
@@ -281,6 +291,92 @@ public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
 
     }
 
+    @Test
+    public void testUnchangedReadvertisementNotWritten() {
+        final LinkstateRoute node = createLinkstateNodeRoute(ProtocolId.Ospf, "node1", NODE_1_AS, ROUTER_1_ID);
+        final LinkstateRoute link = createLinkstateLinkRoute(ProtocolId.Ospf, NODE_1_AS, NODE_2_AS, "link1");
+        final LinkstateRoute prefix = createLinkstatePrefixRoute(ProtocolId.Ospf, NODE_1_AS, NODE_1_PREFIX, 500L,
+            ROUTER_1_ID);
+        ReadWriteTransaction trans = newTransaction();
+        routeChanged(trans, null, node);
+        routeChanged(trans, null, link);
+        routeChanged(trans, null, prefix);
+        this.linkstateTopoBuilder.flushObjects(trans);
+        // the advertised node, the remote node of the link and the advertising node of the prefix
+        assertEquals(3, countTargets(this.written.keySet(), Node.class));
+        assertEquals(1, countTargets(this.written.keySet(), Link.class));
+
+        trans = newTransaction();
+        routeChanged(trans, node, node);
+        routeChanged(trans, link, link);
+        routeChanged(trans, prefix, prefix);
+        this.linkstateTopoBuilder.flushObjects(trans);
+        assertTrue(this.written.isEmpty());
+        assertTrue(this.removed.isEmpty());
+    }
+
+    @Test
+    public void testOnlyChangedTerminationPointsAndPrefixesWritten() {
+        ReadWriteTransaction trans = newTransaction();
+        routeChanged(trans, null, createLinkstateNodeRoute(ProtocolId.Ospf, "node1", NODE_1_AS, ROUTER_1_ID));
+        routeChanged(trans, null, createLinkstateLinkRoute(ProtocolId.Ospf, NODE_1_AS, NODE_2_AS, "link1"));
+        routeChanged(trans, null, createLinkstatePrefixRoute(ProtocolId.Ospf, NODE_1_AS, NODE_1_PREFIX, 500L,
+            ROUTER_1_ID));
+        this.linkstateTopoBuilder.flushObjects(trans);
+
+        // a parallel link and another prefix leave both nodes in place
+        final LinkstateRoute link = createLinkstateLinkRoute(ProtocolId.Ospf, NODE_1_AS, NODE_2_AS, "link2", 2,
+            100L);
+        final LinkstateRoute prefix = createLinkstatePrefixRoute(ProtocolId.Ospf, NODE_1_AS, "127.0.2.1/32", 500L,
+            ROUTER_1_ID);
+        trans = newTransaction();
+        routeChanged(trans, null, link);
+        routeChanged(trans, null, prefix);
+        this.linkstateTopoBuilder.flushObjects(trans);
+        assertEquals(0, countTargets(this.written.keySet(), Node.class));
+        assertEquals(1, countTargets(this.written.keySet(), Link.class));
+        assertEquals(1, countTargets(this.written.keySet(), Prefix.class));
+        assertEquals(2, countTargets(this.written.keySet(), TerminationPoint.class));
+        for (final InstanceIdentifier<?> id : this.written.keySet()) {
+            if (id.getTargetType() == TerminationPoint.class) {
+                assertTrue(id.firstKeyOf(TerminationPoint.class).getTpId().getValue().contains("mt=2"));
+            } else if (id.getTargetType() == Prefix.class) {
+                assertEquals("127.0.2.1/32", id.firstKeyOf(Prefix.class).getPrefix().getIpv4Prefix().getValue());
+            }
+        }
+        assertTrue(this.removed.isEmpty());
+
+        // withdrawing them removes just them
+        trans = newTransaction();
+        routeChanged(trans, link, null);
+        routeChanged(trans, prefix, null);
+        this.linkstateTopoBuilder.flushObjects(trans);
+        assertTrue(this.written.isEmpty());
+        assertEquals(0, countTargets(this.removed, Node.class));
+        assertEquals(1, countTargets(this.removed, Link.class));
+        assertEquals(1, countTargets(this.removed, Prefix.class));
+        assertEquals(2, countTargets(this.removed, TerminationPoint.class));
+    }
+
+    @Test
+    public void testLinkMetricChangeDoesNotRewriteNodes() {
+        final LinkstateRoute link = createLinkstateLinkRoute(ProtocolId.Ospf, NODE_1_AS, NODE_2_AS, "link1");
+        ReadWriteTransaction trans = newTransaction();
+        routeChanged(trans, null, createLinkstateNodeRoute(ProtocolId.Ospf, "node1", NODE_1_AS, ROUTER_1_ID));
+        routeChanged(trans, null, link);
+        this.linkstateTopoBuilder.flushObjects(trans);
+        final DataObject before = this.written.values().stream().filter(Link.class::isInstance).findFirst().get();
+
+        trans = newTransaction();
+        routeChanged(trans, link, createLinkstateLinkRoute(ProtocolId.Ospf, NODE_1_AS, NODE_2_AS, "link1", 1, 200L));
+        this.linkstateTopoBuilder.flushObjects(trans);
+        assertEquals(1, this.written.size());
+        final Entry<InstanceIdentifier<?>, DataObject> entry = this.written.entrySet().iterator().next();
+        assertEquals(Link.class, entry.getKey().getTargetType());
+        assertNotEquals(before, entry.getValue());
+        assertTrue(this.removed.isEmpty());
+    }
+
     /**
      * This test is to verify if the AbstractTopologyBuilder/LinkstateTopologyBuilder is handling exception correctly.
      */
@@ -356,6 +452,33 @@ public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
         verify(spiedLinkstateTopologyBuilder, times(1)).resetListener();
     }
 
+    private ReadWriteTransaction newTransaction() {
+        this.written.clear();
+        this.removed.clear();
+        final ReadWriteTransaction trans = mock(ReadWriteTransaction.class);
+        doAnswer(invocation -> this.written.put(invocation.getArgument(1), invocation.getArgument(2)))
+            .when(trans).put(any(), any(), any());
+        doAnswer(invocation -> this.removed.add(invocation.getArgument(1))).when(trans).delete(any(), any());
+        return trans;
+    }
+
+    /*
+     * Replays a route change the way AbstractTopologyBuilder.routeChanged() does.
+     */
+    private void routeChanged(final ReadWriteTransaction trans, final LinkstateRoute before,
+            final LinkstateRoute after) {
+        if (before != null) {
+            this.linkstateTopoBuilder.removeObject(trans, this.linkstateRouteIID, before);
+        }
+        if (after != null) {
+            this.linkstateTopoBuilder.createObject(trans, this.linkstateRouteIID, after);
+        }
+    }
+
+    private static long countTargets(final Collection<InstanceIdentifier<?>> ids, final Class<?> type) {
+        return ids.stream().filter(id -> id.getTargetType() == type).count();
+    }
+
     private void updateLinkstateRoute(final LinkstateRoute data) {
         final WriteTransaction wTx = getDataBroker().newWriteOnlyTransaction();
         wTx.put(LogicalDatastoreType.OPERATIONAL, this.linkstateRouteIID, data, true);
@@ -403,6 +526,11 @@ public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
 
     private static LinkstateRoute createLinkstateLinkRoute(final ProtocolId protocolId, final AsNumber localAs,
             final AsNumber remoteAs, final String linkName) {
+        return createLinkstateLinkRoute(protocolId, localAs, remoteAs, linkName, 1, 100L);
+    }
+
+    private static LinkstateRoute createLinkstateLinkRoute(final ProtocolId protocolId, final AsNumber localAs,
+            final AsNumber remoteAs, final String linkName, final int multiTopologyId, final long teMetric) {
         return createBaseBuilder(protocolId)
                 .setObjectType(new org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.linkstate
                         .rev180329.linkstate.object.type.LinkCaseBuilder()
@@ -412,7 +540,7 @@ public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
                                         .build()).build()).build())
                         .setRemoteNodeDescriptors(new RemoteNodeDescriptorsBuilder().setAsNumber(remoteAs).build())
                         .setLinkDescriptors(new LinkDescriptorsBuilder()
-                                .setMultiTopologyId(new TopologyIdentifier(1)).build()).build())
+                                .setMultiTopologyId(new TopologyIdentifier(multiTopologyId)).build()).build())
                 .setAttributes(new AttributesBuilder()
                         .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
                         .addAugmentation(Attributes1.class, new Attributes1Builder()
@@ -428,7 +556,7 @@ public class LinkstateTopologyBuilderTest extends AbstractTopologyBuilderTest {
                                                 .withKey(new UnreservedBandwidthKey((short) 1))
                                                 .setBandwidth(new Bandwidth(new byte[]{0x00, 0x00, 0x00, (byte) 0xff}))
                                                 .build()))
-                                        .setTeMetric(new TeMetric(100L)).setLinkName(linkName).build()).build())
+                                        .setTeMetric(new TeMetric(teMetric)).setLinkName(linkName).build()).build())
                                 .build())
                         .build())
                 .build();
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.bgp.topology.provider;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.controller.md.sal.binding.api.DataBroker;
+import org.opendaylight.controller.md.sal.binding.api.ReadWriteTransaction;
+import org.opendaylight.protocol.bgp.rib.DefaultRibReference;
+import org.opendaylight.protocol.bgp.rib.RibReference;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4Route;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.routes.ipv4.routes.Ipv4RouteKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.PathId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.BgpRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.RibId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.Rib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.RibKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.bgp.rib.rib.LocRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.Tables;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.c.next.hop.Ipv4NextHopCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.c.next.hop.ipv4.next.hop._case.Ipv4NextHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures how long an {@link Ipv4ReachabilityTopologyBuilder} takes to process the advertisement and subsequent
+ * withdrawal of a full table of prefixes, spread over a number of next hops. Datastore writes go to a no-op
+ * transaction, so the figures reflect the builder's own bookkeeping. Run via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ReachabilityTopologyBuilderBenchmark {
+    private static final RibReference LOC_RIB_REF = new DefaultRibReference(InstanceIdentifier.create(BgpRib.class)
+            .child(Rib.class, new RibKey(new RibId("benchmark-rib"))));
+    private static final InstanceIdentifier<Tables> TABLES_ID = LOC_RIB_REF.getInstanceIdentifier()
+            .child(LocRib.class).child(Tables.class, new TablesKey(Ipv4AddressFamily.class,
+                UnicastSubsequentAddressFamily.class));
+
+    @Param({"1000000"})
+    public int prefixes;
+
+    @Param({"1", "1000"})
+    public int nextHops;
+
+    private Ipv4Route[] routes;
+    private ReadWriteTransaction trans;
+    private Ipv4ReachabilityTopologyBuilder builder;
+    private InstanceIdentifier<Ipv4Route> routeId;
+
+    @Setup
+    public void setup() {
+        this.trans = mock(ReadWriteTransaction.class, withSettings().stubOnly());
+
+        final Attributes[] attributes = new Attributes[this.nextHops];
+        for (int i = 0; i < this.nextHops; i++) {
+            attributes[i] = new AttributesBuilder()
+                    .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+                    .setCNextHop(new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
+                            .setGlobal(new Ipv4Address("192.168." + (i >> 8) + "." + (i & 0xFF))).build()).build())
+                    .build();
+        }
+
+        this.routes = new Ipv4Route[this.prefixes];
+        for (int i = 0; i < this.prefixes; i++) {
+            final String prefix = "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF) + "/32";
+            this.routes[i] = new Ipv4RouteBuilder().withKey(new Ipv4RouteKey(new PathId(0L), prefix))
+                    .setPrefix(new Ipv4Prefix(prefix)).setAttributes(attributes[i % this.nextHops]).build();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupBuilder() {
+        this.builder = new Ipv4ReachabilityTopologyBuilder(mock(DataBroker.class), LOC_RIB_REF,
+                new TopologyId("benchmark-topology"));
+        this.routeId = this.builder.getRouteWildcard(TABLES_ID);
+    }
+
+    @Benchmark
+    public void advertizeAndWithdraw() {
+        for (final Ipv4Route route : this.routes) {
+            this.builder.createObject(this.trans, this.routeId, route);
+        }
+        for (final Ipv4Route route : this.routes) {
+            this.builder.removeObject(this.trans, this.routeId, route);
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReachabilityTopologyBuilderBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
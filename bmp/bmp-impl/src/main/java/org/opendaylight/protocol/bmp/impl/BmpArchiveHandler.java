@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+/**
+ * Pipeline stage placed between {@link BmpMessageHeaderDecoder} and {@link BmpByteToMessageDecoder}, which appends
+ * every framed PDU to a {@link BmpArchiveWriter} before it is parsed.
+ */
+final class BmpArchiveHandler extends ChannelInboundHandlerAdapter {
+    private final BmpArchiveWriter archive;
+    private final int streamId;
+
+    BmpArchiveHandler(final BmpArchiveWriter archive) {
+        this.archive = requireNonNull(archive);
+        this.streamId = archive.newStreamId();
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+        if (msg instanceof ByteBuf) {
+            this.archive.append(this.streamId, (ByteBuf) msg);
+        }
+        super.channelRead(ctx, msg);
+    }
+}
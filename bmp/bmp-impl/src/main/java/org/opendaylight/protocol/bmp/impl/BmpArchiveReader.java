@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Sequential reader of archives produced by {@link BmpArchiveWriter}. Segments are memory-mapped read-only and
+ * returned PDUs share their content with the mapping.
+ */
+@NotThreadSafe
+public final class BmpArchiveReader {
+    private final Deque<Path> segments;
+    private MappedByteBuffer segment;
+    private long timestamp;
+    private int streamId;
+    private ByteBuf pdu;
+
+    public BmpArchiveReader(final Path directory) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path file : stream) {
+                if (BmpArchiveWriter.SEGMENT_NAME.matcher(file.getFileName().toString()).matches()) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(null);
+        this.segments = new ArrayDeque<>(files);
+    }
+
+    /**
+     * Advance to the next record.
+     *
+     * @return false if there are no more records in the archive
+     * @throws IOException if a segment cannot be mapped
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (this.segment != null && this.segment.remaining() >= BmpArchiveWriter.RECORD_HEADER_SIZE) {
+                final long recordTimestamp = this.segment.getLong();
+                final int recordStreamId = this.segment.getInt();
+                final int length = this.segment.getInt();
+                if (length > 0 && length <= this.segment.remaining()) {
+                    final ByteBuffer content = this.segment.slice();
+                    content.limit(length);
+                    this.segment.position(this.segment.position() + length);
+
+                    this.timestamp = recordTimestamp;
+                    this.streamId = recordStreamId;
+                    this.pdu = Unpooled.wrappedBuffer(content);
+                    return true;
+                }
+            }
+
+            final Path next = this.segments.poll();
+            if (next == null) {
+                this.segment = null;
+                this.pdu = null;
+                return false;
+            }
+            try (FileChannel channel = FileChannel.open(next, StandardOpenOption.READ)) {
+                this.segment = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+    }
+
+    /**
+     * Return the receive timestamp of the current record.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        checkState(this.pdu != null, "No current record");
+        return this.timestamp;
+    }
+
+    /**
+     * Return the identifier of the router session the current record was received on.
+     *
+     * @return session identifier
+     */
+    public int getStreamId() {
+        checkState(this.pdu != null, "No current record");
+        return this.streamId;
+    }
+
+    /**
+     * Return the PDU of the current record.
+     *
+     * @return complete BMP PDU, including the common header
+     */
+    public ByteBuf getPdu() {
+        checkState(this.pdu != null, "No current record");
+        return this.pdu;
+    }
+}
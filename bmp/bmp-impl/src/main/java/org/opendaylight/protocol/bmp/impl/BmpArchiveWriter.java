@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Appends raw BMP PDUs received on all monitored router sessions to rotating, memory-mapped segment files in a
+ * directory. Every record consists of the receive timestamp in milliseconds (8 bytes), the identifier of the session
+ * the PDU was received on (4 bytes), the PDU length (4 bytes) and the PDU itself. Segments are fixed-size and
+ * zero-filled, a zero record length marks the end of a segment. Archives are read back by {@link BmpArchiveReader}.
+ *
+ * <p>The last allocated session identifier is kept in a file next to the segments, so a writer appending to an
+ * existing archive does not reuse identifiers of sessions recorded by a previous writer. All file system work, i.e.
+ * persisting session identifiers as well as creating, filling and syncing segments, is done on a dedicated archive
+ * thread. Callers, typically Netty event loops, only retain the PDU and hand it over.
+ */
+@ThreadSafe
+public final class BmpArchiveWriter implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int RECORD_HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    static final Pattern SEGMENT_NAME = Pattern.compile("bmp-(\\d{8})\\.archive");
+    static final String STREAM_ID_FILE = "bmp-stream.id";
+
+    private static final Logger LOG = LoggerFactory.getLogger(BmpArchiveWriter.class);
+    private static final int MAX_PDU_SIZE = 65535;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("bmp-archive-%d").setDaemon(true).build());
+    private final Path directory;
+    private final Path streamIdFile;
+    private final int segmentSize;
+    @GuardedBy("this")
+    private int lastStreamId;
+    @GuardedBy("this")
+    private boolean closed;
+    // Confined to the archive thread
+    private MappedByteBuffer segment;
+    private int segmentNumber;
+    private boolean failed;
+
+    public BmpArchiveWriter(final Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public BmpArchiveWriter(final Path directory, final int segmentSize) throws IOException {
+        checkArgument(segmentSize >= RECORD_HEADER_SIZE + MAX_PDU_SIZE, "Segment size %s is too small", segmentSize);
+        this.directory = Files.createDirectories(requireNonNull(directory));
+        this.segmentSize = segmentSize;
+        this.segmentNumber = lastSegmentNumber(this.directory);
+        this.streamIdFile = this.directory.resolve(STREAM_ID_FILE);
+        this.lastStreamId = readLastStreamId(this.streamIdFile);
+    }
+
+    /**
+     * Allocate an identifier for a new router session. Records of each session are replayed over a dedicated
+     * connection.
+     *
+     * @return Session identifier, unique within this archive
+     */
+    synchronized int newStreamId() {
+        final int streamId = ++this.lastStreamId;
+        if (!this.closed) {
+            this.executor.execute(() -> persistStreamId(streamId));
+        }
+        return streamId;
+    }
+
+    /**
+     * Append a PDU to the archive. The reader index of the buffer is not modified, its content is retained until
+     * it has been written out.
+     *
+     * @param streamId session identifier allocated by {@link #newStreamId()}
+     * @param pdu complete BMP PDU, including the common header
+     */
+    synchronized void append(final int streamId, final ByteBuf pdu) {
+        if (this.closed) {
+            return;
+        }
+
+        final long timestamp = System.currentTimeMillis();
+        final ByteBuf content = pdu.retainedDuplicate();
+        this.executor.execute(() -> {
+            try {
+                write(timestamp, streamId, content);
+            } finally {
+                content.release();
+            }
+        });
+    }
+
+    private void persistStreamId(final int streamId) {
+        try {
+            Files.write(this.streamIdFile, Integer.toString(streamId).getBytes(StandardCharsets.US_ASCII));
+        } catch (final IOException e) {
+            LOG.warn("Failed to persist stream identifier {} to {}, it may be reused when appending to this archive",
+                streamId, this.streamIdFile, e);
+        }
+    }
+
+    private void write(final long timestamp, final int streamId, final ByteBuf pdu) {
+        if (this.failed) {
+            return;
+        }
+
+        final int length = pdu.readableBytes();
+        if (this.segment == null || this.segment.remaining() < RECORD_HEADER_SIZE + length) {
+            try {
+                rotate();
+            } catch (final IOException e) {
+                LOG.warn("Failed to create archive segment in {}, archiving disabled", this.directory, e);
+                this.segment = null;
+                this.failed = true;
+                return;
+            }
+        }
+
+        this.segment.putLong(timestamp).putInt(streamId).putInt(length);
+        final ByteBuffer dst = this.segment.slice();
+        dst.limit(length);
+        pdu.getBytes(pdu.readerIndex(), dst);
+        this.segment.position(this.segment.position() + length);
+    }
+
+    private void rotate() throws IOException {
+        if (this.segment != null) {
+            this.segment.force();
+        }
+
+        final Path path = this.directory.resolve(segmentName(++this.segmentNumber));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            this.segment = channel.map(MapMode.READ_WRITE, 0, this.segmentSize);
+        }
+        LOG.debug("Started archive segment {}", path);
+    }
+
+    private void finish() {
+        if (this.segment != null) {
+            this.segment.force();
+            this.segment = null;
+        }
+    }
+
+    static String segmentName(final int number) {
+        return String.format("bmp-%08d.archive", number);
+    }
+
+    private static int lastSegmentNumber(final Path directory) throws IOException {
+        int last = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (final Path file : stream) {
+                final Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    last = Math.max(last, Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        return last;
+    }
+
+    private static int readLastStreamId(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        final String content = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+        try {
+            return Integer.parseInt(content);
+        } catch (final NumberFormatException e) {
+            throw new IOException("Invalid stream identifier file " + file, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.executor.execute(this::finish);
+        }
+
+        this.executor.shutdown();
+        try {
+            if (!this.executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("Timed out waiting for archive segments in {} to be written", this.directory);
+            }
+        } catch (final InterruptedException e) {
+            LOG.warn("Interrupted while waiting for archive segments in {} to be written", this.directory, e);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
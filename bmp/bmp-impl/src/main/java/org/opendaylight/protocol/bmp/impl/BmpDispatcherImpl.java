@@ -24,6 +24,7 @@ import java.net.InetSocketAddress;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.protocol.bmp.api.BmpDispatcher;
 import org.opendaylight.protocol.bmp.api.BmpSessionFactory;
@@ -51,6 +52,17 @@ public class BmpDispatcherImpl implements BmpDispatcher {
 
     public BmpDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup,
             final BmpMessageRegistry registry, final BmpSessionFactory sessionFactory) {
+        this(bossGroup, workerGroup, registry, sessionFactory, null);
+    }
+
+    /**
+     * Create a dispatcher, optionally archiving all PDUs received from monitored routers.
+     *
+     * @param archive archive to which received PDUs are appended, null if received PDUs should not be archived
+     */
+    public BmpDispatcherImpl(final EventLoopGroup bossGroup, final EventLoopGroup workerGroup,
+            final BmpMessageRegistry registry, final BmpSessionFactory sessionFactory,
+            @Nullable final BmpArchiveWriter archive) {
         if (Epoll.isAvailable()) {
             this.bossGroup = new EpollEventLoopGroup();
             this.workerGroup = new EpollEventLoopGroup();
@@ -58,7 +70,7 @@ public class BmpDispatcherImpl implements BmpDispatcher {
             this.bossGroup = requireNonNull(bossGroup);
             this.workerGroup = requireNonNull(workerGroup);
         }
-        this.hf = new BmpHandlerFactory(requireNonNull(registry));
+        this.hf = new BmpHandlerFactory(requireNonNull(registry), archive);
         this.sessionFactory = requireNonNull(sessionFactory);
     }
 
@@ -12,15 +12,28 @@ import static java.util.Objects.requireNonNull;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelOutboundHandler;
 
+import javax.annotation.Nullable;
 import org.opendaylight.protocol.bmp.spi.registry.BmpMessageRegistry;
 
 public final class BmpHandlerFactory {
     private final ChannelOutboundHandler encoder;
     private final BmpMessageRegistry registry;
+    private final BmpArchiveWriter archive;
 
     public BmpHandlerFactory(final BmpMessageRegistry registry) {
+        this(registry, null);
+    }
+
+    /**
+     * Create a handler factory, optionally archiving all received PDUs.
+     *
+     * @param registry BMP message registry
+     * @param archive archive to which received PDUs are appended, null if received PDUs should not be archived
+     */
+    public BmpHandlerFactory(final BmpMessageRegistry registry, @Nullable final BmpArchiveWriter archive) {
         this.registry = requireNonNull(registry);
         this.encoder = new BmpMessageToByteEncoder(registry);
+        this.archive = archive;
     }
 
     public ChannelHandler[] getEncoders() {
@@ -28,6 +41,10 @@ public final class BmpHandlerFactory {
     }
 
     public ChannelHandler[] getDecoders() {
+        if (this.archive != null) {
+            return new ChannelHandler[]{new BmpMessageHeaderDecoder(), new BmpArchiveHandler(this.archive),
+                new BmpByteToMessageDecoder(this.registry),};
+        }
         return new ChannelHandler[]{new BmpMessageHeaderDecoder(), new BmpByteToMessageDecoder(this.registry),};
     }
 
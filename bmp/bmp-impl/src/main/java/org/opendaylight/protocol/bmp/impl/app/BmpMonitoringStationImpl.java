@@ -20,6 +20,7 @@ import io.netty.channel.ChannelFutureListener;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.Nonnull;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -31,9 +32,11 @@ import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceRegist
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.protocol.bmp.api.BmpDispatcher;
 import org.opendaylight.protocol.bmp.impl.config.BmpDeployerDependencies;
+import org.opendaylight.protocol.bmp.impl.spi.BmpMonitoredRibs;
 import org.opendaylight.protocol.bmp.impl.spi.BmpMonitoringStation;
 import org.opendaylight.protocol.concepts.KeyMapping;
 import org.opendaylight.protocol.util.Ipv4Util;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.config.rev180329.RibStorage;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.config.rev180329.odl.bmp.monitors.bmp.monitor.config.MonitoredRouter;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.BmpMonitor;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.MonitorId;
@@ -60,6 +63,7 @@ public final class BmpMonitoringStationImpl implements BmpMonitoringStation, Clu
     private final List<MonitoredRouter> monitoredRouters;
     private final BmpDispatcher dispatcher;
     private final RouterSessionManager sessionManager;
+    private final InMemoryBmpRibs inMemoryRibs;
     private final YangInstanceIdentifier yangMonitorId;
     private Channel channel;
     private ClusterSingletonServiceRegistration singletonServiceRegistration;
@@ -67,6 +71,12 @@ public final class BmpMonitoringStationImpl implements BmpMonitoringStation, Clu
     public BmpMonitoringStationImpl(final BmpDeployerDependencies bmpDeployerDependencies,
             final BmpDispatcher dispatcher, final MonitorId monitorId, final InetSocketAddress address,
             final List<MonitoredRouter> mrs) {
+        this(bmpDeployerDependencies, dispatcher, monitorId, address, mrs, RibStorage.Datastore);
+    }
+
+    public BmpMonitoringStationImpl(final BmpDeployerDependencies bmpDeployerDependencies,
+            final BmpDispatcher dispatcher, final MonitorId monitorId, final InetSocketAddress address,
+            final List<MonitoredRouter> mrs, final RibStorage ribStorage) {
         this.domDataBroker = requireNonNull(bmpDeployerDependencies.getDomDataBroker());
         this.dispatcher = requireNonNull(dispatcher);
         this.monitorId = monitorId;
@@ -77,8 +87,9 @@ public final class BmpMonitoringStationImpl implements BmpMonitoringStation, Clu
                 .node(BmpMonitor.QNAME).node(Monitor.QNAME)
                 .nodeWithKey(Monitor.QNAME, MONITOR_ID_QNAME, monitorId.getValue()).build();
 
+        this.inMemoryRibs = ribStorage == RibStorage.InMemory ? new InMemoryBmpRibs() : null;
         this.sessionManager = new RouterSessionManager(this.yangMonitorId, this.domDataBroker,
-                bmpDeployerDependencies.getExtensions(), bmpDeployerDependencies.getTree());
+                bmpDeployerDependencies.getExtensions(), bmpDeployerDependencies.getTree(), this.inMemoryRibs);
 
         LOG.info("BMP Monitor Singleton Service {} registered, Monitor Id {}",
                 getIdentifier().getValue(), this.monitorId.getValue());
@@ -124,6 +135,11 @@ public final class BmpMonitoringStationImpl implements BmpMonitoringStation, Clu
         return wTx.commit();
     }
 
+    @Override
+    public Optional<BmpMonitoredRibs> getMonitoredRibs() {
+        return Optional.ofNullable(this.inMemoryRibs);
+    }
+
     @Nonnull
     @Override
     public ServiceGroupIdentifier getIdentifier() {
@@ -8,22 +8,14 @@
 
 package org.opendaylight.protocol.bmp.impl.app;
 
-import static org.opendaylight.protocol.bmp.impl.app.TablesUtil.BMP_ATTRIBUTES_QNAME;
-
 import com.google.common.collect.ImmutableMap;
-import com.google.common.util.concurrent.FutureCallback;
-import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
-import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
-import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
-import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingCodecTree;
-import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.protocol.bgp.rib.spi.RIBExtensionConsumerContext;
 import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.inet.rev180329.ipv4.prefixes.DestinationIpv4Builder;
@@ -42,12 +34,9 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.mult
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
-import org.opendaylight.yangtools.yang.common.QName;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.InstanceIdentifierBuilder;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
-import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
-import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -55,45 +44,27 @@ final class BmpRibInWriter {
 
     private static final Logger LOG = LoggerFactory.getLogger(BmpRibInWriter.class);
 
-    private static final LeafNode<Boolean> ATTRIBUTES_UPTODATE_FALSE =
-            ImmutableNodes.leafNode(QName.create(BMP_ATTRIBUTES_QNAME, "uptodate"), Boolean.FALSE);
-    private static final LeafNode<Boolean> ATTRIBUTES_UPTODATE_TRUE =
-            ImmutableNodes.leafNode(ATTRIBUTES_UPTODATE_FALSE.getNodeType(), Boolean.TRUE);
-
-    private final DOMTransactionChain chain;
+    private final BmpRibStore store;
     private final Map<TablesKey, TableContext> tables;
 
-
-    private BmpRibInWriter(final YangInstanceIdentifier tablesRoot, final DOMTransactionChain chain,
+    private BmpRibInWriter(final YangInstanceIdentifier tablesRoot, final BmpRibStore store,
             final RIBExtensionConsumerContext ribExtensions,
             final Set<TablesKey> tableTypes,  final BindingCodecTree tree) {
-        this.chain = chain;
-        final DOMDataWriteTransaction tx = this.chain.newWriteOnlyTransaction();
-        this.tables = createTableInstance(tableTypes, tablesRoot, tx, ribExtensions, tree).build();
-
+        this.store = store;
+        this.tables = createTableInstance(tableTypes, tablesRoot, ribExtensions, tree).build();
+        this.store.createTables(this.tables.values());
         LOG.debug("New RIB table {} structure installed.", tablesRoot.toString());
-        tx.commit().addCallback(new FutureCallback<CommitInfo>() {
-            @Override
-            public void onSuccess(final CommitInfo result) {
-                LOG.trace("Successful commit");
-            }
-
-            @Override
-            public void onFailure(final Throwable trw) {
-                LOG.error("Failed commit", trw);
-            }
-        }, MoreExecutors.directExecutor());
     }
 
     public static BmpRibInWriter create(@Nonnull final YangInstanceIdentifier tablesRootPath,
-            @Nonnull final DOMTransactionChain chain,
+            @Nonnull final BmpRibStore store,
             @Nonnull final RIBExtensionConsumerContext extensions, @Nonnull final Set<TablesKey> tableTypes,
             @Nonnull  final BindingCodecTree tree) {
-        return new BmpRibInWriter(tablesRootPath, chain, extensions, tableTypes, tree);
+        return new BmpRibInWriter(tablesRootPath, store, extensions, tableTypes, tree);
     }
 
     /**
-     * Write on DS Adj-RIBs-In.
+     * Write on Adj-RIBs-In.
      */
     public void onMessage(final UpdateMessage message) {
 
@@ -127,8 +98,8 @@ final class BmpRibInWriter {
      * Create new table instance.
      */
     private static ImmutableMap.Builder<TablesKey, TableContext> createTableInstance(final Set<TablesKey> tableTypes,
-            final YangInstanceIdentifier yangTableRootIId, final DOMDataWriteTransaction tx,
-            final RIBExtensionConsumerContext ribExtensions, final BindingCodecTree tree) {
+            final YangInstanceIdentifier yangTableRootIId, final RIBExtensionConsumerContext ribExtensions,
+            final BindingCodecTree tree) {
 
         final ImmutableMap.Builder<TablesKey, TableContext> tb = ImmutableMap.builder();
         for (final TablesKey k : tableTypes) {
@@ -140,13 +111,7 @@ final class BmpRibInWriter {
             final InstanceIdentifierBuilder idb = YangInstanceIdentifier.builder(yangTableRootIId);
             final NodeIdentifierWithPredicates key = TablesUtil.toYangTablesKey(k);
             idb.nodeWithKey(key.getNodeType(), key.getKeyValues());
-            final TableContext ctx = new TableContext(rs, idb.build(), tree);
-            ctx.createTable(tx);
-
-            tx.put(LogicalDatastoreType.OPERATIONAL, ctx.getTableId().node(BMP_ATTRIBUTES_QNAME)
-                    .node(ATTRIBUTES_UPTODATE_FALSE.getNodeType()), ATTRIBUTES_UPTODATE_FALSE);
-            LOG.debug("Created table instance {}", ctx.getTableId());
-            tb.put(k, ctx);
+            tb.put(k, new TableContext(rs, idb.build(), tree));
         }
         return tb;
     }
@@ -161,20 +126,8 @@ final class BmpRibInWriter {
             return;
         }
 
-        final DOMDataWriteTransaction tx = this.chain.newWriteOnlyTransaction();
-        ctx.writeRoutes(tx, nlri, attributes);
+        this.store.putRoutes(ctx, nlri, attributes);
         LOG.trace("Write routes {}", nlri);
-        tx.commit().addCallback(new FutureCallback<CommitInfo>() {
-            @Override
-            public void onSuccess(final CommitInfo result) {
-                LOG.trace("Successful commit");
-            }
-
-            @Override
-            public void onFailure(final Throwable trw) {
-                LOG.error("Failed commit", trw);
-            }
-        }, MoreExecutors.directExecutor());
     }
 
     /**
@@ -207,19 +160,7 @@ final class BmpRibInWriter {
             return;
         }
         LOG.trace("Removing routes {}", nlri);
-        final DOMDataWriteTransaction tx = this.chain.newWriteOnlyTransaction();
-        ctx.removeRoutes(tx, nlri);
-        tx.commit().addCallback(new FutureCallback<CommitInfo>() {
-            @Override
-            public void onSuccess(final CommitInfo result) {
-                LOG.trace("Successful commit");
-            }
-
-            @Override
-            public void onFailure(final Throwable trw) {
-                LOG.error("Failed commit", trw);
-            }
-        }, MoreExecutors.directExecutor());
+        this.store.removeRoutes(ctx, nlri);
     }
 
     /**
@@ -283,20 +224,13 @@ final class BmpRibInWriter {
     }
 
     private synchronized void markTableUptodated(final TablesKey tableTypes) {
-        final DOMDataWriteTransaction tx = this.chain.newWriteOnlyTransaction();
-        final TableContext ctxPre = this.tables.get(tableTypes);
-        tx.merge(LogicalDatastoreType.OPERATIONAL, ctxPre.getTableId().node(BMP_ATTRIBUTES_QNAME)
-                .node(ATTRIBUTES_UPTODATE_TRUE.getNodeType()), ATTRIBUTES_UPTODATE_TRUE);
-        tx.commit().addCallback(new FutureCallback<CommitInfo>() {
-            @Override
-            public void onSuccess(final CommitInfo result) {
-                LOG.trace("Successful commit");
-            }
+        this.store.markUptodate(this.tables.get(tableTypes));
+    }
 
-            @Override
-            public void onFailure(final Throwable trw) {
-                LOG.error("Failed commit", trw);
-            }
-        }, MoreExecutors.directExecutor());
+    /**
+     * Remove all tables, as the monitored peer went away.
+     */
+    synchronized void close() {
+        this.store.removeTables(this.tables.values());
     }
 }
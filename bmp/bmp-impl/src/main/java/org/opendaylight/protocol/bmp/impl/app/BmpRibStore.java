@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.app;
+
+import java.util.Collection;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlri;
+
+/**
+ * Storage backend of pre-policy and post-policy RIBs maintained by {@link BmpRibInWriter}.
+ */
+interface BmpRibStore {
+
+    /**
+     * Create empty tables, which are not up-to-date.
+     *
+     * @param tables tables to create
+     */
+    void createTables(Collection<TableContext> tables);
+
+    /**
+     * Add or replace routes advertised in a Route Monitoring message.
+     *
+     * @param table target table
+     * @param nlri advertised routes
+     * @param attributes route attributes
+     */
+    void putRoutes(TableContext table, MpReachNlri nlri, Attributes attributes);
+
+    /**
+     * Remove routes withdrawn in a Route Monitoring message.
+     *
+     * @param table target table
+     * @param nlri withdrawn routes
+     */
+    void removeRoutes(TableContext table, MpUnreachNlri nlri);
+
+    /**
+     * Mark a table as up-to-date after End-of-RIB has been received.
+     *
+     * @param table target table
+     */
+    void markUptodate(TableContext table);
+
+    /**
+     * Remove tables when the monitored peer goes away.
+     *
+     * @param tables tables to remove
+     */
+    void removeTables(Collection<TableContext> tables);
+}
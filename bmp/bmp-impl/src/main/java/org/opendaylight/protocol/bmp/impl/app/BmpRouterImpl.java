@@ -80,6 +80,10 @@ public final class BmpRouterImpl implements BmpRouter, TransactionChainListener
     private YangInstanceIdentifier routerYangIId;
     @GuardedBy("this")
     private YangInstanceIdentifier peersYangIId;
+    @GuardedBy("this")
+    private RouterTransactionBatcher batcher;
+    @GuardedBy("this")
+    private BmpRibStore ribStore;
 
     public BmpRouterImpl(final RouterSessionManager sessionManager) {
         this.sessionManager = requireNonNull(sessionManager);
@@ -103,6 +107,9 @@ public final class BmpRouterImpl implements BmpRouter, TransactionChainListener
             this.routerYangIId = YangInstanceIdentifier.builder(this.sessionManager.getRoutersYangIId())
                 .nodeWithKey(Router.QNAME, ROUTER_ID_QNAME, this.routerIp).build();
             this.peersYangIId = YangInstanceIdentifier.builder(this.routerYangIId).node(Peer.QNAME).build();
+            this.batcher = new RouterTransactionBatcher(this.domTxChain, this.session, this.routerYangIId);
+            final InMemoryBmpRibs inMemoryRibs = this.sessionManager.getInMemoryRibs();
+            this.ribStore = inMemoryRibs != null ? inMemoryRibs : new DatastoreRibStore(this.batcher);
             createRouterEntry();
             LOG.info("BMP session with remote router {} ({}) is up now.", this.routerIp, this.session);
         }
@@ -161,6 +168,9 @@ public final class BmpRouterImpl implements BmpRouter, TransactionChainListener
                 it.next().close();
                 it.remove();
             }
+            if (this.batcher != null) {
+                this.batcher.close();
+            }
             this.domTxChain.close();
         } catch (final Exception e) {
             LOG.error("Failed to properly close BMP application.", e);
@@ -200,7 +210,7 @@ public final class BmpRouterImpl implements BmpRouter, TransactionChainListener
 
     private synchronized void createRouterEntry() {
         Preconditions.checkState(isDatastoreWritable());
-        final DOMDataWriteTransaction wTx = this.domTxChain.newWriteOnlyTransaction();
+        final DOMDataWriteTransaction wTx = this.batcher.newWriteOnlyTransaction();
         wTx.put(LogicalDatastoreType.OPERATIONAL, this.routerYangIId,
                 Builders.mapEntryBuilder()
                 .withNodeIdentifier(new NodeIdentifierWithPredicates(Router.QNAME, ROUTER_ID_QNAME, this.routerIp))
@@ -222,7 +232,7 @@ public final class BmpRouterImpl implements BmpRouter, TransactionChainListener
 
     private synchronized void onInitiate(final InitiationMessage initiation) {
         Preconditions.checkState(isDatastoreWritable());
-        final DOMDataWriteTransaction wTx = this.domTxChain.newWriteOnlyTransaction();
+        final DOMDataWriteTransaction wTx = this.batcher.newWriteOnlyTransaction();
         wTx.merge(LogicalDatastoreType.OPERATIONAL, this.routerYangIId,
                 Builders.mapEntryBuilder()
                 .withNodeIdentifier(new NodeIdentifierWithPredicates(Router.QNAME, ROUTER_ID_QNAME, this.routerIp))
@@ -248,8 +258,8 @@ public final class BmpRouterImpl implements BmpRouter, TransactionChainListener
     private synchronized void onPeerUp(final PeerUpNotification peerUp) {
         final PeerId peerId = getPeerIdFromOpen(peerUp.getReceivedOpen());
         if (!getPeer(peerId).isPresent()) {
-            final BmpRouterPeer peer = BmpRouterPeerImpl.createRouterPeer(this.domTxChain, this.peersYangIId, peerUp,
-                this.extensions, this.tree, peerId);
+            final BmpRouterPeer peer = BmpRouterPeerImpl.createRouterPeer(this.batcher, this.ribStore,
+                this.peersYangIId, peerUp, this.extensions, this.tree, peerId);
             this.peers.put(peerId, peer);
             LOG.debug("Router {}: Peer {} goes up.", this.routerIp, peerId.getValue());
         } else {
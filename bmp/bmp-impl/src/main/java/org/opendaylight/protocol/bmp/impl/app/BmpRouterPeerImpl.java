@@ -20,7 +20,6 @@ import java.util.Locale;
 import java.util.Set;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
-import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingCodecTree;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingCodecTreeNode;
 import org.opendaylight.mdsal.common.api.CommitInfo;
@@ -125,7 +124,7 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
 
     private static final InstanceIdentifier<ReceivedOpen> RECEIVED_OPEN_IID = PEER_SESSION_ID.child(ReceivedOpen.class);
 
-    private final DOMTransactionChain domTxChain;
+    private final RouterTransactionBatcher batcher;
     private final PeerId peerId;
     private final YangInstanceIdentifier peerYangIId;
     private final BmpRibInWriter prePolicyWriter;
@@ -134,10 +133,10 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
     private final BindingCodecTreeNode<ReceivedOpen> receivedOpenCodec;
     private boolean up = true;
 
-    private BmpRouterPeerImpl(final DOMTransactionChain domTxChain, final YangInstanceIdentifier peersYangIId,
-        final PeerId peerId, final RIBExtensionConsumerContext extensions, final PeerUpNotification peerUp,
-        final BindingCodecTree tree) {
-        this.domTxChain = requireNonNull(domTxChain);
+    private BmpRouterPeerImpl(final RouterTransactionBatcher batcher, final BmpRibStore ribStore,
+        final YangInstanceIdentifier peersYangIId, final PeerId peerId, final RIBExtensionConsumerContext extensions,
+        final PeerUpNotification peerUp, final BindingCodecTree tree) {
+        this.batcher = requireNonNull(batcher);
         this.peerId = peerId;
         this.peerYangIId = YangInstanceIdentifier.builder(peersYangIId).nodeWithKey(Peer.QNAME, PEER_ID_QNAME,
                 this.peerId.getValue()).build();
@@ -145,7 +144,7 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
         this.receivedOpenCodec = tree.getSubtreeCodec(RECEIVED_OPEN_IID);
 
         final Set<TablesKey> peerTables = setPeerTables(peerUp.getReceivedOpen());
-        final DOMDataWriteTransaction wTx = this.domTxChain.newWriteOnlyTransaction();
+        final DOMDataWriteTransaction wTx = this.batcher.newWriteOnlyTransaction();
         wTx.put(LogicalDatastoreType.OPERATIONAL, this.peerYangIId, createPeerEntry(peerUp));
         wTx.commit().addCallback(new FutureCallback<CommitInfo>() {
             @Override
@@ -159,15 +158,15 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
             }
         }, MoreExecutors.directExecutor());
         this.prePolicyWriter = BmpRibInWriter.create(this.peerYangIId.node(PrePolicyRib.QNAME).node(BMP_TABLES_QNAME),
-                this.domTxChain, extensions, peerTables, tree);
+                ribStore, extensions, peerTables, tree);
         this.postPolicyWriter = BmpRibInWriter.create(this.peerYangIId.node(PostPolicyRib.QNAME).node(BMP_TABLES_QNAME),
-                this.domTxChain, extensions, peerTables, tree);
+                ribStore, extensions, peerTables, tree);
     }
 
-    static BmpRouterPeer createRouterPeer(final DOMTransactionChain domTxChain,
+    static BmpRouterPeer createRouterPeer(final RouterTransactionBatcher batcher, final BmpRibStore ribStore,
             final YangInstanceIdentifier peersYangIId, final PeerUpNotification peerUp,
             final RIBExtensionConsumerContext extensions, final BindingCodecTree tree, final PeerId peerId) {
-        return new BmpRouterPeerImpl(domTxChain, peersYangIId, peerId, extensions,
+        return new BmpRouterPeerImpl(batcher, ribStore, peersYangIId, peerId, extensions,
                 peerUp, tree);
     }
 
@@ -202,7 +201,7 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
 
     private synchronized void onStatsReports(final StatsReportsMessage statsReports) {
         if (this.up) {
-            final DOMDataWriteTransaction wTx = this.domTxChain.newWriteOnlyTransaction();
+            final DOMDataWriteTransaction wTx = this.batcher.newWriteOnlyTransaction();
             wTx.merge(LogicalDatastoreType.OPERATIONAL, this.peerYangIId.node(Stats.QNAME),
                     createStats(statsReports, statsReports.getPeerHeader().getTimestampSec()));
             wTx.commit().addCallback(new FutureCallback<CommitInfo>() {
@@ -220,7 +219,7 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
     }
 
     private synchronized void onRouteMirror(final RouteMirroringMessage mirror) {
-        final DOMDataWriteTransaction wTx = this.domTxChain.newWriteOnlyTransaction();
+        final DOMDataWriteTransaction wTx = this.batcher.newWriteOnlyTransaction();
         wTx.merge(LogicalDatastoreType.OPERATIONAL, this.peerYangIId.node(Mirrors.QNAME),
                 createMirrors(mirror, mirror.getPeerHeader().getTimestampSec()));
         wTx.commit().addCallback(new FutureCallback<CommitInfo>() {
@@ -237,7 +236,7 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
     }
 
     private synchronized void onPeerDown() {
-        final DOMDataWriteTransaction wTx = this.domTxChain.newWriteOnlyTransaction();
+        final DOMDataWriteTransaction wTx = this.batcher.newWriteOnlyTransaction();
         wTx.delete(LogicalDatastoreType.OPERATIONAL, this.peerYangIId);
         wTx.commit().addCallback(new FutureCallback<CommitInfo>() {
             @Override
@@ -257,6 +256,8 @@ public final class BmpRouterPeerImpl implements BmpRouterPeer {
     public void close() {
         Preconditions.checkState(this.up, "Already closed.");
         this.up = false;
+        this.prePolicyWriter.close();
+        this.postPolicyWriter.close();
     }
 
     private static Set<TablesKey> setPeerTables(final ReceivedOpen open) {
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.app;
+
+import static java.util.Objects.requireNonNull;
+import static org.opendaylight.protocol.bmp.impl.app.TablesUtil.BMP_ATTRIBUTES_QNAME;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.Collection;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlri;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.schema.LeafNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BmpRibStore} writing RIBs into the operational datastore, batching route writes of a monitored router
+ * through its {@link RouterTransactionBatcher}.
+ */
+final class DatastoreRibStore implements BmpRibStore {
+    private static final Logger LOG = LoggerFactory.getLogger(DatastoreRibStore.class);
+
+    private static final LeafNode<Boolean> ATTRIBUTES_UPTODATE_FALSE =
+            ImmutableNodes.leafNode(QName.create(BMP_ATTRIBUTES_QNAME, "uptodate"), Boolean.FALSE);
+    private static final LeafNode<Boolean> ATTRIBUTES_UPTODATE_TRUE =
+            ImmutableNodes.leafNode(ATTRIBUTES_UPTODATE_FALSE.getNodeType(), Boolean.TRUE);
+
+    private final RouterTransactionBatcher batcher;
+
+    DatastoreRibStore(final RouterTransactionBatcher batcher) {
+        this.batcher = requireNonNull(batcher);
+    }
+
+    @Override
+    public void createTables(final Collection<TableContext> tables) {
+        final DOMDataWriteTransaction tx = this.batcher.newWriteOnlyTransaction();
+        for (final TableContext ctx : tables) {
+            ctx.createTable(tx);
+            tx.put(LogicalDatastoreType.OPERATIONAL, ctx.getTableId().node(BMP_ATTRIBUTES_QNAME)
+                    .node(ATTRIBUTES_UPTODATE_FALSE.getNodeType()), ATTRIBUTES_UPTODATE_FALSE);
+            LOG.debug("Created table instance {}", ctx.getTableId());
+        }
+        commit(tx);
+    }
+
+    @Override
+    public void putRoutes(final TableContext table, final MpReachNlri nlri, final Attributes attributes) {
+        this.batcher.write(tx -> table.writeRoutes(tx, nlri, attributes));
+    }
+
+    @Override
+    public void removeRoutes(final TableContext table, final MpUnreachNlri nlri) {
+        this.batcher.write(tx -> {
+            table.removeRoutes(tx, nlri);
+            return 1;
+        });
+    }
+
+    @Override
+    public void markUptodate(final TableContext table) {
+        final DOMDataWriteTransaction tx = this.batcher.newWriteOnlyTransaction();
+        tx.merge(LogicalDatastoreType.OPERATIONAL, table.getTableId().node(BMP_ATTRIBUTES_QNAME)
+                .node(ATTRIBUTES_UPTODATE_TRUE.getNodeType()), ATTRIBUTES_UPTODATE_TRUE);
+        commit(tx);
+    }
+
+    @Override
+    public void removeTables(final Collection<TableContext> tables) {
+        // Tables are removed together with the peer entry
+    }
+
+    private static void commit(final DOMDataWriteTransaction tx) {
+        tx.commit().addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.trace("Successful commit");
+            }
+
+            @Override
+            public void onFailure(final Throwable trw) {
+                LOG.error("Failed commit", trw);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+}
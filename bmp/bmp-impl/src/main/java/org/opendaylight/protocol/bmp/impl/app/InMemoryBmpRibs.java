@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.app;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.protocol.bmp.impl.spi.BmpMonitoredRibs;
+import org.opendaylight.protocol.bmp.impl.spi.BmpMonitoredRibsListener;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.Attributes;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpReachNlri;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.multiprotocol.rev180329.update.attributes.MpUnreachNlri;
+import org.opendaylight.yangtools.concepts.AbstractListenerRegistration;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link BmpRibStore} keeping RIBs of all routers monitored by a BMP monitoring station in memory, bypassing
+ * the operational datastore. Route attributes are interned, so routes sharing the same attributes, even across
+ * peers and routers, share a single attributes instance.
+ */
+@ThreadSafe
+final class InMemoryBmpRibs implements BmpRibStore, BmpMonitoredRibs {
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryBmpRibs.class);
+
+    private final Map<YangInstanceIdentifier, Table> tables = new ConcurrentHashMap<>();
+    private final List<ListenerRegistration<? extends BmpMonitoredRibsListener>> listeners =
+            new CopyOnWriteArrayList<>();
+    private final Interner<ContainerNode> attributesInterner = Interners.newWeakInterner();
+
+    @Override
+    public void createTables(final Collection<TableContext> newTables) {
+        for (final TableContext ctx : newTables) {
+            this.tables.put(ctx.getTableId(), new Table());
+            LOG.debug("Created in-memory table {}", ctx.getTableId());
+        }
+    }
+
+    @Override
+    public void putRoutes(final TableContext table, final MpReachNlri nlri, final Attributes attributes) {
+        final Table target = this.tables.get(table.getTableId());
+        if (target == null) {
+            LOG.debug("Table {} not present, ignoring routes {}", table.getTableId(), nlri);
+            return;
+        }
+
+        final Map<NodeIdentifierWithPredicates, MapEntryNode> routes =
+                table.extractRoutes(nlri, attributes, this.attributesInterner);
+        target.routes.putAll(routes);
+        notifyListeners(listener -> listener.onRoutesChanged(table.getTableId(), routes, Collections.emptyList()));
+    }
+
+    @Override
+    public void removeRoutes(final TableContext table, final MpUnreachNlri nlri) {
+        final Table target = this.tables.get(table.getTableId());
+        if (target == null) {
+            LOG.debug("Table {} not present, ignoring withdrawn routes {}", table.getTableId(), nlri);
+            return;
+        }
+
+        final Collection<NodeIdentifierWithPredicates> routeKeys = table.extractWithdrawnRoutes(nlri);
+        routeKeys.forEach(target.routes::remove);
+        notifyListeners(listener -> listener.onRoutesChanged(table.getTableId(), Collections.emptyMap(),
+            routeKeys));
+    }
+
+    @Override
+    public void markUptodate(final TableContext table) {
+        final Table target = this.tables.get(table.getTableId());
+        if (target != null) {
+            target.uptodate = true;
+        }
+    }
+
+    @Override
+    public void removeTables(final Collection<TableContext> removed) {
+        for (final TableContext ctx : removed) {
+            if (this.tables.remove(ctx.getTableId()) != null) {
+                LOG.debug("Removed in-memory table {}", ctx.getTableId());
+                notifyListeners(listener -> listener.onTableRemoved(ctx.getTableId()));
+            }
+        }
+    }
+
+    @Override
+    public Set<YangInstanceIdentifier> getTables() {
+        return ImmutableSet.copyOf(this.tables.keySet());
+    }
+
+    @Override
+    public Map<NodeIdentifierWithPredicates, MapEntryNode> getRoutes(final YangInstanceIdentifier tablePath) {
+        final Table table = this.tables.get(requireNonNull(tablePath));
+        return table == null ? ImmutableMap.of() : ImmutableMap.copyOf(table.routes);
+    }
+
+    @Override
+    public boolean isUptodate(final YangInstanceIdentifier tablePath) {
+        final Table table = this.tables.get(requireNonNull(tablePath));
+        return table != null && table.uptodate;
+    }
+
+    @Override
+    public <L extends BmpMonitoredRibsListener> ListenerRegistration<L> registerRibsListener(final L listener) {
+        final ListenerRegistration<L> reg = new AbstractListenerRegistration<L>(listener) {
+            @Override
+            protected void removeRegistration() {
+                InMemoryBmpRibs.this.listeners.remove(this);
+            }
+        };
+        this.listeners.add(reg);
+        return reg;
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void notifyListeners(final Consumer<BmpMonitoredRibsListener> notification) {
+        for (final ListenerRegistration<? extends BmpMonitoredRibsListener> reg : this.listeners) {
+            try {
+                notification.accept(reg.getInstance());
+            } catch (final RuntimeException e) {
+                LOG.warn("Listener {} failed to process notification", reg.getInstance(), e);
+            }
+        }
+    }
+
+    private static final class Table {
+        final Map<NodeIdentifierWithPredicates, MapEntryNode> routes = new ConcurrentHashMap<>();
+        volatile boolean uptodate;
+    }
+}
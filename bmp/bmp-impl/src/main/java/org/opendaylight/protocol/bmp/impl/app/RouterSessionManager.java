@@ -12,6 +12,7 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 import org.opendaylight.controller.md.sal.dom.api.DOMDataBroker;
 import org.opendaylight.mdsal.binding.dom.codec.api.BindingCodecTree;
 import org.opendaylight.protocol.bgp.rib.spi.RIBExtensionConsumerContext;
@@ -34,13 +35,16 @@ final class RouterSessionManager implements BmpSessionListenerFactory, AutoClose
     private final DOMDataBroker domDataBroker;
     private final RIBExtensionConsumerContext extensions;
     private final BindingCodecTree tree;
+    private final InMemoryBmpRibs inMemoryRibs;
 
     RouterSessionManager(final YangInstanceIdentifier yangMonitorId, final DOMDataBroker domDataBroker,
-            final RIBExtensionConsumerContext extensions, final BindingCodecTree tree) {
+            final RIBExtensionConsumerContext extensions, final BindingCodecTree tree,
+            @Nullable final InMemoryBmpRibs inMemoryRibs) {
         this.domDataBroker = domDataBroker;
         this.yangRoutersId = YangInstanceIdentifier.builder(yangMonitorId).node(Router.QNAME).build();
         this.extensions = extensions;
         this.tree = tree;
+        this.inMemoryRibs = inMemoryRibs;
     }
 
     @Override
@@ -93,4 +97,14 @@ final class RouterSessionManager implements BmpSessionListenerFactory, AutoClose
         return this.tree;
     }
 
+    /**
+     * Returns in-memory RIB storage shared by all monitored routers.
+     *
+     * @return In-memory RIBs, null if RIBs are stored in the operational datastore
+     */
+    @Nullable
+    InMemoryBmpRibs getInMemoryRibs() {
+        return this.inMemoryRibs;
+    }
+
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.app;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.math.BigInteger;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.protocol.bmp.api.BmpSession;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.routers.Router;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.ContainerNode;
+import org.opendaylight.yangtools.yang.data.impl.schema.Builders;
+import org.opendaylight.yangtools.yang.data.impl.schema.ImmutableNodes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates Route Monitoring writes of all peers of a monitored router into shared transactions on the router's
+ * transaction chain. A batch is committed once it holds {@link #MAX_BATCH_ROUTES} routes or once it is older than
+ * {@link #MAX_BATCH_DELAY_MS}, whichever comes first. Any other transaction allocated through this batcher commits
+ * the pending batch first, so the order of writes on the chain is preserved. Each commit also publishes the router's
+ * ingest statistics.
+ */
+@ThreadSafe
+final class RouterTransactionBatcher implements AutoCloseable {
+    static final int MAX_BATCH_ROUTES = 10000;
+    static final long MAX_BATCH_DELAY_MS = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(RouterTransactionBatcher.class);
+    private static final QName ROUTE_INGEST_QNAME = QName.create(Router.QNAME, "route-ingest").intern();
+    private static final QName RECEIVED_ROUTES_QNAME = QName.create(ROUTE_INGEST_QNAME, "received-routes").intern();
+    private static final QName INGEST_RATE_QNAME = QName.create(ROUTE_INGEST_QNAME, "ingest-rate").intern();
+    private static final QName PENDING_ROUTES_QNAME = QName.create(ROUTE_INGEST_QNAME, "pending-routes").intern();
+    private static final QName PENDING_COMMITS_QNAME = QName.create(ROUTE_INGEST_QNAME, "pending-commits").intern();
+
+    private final DOMTransactionChain chain;
+    private final BmpSession session;
+    private final YangInstanceIdentifier routeIngestYangIId;
+    private final AtomicLong pendingRoutes = new AtomicLong();
+    private final AtomicLong pendingCommits = new AtomicLong();
+    @GuardedBy("this")
+    private DOMDataWriteTransaction batch;
+    @GuardedBy("this")
+    private ScheduledFuture<?> flushFuture;
+    @GuardedBy("this")
+    private int batchRoutes;
+    @GuardedBy("this")
+    private long batchStart;
+    @GuardedBy("this")
+    private long receivedRoutes;
+    @GuardedBy("this")
+    private long lastPublished = System.nanoTime();
+    @GuardedBy("this")
+    private long lastPublishedRoutes;
+    @GuardedBy("this")
+    private boolean closed;
+
+    RouterTransactionBatcher(final DOMTransactionChain chain, final BmpSession session,
+            final YangInstanceIdentifier routerYangIId) {
+        this.chain = requireNonNull(chain);
+        this.session = requireNonNull(session);
+        this.routeIngestYangIId = YangInstanceIdentifier.builder(routerYangIId).node(ROUTE_INGEST_QNAME).build();
+    }
+
+    /**
+     * Allocate a transaction which is not part of a batch. The pending batch, if any, is committed first.
+     *
+     * @return A new write-only transaction
+     */
+    synchronized DOMDataWriteTransaction newWriteOnlyTransaction() {
+        flush();
+        return this.chain.newWriteOnlyTransaction();
+    }
+
+    /**
+     * Add routes to the current batch, committing it if one of the bounds is reached.
+     *
+     * @param writer Function writing routes into the batch transaction, returning the number of routes written
+     */
+    void write(final ToIntFunction<DOMDataWriteTransaction> writer) {
+        final DOMDataWriteTransaction newBatch;
+        synchronized (this) {
+            if (this.closed) {
+                LOG.debug("Batcher for {} already closed, ignoring write", this.routeIngestYangIId);
+                return;
+            }
+            if (this.batch == null) {
+                this.batch = this.chain.newWriteOnlyTransaction();
+                this.batchStart = System.nanoTime();
+                newBatch = this.batch;
+            } else {
+                newBatch = null;
+            }
+
+            final int routes = writer.applyAsInt(this.batch);
+            this.batchRoutes += routes;
+            this.receivedRoutes += routes;
+            if (this.batchRoutes >= MAX_BATCH_ROUTES
+                    || System.nanoTime() - this.batchStart >= TimeUnit.MILLISECONDS.toNanos(MAX_BATCH_DELAY_MS)) {
+                flush();
+                return;
+            }
+        }
+
+        if (newBatch != null) {
+            scheduleFlush(newBatch);
+        }
+    }
+
+    /*
+     * Session scheduling is serialized with the session's lifecycle, which closes this batcher, hence the deadline
+     * is scheduled without holding our lock.
+     */
+    private void scheduleFlush(final DOMDataWriteTransaction tx) {
+        final ScheduledFuture<?> future;
+        try {
+            future = this.session.schedule(() -> flush(tx), MAX_BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+        } catch (final IllegalStateException e) {
+            LOG.debug("Session of {} is closed, committing batch immediately", this.routeIngestYangIId, e);
+            flush(tx);
+            return;
+        }
+
+        synchronized (this) {
+            if (this.batch == tx) {
+                this.flushFuture = future;
+                return;
+            }
+        }
+        // The batch has already been committed
+        future.cancel(false);
+    }
+
+    private synchronized void flush(final DOMDataWriteTransaction tx) {
+        if (this.batch == tx) {
+            flush();
+        }
+    }
+
+    /**
+     * Commit the pending batch, if any.
+     */
+    synchronized void flush() {
+        if (this.batch == null) {
+            return;
+        }
+        if (this.flushFuture != null) {
+            this.flushFuture.cancel(false);
+            this.flushFuture = null;
+        }
+
+        final int routes = this.batchRoutes;
+        this.pendingRoutes.addAndGet(routes);
+        this.pendingCommits.incrementAndGet();
+        this.batch.merge(LogicalDatastoreType.OPERATIONAL, this.routeIngestYangIId, createRouteIngest());
+        LOG.trace("Committing batch of {} routes to {}", routes, this.routeIngestYangIId);
+
+        this.batch.commit().addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.trace("Successful commit");
+                committed(routes);
+            }
+
+            @Override
+            public void onFailure(final Throwable trw) {
+                LOG.error("Failed commit", trw);
+                committed(routes);
+            }
+        }, MoreExecutors.directExecutor());
+        this.batch = null;
+        this.batchRoutes = 0;
+    }
+
+    private void committed(final int routes) {
+        this.pendingRoutes.addAndGet(-routes);
+        this.pendingCommits.decrementAndGet();
+    }
+
+    @GuardedBy("this")
+    private ContainerNode createRouteIngest() {
+        final long now = System.nanoTime();
+        final long elapsed = now - this.lastPublished;
+        final long rate = elapsed > 0
+                ? (this.receivedRoutes - this.lastPublishedRoutes) * TimeUnit.SECONDS.toNanos(1) / elapsed : 0;
+        this.lastPublished = now;
+        this.lastPublishedRoutes = this.receivedRoutes;
+
+        return Builders.containerBuilder().withNodeIdentifier(new NodeIdentifier(ROUTE_INGEST_QNAME))
+                .withChild(ImmutableNodes.leafNode(RECEIVED_ROUTES_QNAME, BigInteger.valueOf(this.receivedRoutes)))
+                .withChild(ImmutableNodes.leafNode(INGEST_RATE_QNAME, rate))
+                .withChild(ImmutableNodes.leafNode(PENDING_ROUTES_QNAME, this.pendingRoutes.get()))
+                .withChild(ImmutableNodes.leafNode(PENDING_COMMITS_QNAME, this.pendingCommits.get()))
+                .build();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        this.closed = true;
+    }
+}
@@ -13,6 +13,8 @@ import static org.opendaylight.protocol.bmp.impl.app.TablesUtil.BMP_ATTRIBUTES_Q
 import static org.opendaylight.protocol.bmp.impl.app.TablesUtil.BMP_ROUTES_QNAME;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Interner;
+import java.util.Collection;
 import java.util.Map;
 import javax.annotation.concurrent.NotThreadSafe;
 import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
@@ -101,16 +103,26 @@ final class TableContext {
                         new NodeIdentifier(TablesUtil.BMP_ROUTES_QNAME)).build()).build());
     }
 
-    void writeRoutes(final DOMDataWriteTransaction tx, final MpReachNlri nlri, final Attributes attributes) {
+    int writeRoutes(final DOMDataWriteTransaction tx, final MpReachNlri nlri, final Attributes attributes) {
         final ContainerNode domNlri = serializeReachNlri(nlri);
         final ContainerNode routeAttributes = serializeAttributes(attributes);
-        this.tableSupport.putRoutes(tx, this.tableId, domNlri, routeAttributes, BGP_ROUTES_NODE_ID);
+        return this.tableSupport.putRoutes(tx, this.tableId, domNlri, routeAttributes, BGP_ROUTES_NODE_ID).size();
     }
 
     void removeRoutes(final DOMDataWriteTransaction tx, final MpUnreachNlri nlri) {
         this.tableSupport.deleteRoutes(tx, this.tableId, serializeUnreachNlri(nlri), BGP_ROUTES_NODE_ID);
     }
 
+    Map<NodeIdentifierWithPredicates, MapEntryNode> extractRoutes(final MpReachNlri nlri,
+            final Attributes attributes, final Interner<ContainerNode> attributesInterner) {
+        return this.tableSupport.extractRoutes(serializeReachNlri(nlri),
+            attributesInterner.intern(serializeAttributes(attributes)));
+    }
+
+    Collection<NodeIdentifierWithPredicates> extractWithdrawnRoutes(final MpUnreachNlri nlri) {
+        return this.tableSupport.extractWithdrawnRoutes(serializeUnreachNlri(nlri));
+    }
+
     private ContainerNode serializeUnreachNlri(final MpUnreachNlri nlri) {
         Preconditions.checkState(this.unreachNlriCodec != null, "MpUnReachNlri codec not available");
         return (ContainerNode) this.unreachNlriCodec.serialize(nlri);
@@ -19,6 +19,8 @@ import io.netty.channel.SimpleChannelInboundHandler;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.protocol.bmp.api.BmpSession;
@@ -90,6 +92,12 @@ public final class BmpSessionImpl extends SimpleChannelInboundHandler<Notificati
         return address.getAddress();
     }
 
+    @Override
+    public synchronized ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        Preconditions.checkState(this.channel != null, "Session %s is closed", this);
+        return this.channel.eventLoop().schedule(command, delay, unit);
+    }
+
     @Override
     public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) throws Exception {
         LOG.error("Exception caught in BMP Session.", cause);
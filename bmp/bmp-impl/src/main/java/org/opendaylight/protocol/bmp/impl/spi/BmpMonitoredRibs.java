@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.spi;
+
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.concepts.ListenerRegistration;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+
+/**
+ * Pre-policy and post-policy RIBs of monitored routers, which are kept in memory instead of the operational
+ * datastore. Tables are identified by the same paths they would have in the operational datastore, e.g.
+ * {@code /bmp-monitor/monitor/router/peer/pre-policy-rib/tables}.
+ */
+public interface BmpMonitoredRibs {
+
+    /**
+     * Returns paths of all tables currently present.
+     *
+     * @return Set of table paths
+     */
+    @Nonnull
+    Set<YangInstanceIdentifier> getTables();
+
+    /**
+     * Returns a snapshot of the routes of a table.
+     *
+     * @param tablePath table path
+     * @return Routes keyed by their identifiers, empty if the table is not present
+     */
+    @Nonnull
+    Map<NodeIdentifierWithPredicates, MapEntryNode> getRoutes(@Nonnull YangInstanceIdentifier tablePath);
+
+    /**
+     * Returns whether the End-of-RIB marker has been received for a table.
+     *
+     * @param tablePath table path
+     * @return True if the table is synchronized
+     */
+    boolean isUptodate(@Nonnull YangInstanceIdentifier tablePath);
+
+    /**
+     * Register a listener for incremental changes of all tables.
+     *
+     * @param listener listener
+     * @return Listener registration, closing it unregisters the listener
+     */
+    @Nonnull
+    <L extends BmpMonitoredRibsListener> ListenerRegistration<L> registerRibsListener(@Nonnull L listener);
+}
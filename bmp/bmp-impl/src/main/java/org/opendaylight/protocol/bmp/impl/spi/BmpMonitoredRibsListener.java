@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.spi;
+
+import java.util.Collection;
+import java.util.EventListener;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+
+/**
+ * Listener for incremental changes of {@link BmpMonitoredRibs}. Notifications are delivered synchronously from
+ * the thread processing the BMP session, hence implementations should not block.
+ */
+public interface BmpMonitoredRibsListener extends EventListener {
+
+    /**
+     * Invoked when routes of a table were advertised or withdrawn.
+     *
+     * @param tablePath table path
+     * @param advertized routes which were added or replaced
+     * @param withdrawn identifiers of routes which were removed
+     */
+    void onRoutesChanged(@Nonnull YangInstanceIdentifier tablePath,
+            @Nonnull Map<NodeIdentifierWithPredicates, MapEntryNode> advertized,
+            @Nonnull Collection<NodeIdentifierWithPredicates> withdrawn);
+
+    /**
+     * Invoked when a table, including all its routes, was removed, because the monitored peer or router went down.
+     *
+     * @param tablePath table path
+     */
+    void onTableRemoved(@Nonnull YangInstanceIdentifier tablePath);
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.spi;
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.MonitorId;
+
+/**
+ * Provides access to {@link BmpMonitoredRibs} of BMP monitors configured with in-memory RIB storage.
+ */
+public interface BmpMonitoredRibsRegistry {
+
+    /**
+     * Returns in-memory RIBs of a BMP monitor.
+     *
+     * @param monitorId BMP monitor identifier
+     * @return In-memory RIBs, empty if the monitor does not exist or stores its RIBs in the datastore
+     */
+    @Nonnull
+    Optional<BmpMonitoredRibs> getMonitoredRibs(@Nonnull MonitorId monitorId);
+}
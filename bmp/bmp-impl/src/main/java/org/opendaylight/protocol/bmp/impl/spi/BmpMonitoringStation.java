@@ -8,6 +8,14 @@
 
 package org.opendaylight.protocol.bmp.impl.spi;
 
+import java.util.Optional;
+
 public interface BmpMonitoringStation extends AutoCloseable {
 
+    /**
+     * Returns RIBs of monitored routers, if they are kept in memory instead of the operational datastore.
+     *
+     * @return In-memory RIBs, empty if RIBs are stored in the operational datastore
+     */
+    Optional<BmpMonitoredRibs> getMonitoredRibs();
 }
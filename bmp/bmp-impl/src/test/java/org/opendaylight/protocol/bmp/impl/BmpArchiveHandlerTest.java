@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BmpArchiveHandlerTest {
+    private static final int SEGMENT_SIZE = BmpArchiveWriter.RECORD_HEADER_SIZE + 65535;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testArchiveBeforeParsing() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        final ByteBuf first = Unpooled.wrappedBuffer(new byte[]{1, 2, 3});
+        final ByteBuf second = Unpooled.wrappedBuffer(new byte[]{4, 5});
+
+        try (BmpArchiveWriter writer = new BmpArchiveWriter(directory, SEGMENT_SIZE)) {
+            final EmbeddedChannel firstChannel = new EmbeddedChannel(new BmpArchiveHandler(writer));
+            final EmbeddedChannel secondChannel = new EmbeddedChannel(new BmpArchiveHandler(writer));
+
+            // PDUs are passed on untouched to the next stage
+            assertTrue(firstChannel.writeInbound(first));
+            assertSame(first, firstChannel.readInbound());
+            assertEquals(3, first.readableBytes());
+            assertTrue(secondChannel.writeInbound(second));
+            assertSame(second, secondChannel.readInbound());
+
+            // anything but a framed PDU is not archived
+            assertTrue(firstChannel.writeInbound("not a PDU"));
+            assertEquals("not a PDU", firstChannel.readInbound());
+
+            firstChannel.finishAndReleaseAll();
+            secondChannel.finishAndReleaseAll();
+        }
+        // the archive released its reference once the PDUs were written
+        assertEquals(1, first.refCnt());
+        assertEquals(1, second.refCnt());
+
+        final BmpArchiveReader reader = new BmpArchiveReader(directory);
+        assertTrue(reader.next());
+        assertEquals(1, reader.getStreamId());
+        assertEquals(first, reader.getPdu());
+        assertTrue(reader.next());
+        assertEquals(2, reader.getStreamId());
+        assertEquals(second, reader.getPdu());
+        assertFalse(reader.next());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BmpArchiveWriterTest {
+    private static final int SEGMENT_SIZE = BmpArchiveWriter.RECORD_HEADER_SIZE + 65535;
+    private static final int PDU_SIZE = 40000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testArchiveRotationAndReplay() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        final ByteBuf first = createPdu((byte) 1);
+        final ByteBuf second = createPdu((byte) 2);
+
+        try (BmpArchiveWriter writer = new BmpArchiveWriter(directory, SEGMENT_SIZE)) {
+            final int firstStream = writer.newStreamId();
+            final int secondStream = writer.newStreamId();
+            assertNotEquals(firstStream, secondStream);
+
+            writer.append(firstStream, first);
+            writer.append(secondStream, second);
+            // the writer must not consume the PDU, it is parsed afterwards
+            assertEquals(PDU_SIZE, first.readableBytes());
+        }
+        assertTrue(Files.exists(directory.resolve(BmpArchiveWriter.segmentName(1))));
+        assertTrue(Files.exists(directory.resolve(BmpArchiveWriter.segmentName(2))));
+
+        final BmpArchiveReader reader = new BmpArchiveReader(directory);
+        assertTrue(reader.next());
+        assertEquals(1, reader.getStreamId());
+        assertEquals(first, reader.getPdu());
+        assertTrue(reader.next());
+        assertEquals(2, reader.getStreamId());
+        assertEquals(second, reader.getPdu());
+        assertTrue(reader.getTimestamp() > 0);
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testSegmentNumberingContinues() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (BmpArchiveWriter writer = new BmpArchiveWriter(directory, SEGMENT_SIZE)) {
+            writer.append(writer.newStreamId(), createPdu((byte) 1));
+        }
+        try (BmpArchiveWriter writer = new BmpArchiveWriter(directory, SEGMENT_SIZE)) {
+            writer.append(writer.newStreamId(), createPdu((byte) 2));
+        }
+
+        final BmpArchiveReader reader = new BmpArchiveReader(directory);
+        assertTrue(reader.next());
+        assertEquals(createPdu((byte) 1), reader.getPdu());
+        final int firstStream = reader.getStreamId();
+        assertTrue(reader.next());
+        assertEquals(createPdu((byte) 2), reader.getPdu());
+        // sessions recorded by different writers must not be merged on replay
+        assertNotEquals(firstStream, reader.getStreamId());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testStreamIdsContinue() throws Exception {
+        final Path directory = this.folder.getRoot().toPath();
+        try (BmpArchiveWriter writer = new BmpArchiveWriter(directory, SEGMENT_SIZE)) {
+            assertEquals(1, writer.newStreamId());
+            assertEquals(2, writer.newStreamId());
+        }
+        assertTrue(Files.exists(directory.resolve(BmpArchiveWriter.STREAM_ID_FILE)));
+        try (BmpArchiveWriter writer = new BmpArchiveWriter(directory, SEGMENT_SIZE)) {
+            assertEquals(3, writer.newStreamId());
+        }
+    }
+
+    private static ByteBuf createPdu(final byte fill) {
+        final byte[] content = new byte[PDU_SIZE];
+        Arrays.fill(content, fill);
+        return Unpooled.wrappedBuffer(content);
+    }
+}
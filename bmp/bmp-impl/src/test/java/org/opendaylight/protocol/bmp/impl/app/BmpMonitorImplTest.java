@@ -32,6 +32,7 @@ import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import java.math.BigInteger;
 import java.net.InetSocketAddress;
 import java.util.List;
 import org.junit.After;
@@ -92,6 +93,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.moni
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.peers.peer.Stats;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.routers.Router;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.routers.RouterKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.routers.router.RouteIngest;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
 import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
@@ -420,6 +422,11 @@ public class BmpMonitorImplTest extends AbstractConcurrentDataBrokerTest {
             return tables;
         });
 
+        readDataOperational(getDataBroker(), routerIId.child(RouteIngest.class), routeIngest -> {
+            assertEquals(BigInteger.valueOf(6), routeIngest.getReceivedRoutes().getValue());
+            return routeIngest;
+        });
+
         waitWriteAndFlushSuccess(channel.writeAndFlush(TestUtil.createPeerDownNotification(PEER1)));
 
         readDataOperational(getDataBroker(), routerIId, router -> {
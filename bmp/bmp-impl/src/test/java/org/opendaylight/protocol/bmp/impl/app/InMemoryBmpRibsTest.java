@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.app;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.binding.impl.BindingToNormalizedNodeCodec;
+import org.opendaylight.controller.md.sal.binding.test.AbstractConcurrentDataBrokerTest;
+import org.opendaylight.controller.md.sal.binding.test.AbstractDataBrokerTestCustomizer;
+import org.opendaylight.protocol.bgp.inet.RIBActivator;
+import org.opendaylight.protocol.bgp.rib.spi.RIBExtensionProviderContext;
+import org.opendaylight.protocol.bgp.rib.spi.RIBSupport;
+import org.opendaylight.protocol.bgp.rib.spi.SimpleRIBExtensionProviderContext;
+import org.opendaylight.protocol.bmp.impl.spi.BmpMonitoredRibsListener;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.Update;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.UpdateBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.AttributesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.AsPathBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.path.attributes.attributes.OriginBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.NlriBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.message.rev180329.update.message.WithdrawnRoutesBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.rib.rev180329.rib.TablesKey;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.BgpOrigin;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.Ipv4AddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.UnicastSubsequentAddressFamily;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.c.next.hop.Ipv4NextHopCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bgp.types.rev180329.next.hop.c.next.hop.ipv4.next.hop._case.Ipv4NextHopBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.BmpMonitor;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.bmp.monitor.Monitor;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.peers.Peer;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.peers.peer.PrePolicyRib;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.routers.Router;
+import org.opendaylight.yangtools.yang.common.QName;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier.NodeIdentifierWithPredicates;
+import org.opendaylight.yangtools.yang.data.api.schema.MapEntryNode;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNodes;
+
+public class InMemoryBmpRibsTest extends AbstractConcurrentDataBrokerTest {
+    private static final TablesKey IPV4_UNICAST = new TablesKey(Ipv4AddressFamily.class,
+        UnicastSubsequentAddressFamily.class);
+    private static final YangInstanceIdentifier TABLES_ROOT = YangInstanceIdentifier.builder()
+        .node(BmpMonitor.QNAME).node(Monitor.QNAME)
+        .nodeWithKey(Monitor.QNAME, QName.create(Monitor.QNAME, "monitor-id").intern(), "monitor")
+        .node(Router.QNAME).nodeWithKey(Router.QNAME, QName.create(Router.QNAME, "router-id").intern(), "127.0.0.12")
+        .node(Peer.QNAME).nodeWithKey(Peer.QNAME, QName.create(Peer.QNAME, "peer-id").intern(), "20.20.20.20")
+        .node(PrePolicyRib.QNAME).node(TablesUtil.BMP_TABLES_QNAME).build();
+    private static final YangInstanceIdentifier TABLE_ID = YangInstanceIdentifier.builder(TABLES_ROOT)
+        .node(TablesUtil.toYangTablesKey(IPV4_UNICAST)).build();
+    private static final Ipv4Prefix PREFIX_1 = new Ipv4Prefix("1.1.1.0/24");
+    private static final Ipv4Prefix PREFIX_2 = new Ipv4Prefix("2.2.2.0/24");
+
+    @Mock
+    private BmpMonitoredRibsListener listener;
+    private BindingToNormalizedNodeCodec mappingService;
+    private RIBActivator ribActivator;
+    private RIBExtensionProviderContext ribExtension;
+    private InMemoryBmpRibs ribs;
+    private BmpRibInWriter writer;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setup();
+        MockitoAnnotations.initMocks(this);
+
+        this.mappingService.onGlobalContextUpdated(getSchemaContext());
+        this.ribActivator = new RIBActivator();
+        this.ribExtension = new SimpleRIBExtensionProviderContext();
+        this.ribActivator.startRIBExtensionProvider(this.ribExtension, this.mappingService);
+
+        this.ribs = new InMemoryBmpRibs();
+        this.ribs.registerRibsListener(this.listener);
+        this.writer = BmpRibInWriter.create(TABLES_ROOT, this.ribs, this.ribExtension,
+            Collections.singleton(IPV4_UNICAST), this.mappingService.getCodecFactory().create(getSchemaContext()));
+    }
+
+    @Override
+    protected final AbstractDataBrokerTestCustomizer createDataBrokerTestCustomizer() {
+        final AbstractDataBrokerTestCustomizer customizer = super.createDataBrokerTestCustomizer();
+        this.mappingService = customizer.getBindingToNormalized();
+        return customizer;
+    }
+
+    @After
+    public void tearDown() {
+        this.ribActivator.close();
+        this.mappingService.close();
+    }
+
+    @Test
+    public void testAdvertise() {
+        assertEquals(Collections.singleton(TABLE_ID), this.ribs.getTables());
+        assertFalse(this.ribs.isUptodate(TABLE_ID));
+
+        this.writer.onMessage(createAdvertisement(PREFIX_1, PREFIX_2));
+        final Map<NodeIdentifierWithPredicates, MapEntryNode> routes = this.ribs.getRoutes(TABLE_ID);
+        assertEquals(2, routes.size());
+        verify(this.listener).onRoutesChanged(eq(TABLE_ID), anyMap(), eq(Collections.emptyList()));
+
+        // routes sharing attributes share the interned attributes instance
+        final RIBSupport<?, ?, ?, ?> support = this.ribExtension.getRIBSupport(IPV4_UNICAST);
+        final Iterator<MapEntryNode> it = routes.values().iterator();
+        assertSame(NormalizedNodes.findNode(it.next(), support.routeAttributesIdentifier()).get(),
+            NormalizedNodes.findNode(it.next(), support.routeAttributesIdentifier()).get());
+
+        // End-of-RIB
+        this.writer.onMessage(new UpdateBuilder().build());
+        assertTrue(this.ribs.isUptodate(TABLE_ID));
+    }
+
+    @Test
+    public void testWithdraw() {
+        this.writer.onMessage(createAdvertisement(PREFIX_1, PREFIX_2));
+        assertEquals(2, this.ribs.getRoutes(TABLE_ID).size());
+
+        this.writer.onMessage(new UpdateBuilder().setWithdrawnRoutes(Collections.singletonList(
+            new WithdrawnRoutesBuilder().setPrefix(PREFIX_1).build())).build());
+        final Map<NodeIdentifierWithPredicates, MapEntryNode> routes = this.ribs.getRoutes(TABLE_ID);
+        assertEquals(1, routes.size());
+        assertTrue(routes.keySet().iterator().next().getKeyValues().containsValue(PREFIX_2.getValue()));
+        verify(this.listener).onRoutesChanged(eq(TABLE_ID), eq(Collections.emptyMap()), anyCollection());
+
+        // withdrawing an unknown route leaves the table intact
+        this.writer.onMessage(new UpdateBuilder().setWithdrawnRoutes(Collections.singletonList(
+            new WithdrawnRoutesBuilder().setPrefix(PREFIX_1).build())).build());
+        assertEquals(1, this.ribs.getRoutes(TABLE_ID).size());
+    }
+
+    @Test
+    public void testPeerDown() {
+        this.writer.onMessage(createAdvertisement(PREFIX_1, PREFIX_2));
+        assertEquals(2, this.ribs.getRoutes(TABLE_ID).size());
+
+        this.writer.close();
+        assertTrue(this.ribs.getTables().isEmpty());
+        assertTrue(this.ribs.getRoutes(TABLE_ID).isEmpty());
+        assertFalse(this.ribs.isUptodate(TABLE_ID));
+        verify(this.listener).onTableRemoved(TABLE_ID);
+
+        // routes received after the peer went down are ignored
+        this.writer.onMessage(createAdvertisement(PREFIX_1));
+        assertTrue(this.ribs.getRoutes(TABLE_ID).isEmpty());
+        verify(this.listener, times(1)).onRoutesChanged(eq(TABLE_ID), anyMap(), anyCollection());
+    }
+
+    private static Update createAdvertisement(final Ipv4Prefix... prefixes) {
+        return new UpdateBuilder()
+            .setAttributes(new AttributesBuilder()
+                .setOrigin(new OriginBuilder().setValue(BgpOrigin.Igp).build())
+                .setAsPath(new AsPathBuilder().setSegments(Collections.emptyList()).build())
+                .setCNextHop(new Ipv4NextHopCaseBuilder().setIpv4NextHop(new Ipv4NextHopBuilder()
+                    .setGlobal(new Ipv4Address("10.10.10.10")).build()).build())
+                .build())
+            .setNlri(Arrays.stream(prefixes).map(prefix -> new NlriBuilder().setPrefix(prefix).build())
+                .collect(Collectors.toList()))
+            .build();
+    }
+}
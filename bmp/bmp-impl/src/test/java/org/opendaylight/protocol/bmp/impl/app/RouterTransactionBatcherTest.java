@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.protocol.bmp.impl.app;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.controller.md.sal.common.api.data.LogicalDatastoreType;
+import org.opendaylight.controller.md.sal.dom.api.DOMDataWriteTransaction;
+import org.opendaylight.controller.md.sal.dom.api.DOMTransactionChain;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.protocol.bmp.api.BmpSession;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.bmp.monitor.rev180329.routers.Router;
+import org.opendaylight.yangtools.yang.data.api.YangInstanceIdentifier;
+import org.opendaylight.yangtools.yang.data.api.schema.NormalizedNode;
+
+public class RouterTransactionBatcherTest {
+    @Mock
+    private DOMTransactionChain chain;
+    @Mock
+    private DOMDataWriteTransaction firstTx;
+    @Mock
+    private DOMDataWriteTransaction secondTx;
+    @Mock
+    private BmpSession session;
+    @Mock
+    private ScheduledFuture<?> flushFuture;
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private RouterTransactionBatcher batcher;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        doReturn(this.firstTx).doReturn(this.secondTx).when(this.chain).newWriteOnlyTransaction();
+        for (final DOMDataWriteTransaction tx : new DOMDataWriteTransaction[] { this.firstTx, this.secondTx }) {
+            doNothing().when(tx).merge(eq(LogicalDatastoreType.OPERATIONAL), any(YangInstanceIdentifier.class),
+                any(NormalizedNode.class));
+            doReturn(CommitInfo.emptyFluentFuture()).when(tx).commit();
+        }
+        doAnswer(invocation -> {
+            this.scheduled.add(invocation.getArgument(0));
+            return this.flushFuture;
+        }).when(this.session).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        doReturn(true).when(this.flushFuture).cancel(false);
+
+        this.batcher = new RouterTransactionBatcher(this.chain, this.session, YangInstanceIdentifier.of(Router.QNAME));
+    }
+
+    @Test
+    public void testSizeFlush() {
+        this.batcher.write(tx -> RouterTransactionBatcher.MAX_BATCH_ROUTES - 1);
+        verify(this.firstTx, never()).commit();
+
+        this.batcher.write(tx -> 1);
+        verify(this.firstTx).commit();
+        verify(this.flushFuture).cancel(false);
+
+        // the next write opens a new batch
+        this.batcher.write(tx -> 1);
+        verify(this.chain, times(2)).newWriteOnlyTransaction();
+        verify(this.session, times(2)).schedule(any(Runnable.class), eq(RouterTransactionBatcher.MAX_BATCH_DELAY_MS),
+            eq(TimeUnit.MILLISECONDS));
+        verify(this.secondTx, never()).commit();
+    }
+
+    @Test
+    public void testTimeFlush() {
+        this.batcher.write(tx -> 1);
+        this.batcher.write(tx -> 1);
+        verify(this.chain).newWriteOnlyTransaction();
+        verify(this.firstTx, never()).commit();
+
+        this.scheduled.get(0).run();
+        verify(this.firstTx).commit();
+
+        // a deadline of a committed batch does not affect the next one
+        this.batcher.write(tx -> 1);
+        this.scheduled.get(0).run();
+        verify(this.secondTx, never()).commit();
+        this.scheduled.get(1).run();
+        verify(this.secondTx).commit();
+    }
+
+    @Test
+    public void testCloseWithPendingBatch() {
+        this.batcher.write(tx -> 1);
+        this.batcher.close();
+        verify(this.firstTx).commit();
+        verify(this.flushFuture).cancel(false);
+
+        // writes after close are ignored
+        this.batcher.write(tx -> 1);
+        verify(this.chain).newWriteOnlyTransaction();
+        this.scheduled.get(0).run();
+        verify(this.firstTx).commit();
+    }
+
+    @Test
+    public void testClosedSession() {
+        doThrow(new IllegalStateException("Session closed")).when(this.session)
+            .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        this.batcher.write(tx -> 1);
+        verify(this.firstTx).commit();
+    }
+}
@@ -10,6 +10,7 @@ package org.opendaylight.protocol.bmp.mock;
 
 import com.google.common.net.InetAddresses;
 import io.netty.channel.ChannelFuture;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
@@ -77,11 +78,30 @@ public final class BmpMock {
         return futureServers;
     }
 
+    private static List<ChannelFuture> replay(final BmpMockArguments arguments) {
+        final BmpMockReplay replay = new BmpMockReplay(arguments.getLocalAddress().getAddress(),
+                arguments.getRemoteAddress(), arguments.isReplayAtMaxSpeed());
+        try {
+            return replay.replay(arguments.getReplayDirectory());
+        } catch (final IOException e) {
+            replay.close();
+            throw new IllegalArgumentException("Failed to read archive " + arguments.getReplayDirectory(), e);
+        } catch (final InterruptedException e) {
+            replay.close();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while replaying archive", e);
+        }
+    }
+
     public static List<ChannelFuture> deploy(String [] args) {
         LOG.info("Starting BMP test tool.");
         final BmpMockArguments arguments = BmpMockArguments.parseArguments(args);
         LoggerUtil.initiateLogger(arguments);
 
+        if (arguments.getReplayDirectory() != null) {
+            return replay(arguments);
+        }
+
         final BmpMockDispatcher dispatcher = initiateMock(arguments);
         // now start the server / client
         if (arguments.isOnPassiveMode()) {
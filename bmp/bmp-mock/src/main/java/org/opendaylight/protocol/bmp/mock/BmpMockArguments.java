@@ -14,6 +14,8 @@ import ch.qos.logback.classic.Level;
 import com.google.common.net.InetAddresses;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import net.sourceforge.argparse4j.ArgumentParsers;
@@ -46,6 +48,10 @@ public final class BmpMockArguments implements ArgumentsInput {
     private static final String LOG_LEVEL_DST = "log_level";
     // when set to true, the mock will operate as a server listening for incoming active monitoring request
     private static final String PASSIVE_MODE_DST = "passive";
+    // when set, the mock replays BMP PDUs from an archive directory instead of generating messages
+    private static final String REPLAY_DST = "replay";
+    // when set, archived PDUs are replayed as fast as possible instead of at their original pace
+    private static final String REPLAY_MAX_SPEED_DST = "replay_max_speed";
 
     private static final ArgumentParser ARGUMENT_PARSER = initializeArgumentParser();
 
@@ -106,6 +112,14 @@ public final class BmpMockArguments implements ArgumentsInput {
         return this.parseArgs.get(PASSIVE_MODE_DST);
     }
 
+    Path getReplayDirectory() {
+        return this.parseArgs.get(REPLAY_DST);
+    }
+
+    boolean isReplayAtMaxSpeed() {
+        return this.parseArgs.get(REPLAY_MAX_SPEED_DST);
+    }
+
     private static ArgumentParser initializeArgumentParser() {
         final ArgumentParser parser = ArgumentParsers.newArgumentParser(PROGRAM_NAME);
         parser.addArgument(toArgName(ROUTERS_COUNT_DST))
@@ -121,6 +135,10 @@ public final class BmpMockArguments implements ArgumentsInput {
                 .type(Integer.class).setDefault(0);
         parser.addArgument(toArgName(PASSIVE_MODE_DST))
                 .action(Arguments.storeTrue());
+        parser.addArgument(toArgName(REPLAY_DST))
+                .type((ArgumentTypeTool<Path>) input -> Paths.get(input));
+        parser.addArgument(toArgName(REPLAY_MAX_SPEED_DST))
+                .action(Arguments.storeTrue());
         parser.addArgument(toArgName(LOCAL_ADDRESS_DST))
                 .type((parser13, arg, value) -> getInetSocketAddress(value, DEFAULT_LOCAL_PORT))
                 .setDefault(LOCAL_ADDRESS);
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.protocol.bmp.mock;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.net.InetAddresses;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opendaylight.protocol.bmp.impl.BmpArchiveReader;
+import org.opendaylight.protocol.bmp.impl.BmpArchiveWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays an archive recorded by {@link BmpArchiveWriter} towards BMP collectors. Every archived router session is
+ * replayed over its own connection to each collector, originating from a distinct local address, so the collector
+ * sees the same set of monitored routers as when the archive was recorded. PDUs are sent either at their original
+ * pace or as fast as the connections allow.
+ *
+ * <p>Archived frames are fed to the collector's {@link org.opendaylight.protocol.bmp.impl.BmpDispatcherImpl} the same
+ * way monitored routers feed it, i.e. over TCP, so its complete ingest path is exercised. Connections are made with a
+ * plain bootstrap rather than through {@link BmpMockDispatcher}, whose mock sessions would send their own Initiation
+ * and Peer Up messages in addition to the archived ones.
+ */
+final class BmpMockReplay implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(BmpMockReplay.class);
+    private static final int CONNECT_TIMEOUT = 2000;
+    private static final long SHUTDOWN_TIMEOUT = 5;
+
+    private final EventLoopGroup workerGroup = new NioEventLoopGroup();
+    private final Map<Integer, List<Channel>> streams = new HashMap<>();
+    private final List<ChannelFuture> connections = new ArrayList<>();
+    private final List<InetSocketAddress> remoteAddresses;
+    private final boolean maxSpeed;
+    private InetAddress nextLocalAddress;
+
+    BmpMockReplay(final InetAddress localAddress, final List<InetSocketAddress> remoteAddresses,
+            final boolean maxSpeed) {
+        this.nextLocalAddress = requireNonNull(localAddress);
+        this.remoteAddresses = requireNonNull(remoteAddresses);
+        this.maxSpeed = maxSpeed;
+    }
+
+    /**
+     * Replay the archive, returning once all archived PDUs have been sent. Connections are left open, so collectors
+     * keep the replayed sessions, the event loop group is shut down once all of them have been closed.
+     *
+     * @param directory archive directory
+     * @return Futures of all connections established during the replay
+     * @throws IOException if the archive cannot be read
+     * @throws InterruptedException if interrupted while waiting for a connection or for the next PDU
+     */
+    List<ChannelFuture> replay(final Path directory) throws IOException, InterruptedException {
+        final BmpArchiveReader reader = new BmpArchiveReader(directory);
+        final long start = System.nanoTime();
+        long firstTimestamp = -1;
+        long records = 0;
+
+        while (reader.next()) {
+            if (!this.maxSpeed) {
+                if (firstTimestamp < 0) {
+                    firstTimestamp = reader.getTimestamp();
+                }
+                final long delay = TimeUnit.MILLISECONDS.toNanos(reader.getTimestamp() - firstTimestamp)
+                        - (System.nanoTime() - start);
+                if (delay > 0) {
+                    flushAll();
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                }
+            }
+
+            final ByteBuf pdu = reader.getPdu();
+            for (final Channel channel : getStream(reader.getStreamId())) {
+                // When the channel cannot take more data, wait for this PDU to be written out before reading further
+                if (channel.isWritable()) {
+                    channel.write(pdu.retainedDuplicate());
+                } else {
+                    channel.writeAndFlush(pdu.retainedDuplicate()).await();
+                }
+            }
+            pdu.release();
+            records++;
+        }
+
+        flushAll();
+        LOG.info("Replayed {} PDUs of {} sessions from {} in {} ms", records, this.streams.size(), directory,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        shutdownWhenClosed();
+        return this.connections;
+    }
+
+    /**
+     * Close all replayed connections and shut down the event loop group.
+     */
+    @Override
+    public void close() {
+        this.streams.values().forEach(channels -> channels.forEach(Channel::close));
+        this.workerGroup.shutdownGracefully(0, SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    private void shutdownWhenClosed() {
+        final List<Channel> channels = new ArrayList<>();
+        this.streams.values().forEach(channels::addAll);
+        if (channels.isEmpty()) {
+            close();
+            return;
+        }
+
+        final AtomicInteger open = new AtomicInteger(channels.size());
+        for (final Channel channel : channels) {
+            channel.closeFuture().addListener(future -> {
+                if (open.decrementAndGet() == 0) {
+                    LOG.info("All replayed sessions closed");
+                    this.workerGroup.shutdownGracefully(0, SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+                }
+            });
+        }
+    }
+
+    private List<Channel> getStream(final int streamId) throws InterruptedException {
+        List<Channel> channels = this.streams.get(streamId);
+        if (channels == null) {
+            final InetAddress localAddress = this.nextLocalAddress;
+            this.nextLocalAddress = InetAddresses.increment(localAddress);
+
+            channels = new ArrayList<>(this.remoteAddresses.size());
+            for (final InetSocketAddress remoteAddress : this.remoteAddresses) {
+                final ChannelFuture future = createBootstrap().connect(remoteAddress,
+                        new InetSocketAddress(localAddress, 0)).await();
+                this.connections.add(future);
+                if (future.isSuccess()) {
+                    LOG.info("Replaying session {} from {} to {}", streamId, localAddress, remoteAddress);
+                    channels.add(future.channel());
+                } else {
+                    LOG.warn("Failed to connect to {} from {}, skipping session {}", remoteAddress, localAddress,
+                        streamId, future.cause());
+                }
+            }
+            this.streams.put(streamId, channels);
+        }
+        return channels;
+    }
+
+    private void flushAll() {
+        this.streams.values().forEach(channels -> channels.forEach(Channel::flush));
+    }
+
+    private Bootstrap createBootstrap() {
+        return new Bootstrap()
+                .group(this.workerGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.SO_REUSEADDR, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT)
+                .handler(new ChannelInitializer<Channel>() {
+                    @Override
+                    protected void initChannel(final Channel ch) {
+                        // Archived PDUs are written as-is, no codecs are needed
+                    }
+                });
+    }
+}
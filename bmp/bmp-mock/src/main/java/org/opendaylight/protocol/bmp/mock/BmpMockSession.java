@@ -17,6 +17,8 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import org.opendaylight.protocol.bmp.api.BmpSession;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Address;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4Prefix;
@@ -57,6 +59,11 @@ public final class BmpMockSession extends SimpleChannelInboundHandler<Notificati
         return this.remoteAddress.getAddress();
     }
 
+    @Override
+    public ScheduledFuture<?> schedule(final Runnable command, final long delay, final TimeUnit unit) {
+        return this.channel.eventLoop().schedule(command, delay, unit);
+    }
+
     @Override
     protected void channelRead0(final ChannelHandlerContext ctx, final Notification msg) throws Exception {
         // nothing to read
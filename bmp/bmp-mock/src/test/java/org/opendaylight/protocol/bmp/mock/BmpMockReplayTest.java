@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+
+package org.opendaylight.protocol.bmp.mock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.net.InetAddresses;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.nio.NioEventLoopGroup;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.opendaylight.protocol.bgp.parser.spi.pojo.ServiceLoaderBGPExtensionProviderContext;
+import org.opendaylight.protocol.bmp.api.BmpDispatcher;
+import org.opendaylight.protocol.bmp.api.BmpSession;
+import org.opendaylight.protocol.bmp.api.BmpSessionListener;
+import org.opendaylight.protocol.bmp.impl.BmpDispatcherImpl;
+import org.opendaylight.protocol.bmp.impl.session.DefaultBmpSessionFactory;
+import org.opendaylight.protocol.bmp.parser.BmpActivator;
+import org.opendaylight.protocol.bmp.spi.registry.BmpExtensionProviderActivator;
+import org.opendaylight.protocol.bmp.spi.registry.BmpExtensionProviderContext;
+import org.opendaylight.protocol.bmp.spi.registry.SimpleBmpExtensionProviderContext;
+import org.opendaylight.protocol.concepts.KeyMapping;
+import org.opendaylight.protocol.util.InetSocketAddressUtil;
+import org.opendaylight.yangtools.yang.binding.Notification;
+
+public class BmpMockReplayTest {
+
+    private final BmpSessionListener sessionListener = Mockito.mock(BmpSessionListener.class);
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    private BmpExtensionProviderContext ctx;
+    private BmpExtensionProviderActivator bmpActivator;
+    private BmpDispatcher bmpDispatcher;
+
+    @Before
+    public void setUp() {
+        this.ctx = new SimpleBmpExtensionProviderContext();
+        this.bmpActivator = new BmpActivator(ServiceLoaderBGPExtensionProviderContext.getSingletonInstance());
+        this.bmpActivator.start(this.ctx);
+        this.bmpDispatcher = new BmpDispatcherImpl(new NioEventLoopGroup(), new NioEventLoopGroup(),
+            this.ctx.getBmpMessageRegistry(), new DefaultBmpSessionFactory());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.bmpActivator.stop();
+        this.bmpDispatcher.close();
+    }
+
+    @Test(timeout = 20000)
+    public void testReplay() throws Exception {
+        final InetSocketAddress serverAddr = InetSocketAddressUtil.getRandomLoopbackInetSocketAddress();
+        this.bmpDispatcher.createServer(serverAddr, () -> this.sessionListener, KeyMapping.getKeyMapping()).sync();
+
+        // two archived router sessions, each starting with an Initiation message
+        final Path directory = this.folder.getRoot().toPath();
+        final ByteBuf initiation = Unpooled.buffer();
+        this.ctx.getBmpMessageRegistry().serializeMessage(BmpMockUtil.createInitiation(), initiation);
+        final ByteBuf segment = Unpooled.buffer();
+        for (int streamId = 1; streamId <= 2; streamId++) {
+            segment.writeLong(System.currentTimeMillis()).writeInt(streamId).writeInt(initiation.readableBytes())
+                .writeBytes(initiation, initiation.readerIndex(), initiation.readableBytes());
+        }
+        Files.write(directory.resolve("bmp-00000001.archive"), ByteBufUtil.getBytes(segment));
+
+        try (BmpMockReplay replay = new BmpMockReplay(InetAddresses.forString("127.0.0.10"),
+                Collections.singletonList(serverAddr), true)) {
+            final List<ChannelFuture> connections = replay.replay(directory);
+            assertEquals(2, connections.size());
+            connections.forEach(connection -> assertTrue(connection.isSuccess()));
+
+            verify(this.sessionListener, Mockito.timeout(TimeUnit.SECONDS.toMillis(10)).times(2))
+                .onSessionUp(Mockito.any(BmpSession.class));
+            verify(this.sessionListener, Mockito.timeout(TimeUnit.SECONDS.toMillis(10)).times(2))
+                .onMessage(Mockito.any(Notification.class));
+        }
+    }
+}
@@ -10,6 +10,8 @@ package org.opendaylight.protocol.bmp.api;
 
 import io.netty.channel.ChannelInboundHandler;
 import java.net.InetAddress;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * BMP Session represents the finite state machine in BMP, its purpose is to create a BMP connection between
@@ -20,4 +22,14 @@ import java.net.InetAddress;
 public interface BmpSession extends ChannelInboundHandler, AutoCloseable {
 
     InetAddress getRemoteAddress();
+
+    /**
+     * Schedule a task to be executed in the context of the session handling thread.
+     *
+     * @param command the task to execute
+     * @param delay the time from now to delay execution
+     * @param unit the time unit of the delay parameter
+     * @return Future representing the scheduled task.
+     */
+    ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit);
 }
@@ -16,18 +16,19 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import io.netty.util.concurrent.FutureListener;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.concurrent.GuardedBy;
@@ -40,6 +41,7 @@ import org.opendaylight.protocol.pcep.PCEPCloseTermination;
 import org.opendaylight.protocol.pcep.PCEPSession;
 import org.opendaylight.protocol.pcep.PCEPTerminationReason;
 import org.opendaylight.protocol.pcep.TerminationReason;
+import org.opendaylight.protocol.pcep.spi.MessageRegistry;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddressBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.LspObject;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Path1;
@@ -113,6 +115,15 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     private SyncOptimization syncOptimization;
     @GuardedBy("this")
     private boolean triggeredResyncInProcess;
+    /*
+     * Reports coalesced into a single transaction. The batch is committed once it holds the configured number of LSP
+     * updates, once its deadline expires, when state synchronization is achieved and before any other transaction is
+     * allocated on the node's transaction chain.
+     */
+    @GuardedBy("this")
+    private MessageContext reportBatch;
+    @GuardedBy("this")
+    private Timeout reportBatchFlush;
 
     AbstractTopologySessionListener(final ServerSessionManager serverSessionManager) {
         this.serverSessionManager = requireNonNull(serverSessionManager);
@@ -159,6 +170,9 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
 
         onSessionUp(psession, pccBuilder);
         this.synced.set(isSynchronized());
+        if (!this.synced.get()) {
+            this.listenerState.synchronizationStarted();
+        }
 
         pccBuilder.setIpAddress(IpAddressBuilder.getDefaultInstance(peerAddress.getHostAddress()));
         final InstanceIdentifier<Node1> topologyAugment = state.getNodeId().augmentation(Node1.class);
@@ -182,11 +196,13 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             AbstractTopologySessionListener.this.session.close(TerminationReason.UNKNOWN);
             return;
         }
+        flushReports();
         final MessageContext ctx = new MessageContext(this.nodeState.getChain().newWriteOnlyTransaction());
         updatePccNode(ctx, new PathComputationClientBuilder().setStateSync(pccSyncState).build());
         if (pccSyncState != PccSyncState.Synchronized) {
             this.synced.set(false);
             this.triggeredResyncInProcess = true;
+            this.listenerState.synchronizationStarted();
         }
         // All set, commit the modifications
         ctx.trans.commit().addCallback(new FutureCallback<CommitInfo>() {
@@ -218,6 +234,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     private synchronized void tearDown(final PCEPSession psession) {
 
         requireNonNull(psession);
+        flushReports();
         this.serverSessionManager.releaseNodeState(this.nodeState, psession, isLspDbPersisted());
         clearNodeState();
 
@@ -231,6 +248,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
         }
         this.session = null;
         this.syncOptimization = null;
+        discardUnsentRequests();
 
         // Clear all requests we know about
         for (final Entry<S, PCEPRequest> e : this.requests.entrySet()) {
@@ -276,10 +294,21 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             psession.close(TerminationReason.UNKNOWN);
             return;
         }
-        final MessageContext ctx = new MessageContext(this.nodeState.getChain().newWriteOnlyTransaction());
+        final boolean syncing = !this.synced.get();
+        final boolean batched = isReportBatchingEnabled();
+        if (!batched) {
+            flushReports();
+        }
+        final MessageContext ctx = this.reportBatch != null ? this.reportBatch
+                : new MessageContext(this.nodeState.getChain().newWriteOnlyTransaction());
+        final int lspUpdates = ctx.lspUpdates;
 
         if (onMessage(ctx, message)) {
             LOG.warn("Unhandled message {} on session {}", message, psession);
+            if (ctx == this.reportBatch) {
+                // The batch will be committed with the next report
+                return;
+            }
             //cancel not supported, submit empty transaction
             ctx.trans.commit().addCallback(new FutureCallback<CommitInfo>() {
                 @Override
@@ -294,11 +323,59 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             }, MoreExecutors.directExecutor());
             return;
         }
+        if (syncing) {
+            this.listenerState.processReportedLsps(ctx.lspUpdates - lspUpdates);
+        }
+
+        if (!batched) {
+            commitMessage(psession, ctx);
+            return;
+        }
+        this.reportBatch = ctx;
+        if (ctx.lspUpdates >= getReportBatchSize() || !isReportBatchingEnabled()) {
+            // Batch is full or state synchronization has just been achieved
+            flushReports();
+        } else if (this.reportBatchFlush == null) {
+            final Timer timer = getBatchTimer();
+            if (timer != null) {
+                this.reportBatchFlush = timer.newTimeout(timeout -> flushReports(), getReportBatchDelay(),
+                    TimeUnit.MILLISECONDS);
+            } else {
+                flushReports();
+            }
+        }
+    }
+
+    @GuardedBy("this")
+    private boolean isReportBatchingEnabled() {
+        return getReportBatchSize() > 1 && (!this.synced.get() || isReportBatchSynchronized());
+    }
+
+    /**
+     * Commit coalesced reports, if there are any.
+     */
+    private synchronized void flushReports() {
+        if (this.reportBatchFlush != null) {
+            this.reportBatchFlush.cancel();
+            this.reportBatchFlush = null;
+        }
+        final MessageContext ctx = this.reportBatch;
+        if (ctx == null) {
+            return;
+        }
+        this.reportBatch = null;
+        LOG.debug("Committing {} coalesced LSP updates for session {}", ctx.lspUpdates, this.session);
+        commitMessage(this.session, ctx);
+    }
 
+    private void commitMessage(final PCEPSession psession, final MessageContext ctx) {
         ctx.trans.commit().addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
                 LOG.trace("Internal state for session {} updated successfully", psession);
+                if (ctx.synchronizationAchieved) {
+                    AbstractTopologySessionListener.this.listenerState.synchronizationAchieved();
+                }
                 ctx.notifyRequests();
 
             }
@@ -314,6 +391,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
 
     @Override
     public synchronized void close() {
+        flushReports();
         clearNodeState();
         if (this.session != null) {
             LOG.info("Closing session {}", session);
@@ -328,6 +406,11 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
         }
     }
 
+    @Override
+    public final synchronized int getOutstandingRequestsCount() {
+        return this.requests.size();
+    }
+
     final synchronized PCEPRequest removeRequest(final S id) {
         final PCEPRequest ret = this.requests.remove(id);
         if (ret != null) {
@@ -339,8 +422,20 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
 
     final synchronized ListenableFuture<OperationResult> sendMessage(final Message message, final S requestId,
             final Metadata metadata) {
-        final io.netty.util.concurrent.Future<Void> f = this.session.sendMessage(message);
-        this.listenerState.updateStatefulSentMsg(message);
+        final PCEPRequest req = registerRequest(requestId, metadata);
+        sendRequests(message, Collections.singletonMap(requestId, req));
+        return req.getFuture();
+    }
+
+    /**
+     * Register a request, which will be sent to the PCC as part of a message passed to
+     * {@link #sendRequests(Message, Map)}. The request timeout starts running immediately.
+     *
+     * @param requestId request identifier
+     * @param metadata  request metadata
+     * @return registered request
+     */
+    final synchronized PCEPRequest registerRequest(final S requestId, final Metadata metadata) {
         final PCEPRequest req = new PCEPRequest(metadata);
         this.requests.put(requestId, req);
         final short rpcTimeout = this.serverSessionManager.getRpcTimeout();
@@ -348,35 +443,93 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
         if (rpcTimeout > 0) {
             setupTimeoutHandler(requestId, req, rpcTimeout);
         }
+        return req;
+    }
+
+    /**
+     * Send a message carrying one or more requests registered via {@link #registerRequest(Object, Metadata)}.
+     *
+     * @param message message to be sent
+     * @param reqs    requests carried by the message
+     */
+    final synchronized void sendRequests(final Message message, final Map<S, PCEPRequest> reqs) {
+        if (this.session == null) {
+            this.requests.keySet().removeAll(reqs.keySet());
+            reqs.values().forEach(req -> req.done(OperationResults.UNSENT));
+            LOG.info("Session is down, requests {} cancelled", reqs.keySet());
+            return;
+        }
 
+        final io.netty.util.concurrent.Future<Void> f = this.session.sendMessage(message);
+        this.listenerState.updateStatefulSentMsg(message);
         f.addListener((FutureListener<Void>) future -> {
             if (!future.isSuccess()) {
                 synchronized (AbstractTopologySessionListener.this) {
-                    AbstractTopologySessionListener.this.requests.remove(requestId);
+                    AbstractTopologySessionListener.this.requests.keySet().removeAll(reqs.keySet());
                 }
-                req.done(OperationResults.UNSENT);
-                LOG.info("Failed to send request {}, instruction cancelled", requestId, future.cause());
+                reqs.values().forEach(req -> req.done(OperationResults.UNSENT));
+                LOG.info("Failed to send requests {}, instructions cancelled", reqs.keySet(), future.cause());
             } else {
-                req.sent();
-                LOG.trace("Request {} sent to peer (object {})", requestId, req);
+                reqs.values().forEach(PCEPRequest::sent);
+                LOG.trace("Requests {} sent to peer", reqs.keySet());
             }
         });
+    }
 
-        return req.getFuture();
+    final int getLspBatchSize() {
+        return this.serverSessionManager.getLspBatchSize();
+    }
+
+    final int getLspBatchDelay() {
+        return this.serverSessionManager.getLspBatchDelay();
+    }
+
+    final int getReportBatchSize() {
+        return this.serverSessionManager.getReportBatchSize();
+    }
+
+    final int getReportBatchDelay() {
+        return this.serverSessionManager.getReportBatchDelay();
+    }
+
+    /**
+     * Return the timer tracking request timeouts of all sessions.
+     *
+     * @return global timer
+     */
+    final Timer getTimer() {
+        return this.serverSessionManager.getTimer();
+    }
+
+    /**
+     * Return the timer tracking batch flush deadlines of all sessions.
+     *
+     * @return batch timer, null if the topology is not instantiated
+     */
+    final Timer getBatchTimer() {
+        return this.serverSessionManager.getBatchTimer();
+    }
+
+    final MessageRegistry getMessageRegistry() {
+        return this.serverSessionManager.getMessageRegistry();
+    }
+
+    final boolean isReportBatchSynchronized() {
+        return this.serverSessionManager.isReportBatchSynchronized();
     }
 
     private void setupTimeoutHandler(final S requestId, final PCEPRequest req, final short timeout) {
-        final Timer timer = req.getTimer();
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                synchronized (AbstractTopologySessionListener.this) {
-                    AbstractTopologySessionListener.this.requests.remove(requestId);
-                }
-                req.done();
-                LOG.info("Request {} timed-out waiting for response", requestId);
+        final long timeoutNanos = TimeUnit.SECONDS.toNanos(timeout);
+        final long deadline = System.nanoTime() + timeoutNanos;
+        req.setTimeout(getTimer().newTimeout(t -> {
+            final long latency = System.nanoTime() - deadline;
+            synchronized (AbstractTopologySessionListener.this) {
+                AbstractTopologySessionListener.this.requests.remove(requestId);
+                this.listenerState.processRequestTimeout(latency);
             }
-        }, TimeUnit.SECONDS.toMillis(timeout));
+            req.done();
+            LOG.info("Request {} timed-out waiting for response", requestId);
+        }, timeoutNanos, TimeUnit.NANOSECONDS));
         LOG.trace("Set up response timeout handler for request {}", requestId);
     }
 
@@ -432,6 +585,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
 
         final ReportedLsp rl = rlb.build();
         ctx.trans.put(LogicalDatastoreType.OPERATIONAL, this.pccIdentifier.child(ReportedLsp.class, rlb.key()), rl);
+        ctx.lspUpdates++;
         LOG.debug("LSP {} updated to MD-SAL", name);
 
         this.lspData.put(name, rl);
@@ -498,6 +652,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
             this.triggeredResyncInProcess = false;
         }
         updatePccNode(ctx, new PathComputationClientBuilder().setStateSync(PccSyncState.Synchronized).build());
+        ctx.synchronizationAchieved = true;
 
         // The node has completed synchronization, cleanup metadata no longer reported back
         this.nodeState.cleanupExcept(this.lsps.values());
@@ -522,12 +677,21 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
         final String name = this.lsps.remove(id);
         LOG.debug("LSP {} removed", name);
         ctx.trans.delete(LogicalDatastoreType.OPERATIONAL, lspIdentifier(name));
+        ctx.lspUpdates++;
         this.lspData.remove(name);
     }
 
     @SuppressWarnings("checkstyle:OverloadMethodsDeclarationOrder")
     protected abstract void onSessionUp(PCEPSession session, PathComputationClientBuilder pccBuilder);
 
+    /**
+     * Discard messages held back for requests which have not been sent yet, invoked when the session goes down.
+     * The requests themselves remain registered and are failed along with all other outstanding requests.
+     */
+    protected void discardUnsentRequests() {
+        // Nothing is held back by default
+    }
+
     /**
      * Perform revision-specific message processing when a message arrives.
      *
@@ -555,6 +719,7 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
         if (this.nodeState == null) {
             return null;
         }
+        flushReports();
         return this.nodeState.readOperationalData(id);
     }
 
@@ -618,6 +783,8 @@ public abstract class AbstractTopologySessionListener<S, L> implements TopologyS
     static final class MessageContext {
         private final Collection<PCEPRequest> requests = new ArrayList<>();
         private final WriteTransaction trans;
+        private int lspUpdates;
+        private boolean synchronizationAchieved;
 
         private MessageContext(final WriteTransaction trans) {
             this.trans = requireNonNull(trans);
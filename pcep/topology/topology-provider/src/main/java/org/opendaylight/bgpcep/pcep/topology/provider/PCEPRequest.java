@@ -10,7 +10,7 @@ package org.opendaylight.bgpcep.pcep.topology.provider;
 import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
-import java.util.Timer;
+import io.netty.util.Timeout;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.OperationResult;
@@ -35,14 +35,14 @@ final class PCEPRequest {
     private volatile State state;
     @GuardedBy("this")
     private final Stopwatch stopwatch;
-    private final Timer timer;
+    @GuardedBy("this")
+    private Timeout timeout;
 
     PCEPRequest(final Metadata metadata) {
         this.future = SettableFuture.create();
         this.metadata = metadata;
         this.state = State.UNSENT;
         this.stopwatch = Stopwatch.createStarted();
-        this.timer = new Timer();
     }
 
     protected ListenableFuture<OperationResult> getFuture() {
@@ -57,15 +57,22 @@ final class PCEPRequest {
         return this.state;
     }
 
-    Timer getTimer() {
-        return this.timer;
+    synchronized void setTimeout(final Timeout newTimeout) {
+        if (this.state == State.DONE) {
+            newTimeout.cancel();
+        } else {
+            this.timeout = newTimeout;
+        }
     }
 
     synchronized void done(final OperationResult result) {
         if (this.state != State.DONE) {
             LOG.debug("Request went from {} to {}", this.state, State.DONE);
             this.state = State.DONE;
-            this.timer.cancel();
+            if (this.timeout != null) {
+                this.timeout.cancel();
+                this.timeout = null;
+            }
             this.future.set(result);
         }
     }
@@ -14,6 +14,9 @@ import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
@@ -34,6 +37,7 @@ import org.opendaylight.protocol.pcep.PCEPPeerProposal;
 import org.opendaylight.protocol.pcep.PCEPSession;
 import org.opendaylight.protocol.pcep.PCEPSessionListener;
 import org.opendaylight.protocol.pcep.PCEPSessionListenerFactory;
+import org.opendaylight.protocol.pcep.spi.MessageRegistry;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.PcepSessionState;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.open.TlvsBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspArgs;
@@ -67,6 +71,7 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
     private static final Logger LOG = LoggerFactory.getLogger(ServerSessionManager.class);
     private static final long DEFAULT_HOLD_STATE_NANOS = TimeUnit.MINUTES.toNanos(5);
     private static final String FAILURE_MSG = "Failed to find session";
+    private static final long BATCH_TIMER_TICK_MILLIS = 10;
     @VisibleForTesting
     final AtomicBoolean isClosed = new AtomicBoolean(false);
     @GuardedBy("this")
@@ -77,8 +82,19 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
     private final InstanceIdentifier<Topology> topology;
     private final PCEPStatefulPeerProposal peerProposal;
     private final short rpcTimeout;
+    private final int lspBatchSize;
+    private final int lspBatchDelay;
+    private final int reportBatchSize;
+    private final int reportBatchDelay;
+    private final boolean reportBatchSynchronized;
     private final PCEPTopologyProviderDependencies dependenciesProvider;
     private final PCEPDispatcherDependencies pcepDispatcherDependencies;
+    /*
+     * Batch flush deadlines are configured in milliseconds, hence they are tracked by a timer with a finer tick than
+     * the global one. It is accessed by session listeners while they hold their own lock, hence it is not guarded
+     * by this object.
+     */
+    private volatile Timer batchTimer;
 
     ServerSessionManager(
             final PCEPTopologyProviderDependencies dependenciesProvider,
@@ -90,6 +106,11 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         this.peerProposal = PCEPStatefulPeerProposal
                 .createStatefulPeerProposal(this.dependenciesProvider.getDataBroker(), this.topology);
         this.rpcTimeout = configDependencies.getRpcTimeout();
+        this.lspBatchSize = configDependencies.getLspBatchSize();
+        this.lspBatchDelay = configDependencies.getLspBatchDelay();
+        this.reportBatchSize = configDependencies.getReportBatchSize();
+        this.reportBatchDelay = configDependencies.getReportBatchDelay();
+        this.reportBatchSynchronized = configDependencies.isReportBatchSynchronized();
         this.pcepDispatcherDependencies = new PCEPDispatcherDependenciesImpl(this, configDependencies);
     }
 
@@ -109,6 +130,9 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
                         .addAugmentation(TopologyTypes1.class, new TopologyTypes1Builder().setTopologyPcep(
                                 new TopologyPcepBuilder().build()).build()).build())
                 .setNode(new ArrayList<>()).build(), true);
+        this.batchTimer = new HashedWheelTimer(new ThreadFactoryBuilder()
+            .setNameFormat("pcep-batch-flush-%d").setDaemon(true).build(), BATCH_TIMER_TICK_MILLIS,
+            TimeUnit.MILLISECONDS);
         try {
             tx.commit().get();
             LOG.info("PCEP Topology {} created successfully.", topologyId.getValue());
@@ -232,6 +256,10 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
             topologyNodeState.close();
         }
         this.state.clear();
+        if (this.batchTimer != null) {
+            this.batchTimer.stop();
+            this.batchTimer = null;
+        }
 
         final WriteTransaction t = this.dependenciesProvider.getDataBroker().newWriteOnlyTransaction();
         t.delete(LogicalDatastoreType.OPERATIONAL, this.topology);
@@ -261,6 +289,38 @@ final class ServerSessionManager implements PCEPSessionListenerFactory, Topology
         return this.rpcTimeout;
     }
 
+    int getLspBatchSize() {
+        return this.lspBatchSize;
+    }
+
+    int getLspBatchDelay() {
+        return this.lspBatchDelay;
+    }
+
+    Timer getTimer() {
+        return this.dependenciesProvider.getTimer();
+    }
+
+    Timer getBatchTimer() {
+        return this.batchTimer;
+    }
+
+    MessageRegistry getMessageRegistry() {
+        return this.dependenciesProvider.getMessageRegistry();
+    }
+
+    int getReportBatchSize() {
+        return this.reportBatchSize;
+    }
+
+    int getReportBatchDelay() {
+        return this.reportBatchDelay;
+    }
+
+    boolean isReportBatchSynchronized() {
+        return this.reportBatchSynchronized;
+    }
+
     @Override
     public synchronized void bind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId,
             final PcepSessionState sessionState) {
@@ -15,20 +15,28 @@ import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import java.net.InetAddress;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.protocol.pcep.PCEPSession;
 import org.opendaylight.protocol.pcep.spi.PCEPErrors;
+import org.opendaylight.protocol.pcep.spi.PCEPMessageConstants;
 import org.opendaylight.protocol.pcep.spi.PSTUtil;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.controller.pcep.sync.optimizations.rev181109.PathComputationClient1;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.controller.pcep.sync.optimizations.rev181109.PathComputationClient1Builder;
@@ -62,6 +70,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.iet
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.pcerr.pcerr.message.error.type.stateful._case.stateful.Srps;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.pcrpt.message.pcrpt.message.Reports;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.pcupd.message.PcupdMessageBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.pcupd.message.pcupd.message.Updates;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.pcupd.message.pcupd.message.UpdatesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.pcupd.message.pcupd.message.updates.PathBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.srp.object.Srp;
@@ -82,6 +91,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.RemoveLspArgs;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.TriggerSyncArgs;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.UpdateLspArgs;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.lsp.metadata.Metadata;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.PathComputationClient;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.PathComputationClientBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.path.computation.client.ReportedLsp;
@@ -95,6 +105,11 @@ import org.slf4j.LoggerFactory;
 
 class Stateful07TopologySessionListener extends AbstractTopologySessionListener<SrpIdNumber, PlspId> {
     private static final Logger LOG = LoggerFactory.getLogger(Stateful07TopologySessionListener.class);
+    /*
+     * The PCEP message length field is 16 bits wide and includes the common header, hence a batch must not encode
+     * to more than this many bytes of message body.
+     */
+    private static final int MAX_BATCH_LENGTH = 0xFFFF - PCEPMessageConstants.COMMON_HEADER_LENGTH;
 
     private final AtomicLong requestId = new AtomicLong(1L);
 
@@ -105,6 +120,19 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
     private final AtomicBoolean lspUpdateCapability = new AtomicBoolean(false);
     private final AtomicBoolean initiationCapability = new AtomicBoolean(false);
 
+    /*
+     * LSP operations waiting to be coalesced into a single PCUpd or PCInitiate message. At most one of the update and
+     * initiate lists is non-empty at any time, so operations are never reordered.
+     */
+    @GuardedBy("this")
+    private final Map<SrpIdNumber, PCEPRequest> batchedRequests = new LinkedHashMap<>();
+    @GuardedBy("this")
+    private final List<Updates> batchedUpdates = new ArrayList<>();
+    @GuardedBy("this")
+    private final List<Requests> batchedInitiates = new ArrayList<>();
+    @GuardedBy("this")
+    private Timeout batchFlush;
+
     /**
      * Creates a new stateful topology session listener for given server session manager.
      */
@@ -417,11 +445,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
             if (reportedLsp == null) {
                 return OperationResults.createUnsent(PCEPErrors.UNKNOWN_PLSP_ID).future();
             }
-            final PcinitiateMessageBuilder ib = new PcinitiateMessageBuilder(MESSAGE_HEADER);
-            final Requests rb = buildRequest(rep, reportedLsp);
-            ib.setRequests(Collections.singletonList(rb));
-            return sendMessage(new PcinitiateBuilder().setPcinitiateMessage(ib.build()).build(),
-                    rb.getSrp().getOperationId(), null);
+            return sendInitiate(buildRequest(rep, reportedLsp), null);
         }, MoreExecutors.directExecutor());
     }
 
@@ -445,7 +469,7 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
             final UpdateLspArgs input) {
         // the D bit that was reported decides the type of PCE message sent
         requireNonNull(reportedLsp.isDelegate());
-        final Message msg;
+        final Metadata metadata = input.getArguments().getMetadata();
         if (reportedLsp.isDelegate()) {
             // we already have delegation, send update
             final UpdatesBuilder rb = new UpdatesBuilder();
@@ -454,27 +478,162 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
             final PathBuilder pb = new PathBuilder();
             pb.fieldsFrom(input.getArguments());
             rb.setPath(pb.build());
-            final PcupdMessageBuilder ub = new PcupdMessageBuilder(MESSAGE_HEADER);
-            ub.setUpdates(Collections.singletonList(rb.build()));
-            msg = new PcupdBuilder().setPcupdMessage(ub.build()).build();
-        } else {
-            final Lsp1 lspCreateFlag = reportedLsp.augmentation(Lsp1.class);
-            // we only retake delegation for PCE initiated tunnels
-            if (lspCreateFlag != null && !lspCreateFlag.isCreate()) {
-                LOG.warn("Unable to retake delegation of PCC-initiated tunnel: {}", reportedLsp);
-                return OperationResults.createUnsent(PCEPErrors.UPDATE_REQ_FOR_NON_LSP).future();
+            return sendUpdate(rb.build(), metadata);
+        }
+        final Lsp1 lspCreateFlag = reportedLsp.augmentation(Lsp1.class);
+        // we only retake delegation for PCE initiated tunnels
+        if (lspCreateFlag != null && !lspCreateFlag.isCreate()) {
+            LOG.warn("Unable to retake delegation of PCC-initiated tunnel: {}", reportedLsp);
+            return OperationResults.createUnsent(PCEPErrors.UPDATE_REQ_FOR_NON_LSP).future();
+        }
+        // we want to revoke delegation, different type of message
+        // is sent because of specification by Siva
+        // this message is also sent, when input delegate bit is set to 0
+        // generating an error in PCC
+        return sendInitiate(new RequestsBuilder().setSrp(srp).setLsp(lsp).build(), metadata);
+    }
+
+    /**
+     * Send a PCUpd update request. If LSP operation batching is enabled, the request is coalesced with other pending
+     * update requests.
+     */
+    private synchronized ListenableFuture<OperationResult> sendUpdate(final Updates update,
+            final Metadata metadata) {
+        final SrpIdNumber srpId = update.getSrp().getOperationId();
+        if (getLspBatchSize() <= 1) {
+            return sendMessage(createPcupd(Collections.singletonList(update)), srpId, metadata);
+        }
+        if (!this.batchedInitiates.isEmpty()) {
+            flushBatch();
+        }
+        this.batchedUpdates.add(update);
+        return enqueueBatched(srpId, metadata);
+    }
+
+    /**
+     * Send a PCInitiate request. If LSP operation batching is enabled, the request is coalesced with other pending
+     * initiate requests.
+     */
+    private synchronized ListenableFuture<OperationResult> sendInitiate(final Requests request,
+            final Metadata metadata) {
+        final SrpIdNumber srpId = request.getSrp().getOperationId();
+        if (getLspBatchSize() <= 1) {
+            return sendMessage(createPcinitiate(Collections.singletonList(request)), srpId, metadata);
+        }
+        if (!this.batchedUpdates.isEmpty()) {
+            flushBatch();
+        }
+        this.batchedInitiates.add(request);
+        return enqueueBatched(srpId, metadata);
+    }
+
+    @GuardedBy("this")
+    private ListenableFuture<OperationResult> enqueueBatched(final SrpIdNumber srpId, final Metadata metadata) {
+        final PCEPRequest req = registerRequest(srpId, metadata);
+        this.batchedRequests.put(srpId, req);
+        if (this.batchedRequests.size() >= getLspBatchSize()) {
+            flushBatch();
+        } else if (this.batchFlush == null) {
+            final Timer timer = getBatchTimer();
+            if (timer != null) {
+                this.batchFlush = timer.newTimeout(timeout -> flushBatch(), getLspBatchDelay(), TimeUnit.MILLISECONDS);
+            } else {
+                flushBatch();
             }
-            // we want to revoke delegation, different type of message
-            // is sent because of specification by Siva
-            // this message is also sent, when input delegate bit is set to 0
-            // generating an error in PCC
-            final List<Requests> reqs = new ArrayList<>();
-            reqs.add(new RequestsBuilder().setSrp(srp).setLsp(lsp).build());
-            final PcinitiateMessageBuilder ib = new PcinitiateMessageBuilder();
-            ib.setRequests(reqs);
-            msg = new PcinitiateBuilder().setPcinitiateMessage(ib.build()).build();
         }
-        return sendMessage(msg, srp.getOperationId(), input.getArguments().getMetadata());
+        return req.getFuture();
+    }
+
+    private synchronized void flushBatch() {
+        if (this.batchFlush != null) {
+            this.batchFlush.cancel();
+            this.batchFlush = null;
+        }
+        if (this.batchedRequests.isEmpty()) {
+            return;
+        }
+
+        LOG.debug("Sending {} batched LSP operations", this.batchedRequests.size());
+        final List<SrpIdNumber> ids = new ArrayList<>(this.batchedRequests.keySet());
+        final List<PCEPRequest> reqs = new ArrayList<>(this.batchedRequests.values());
+        if (!this.batchedUpdates.isEmpty()) {
+            sendBatch(new ArrayList<>(this.batchedUpdates), ids, reqs, Stateful07TopologySessionListener::createPcupd);
+        } else {
+            sendBatch(new ArrayList<>(this.batchedInitiates), ids, reqs,
+                Stateful07TopologySessionListener::createPcinitiate);
+        }
+        clearBatch();
+    }
+
+    @GuardedBy("this")
+    private void clearBatch() {
+        this.batchedRequests.clear();
+        this.batchedUpdates.clear();
+        this.batchedInitiates.clear();
+    }
+
+    /*
+     * Operations are not serialized when they are batched, the length of a batch is checked only when it is sent and
+     * carries more than one operation. A batch which would not fit a single PCEP message is split in halves.
+     */
+    @GuardedBy("this")
+    private <T> void sendBatch(final List<T> ops, final List<SrpIdNumber> ids, final List<PCEPRequest> reqs,
+            final Function<List<T>, Message> messageFactory) {
+        final Message msg = messageFactory.apply(ops);
+        final int size = ops.size();
+        if (size > 1 && getBodyLength(msg) > MAX_BATCH_LENGTH) {
+            final int half = size / 2;
+            LOG.debug("Splitting {} batched LSP operations exceeding PCEP message length", size);
+            sendBatch(ops.subList(0, half), ids.subList(0, half), reqs.subList(0, half), messageFactory);
+            sendBatch(ops.subList(half, size), ids.subList(half, size), reqs.subList(half, size), messageFactory);
+            return;
+        }
+
+        final Map<SrpIdNumber, PCEPRequest> requests = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            requests.put(ids.get(i), reqs.get(i));
+        }
+        sendRequests(msg, requests);
+    }
+
+    /*
+     * Pending batched operations have not been sent, their requests are failed as unsent by the caller.
+     */
+    @Override
+    protected synchronized void discardUnsentRequests() {
+        if (this.batchFlush != null) {
+            this.batchFlush.cancel();
+            this.batchFlush = null;
+        }
+        if (!this.batchedRequests.isEmpty()) {
+            LOG.debug("Discarding {} batched LSP operations", this.batchedRequests.size());
+            clearBatch();
+        }
+    }
+
+    /**
+     * Return the length of a serialized message, not including the common header.
+     */
+    private int getBodyLength(final Message message) {
+        final ByteBuf buf = Unpooled.buffer();
+        try {
+            getMessageRegistry().serializeMessage(message, buf);
+            return buf.readableBytes() - PCEPMessageConstants.COMMON_HEADER_LENGTH;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static Message createPcupd(final List<Updates> updates) {
+        final PcupdMessageBuilder ub = new PcupdMessageBuilder(MESSAGE_HEADER);
+        ub.setUpdates(updates);
+        return new PcupdBuilder().setPcupdMessage(ub.build()).build();
+    }
+
+    private static Message createPcinitiate(final List<Requests> requests) {
+        final PcinitiateMessageBuilder ib = new PcinitiateMessageBuilder(MESSAGE_HEADER);
+        ib.setRequests(requests);
+        return new PcinitiateBuilder().setPcinitiateMessage(ib.build()).build();
     }
 
     @Override
@@ -747,12 +906,8 @@ class Stateful07TopologySessionListener extends AbstractTopologySessionListener<
             rb.setLsp(new LspBuilder().setAdministrative(inputLsp.isAdministrative()).setDelegate(
                     inputLsp.isDelegate()).setPlspId(new PlspId(0L)).setTlvs(tlvsBuilder.build()).build());
 
-            final PcinitiateMessageBuilder ib = new PcinitiateMessageBuilder(MESSAGE_HEADER);
-            ib.setRequests(Collections.singletonList(rb.build()));
-
             // Send the message
-            return sendMessage(new PcinitiateBuilder().setPcinitiateMessage(ib.build()).build(),
-                    rb.getSrp().getOperationId(), this.input.getArguments().getMetadata());
+            return sendInitiate(rb.build(), this.input.getArguments().getMetadata());
         }
     }
 
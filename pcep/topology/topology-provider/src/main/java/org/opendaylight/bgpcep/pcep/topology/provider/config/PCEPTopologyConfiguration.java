@@ -21,10 +21,20 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 
 public final class PCEPTopologyConfiguration {
+    private static final int DEFAULT_LSP_BATCH_SIZE = 1;
+    private static final int DEFAULT_LSP_BATCH_DELAY = 10;
+    private static final int DEFAULT_REPORT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_REPORT_BATCH_DELAY = 10;
+
     private final InetSocketAddress address;
     private final KeyMapping keys;
     private final TopologyId topologyId;
     private final short rpcTimeout;
+    private final int lspBatchSize;
+    private final int lspBatchDelay;
+    private final int reportBatchSize;
+    private final int reportBatchDelay;
+    private final boolean reportBatchSynchronized;
     private final SpeakerIdMapping speakerIds;
     private final InstanceIdentifier<Topology> topology;
 
@@ -36,6 +46,13 @@ public final class PCEPTopologyConfiguration {
         this.speakerIds = requireNonNull(PCEPTopologyProviderUtil.contructSpeakersId(topology));
         this.topologyId = requireNonNull(topology.getTopologyId());
         this.rpcTimeout = config.getRpcTimeout();
+        this.lspBatchSize = config.getLspBatchSize() != null ? config.getLspBatchSize() : DEFAULT_LSP_BATCH_SIZE;
+        this.lspBatchDelay = config.getLspBatchDelay() != null ? config.getLspBatchDelay() : DEFAULT_LSP_BATCH_DELAY;
+        this.reportBatchSize = config.getReportBatchSize() != null ? config.getReportBatchSize()
+                : DEFAULT_REPORT_BATCH_SIZE;
+        this.reportBatchDelay = config.getReportBatchDelay() != null ? config.getReportBatchDelay()
+                : DEFAULT_REPORT_BATCH_DELAY;
+        this.reportBatchSynchronized = Boolean.TRUE.equals(config.isReportBatchSynchronized());
         this.topology = InstanceIdentifier.builder(NetworkTopology.class)
                 .child(Topology.class, new TopologyKey(this.topologyId)).build();
     }
@@ -54,6 +71,26 @@ public final class PCEPTopologyConfiguration {
         return this.rpcTimeout;
     }
 
+    public int getLspBatchSize() {
+        return this.lspBatchSize;
+    }
+
+    public int getLspBatchDelay() {
+        return this.lspBatchDelay;
+    }
+
+    public int getReportBatchSize() {
+        return this.reportBatchSize;
+    }
+
+    public int getReportBatchDelay() {
+        return this.reportBatchDelay;
+    }
+
+    public boolean isReportBatchSynchronized() {
+        return this.reportBatchSynchronized;
+    }
+
     @Nonnull
     public InetSocketAddress getAddress() {
         return this.address;
@@ -11,6 +11,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.FluentFuture;
+import io.netty.util.Timer;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceRegist
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.protocol.pcep.PCEPCapability;
 import org.opendaylight.protocol.pcep.PCEPDispatcher;
+import org.opendaylight.protocol.pcep.spi.MessageRegistry;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
@@ -47,6 +49,8 @@ public final class PCEPTopologyProviderBean implements PCEPTopologyProviderDepen
     private final BundleContext bundleContext;
     private final ClusterSingletonServiceProvider cssp;
     private final TopologySessionStatsRegistry stateRegistry;
+    private final Timer timer;
+    private final MessageRegistry messageRegistry;
     @GuardedBy("this")
     private PCEPTopologyProviderBeanCSS pcepTopoProviderCSS;
 
@@ -57,7 +61,9 @@ public final class PCEPTopologyProviderBean implements PCEPTopologyProviderDepen
             final PCEPDispatcher pcepDispatcher,
             final RpcProviderService rpcProviderRegistry,
             final TopologySessionListenerFactory sessionListenerFactory,
-            final TopologySessionStatsRegistry stateRegistry) {
+            final TopologySessionStatsRegistry stateRegistry,
+            final Timer timer,
+            final MessageRegistry messageRegistry) {
         this.cssp = requireNonNull(cssp);
         this.bundleContext = requireNonNull(bundleContext);
         this.pcepDispatcher = requireNonNull(pcepDispatcher);
@@ -65,6 +71,8 @@ public final class PCEPTopologyProviderBean implements PCEPTopologyProviderDepen
         this.sessionListenerFactory = requireNonNull(sessionListenerFactory);
         this.rpcProviderRegistry = requireNonNull(rpcProviderRegistry);
         this.stateRegistry = requireNonNull(stateRegistry);
+        this.timer = requireNonNull(timer);
+        this.messageRegistry = requireNonNull(messageRegistry);
         final List<PCEPCapability> capabilities = this.pcepDispatcher.getPCEPSessionNegotiatorFactory()
                 .getPCEPSessionProposalFactory().getCapabilities();
         final boolean statefulCapability = capabilities.stream().anyMatch(PCEPCapability::isStateful);
@@ -126,6 +134,16 @@ public final class PCEPTopologyProviderBean implements PCEPTopologyProviderDepen
         return this.stateRegistry;
     }
 
+    @Override
+    public Timer getTimer() {
+        return this.timer;
+    }
+
+    @Override
+    public MessageRegistry getMessageRegistry() {
+        return this.messageRegistry;
+    }
+
     private static class PCEPTopologyProviderBeanCSS implements ClusterSingletonService, AutoCloseable {
         private final ServiceGroupIdentifier sgi;
         private final PCEPTopologyProvider pcepTopoProvider;
@@ -8,12 +8,14 @@
 package org.opendaylight.bgpcep.pcep.topology.provider.config;
 
 import com.google.common.annotations.Beta;
+import io.netty.util.Timer;
 import javax.annotation.Nonnull;
 import org.opendaylight.bgpcep.pcep.topology.provider.TopologySessionListenerFactory;
 import org.opendaylight.bgpcep.pcep.topology.spi.stats.TopologySessionStatsRegistry;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.RpcProviderService;
 import org.opendaylight.protocol.pcep.PCEPDispatcher;
+import org.opendaylight.protocol.pcep.spi.MessageRegistry;
 
 /**
  * Provides required dependencies for PCEPTopologyProviderProvider instantiation.
@@ -59,4 +61,20 @@ public interface PCEPTopologyProviderDependencies {
      */
     @Nonnull
     TopologySessionStatsRegistry getStateRegistry();
+
+    /**
+     * Timer tracking request timeouts and batch deadlines of all sessions.
+     *
+     * @return Timer
+     */
+    @Nonnull
+    Timer getTimer();
+
+    /**
+     * Message Registry, used to size batched LSP operations.
+     *
+     * @return MessageRegistry
+     */
+    @Nonnull
+    MessageRegistry getMessageRegistry();
 }
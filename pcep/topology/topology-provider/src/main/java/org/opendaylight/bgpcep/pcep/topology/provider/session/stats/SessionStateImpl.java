@@ -11,6 +11,8 @@ package org.opendaylight.bgpcep.pcep.topology.provider.session.stats;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
 import org.opendaylight.protocol.pcep.PCEPSessionState;
@@ -21,11 +23,14 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.cra
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Pcupd;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.PcepEntityIdStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.PcepEntityIdStatsAugBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.RequestTimeoutStatsAug;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.RequestTimeoutStatsAugBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StateSyncStatsAug;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StateSyncStatsAugBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StatefulCapabilitiesStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StatefulCapabilitiesStatsAugBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StatefulMessagesStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StatefulMessagesStatsAugBuilder;
-import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.PcepSessionState;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.LocalPref;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.LocalPrefBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.Messages;
@@ -33,13 +38,20 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.sta
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.PeerCapabilities;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.PeerCapabilitiesBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.PeerPref;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.grouping.PcepSessionState;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.reply.time.grouping.ReplyTime;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.reply.time.grouping.ReplyTimeBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.Message;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.Open;
+import org.opendaylight.yangtools.yang.binding.Augmentation;
+import org.opendaylight.yangtools.yang.binding.AugmentationHolder;
 import org.opendaylight.yangtools.yang.binding.DataContainer;
 
-public final class SessionStateImpl implements PcepSessionState {
+/**
+ * Live view of PCEP session statistics. Statistics which are not part of the base session state model are exposed
+ * as augmentations of the published session state.
+ */
+public final class SessionStateImpl implements PcepSessionState, AugmentationHolder<PcepSessionState> {
     private final LongAdder lastReceivedRptMsgTimestamp = new LongAdder();
     private final LongAdder receivedRptMsgCount = new LongAdder();
     private final LongAdder sentUpdMsgCount = new LongAdder();
@@ -50,6 +62,14 @@ public final class SessionStateImpl implements PcepSessionState {
     private final LongAdder maxReplyTime = new LongAdder();
     private final LongAdder totalTime = new LongAdder();
     private final LongAdder reqCount = new LongAdder();
+    private final LongAdder timedOutReqCount = new LongAdder();
+    private long lastTimeoutLatency;
+    private long maxTimeoutLatency;
+    private boolean syncInProgress;
+    private long syncStartNanos;
+    private long syncLspCount;
+    private long lastSyncDuration;
+    private long lastSyncLspCount;
     private final TopologySessionStats topologySessionStats;
     private LocalPref localPref;
     private PeerPref peerPref;
@@ -96,6 +116,98 @@ public final class SessionStateImpl implements PcepSessionState {
         this.reqCount.increment();
     }
 
+    /**
+     * Record a request which has timed out.
+     *
+     * @param latency delay in nanoseconds between the request deadline and the timeout being processed
+     */
+    public synchronized void processRequestTimeout(final long latency) {
+        this.timedOutReqCount.increment();
+        this.lastTimeoutLatency = latency;
+        if (latency > this.maxTimeoutLatency) {
+            this.maxTimeoutLatency = latency;
+        }
+    }
+
+    /**
+     * Record the start of LSP state synchronization with the PCC.
+     */
+    public synchronized void synchronizationStarted() {
+        this.syncInProgress = true;
+        this.syncStartNanos = System.nanoTime();
+        this.syncLspCount = 0;
+    }
+
+    /**
+     * Record LSP updates reported by the PCC. Only updates reported while state synchronization is in progress are
+     * accounted for.
+     *
+     * @param lsps number of reported LSP updates
+     */
+    public synchronized void processReportedLsps(final int lsps) {
+        if (this.syncInProgress) {
+            this.syncLspCount += lsps;
+        }
+    }
+
+    /**
+     * Record the completion of LSP state synchronization, once its results have been committed to the datastore.
+     */
+    public synchronized void synchronizationAchieved() {
+        if (!this.syncInProgress) {
+            return;
+        }
+        this.syncInProgress = false;
+        this.lastSyncDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.syncStartNanos);
+        this.lastSyncLspCount = this.syncLspCount;
+    }
+
+    /**
+     * Return the duration of the last completed state synchronization.
+     *
+     * @return duration in milliseconds
+     */
+    public synchronized long getLastSyncDuration() {
+        return this.lastSyncDuration;
+    }
+
+    /**
+     * Return the number of LSP updates reported during the last completed state synchronization.
+     *
+     * @return number of LSP updates
+     */
+    public synchronized long getLastSyncLspCount() {
+        return this.lastSyncLspCount;
+    }
+
+    /**
+     * Return the rate at which LSP updates were processed during the last completed state synchronization.
+     *
+     * @return LSP updates per second
+     */
+    public synchronized long getLastSyncLspRate() {
+        if (this.lastSyncDuration == 0) {
+            return this.lastSyncLspCount;
+        }
+        return this.lastSyncLspCount * 1000 / this.lastSyncDuration;
+    }
+
+    public int getOutstandingRequestsCount() {
+        return this.topologySessionStats.getOutstandingRequestsCount();
+    }
+
+    public long getTimedOutRequestsCount() {
+        return this.timedOutReqCount.longValue();
+    }
+
+    public synchronized long getLastTimeoutLatency() {
+        return this.lastTimeoutLatency;
+    }
+
+    public synchronized long getMaxTimeoutLatency() {
+        return this.maxTimeoutLatency;
+    }
+
     public synchronized void updateLastReceivedRptMsg() {
         this.lastReceivedRptMsgTimestamp.reset();
         this.lastReceivedRptMsgTimestamp.add(StatisticsUtil.getCurrentTimestampInSeconds());
@@ -142,6 +254,34 @@ public final class SessionStateImpl implements PcepSessionState {
                 .build();
     }
 
+    @Override
+    public Map<Class<? extends Augmentation<PcepSessionState>>, Augmentation<PcepSessionState>> augmentations() {
+        return ImmutableMap.of(RequestTimeoutStatsAug.class, createRequestTimeoutStats(),
+                StateSyncStatsAug.class, createStateSyncStats());
+    }
+
+    @Override
+    public <A extends Augmentation<PcepSessionState>> A augmentation(final Class<A> augmentationType) {
+        return augmentationType.cast(augmentations().get(augmentationType));
+    }
+
+    private synchronized RequestTimeoutStatsAug createRequestTimeoutStats() {
+        return new RequestTimeoutStatsAugBuilder()
+                .setOutstandingRequestsCount((long) getOutstandingRequestsCount())
+                .setTimedOutRequestsCount(this.timedOutReqCount.longValue())
+                .setLastTimeoutLatency(TimeUnit.NANOSECONDS.toMillis(this.lastTimeoutLatency))
+                .setMaxTimeoutLatency(TimeUnit.NANOSECONDS.toMillis(this.maxTimeoutLatency))
+                .build();
+    }
+
+    private synchronized StateSyncStatsAug createStateSyncStats() {
+        return new StateSyncStatsAugBuilder()
+                .setLastSyncDuration(this.lastSyncDuration)
+                .setLastSyncLspCount(this.lastSyncLspCount)
+                .setLastSyncLspRate(getLastSyncLspRate())
+                .build();
+    }
+
     private StatefulMessagesStatsAug createStatefulMessages() {
         return new StatefulMessagesStatsAugBuilder()
                 .setLastReceivedRptMsgTimestamp(this.lastReceivedRptMsgTimestamp.longValue())
@@ -180,6 +320,6 @@ public final class SessionStateImpl implements PcepSessionState {
 
     @Override
     public Class<? extends DataContainer> getImplementedInterface() {
-        return null;
+        return PcepSessionState.class;
     }
 }
@@ -50,4 +50,11 @@ public interface TopologySessionStats {
      * @return status
      */
     int getDelegatedLspsCount();
+
+    /**
+     * Return the number of requests sent to PCC, which have not been completed yet.
+     *
+     * @return number of outstanding requests
+     */
+    int getOutstandingRequestsCount();
 }
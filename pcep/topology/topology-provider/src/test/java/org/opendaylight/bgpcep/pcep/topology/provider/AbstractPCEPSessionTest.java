@@ -21,6 +21,8 @@ import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoop;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
 import io.netty.util.concurrent.Promise;
 import java.lang.reflect.ParameterizedType;
 import java.net.InetSocketAddress;
@@ -40,6 +42,7 @@ import org.opendaylight.mdsal.binding.dom.adapter.test.AbstractConcurrentDataBro
 import org.opendaylight.protocol.pcep.PCEPSessionListener;
 import org.opendaylight.protocol.pcep.impl.DefaultPCEPSessionNegotiator;
 import org.opendaylight.protocol.pcep.impl.PCEPSessionImpl;
+import org.opendaylight.protocol.pcep.spi.pojo.ServiceLoaderPCEPExtensionProviderContext;
 import org.opendaylight.protocol.util.InetSocketAddressUtil;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpPrefix;
@@ -75,6 +78,7 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
     static final short DEAD_TIMER = 30;
     static final short KEEP_ALIVE = 10;
     static final short RPC_TIMEOUT = 4;
+    static final Integer LSP_BATCH_DELAY = 10;
     private static final TopologyId TEST_TOPOLOGY_ID = new TopologyId("testtopo");
     static final InstanceIdentifier<Topology> TOPO_IID = InstanceIdentifier.builder(NetworkTopology.class)
             .child(Topology.class, new TopologyKey(TEST_TOPOLOGY_ID)).build();
@@ -90,6 +94,7 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
     private final Open localPrefs = new OpenBuilder().setDeadTimer((short) 30).setKeepalive((short) 10)
             .setSessionId((short) 0).build();
     private final Open remotePrefs = this.localPrefs;
+    private final Timer timer = new HashedWheelTimer();
     List<Notification> receivedMsgs;
     ServerSessionManager manager;
     NetworkTopologyPcepService topologyRpcs;
@@ -142,12 +147,19 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
 
         doReturn(getDataBroker()).when(this.topologyDependencies).getDataBroker();
         doReturn(this.statsRegistry).when(this.topologyDependencies).getStateRegistry();
+        doReturn(this.timer).when(this.topologyDependencies).getTimer();
+        doReturn(ServiceLoaderPCEPExtensionProviderContext.getSingletonInstance().getMessageHandlerRegistry())
+                .when(this.topologyDependencies).getMessageRegistry();
 
         @SuppressWarnings("unchecked") final T listenerFactory = (T) ((Class) ((ParameterizedType) this.getClass()
                 .getGenericSuperclass()).getActualTypeArguments()[0]).newInstance();
         doReturn(new IpAddress(new Ipv4Address(this.testAddress))).when(this.sessionConfig).getListenAddress();
         doReturn(new PortNumber(4189)).when(this.sessionConfig).getListenPort();
         doReturn(RPC_TIMEOUT).when(this.sessionConfig).getRpcTimeout();
+        doReturn(getLspBatchSize()).when(this.sessionConfig).getLspBatchSize();
+        doReturn(LSP_BATCH_DELAY).when(this.sessionConfig).getLspBatchDelay();
+        doReturn(getReportBatchSize()).when(this.sessionConfig).getReportBatchSize();
+        doReturn(getReportBatchDelay()).when(this.sessionConfig).getReportBatchDelay();
         doReturn(TEST_TOPOLOGY_ID).when(this.topology).getTopologyId();
         doReturn(Collections.emptyList()).when(this.topology).getNode();
 
@@ -171,6 +183,7 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
     @After
     public void tearDown() {
         stopSessionManager();
+        this.timer.stop();
     }
 
     Ero createEroWithIpPrefixes(final List<String> ipPrefixes) {
@@ -189,6 +202,18 @@ public abstract class AbstractPCEPSessionTest<T extends TopologySessionListenerF
                 .getIpPrefix().getIpv4Prefix().getValue();
     }
 
+    protected Integer getLspBatchSize() {
+        return 1;
+    }
+
+    protected Integer getReportBatchSize() {
+        return 1000;
+    }
+
+    protected Integer getReportBatchDelay() {
+        return 10;
+    }
+
     protected Open getLocalPref() {
         return this.localPrefs;
     }
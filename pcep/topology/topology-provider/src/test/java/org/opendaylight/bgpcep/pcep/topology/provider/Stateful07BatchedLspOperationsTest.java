@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil.createLspTlvs;
+import static org.opendaylight.protocol.util.CheckTestUtil.checkEquals;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.protocol.pcep.impl.PCEPSessionImpl;
+import org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil;
+import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.Ipv4AddressNoZone;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.network.topology.rev140113.NetworkTopologyRef;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.Pcinitiate;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.Stateful1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.Stateful1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.crabbe.initiated.rev181109.pcinitiate.message.pcinitiate.message.Requests;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Arguments2;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Arguments2Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.OperationalStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Pcrpt;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.PlspId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Tlvs1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Tlvs1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.lsp.object.LspBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.lsp.object.lsp.Tlvs;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.stateful.capability.tlv.StatefulBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.endpoints.address.family.Ipv4CaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.endpoints.address.family.ipv4._case.Ipv4Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.endpoints.object.EndpointsObjBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.Open;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.OpenBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.open.TlvsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspInputBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.AddLspOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.FailureType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.add.lsp.args.ArgumentsBuilder;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+
+public class Stateful07BatchedLspOperationsTest
+        extends AbstractPCEPSessionTest<Stateful07TopologySessionListenerFactory> {
+    private static final int BATCH_SIZE = 2;
+    // Each ERO subobject takes 8 bytes, two such requests do not fit a single message
+    private static final int LARGE_ERO_SIZE = 5000;
+
+    private Stateful07TopologySessionListener listener;
+    private PCEPSessionImpl session;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        this.listener = (Stateful07TopologySessionListener) getSessionListener();
+        this.session = getPCEPSession(getLocalPref(), getRemotePref());
+    }
+
+    @Test
+    public void testBatchFlushedOnSize() throws Exception {
+        this.listener.onSessionUp(this.session);
+        this.topologyRpcs.addLsp(createAddLspInput("tunnel_0"));
+        this.topologyRpcs.addLsp(createAddLspInput("tunnel_1"));
+        checkEquals(() -> assertEquals(1, this.receivedMsgs.size()));
+        assertTrue(this.receivedMsgs.get(0) instanceof Pcinitiate);
+        final Pcinitiate pcinitiate = (Pcinitiate) this.receivedMsgs.get(0);
+        assertEquals(BATCH_SIZE, pcinitiate.getPcinitiateMessage().getRequests().size());
+        assertEquals(BATCH_SIZE, this.listener.getOutstandingRequestsCount());
+    }
+
+    @Test
+    public void testBatchFlushedOnDeadline() throws Exception {
+        this.listener.onSessionUp(this.session);
+        this.topologyRpcs.addLsp(createAddLspInput("tunnel_0"));
+        checkEquals(() -> assertEquals(1, this.receivedMsgs.size()));
+        final Pcinitiate pcinitiate = (Pcinitiate) this.receivedMsgs.get(0);
+        assertEquals(1, pcinitiate.getPcinitiateMessage().getRequests().size());
+    }
+
+    @Test
+    public void testRequestsResolvedIndividually() throws Exception {
+        this.listener.onSessionUp(this.session);
+        final ListenableFuture<RpcResult<AddLspOutput>> first = this.topologyRpcs.addLsp(
+            createAddLspInput("tunnel_0"));
+        final ListenableFuture<RpcResult<AddLspOutput>> second = this.topologyRpcs.addLsp(
+            createAddLspInput("tunnel_1"));
+        checkEquals(() -> assertEquals(1, this.receivedMsgs.size()));
+        final List<Requests> requests = ((Pcinitiate) this.receivedMsgs.get(0)).getPcinitiateMessage()
+            .getRequests();
+        assertEquals(BATCH_SIZE, requests.size());
+
+        // end of state synchronization
+        this.listener.onMessage(this.session, MsgBuilderUtil.createPcRtpMessage(new LspBuilder().setSync(false)
+            .build(), Optional.of(MsgBuilderUtil.createSrp(0L)), null));
+
+        // each report resolves only the request carrying its SRP-ID
+        this.listener.onMessage(this.session, createReport(requests.get(0), 1L));
+        checkEquals(() -> assertTrue(first.isDone()));
+        assertNull(first.get().getResult().getFailure());
+        assertFalse(second.isDone());
+        assertEquals(1, this.listener.getOutstandingRequestsCount());
+
+        this.listener.onMessage(this.session, createReport(requests.get(1), 2L));
+        checkEquals(() -> assertTrue(second.isDone()));
+        assertNull(second.get().getResult().getFailure());
+        assertEquals(0, this.listener.getOutstandingRequestsCount());
+    }
+
+    @Test
+    public void testBatchBoundedByMessageLength() throws Exception {
+        this.listener.onSessionUp(this.session);
+        final List<String> ero = Collections.nCopies(LARGE_ERO_SIZE, this.eroIpPrefix);
+        this.topologyRpcs.addLsp(createAddLspInput("tunnel_0", ero));
+        this.topologyRpcs.addLsp(createAddLspInput("tunnel_1", ero));
+
+        // the full batch would overflow a single message, hence it is split into two
+        checkEquals(() -> assertEquals(2, this.receivedMsgs.size()));
+        assertEquals(1, ((Pcinitiate) this.receivedMsgs.get(0)).getPcinitiateMessage().getRequests().size());
+        assertEquals(1, ((Pcinitiate) this.receivedMsgs.get(1)).getPcinitiateMessage().getRequests().size());
+        assertEquals(BATCH_SIZE, this.listener.getOutstandingRequestsCount());
+    }
+
+    @Test
+    public void testBatchFailedOnSessionDown() throws Exception {
+        this.listener.onSessionUp(this.session);
+        final ListenableFuture<RpcResult<AddLspOutput>> future = this.topologyRpcs.addLsp(
+            createAddLspInput("tunnel_0"));
+        checkEquals(() -> assertEquals(1, this.listener.getOutstandingRequestsCount()));
+        assertFalse(future.isDone());
+
+        this.listener.onSessionDown(this.session, new IllegalArgumentException());
+        assertEquals(FailureType.Unsent, future.get().getResult().getFailure());
+        assertEquals(0, this.listener.getOutstandingRequestsCount());
+
+        // the discarded batch is not sent once its deadline passes
+        Thread.sleep(5 * LSP_BATCH_DELAY);
+        assertTrue(this.receivedMsgs.stream().noneMatch(Pcinitiate.class::isInstance));
+    }
+
+    @Override
+    protected Integer getLspBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    @Override
+    protected Open getLocalPref() {
+        return new OpenBuilder(super.getLocalPref()).setTlvs(new TlvsBuilder().addAugmentation(Tlvs1.class,
+                new Tlvs1Builder().setStateful(new StatefulBuilder()
+                        .addAugmentation(Stateful1.class, new Stateful1Builder().setInitiation(Boolean.TRUE).build())
+                        .build()).build()).build()).build();
+    }
+
+    @Override
+    protected Open getRemotePref() {
+        return getLocalPref();
+    }
+
+    private Pcrpt createReport(final Requests request, final long plspId) {
+        final Tlvs tlvs = createLspTlvs(plspId, true, this.testAddress, this.testAddress, this.testAddress,
+            Optional.empty());
+        return MsgBuilderUtil.createPcRtpMessage(new LspBuilder(request.getLsp()).setTlvs(tlvs)
+                .setPlspId(new PlspId(plspId)).setSync(true).setRemove(false).setOperational(OperationalStatus.Active)
+                .build(), Optional.of(MsgBuilderUtil.createSrp(request.getSrp().getOperationId().getValue())),
+            MsgBuilderUtil.createPath(request.getEro().getSubobject()));
+    }
+
+    private AddLspInput createAddLspInput(final String name) {
+        return createAddLspInput(name, Lists.newArrayList(this.eroIpPrefix));
+    }
+
+    private AddLspInput createAddLspInput(final String name, final List<String> ero) {
+        final ArgumentsBuilder argsBuilder = new ArgumentsBuilder();
+        final Ipv4CaseBuilder ipv4Builder = new Ipv4CaseBuilder();
+        ipv4Builder.setIpv4(new Ipv4Builder().setSourceIpv4Address(new Ipv4AddressNoZone(this.testAddress))
+                .setDestinationIpv4Address(new Ipv4AddressNoZone(this.testAddress)).build());
+        argsBuilder.setEndpointsObj(new EndpointsObjBuilder().setAddressFamily(ipv4Builder.build()).build());
+        argsBuilder.setEro(createEroWithIpPrefixes(ero));
+        argsBuilder.addAugmentation(Arguments2.class, new Arguments2Builder().setLsp(new LspBuilder()
+                .setDelegate(true).setAdministrative(true).build()).build());
+        return new AddLspInputBuilder().setName(name).setArguments(argsBuilder.build())
+                .setNetworkTopologyRef(new NetworkTopologyRef(TOPO_IID)).setNode(this.nodeId).build();
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil.createLspTlvs;
+import static org.opendaylight.protocol.util.CheckTestUtil.checkEquals;
+import static org.opendaylight.protocol.util.CheckTestUtil.readDataOperational;
+
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.opendaylight.mdsal.binding.api.ReadTransaction;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.protocol.pcep.impl.PCEPSessionImpl;
+import org.opendaylight.protocol.pcep.pcc.mock.spi.MsgBuilderUtil;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.OperationalStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Pcrpt;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.PlspId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Tlvs1;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.Tlvs1Builder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.lsp.object.LspBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.stateful.capability.tlv.StatefulBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StateSyncStatsAug;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.Open;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.OpenBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.types.rev181109.open.object.open.TlvsBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.PccSyncState;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.pcep.client.attributes.PathComputationClient;
+
+public class Stateful07BatchedReportsTest extends AbstractPCEPSessionTest<Stateful07TopologySessionListenerFactory> {
+    private static final int BATCH_SIZE = 3;
+
+    private Stateful07TopologySessionListener listener;
+    private PCEPSessionImpl session;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        this.listener = (Stateful07TopologySessionListener) getSessionListener();
+        this.session = getPCEPSession(getLocalPref(), getRemotePref());
+    }
+
+    @Test
+    public void testReportsCoalescedDuringSynchronization() throws Exception {
+        this.listener.onSessionUp(this.session);
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(PccSyncState.InitialResync, pcc.getStateSync());
+            assertTrue(pcc.getReportedLsp().isEmpty());
+            return pcc;
+        });
+
+        this.listener.onMessage(this.session, createSyncReport(1));
+        this.listener.onMessage(this.session, createSyncReport(2));
+        // Batch is neither full nor past its deadline
+        assertTrue(readPcc().getReportedLsp().isEmpty());
+
+        this.listener.onMessage(this.session, createSyncReport(3));
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(BATCH_SIZE, pcc.getReportedLsp().size());
+            return pcc;
+        });
+
+        this.listener.onMessage(this.session, createSyncReport(4));
+        assertFalse(this.listener.isSessionSynchronized());
+        // End of synchronization commits the pending batch
+        this.listener.onMessage(this.session, MsgBuilderUtil.createPcRtpMessage(new LspBuilder().setSync(false)
+                .build(), Optional.of(MsgBuilderUtil.createSrp(0L)), null));
+        readDataOperational(getDataBroker(), this.pathComputationClientIId, pcc -> {
+            assertEquals(PccSyncState.Synchronized, pcc.getStateSync());
+            assertEquals(4, pcc.getReportedLsp().size());
+            return pcc;
+        });
+        assertTrue(this.listener.isSessionSynchronized());
+        checkEquals(() -> {
+            final StateSyncStatsAug syncStats = this.listener.listenerState.augmentation(StateSyncStatsAug.class);
+            assertEquals(Long.valueOf(4), syncStats.getLastSyncLspCount());
+            assertEquals(Long.valueOf(this.listener.listenerState.getLastSyncDuration()),
+                syncStats.getLastSyncDuration());
+        });
+    }
+
+    @Override
+    protected Integer getReportBatchSize() {
+        return BATCH_SIZE;
+    }
+
+    @Override
+    protected Integer getReportBatchDelay() {
+        return 60000;
+    }
+
+    @Override
+    protected Open getLocalPref() {
+        return new OpenBuilder(super.getLocalPref()).setTlvs(new TlvsBuilder().addAugmentation(Tlvs1.class,
+                new Tlvs1Builder().setStateful(new StatefulBuilder().build()).build()).build()).build();
+    }
+
+    @Override
+    protected Open getRemotePref() {
+        return getLocalPref();
+    }
+
+    private PathComputationClient readPcc() throws Exception {
+        try (ReadTransaction tx = getDataBroker().newReadOnlyTransaction()) {
+            return tx.read(LogicalDatastoreType.OPERATIONAL, this.pathComputationClientIId).get().get();
+        }
+    }
+
+    private Pcrpt createSyncReport(final long plspId) {
+        return MsgBuilderUtil.createPcRtpMessage(new LspBuilder().setPlspId(new PlspId(plspId)).setSync(true)
+                .setRemove(false).setOperational(OperationalStatus.Active)
+                .setTlvs(createLspTlvs(plspId, true, this.testAddress, this.testAddress, this.testAddress,
+                    Optional.of(("tunnel" + plspId).getBytes()))).build(), Optional.empty(),
+                MsgBuilderUtil.createPath(Collections.emptyList()));
+    }
+}
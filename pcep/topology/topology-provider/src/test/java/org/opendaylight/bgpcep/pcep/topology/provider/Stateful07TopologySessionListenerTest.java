@@ -67,6 +67,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.iet
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.stateful.capability.tlv.StatefulBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109.symbolic.path.name.tlv.SymbolicPathNameBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.message.rev181109.Close;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.RequestTimeoutStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StatefulCapabilitiesStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stateful.stats.rev181109.StatefulMessagesStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.PcepSessionState;
@@ -572,6 +573,12 @@ public class Stateful07TopologySessionListenerTest
             final RpcResult<AddLspOutput> rpcResult = addLspResult.get();
             assertNotNull(rpcResult);
             assertEquals(rpcResult.getResult().getFailure(), FailureType.Unsent);
+            assertEquals(0, this.listener.getOutstandingRequestsCount());
+            assertEquals(1, this.listener.listenerState.getTimedOutRequestsCount());
+            final RequestTimeoutStatsAug timeoutStats = this.listener.listenerState
+                    .augmentation(RequestTimeoutStatsAug.class);
+            assertEquals(Long.valueOf(0), timeoutStats.getOutstandingRequestsCount());
+            assertEquals(Long.valueOf(1), timeoutStats.getTimedOutRequestsCount());
         });
     }
 
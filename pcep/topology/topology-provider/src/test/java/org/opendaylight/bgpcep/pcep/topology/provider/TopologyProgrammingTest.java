@@ -140,7 +140,8 @@ public class TopologyProgrammingTest extends AbstractPCEPSessionTest<MockedTopol
         doReturn(this.instruction).when(this.instructionFuture).get();
         doReturn(true).when(this.instructionFuture).isDone();
         doNothing().when(this.instruction).executionCompleted(any(InstructionStatus.class), any(Details.class));
-        doReturn(this.instructionFuture).when(this.scheduler).scheduleInstruction(any(SubmitInstructionInput.class));
+        doReturn(this.instructionFuture).when(this.scheduler).scheduleInstruction(any(SubmitInstructionInput.class),
+                any());
         this.topologyProgramming = new TopologyProgramming(this.scheduler, this.manager);
         final PCEPSession session = getPCEPSession(getLocalPref(), getRemotePref());
         listener.onSessionUp(session);
@@ -21,6 +21,7 @@ import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programm
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.SubmitInstructionInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.submit.instruction.output.result.FailureCase;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.submit.instruction.output.result.FailureCaseBuilder;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.NodeId;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.rev181109.OperationResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +40,10 @@ public abstract class AbstractInstructionExecutor implements FutureCallback<Inst
         final SubmitInstructionInput input = fwd.getInput();
         final ListenableFuture<Instruction> listenableFuture;
         try {
-            listenableFuture = scheduler.scheduleInstruction(input);
+            // Instructions targeting a particular PCC are kept in that PCC's lane
+            listenableFuture = input instanceof NodeId
+                    ? scheduler.scheduleInstruction(input, ((NodeId) input).getNode())
+                    : scheduler.scheduleInstruction(input);
         } catch (final SchedulerException e) {
             LOG.info("Instuction {} failed to schedule", input, e);
             return new FailureCaseBuilder().setFailure(e.getFailure()).build();
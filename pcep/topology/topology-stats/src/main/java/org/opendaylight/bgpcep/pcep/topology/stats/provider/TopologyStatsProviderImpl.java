@@ -11,7 +11,11 @@ package org.opendaylight.bgpcep.pcep.topology.stats.provider;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.HashMap;
 import java.util.Map;
@@ -25,88 +29,220 @@ import javax.annotation.Nonnull;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.bgpcep.pcep.topology.spi.stats.TopologySessionStatsRegistry;
 import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.RpcProviderService;
 import org.opendaylight.mdsal.binding.api.Transaction;
 import org.opendaylight.mdsal.binding.api.TransactionChain;
 import org.opendaylight.mdsal.binding.api.TransactionChainListener;
 import org.opendaylight.mdsal.binding.api.WriteTransaction;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.pcep.stats.provider.config.rev171113.OdlPcepStatsProviderService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.pcep.stats.provider.config.rev171113.RefreshPcepStatsInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.pcep.stats.provider.config.rev171113.RefreshPcepStatsOutput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.pcep.stats.provider.config.rev171113.RefreshPcepStatsOutputBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.PcepSessionState;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.pcep.session.state.grouping.PcepSessionStateBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.stats.rev181109.PcepTopologyNodeStatsAug;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.stats.rev181109.PcepTopologyNodeStatsAugBuilder;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yangtools.concepts.ObjectRegistration;
 import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
 import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
+import org.opendaylight.yangtools.yang.common.RpcResult;
+import org.opendaylight.yangtools.yang.common.RpcResultBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Periodically publishes statistics of bound PCEP sessions into their topology nodes. Each tick compares session
+ * state with what was published last and writes only sessions which differ. Ticks which find nothing changed make the
+ * provider back off up to the configured maximum interval, binding or unbinding a session resets the interval.
+ * Complete statistics, including session duration, are published once every configured number of ticks, and on
+ * demand through {@link #refreshPcepStats(RefreshPcepStatsInput)}.
+ */
 public final class TopologyStatsProviderImpl implements TransactionChainListener,
-        TopologySessionStatsRegistry, AutoCloseable {
+        TopologySessionStatsRegistry, OdlPcepStatsProviderService, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(TopologyStatsProviderImpl.class);
     @GuardedBy("this")
     private final Map<KeyedInstanceIdentifier<Node, NodeKey>, PcepSessionState> statsMap = new HashMap<>();
+    /**
+     * Session state as last written, without session duration, which changes on every tick. Duration is refreshed
+     * whenever anything else about the session changes or a full refresh occurs.
+     */
+    @GuardedBy("this")
+    private final Map<KeyedInstanceIdentifier<Node, NodeKey>, PcepSessionState> publishedMap = new HashMap<>();
     private final DataBroker dataBroker;
+    private final RpcProviderService rpcProviderService;
     private final int timeout;
+    private final int maxTicksPerPoll;
+    private final int fullRefreshTicks;
     private TransactionChain transactionChain;
     private ScheduledFuture<?> scheduleTask;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private ObjectRegistration<OdlPcepStatsProviderService> rpcRegistration;
+    @GuardedBy("this")
+    private int ticksPerPoll = 1;
+    @GuardedBy("this")
+    private int ticksSincePoll;
+    @GuardedBy("this")
+    private int ticksSinceFullRefresh;
+    private final ScheduledExecutorService scheduler;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
-    public TopologyStatsProviderImpl(@Nonnull final DataBroker dataBroker, final int timeout) {
+    public TopologyStatsProviderImpl(@Nonnull final DataBroker dataBroker, final int timeout, final int maxTimeout,
+            final int fullRefreshTimeout, @Nonnull final RpcProviderService rpcProviderService) {
+        this(dataBroker, timeout, maxTimeout, fullRefreshTimeout, rpcProviderService,
+            Executors.newScheduledThreadPool(1));
+    }
+
+    @VisibleForTesting
+    TopologyStatsProviderImpl(@Nonnull final DataBroker dataBroker, final int timeout, final int maxTimeout,
+            final int fullRefreshTimeout, @Nonnull final RpcProviderService rpcProviderService,
+            @Nonnull final ScheduledExecutorService scheduler) {
+        this.scheduler = requireNonNull(scheduler);
         this.dataBroker = requireNonNull(dataBroker);
+        this.rpcProviderService = requireNonNull(rpcProviderService);
         this.timeout = timeout;
+        this.maxTicksPerPoll = Math.max(1, maxTimeout / Math.max(1, timeout));
+        this.fullRefreshTicks = fullRefreshTimeout <= 0 ? 0 : Math.max(1, fullRefreshTimeout / Math.max(1, timeout));
     }
 
     public synchronized void init() {
         LOG.info("Initializing TopologyStatsProvider service.");
         this.transactionChain = this.dataBroker.createTransactionChain(this);
+        this.ticksSinceFullRefresh = 0;
+        this.rpcRegistration = this.rpcProviderService.registerRpcImplementation(OdlPcepStatsProviderService.class,
+            this);
         final TimerTask task = new TimerTask() {
             @Override
             public void run() {
-                updatePcepStats();
+                onTick();
             }
         };
 
         this.scheduleTask = this.scheduler.scheduleAtFixedRate(task, 0, this.timeout, SECONDS);
     }
 
+    @VisibleForTesting
     @SuppressWarnings("checkstyle:IllegalCatch")
-    private synchronized void updatePcepStats() {
-        final WriteTransaction tx = TopologyStatsProviderImpl.this.transactionChain.newWriteOnlyTransaction();
+    synchronized void onTick() {
+        ++this.ticksSinceFullRefresh;
+        if (++this.ticksSincePoll < this.ticksPerPoll) {
+            return;
+        }
+        this.ticksSincePoll = 0;
 
+        final boolean fullRefresh = this.fullRefreshTicks > 0 && this.ticksSinceFullRefresh >= this.fullRefreshTicks;
+        final WriteTransaction tx = this.transactionChain.newWriteOnlyTransaction();
+        final boolean changed;
         try {
-            for (final Map.Entry<KeyedInstanceIdentifier<Node, NodeKey>, PcepSessionState> entry
-                    : this.statsMap.entrySet()) {
-                final PcepTopologyNodeStatsAug nodeStatsAug = new PcepTopologyNodeStatsAugBuilder()
-                        .setPcepSessionState(new PcepSessionStateBuilder(entry.getValue()).build()).build();
+            changed = updatePcepStats(tx, fullRefresh);
+        } catch (final Exception e) {
+            LOG.warn("Failed to prepare Tx for PCEP stats update", e);
+            tx.cancel();
+            this.publishedMap.clear();
+            resetPollInterval();
+            return;
+        }
+        if (changed || fullRefresh) {
+            commit(tx);
+        } else {
+            tx.cancel();
+        }
+
+        // Back off while nothing changes, resume the configured rate as soon as something does
+        this.ticksPerPoll = changed ? 1 : Math.min(this.ticksPerPoll * 2, this.maxTicksPerPoll);
+    }
+
+    @GuardedBy("this")
+    private void resetPollInterval() {
+        this.ticksPerPoll = 1;
+        this.ticksSincePoll = 0;
+    }
+
+    @VisibleForTesting
+    synchronized int getTicksPerPoll() {
+        return this.ticksPerPoll;
+    }
+
+    /**
+     * Write statistics of bound sessions.
+     *
+     * @param tx transaction to write into
+     * @param fullRefresh true if all sessions should be written, false if only sessions which changed since the last
+     *                    publication should be written
+     * @return true if any session changed since the last publication
+     */
+    private synchronized boolean updatePcepStats(final WriteTransaction tx, final boolean fullRefresh) {
+        boolean changed = false;
+        for (final Map.Entry<KeyedInstanceIdentifier<Node, NodeKey>, PcepSessionState> entry
+                : this.statsMap.entrySet()) {
+            final PcepSessionStateBuilder builder = sessionStateBuilder(entry.getValue());
+            final PcepTopologyNodeStatsAug nodeStatsAug = new PcepTopologyNodeStatsAugBuilder()
+                    .setPcepSessionState(builder.build()).build();
+            final PcepSessionState tracked = builder.setSessionDuration(null).build();
+            final boolean sessionChanged = !tracked.equals(this.publishedMap.put(entry.getKey(), tracked));
+            if (sessionChanged || fullRefresh) {
                 final InstanceIdentifier<PcepTopologyNodeStatsAug> statId =
                         entry.getKey().augmentation(PcepTopologyNodeStatsAug.class);
                 tx.put(LogicalDatastoreType.OPERATIONAL, statId, nodeStatsAug);
+                changed |= sessionChanged;
             }
-            tx.commit().addCallback(new FutureCallback<CommitInfo>() {
-                @Override
-                public void onSuccess(final CommitInfo result) {
-                    LOG.debug("Successfully committed Topology stats update");
-                }
-
-                @Override
-                public void onFailure(final Throwable ex) {
-                    LOG.error("Failed to commit Topology stats update", ex);
-                }
-            }, MoreExecutors.directExecutor());
-        } catch (final Exception e) {
-            LOG.warn("Failed to prepare Tx for BGP stats update", e);
-            tx.cancel();
         }
+        if (fullRefresh) {
+            this.ticksSinceFullRefresh = 0;
+        }
+        return changed;
+    }
+
+    /**
+     * Snapshot session statistics, including augmentations exposed by the session.
+     *
+     * @param sessionState live session statistics
+     * @return builder initialized with current statistics
+     */
+    private static PcepSessionStateBuilder sessionStateBuilder(final PcepSessionState sessionState) {
+        if (sessionState instanceof org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats
+                .rev171113.pcep.session.state.grouping.PcepSessionState) {
+            // Copying the container retains the augmentations it holds
+            return new PcepSessionStateBuilder((org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep
+                .stats.rev171113.pcep.session.state.grouping.PcepSessionState) sessionState);
+        }
+        return new PcepSessionStateBuilder(sessionState);
+    }
+
+    private static FluentFuture<? extends CommitInfo> commit(final WriteTransaction tx) {
+        final FluentFuture<? extends CommitInfo> future = tx.commit();
+        future.addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.debug("Successfully committed Topology stats update");
+            }
+
+            @Override
+            public void onFailure(final Throwable ex) {
+                LOG.error("Failed to commit Topology stats update", ex);
+            }
+        }, MoreExecutors.directExecutor());
+        return future;
+    }
+
+    @Override
+    public synchronized ListenableFuture<RpcResult<RefreshPcepStatsOutput>> refreshPcepStats(
+            final RefreshPcepStatsInput input) {
+        final WriteTransaction tx = this.transactionChain.newWriteOnlyTransaction();
+        updatePcepStats(tx, true);
+        return Futures.transform(commit(tx),
+            result -> RpcResultBuilder.success(new RefreshPcepStatsOutputBuilder().build()).build(),
+            MoreExecutors.directExecutor());
     }
 
     @Override
     public synchronized void close() throws Exception {
         if (closed.compareAndSet(false, true)) {
             LOG.info("Closing TopologyStatsProvider service.");
+            this.rpcRegistration.close();
             this.scheduleTask.cancel(true);
             final WriteTransaction wTx = this.transactionChain.newWriteOnlyTransaction();
             for (final KeyedInstanceIdentifier<Node, NodeKey> statId : this.statsMap.keySet()) {
@@ -114,6 +250,7 @@ public final class TopologyStatsProviderImpl implements TransactionChainListener
             }
             wTx.commit().get();
             this.statsMap.clear();
+            this.publishedMap.clear();
             this.transactionChain.close();
             this.scheduler.shutdown();
         }
@@ -126,6 +263,9 @@ public final class TopologyStatsProviderImpl implements TransactionChainListener
                 chain, transaction != null ? transaction.getIdentifier() : null, cause);
 
         if (!closed.get()) {
+            // What was published is no longer known, make sure the next tick writes everything
+            this.publishedMap.clear();
+            resetPollInterval();
             transactionChain.close();
             transactionChain = dataBroker.createTransactionChain(this);
         }
@@ -140,11 +280,15 @@ public final class TopologyStatsProviderImpl implements TransactionChainListener
     public synchronized void bind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId,
             final PcepSessionState sessionState) {
         this.statsMap.put(nodeId, sessionState);
+        // Publish a new session on the next tick, regardless of how far the interval has backed off
+        resetPollInterval();
     }
 
     @Override
     public synchronized void unbind(final KeyedInstanceIdentifier<Node, NodeKey> nodeId) {
         this.statsMap.remove(nodeId);
+        this.publishedMap.remove(nodeId);
+        resetPollInterval();
         final WriteTransaction wTx = this.transactionChain.newWriteOnlyTransaction();
         wTx.delete(LogicalDatastoreType.OPERATIONAL, nodeId);
         try {
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.pcep.topology.stats.provider;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.opendaylight.protocol.util.CheckTestUtil.checkNotPresentOperational;
+import static org.opendaylight.protocol.util.CheckTestUtil.readDataOperational;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.opendaylight.mdsal.binding.api.RpcProviderService;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.binding.dom.adapter.test.AbstractConcurrentDataBrokerTest;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.odl.pcep.stats.provider.config.rev171113.OdlPcepStatsProviderService;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.stats.rev171113.PcepSessionState;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.pcep.stats.rev181109.PcepTopologyNodeStatsAug;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NetworkTopology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.NodeId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.TopologyId;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.Topology;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.TopologyKey;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.Node;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeBuilder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.network.topology.topology.NodeKey;
+import org.opendaylight.yangtools.concepts.ObjectRegistration;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
+
+public class TopologyStatsProviderImplTest extends AbstractConcurrentDataBrokerTest {
+    private static final NodeId NODE_ID = new NodeId("pcc://127.0.0.1");
+    private static final KeyedInstanceIdentifier<Node, NodeKey> NODE_IID = InstanceIdentifier
+            .create(NetworkTopology.class).child(Topology.class, new TopologyKey(new TopologyId("pcep-topology")))
+            .child(Node.class, new NodeKey(NODE_ID));
+    private static final InstanceIdentifier<PcepTopologyNodeStatsAug> STATS_IID =
+            NODE_IID.augmentation(PcepTopologyNodeStatsAug.class);
+
+    @Mock
+    private RpcProviderService rpcProviderService;
+    @Mock
+    private ObjectRegistration<OdlPcepStatsProviderService> rpcRegistration;
+    @Mock
+    private ScheduledExecutorService scheduler;
+    @Mock
+    private ScheduledFuture<?> scheduledFuture;
+    @Mock
+    private PcepSessionState sessionState;
+    private TopologyStatsProviderImpl provider;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        doReturn(this.rpcRegistration).when(this.rpcProviderService)
+                .registerRpcImplementation(eq(OdlPcepStatsProviderService.class), any());
+        doNothing().when(this.rpcRegistration).close();
+        doReturn(this.scheduledFuture).when(this.scheduler)
+                .scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+        doReturn(true).when(this.scheduledFuture).cancel(true);
+        doNothing().when(this.scheduler).shutdown();
+
+        doReturn("0:0:0:1").when(this.sessionState).getSessionDuration();
+        doReturn(true).when(this.sessionState).isSynchronized();
+        doReturn(null).when(this.sessionState).getPeerCapabilities();
+        doReturn(null).when(this.sessionState).getMessages();
+        doReturn(null).when(this.sessionState).getLocalPref();
+        doReturn(null).when(this.sessionState).getPeerPref();
+        doReturn(1).when(this.sessionState).getDelegatedLspsCount();
+
+        final WriteTransaction wTx = getDataBroker().newWriteOnlyTransaction();
+        wTx.put(LogicalDatastoreType.OPERATIONAL, NODE_IID, new NodeBuilder().setNodeId(NODE_ID).build(), true);
+        wTx.commit().get();
+
+        this.provider = new TopologyStatsProviderImpl(getDataBroker(), 1, 8, 0, this.rpcProviderService,
+                this.scheduler);
+        this.provider.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.provider.close();
+    }
+
+    @Test
+    public void testBackoffResetOnBind() throws Exception {
+        // nothing changes, interval doubles after each poll
+        this.provider.onTick();
+        assertEquals(2, this.provider.getTicksPerPoll());
+        this.provider.onTick();
+        this.provider.onTick();
+        assertEquals(4, this.provider.getTicksPerPoll());
+
+        // new session is published on the very next tick
+        this.provider.bind(NODE_IID, this.sessionState);
+        assertEquals(1, this.provider.getTicksPerPoll());
+        this.provider.onTick();
+        readDataOperational(getDataBroker(), STATS_IID, stats -> {
+            assertEquals("0:0:0:1", stats.getPcepSessionState().getSessionDuration());
+            assertEquals(Integer.valueOf(1), stats.getPcepSessionState().getDelegatedLspsCount());
+            return stats;
+        });
+        assertEquals(1, this.provider.getTicksPerPoll());
+    }
+
+    @Test
+    public void testDurationOnlyChange() throws Exception {
+        this.provider.bind(NODE_IID, this.sessionState);
+        this.provider.onTick();
+
+        // a duration change alone is not written and lets the interval back off
+        doReturn("0:0:0:2").when(this.sessionState).getSessionDuration();
+        this.provider.onTick();
+        assertEquals(2, this.provider.getTicksPerPoll());
+        readDataOperational(getDataBroker(), STATS_IID, stats -> {
+            assertEquals("0:0:0:1", stats.getPcepSessionState().getSessionDuration());
+            return stats;
+        });
+
+        // explicit refresh writes the current duration
+        this.provider.refreshPcepStats(null).get();
+        readDataOperational(getDataBroker(), STATS_IID, stats -> {
+            assertEquals("0:0:0:2", stats.getPcepSessionState().getSessionDuration());
+            return stats;
+        });
+
+        // any other change is written once the backed off interval elapses and resets it
+        doReturn(2).when(this.sessionState).getDelegatedLspsCount();
+        this.provider.onTick();
+        this.provider.onTick();
+        assertEquals(1, this.provider.getTicksPerPoll());
+        readDataOperational(getDataBroker(), STATS_IID, stats -> {
+            assertEquals(Integer.valueOf(2), stats.getPcepSessionState().getDelegatedLspsCount());
+            return stats;
+        });
+    }
+
+    @Test
+    public void testPeriodicFullRefresh() throws Exception {
+        try (TopologyStatsProviderImpl refreshing = new TopologyStatsProviderImpl(getDataBroker(), 1, 1, 3,
+                this.rpcProviderService, this.scheduler)) {
+            refreshing.init();
+            refreshing.bind(NODE_IID, this.sessionState);
+            refreshing.onTick();
+
+            // a duration change alone is not written until the full refresh is due
+            doReturn("0:0:0:2").when(this.sessionState).getSessionDuration();
+            refreshing.onTick();
+            readDataOperational(getDataBroker(), STATS_IID, stats -> {
+                assertEquals("0:0:0:1", stats.getPcepSessionState().getSessionDuration());
+                return stats;
+            });
+            refreshing.onTick();
+            readDataOperational(getDataBroker(), STATS_IID, stats -> {
+                assertEquals("0:0:0:2", stats.getPcepSessionState().getSessionDuration());
+                return stats;
+            });
+
+            // every third tick only, not every other one
+            doReturn("0:0:0:3").when(this.sessionState).getSessionDuration();
+            refreshing.onTick();
+            refreshing.onTick();
+            readDataOperational(getDataBroker(), STATS_IID, stats -> {
+                assertEquals("0:0:0:2", stats.getPcepSessionState().getSessionDuration());
+                return stats;
+            });
+            refreshing.onTick();
+            readDataOperational(getDataBroker(), STATS_IID, stats -> {
+                assertEquals("0:0:0:3", stats.getPcepSessionState().getSessionDuration());
+                return stats;
+            });
+        }
+    }
+
+    @Test
+    public void testUnbind() throws Exception {
+        this.provider.bind(NODE_IID, this.sessionState);
+        this.provider.onTick();
+        this.provider.onTick();
+        assertEquals(2, this.provider.getTicksPerPoll());
+
+        this.provider.unbind(NODE_IID);
+        assertEquals(1, this.provider.getTicksPerPoll());
+        checkNotPresentOperational(getDataBroker(), NODE_IID);
+    }
+}
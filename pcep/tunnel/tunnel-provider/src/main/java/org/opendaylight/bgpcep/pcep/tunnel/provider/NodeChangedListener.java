@@ -9,9 +9,8 @@ package org.opendaylight.bgpcep.pcep.tunnel.provider;
 
 import static java.util.Objects.requireNonNull;
 
-import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.MoreExecutors;
 import java.util.ArrayList;
@@ -23,11 +22,13 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.mdsal.binding.api.ClusteredDataTreeChangeListener;
 import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.mdsal.binding.api.DataObjectModification;
 import org.opendaylight.mdsal.binding.api.DataTreeModification;
-import org.opendaylight.mdsal.binding.api.ReadWriteTransaction;
+import org.opendaylight.mdsal.binding.api.ReadTransaction;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
 import org.opendaylight.mdsal.common.api.CommitInfo;
 import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
 import org.opendaylight.yang.gen.v1.urn.ietf.params.xml.ns.yang.ietf.inet.types.rev130715.IpAddress;
@@ -68,6 +69,7 @@ import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.network.topology.rev131021.node.attributes.SupportingNodeKey;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.TerminationPoint1Builder;
+import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.IgpTerminationPointAttributes;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.IgpTerminationPointAttributesBuilder;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.TerminationPointType;
 import org.opendaylight.yang.gen.v1.urn.tbd.params.xml.ns.yang.nt.l3.unicast.igp.topology.rev131021.igp.termination.point.attributes.igp.termination.point.attributes.termination.point.type.Ip;
@@ -78,11 +80,27 @@ import org.opendaylight.yangtools.yang.binding.InstanceIdentifier.PathArgument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Maintains the tunnel topology based on LSPs reported in the PCEP topology. This listener is the only writer of
+ * the tunnel topology's nodes and links, so it keeps an index of the termination points, nodes and links it has
+ * written and updates it along with each transaction, instead of reading the tunnel topology back. Should a
+ * transaction fail to commit, the index is marked stale and rebuilt from the tunnel topology as stored in the
+ * datastore before the next change is processed.
+ */
 public final class NodeChangedListener implements ClusteredDataTreeChangeListener<Node> {
     private static final Logger LOG = LoggerFactory.getLogger(NodeChangedListener.class);
     private final InstanceIdentifier<Topology> target;
     private final DataBroker dataProvider;
     private final TopologyId source;
+    @GuardedBy("this")
+    private final Map<IpAddress, TerminationPointEntry> terminationPoints = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<NodeId, NodeEntry> tunnelNodes = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<LinkId, LinkEntry> tunnelLinks = new HashMap<>();
+    @GuardedBy("this")
+    private FluentFuture<? extends CommitInfo> lastCommit;
+    private volatile boolean indexStale;
 
     NodeChangedListener(final DataBroker dataProvider, final TopologyId source,
             final InstanceIdentifier<Topology> target) {
@@ -149,66 +167,39 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         return snb.build();
     }
 
-    private void handleSni(final InstanceIdentifier<Node> sni, final Node node, final Boolean inControl,
-            final ReadWriteTransaction trans) {
+    @GuardedBy("this")
+    private void handleSni(final InstanceIdentifier<Node> sni, final NodeEntry node, final Boolean inControl,
+            final WriteTransaction trans) {
         if (sni != null) {
             final NodeKey k = InstanceIdentifier.keyOf(sni);
-            boolean have = false;
             /*
              * We may have found a termination point which has been created as a destination,
              * so it does not have a supporting node pointer. Since we now know what it is,
              * fill it in.
              */
-            if (node.getSupportingNode() != null) {
-                for (final SupportingNode sn : node.getSupportingNode()) {
-                    if (sn.getNodeRef().equals(k.getNodeId())) {
-                        have = true;
-                        break;
-                    }
-                }
-            }
-            if (!have) {
+            if (node.supportingNodes.add(k.getNodeId())) {
                 final SupportingNode sn = createSupportingNode(k.getNodeId(), inControl);
-                trans.put(LogicalDatastoreType.OPERATIONAL, this.target.child(Node.class, node.key()).child(
-                        SupportingNode.class, sn.key()), sn);
+                trans.put(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(node.nodeId).child(SupportingNode.class,
+                        sn.key()), sn);
             }
         }
     }
 
-    private InstanceIdentifier<TerminationPoint> getIpTerminationPoint(final ReadWriteTransaction trans,
-            final IpAddress addr, final InstanceIdentifier<Node> sni, final Boolean inControl)
-            throws ExecutionException, InterruptedException {
-        final Topology topo = trans.read(LogicalDatastoreType.OPERATIONAL, this.target).get().get();
-        if (topo.getNode() != null) {
-            for (final Node n : topo.getNode()) {
-                if (n.getTerminationPoint() != null) {
-                    for (final TerminationPoint tp : n.getTerminationPoint()) {
-                        final TerminationPoint1 tpa = tp.augmentation(TerminationPoint1.class);
-                        if (tpa != null) {
-                            final TerminationPointType tpt = tpa.getIgpTerminationPointAttributes()
-                                    .getTerminationPointType();
-                            if (tpt instanceof Ip) {
-                                for (final IpAddress address : ((Ip) tpt).getIpAddress()) {
-                                    if (addr.equals(address)) {
-                                        handleSni(sni, n, inControl, trans);
-                                        return this.target.builder().child(Node.class, n.key())
-                                                .child(TerminationPoint.class, tp.key()).build();
-                                    }
-                                }
-                            } else {
-                                LOG.debug("Ignoring termination point type {}", tpt);
-                            }
-                        }
-                    }
-                }
-            }
+    @GuardedBy("this")
+    private TerminationPointEntry getIpTerminationPoint(final WriteTransaction trans, final IpAddress addr,
+            final InstanceIdentifier<Node> sni, final Boolean inControl) {
+        final TerminationPointEntry tp = this.terminationPoints.get(addr);
+        if (tp != null) {
+            handleSni(sni, tp.node, inControl, trans);
+            return tp;
         }
         LOG.debug("Termination point for {} not found, creating a new one", addr);
         return createTP(addr, sni, inControl, trans);
     }
 
-    private InstanceIdentifier<TerminationPoint> createTP(final IpAddress addr, final InstanceIdentifier<Node> sni,
-            final Boolean inControl, final ReadWriteTransaction trans) {
+    @GuardedBy("this")
+    private TerminationPointEntry createTP(final IpAddress addr, final InstanceIdentifier<Node> sni,
+            final Boolean inControl, final WriteTransaction trans) {
         final String url = "ip://" + addr.toString();
         final TerminationPointKey tpk = new TerminationPointKey(new TpId(url));
         final TerminationPointBuilder tpb = new TerminationPointBuilder();
@@ -221,17 +212,24 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         final NodeBuilder nb = new NodeBuilder();
         nb.withKey(nk).setNodeId(nk.getNodeId());
         nb.setTerminationPoint(Lists.newArrayList(tpb.build()));
+        final NodeEntry node = new NodeEntry(nk.getNodeId());
         if (sni != null) {
-            nb.setSupportingNode(Lists.newArrayList(createSupportingNode(InstanceIdentifier.keyOf(sni).getNodeId(),
-                    inControl)));
+            final NodeId supportingNode = InstanceIdentifier.keyOf(sni).getNodeId();
+            nb.setSupportingNode(Lists.newArrayList(createSupportingNode(supportingNode, inControl)));
+            node.supportingNodes.add(supportingNode);
         }
-        final InstanceIdentifier<Node> nid = this.target.child(Node.class, nb.key());
-        trans.put(LogicalDatastoreType.OPERATIONAL, nid, nb.build());
-        return nid.child(TerminationPoint.class, tpb.key());
+        trans.put(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(nk.getNodeId()), nb.build());
+
+        final TerminationPointEntry tp = new TerminationPointEntry(node, tpk.getTpId(), addr);
+        node.terminationPoints.put(tp.tpId, tp);
+        this.tunnelNodes.put(node.nodeId, node);
+        this.terminationPoints.put(addr, tp);
+        return tp;
     }
 
-    private void create(final ReadWriteTransaction trans, final InstanceIdentifier<ReportedLsp> identifier,
-            final ReportedLsp value) throws ExecutionException, InterruptedException {
+    @GuardedBy("this")
+    private void create(final WriteTransaction trans, final InstanceIdentifier<ReportedLsp> identifier,
+            final ReportedLsp value) {
         final InstanceIdentifier<Node> ni = identifier.firstIdentifierOf(Node.class);
 
         final Path1 rl = value.getPath().get(0).augmentation(Path1.class);
@@ -265,9 +263,8 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         }
         lab.setSymbolicPathName(value.getName());
 
-        final InstanceIdentifier<TerminationPoint> dst = getIpTerminationPoint(trans, dstIp, null, Boolean.FALSE);
-        final InstanceIdentifier<TerminationPoint> src = getIpTerminationPoint(trans, srcIp, ni,
-                rl.getLsp().isDelegate());
+        final TerminationPointEntry dst = getIpTerminationPoint(trans, dstIp, null, Boolean.FALSE);
+        final TerminationPointEntry src = getIpTerminationPoint(trans, srcIp, ni, rl.getLsp().isDelegate());
 
         final org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful.rev181109
                 .Link1Builder slab = new org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf
@@ -280,15 +277,22 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         final LinkBuilder lb = new LinkBuilder();
         lb.setLinkId(id);
 
-        lb.setSource(new SourceBuilder().setSourceNode(src.firstKeyOf(Node.class).getNodeId())
-                .setSourceTp(src.firstKeyOf(TerminationPoint.class).getTpId()).build());
-        lb.setDestination(new DestinationBuilder().setDestNode(dst.firstKeyOf(Node.class).getNodeId())
-                .setDestTp(dst.firstKeyOf(TerminationPoint.class).getTpId()).build());
+        lb.setSource(new SourceBuilder().setSourceNode(src.node.nodeId).setSourceTp(src.tpId).build());
+        lb.setDestination(new DestinationBuilder().setDestNode(dst.node.nodeId).setDestTp(dst.tpId).build());
         lb.addAugmentation(Link1.class, lab.build());
         lb.addAugmentation(org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.pcep.ietf.stateful
                 .rev181109.Link1.class, slab.build());
 
         trans.put(LogicalDatastoreType.OPERATIONAL, linkForLsp(id), lb.build());
+
+        final LinkEntry previous = this.tunnelLinks.put(id, new LinkEntry(src, dst));
+        src.acquire();
+        dst.acquire();
+        if (previous != null) {
+            LOG.debug("Link {} replaced, searching for orphan links/nodes", id);
+            removeOrphan(trans, previous.source, release(previous.source));
+            removeOrphan(trans, previous.destination, release(previous.destination));
+        }
     }
 
     private InstanceIdentifier<TerminationPoint> tpIdentifier(final NodeId node, final TpId tp) {
@@ -300,114 +304,58 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         return this.target.child(Node.class, new NodeKey(node));
     }
 
-    private void remove(final ReadWriteTransaction trans, final InstanceIdentifier<ReportedLsp> identifier,
-            final ReportedLsp value) throws ExecutionException, InterruptedException {
-        final InstanceIdentifier<Link> li = linkForLsp(linkIdForLsp(identifier, value));
-
-        final Optional<Link> ol = trans.read(LogicalDatastoreType.OPERATIONAL, li).get();
-        if (!ol.isPresent()) {
+    @GuardedBy("this")
+    private void remove(final WriteTransaction trans, final InstanceIdentifier<ReportedLsp> identifier,
+            final ReportedLsp value) {
+        final LinkId id = linkIdForLsp(identifier, value);
+        final LinkEntry link = this.tunnelLinks.remove(id);
+        if (link == null) {
             return;
         }
 
-        final Link l = ol.get();
-        LOG.debug("Removing link {} (was {})", li, l);
-        trans.delete(LogicalDatastoreType.OPERATIONAL, li);
+        LOG.debug("Removing link {}", id);
+        trans.delete(LogicalDatastoreType.OPERATIONAL, linkForLsp(id));
 
         LOG.debug("Searching for orphan links/nodes");
-        final Optional<Topology> ot = trans.read(LogicalDatastoreType.OPERATIONAL, this.target).get();
-        Preconditions.checkState(ot.isPresent());
-
-        final Topology topology = ot.get();
-        final NodeId srcNode = l.getSource().getSourceNode();
-        final NodeId dstNode = l.getDestination().getDestNode();
-        final TpId srcTp = l.getSource().getSourceTp();
-        final TpId dstTp = l.getDestination().getDestTp();
-
-        boolean orphSrcNode = true;
-        boolean orphDstNode = true;
-        boolean orphDstTp = true;
-        boolean orphSrcTp = true;
-        for (final Link lw : nonNullList(topology.getLink())) {
-            LOG.trace("Checking link {}", lw);
-
-            final NodeId sn = lw.getSource().getSourceNode();
-            final NodeId dn = lw.getDestination().getDestNode();
-            final TpId st = lw.getSource().getSourceTp();
-            final TpId dt = lw.getDestination().getDestTp();
-
-            // Source node checks
-            if (srcNode.equals(sn)) {
-                if (orphSrcNode) {
-                    LOG.debug("Node {} held by source of link {}", srcNode, lw);
-                    orphSrcNode = false;
-                }
-                if (orphSrcTp && srcTp.equals(st)) {
-                    LOG.debug("TP {} held by source of link {}", srcTp, lw);
-                    orphSrcTp = false;
-                }
-            }
-            if (srcNode.equals(dn)) {
-                if (orphSrcNode) {
-                    LOG.debug("Node {} held by destination of link {}", srcNode, lw);
-                    orphSrcNode = false;
-                }
-                if (orphSrcTp && srcTp.equals(dt)) {
-                    LOG.debug("TP {} held by destination of link {}", srcTp, lw);
-                    orphSrcTp = false;
-                }
-            }
-
-            // Destination node checks
-            if (dstNode.equals(sn)) {
-                if (orphDstNode) {
-                    LOG.debug("Node {} held by source of link {}", dstNode, lw);
-                    orphDstNode = false;
-                }
-                if (orphDstTp && dstTp.equals(st)) {
-                    LOG.debug("TP {} held by source of link {}", dstTp, lw);
-                    orphDstTp = false;
-                }
-            }
-            if (dstNode.equals(dn)) {
-                if (orphDstNode) {
-                    LOG.debug("Node {} held by destination of link {}", dstNode, lw);
-                    orphDstNode = false;
-                }
-                if (orphDstTp && dstTp.equals(dt)) {
-                    LOG.debug("TP {} held by destination of link {}", dstTp, lw);
-                    orphDstTp = false;
-                }
-            }
-        }
+        removeOrphan(trans, link.source, release(link.source));
+        removeOrphan(trans, link.destination, release(link.destination));
+    }
 
-        if (orphSrcNode && !orphSrcTp) {
-            LOG.warn("Orphan source node {} but not TP {}, retaining the node", srcNode, srcTp);
-            orphSrcNode = false;
-        }
-        if (orphDstNode && !orphDstTp) {
-            LOG.warn("Orphan destination node {} but not TP {}, retaining the node", dstNode, dstTp);
-            orphDstNode = false;
-        }
+    /*
+     * Drop a reference held by a link, returning true if the termination point's node is no longer referenced
+     * by any link.
+     */
+    private static boolean release(final TerminationPointEntry tp) {
+        tp.links--;
+        tp.node.links--;
+        return tp.node.links == 0;
+    }
 
-        if (orphSrcNode) {
-            LOG.debug("Removing orphan node {}", srcNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(srcNode));
-        } else if (orphSrcTp) {
-            LOG.debug("Removing orphan TP {} on node {}", srcTp, srcNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, tpIdentifier(srcNode, srcTp));
-        }
-        if (orphDstNode) {
-            LOG.debug("Removing orphan node {}", dstNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(dstNode));
-        } else if (orphDstTp) {
-            LOG.debug("Removing orphan TP {} on node {}", dstTp, dstNode);
-            trans.delete(LogicalDatastoreType.OPERATIONAL, tpIdentifier(dstNode, dstTp));
+    @GuardedBy("this")
+    private void removeOrphan(final WriteTransaction trans, final TerminationPointEntry tp,
+            final boolean orphanNode) {
+        final NodeEntry node = tp.node;
+        if (orphanNode) {
+            if (this.tunnelNodes.remove(node.nodeId, node)) {
+                LOG.debug("Removing orphan node {}", node.nodeId);
+                trans.delete(LogicalDatastoreType.OPERATIONAL, nodeIdentifier(node.nodeId));
+                node.terminationPoints.values().forEach(t -> this.terminationPoints.remove(t.address, t));
+            }
+        } else if (tp.links == 0 && node.terminationPoints.remove(tp.tpId, tp)) {
+            LOG.debug("Removing orphan TP {} on node {}", tp.tpId, node.nodeId);
+            trans.delete(LogicalDatastoreType.OPERATIONAL, tpIdentifier(node.nodeId, tp.tpId));
+            this.terminationPoints.remove(tp.address, tp);
         }
     }
 
     @Override
-    public void onDataTreeChanged(final Collection<DataTreeModification<Node>> changes) {
-        final ReadWriteTransaction trans = this.dataProvider.newReadWriteTransaction();
+    public synchronized void onDataTreeChanged(final Collection<DataTreeModification<Node>> changes) {
+        if (this.indexStale && !rebuildIndex()) {
+            LOG.warn("Tunnel topology index is inconsistent, dropping {} changes", changes.size());
+            return;
+        }
+
+        final WriteTransaction trans = this.dataProvider.newWriteOnlyTransaction();
 
         final Set<InstanceIdentifier<ReportedLsp>> lsps = new HashSet<>();
         final Set<InstanceIdentifier<Node>> nodes = new HashSet<>();
@@ -432,7 +380,8 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         // We now have list of all affected LSPs. Walk them create/remove them
         updateTransaction(trans, lsps, original, updated, created);
 
-        trans.commit().addCallback(new FutureCallback<CommitInfo>() {
+        this.lastCommit = trans.commit();
+        this.lastCommit.addCallback(new FutureCallback<CommitInfo>() {
             @Override
             public void onSuccess(final CommitInfo result) {
                 LOG.trace("Topology change committed successfully");
@@ -441,10 +390,106 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
             @Override
             public void onFailure(final Throwable throwable) {
                 LOG.error("Failed to propagate a topology change, target topology became inconsistent", throwable);
+                NodeChangedListener.this.indexStale = true;
             }
         }, MoreExecutors.directExecutor());
     }
 
+    /*
+     * The index has been updated ahead of a transaction which failed to commit, so it no longer reflects the tunnel
+     * topology. Wait for the last submitted transaction to settle, so that the read observes all of our writes, then
+     * read the topology back and rebuild the index from what is actually stored.
+     */
+    @GuardedBy("this")
+    private boolean rebuildIndex() {
+        if (this.lastCommit != null) {
+            try {
+                this.lastCommit.get();
+            } catch (final InterruptedException | ExecutionException e) {
+                LOG.debug("Last tunnel topology transaction did not complete", e);
+            }
+        }
+
+        final Optional<Topology> topology;
+        try (ReadTransaction rtx = this.dataProvider.newReadOnlyTransaction()) {
+            topology = rtx.read(LogicalDatastoreType.OPERATIONAL, this.target).get();
+        } catch (final InterruptedException | ExecutionException e) {
+            LOG.error("Failed to read topology {}, tunnel topology index not rebuilt", this.target, e);
+            return false;
+        }
+        rebuildIndex(topology.orElse(null));
+        return true;
+    }
+
+    synchronized void rebuildIndex(final Topology topology) {
+        this.indexStale = false;
+        this.terminationPoints.clear();
+        this.tunnelNodes.clear();
+        this.tunnelLinks.clear();
+        if (topology == null) {
+            LOG.debug("Topology {} not present, tunnel topology index cleared", this.target);
+            return;
+        }
+
+        if (topology.getNode() != null) {
+            for (final Node n : topology.getNode()) {
+                final NodeEntry node = new NodeEntry(n.getNodeId());
+                if (n.getSupportingNode() != null) {
+                    n.getSupportingNode().forEach(sn -> node.supportingNodes.add(sn.getNodeRef()));
+                }
+                if (n.getTerminationPoint() != null) {
+                    for (final TerminationPoint tp : n.getTerminationPoint()) {
+                        final IpAddress addr = terminationPointAddress(tp);
+                        if (addr != null) {
+                            final TerminationPointEntry tpe = new TerminationPointEntry(node, tp.getTpId(), addr);
+                            node.terminationPoints.put(tpe.tpId, tpe);
+                            this.terminationPoints.put(addr, tpe);
+                        }
+                    }
+                }
+                this.tunnelNodes.put(node.nodeId, node);
+            }
+        }
+
+        if (topology.getLink() != null) {
+            for (final Link l : topology.getLink()) {
+                final TerminationPointEntry src = indexedTerminationPoint(l.getSource().getSourceNode(),
+                    l.getSource().getSourceTp());
+                final TerminationPointEntry dst = indexedTerminationPoint(l.getDestination().getDestNode(),
+                    l.getDestination().getDestTp());
+                if (src == null || dst == null) {
+                    LOG.warn("Ignoring link {} with unknown endpoints", l.getLinkId());
+                    continue;
+                }
+                this.tunnelLinks.put(l.getLinkId(), new LinkEntry(src, dst));
+                src.acquire();
+                dst.acquire();
+            }
+        }
+        LOG.info("Tunnel topology index rebuilt with {} nodes and {} links", this.tunnelNodes.size(),
+            this.tunnelLinks.size());
+    }
+
+    private static IpAddress terminationPointAddress(final TerminationPoint tp) {
+        final TerminationPoint1 tpa = tp.augmentation(TerminationPoint1.class);
+        if (tpa == null) {
+            return null;
+        }
+        final IgpTerminationPointAttributes attrs = tpa.getIgpTerminationPointAttributes();
+        final TerminationPointType tpt = attrs == null ? null : attrs.getTerminationPointType();
+        if (!(tpt instanceof Ip) || ((Ip) tpt).getIpAddress() == null || ((Ip) tpt).getIpAddress().isEmpty()) {
+            LOG.debug("Ignoring termination point type {}", tpt);
+            return null;
+        }
+        return ((Ip) tpt).getIpAddress().get(0);
+    }
+
+    @GuardedBy("this")
+    private TerminationPointEntry indexedTerminationPoint(final NodeId nodeId, final TpId tpId) {
+        final NodeEntry node = this.tunnelNodes.get(nodeId);
+        return node == null ? null : node.terminationPoints.get(tpId);
+    }
+
     private void handleChangedNode(final DataObjectModification<?> changedNode, final InstanceIdentifier<?> iid,
             final Set<InstanceIdentifier<ReportedLsp>> lsps, final Set<InstanceIdentifier<Node>> nodes,
             final Map<InstanceIdentifier<?>, DataObject> original, final Map<InstanceIdentifier<?>, DataObject> updated,
@@ -480,7 +525,8 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         }
     }
 
-    private void updateTransaction(final ReadWriteTransaction trans,
+    @GuardedBy("this")
+    private void updateTransaction(final WriteTransaction trans,
             final Set<InstanceIdentifier<ReportedLsp>> lsps,
             final Map<InstanceIdentifier<?>, ? extends DataObject> old,
             final Map<InstanceIdentifier<?>, DataObject> updated,
@@ -495,18 +541,10 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
 
             LOG.debug("Updating lsp {} value {} -> {}", i, oldValue, newValue);
             if (oldValue != null) {
-                try {
-                    remove(trans, i, oldValue);
-                } catch (final ExecutionException | InterruptedException e) {
-                    LOG.warn("Failed to remove LSP {}", i, e);
-                }
+                remove(trans, i, oldValue);
             }
             if (newValue != null) {
-                try {
-                    create(trans, i, newValue);
-                } catch (final ExecutionException | InterruptedException e) {
-                    LOG.warn("Failed to add LSP {}", i, e);
-                }
+                create(trans, i, newValue);
             }
         }
     }
@@ -515,7 +553,42 @@ public final class NodeChangedListener implements ClusteredDataTreeChangeListene
         return dataProvider;
     }
 
-    private static <T> List<T> nonNullList(final List<T> nullable) {
-        return nullable != null ? nullable : ImmutableList.of();
+    private static final class NodeEntry {
+        final NodeId nodeId;
+        final Set<NodeId> supportingNodes = new HashSet<>();
+        final Map<TpId, TerminationPointEntry> terminationPoints = new HashMap<>();
+        int links;
+
+        NodeEntry(final NodeId nodeId) {
+            this.nodeId = requireNonNull(nodeId);
+        }
+    }
+
+    private static final class TerminationPointEntry {
+        final NodeEntry node;
+        final TpId tpId;
+        final IpAddress address;
+        int links;
+
+        TerminationPointEntry(final NodeEntry node, final TpId tpId, final IpAddress address) {
+            this.node = requireNonNull(node);
+            this.tpId = requireNonNull(tpId);
+            this.address = requireNonNull(address);
+        }
+
+        void acquire() {
+            this.links++;
+            this.node.links++;
+        }
+    }
+
+    private static final class LinkEntry {
+        final TerminationPointEntry source;
+        final TerminationPointEntry destination;
+
+        LinkEntry(final TerminationPointEntry source, final TerminationPointEntry destination) {
+            this.source = requireNonNull(source);
+            this.destination = requireNonNull(destination);
+        }
     }
 }
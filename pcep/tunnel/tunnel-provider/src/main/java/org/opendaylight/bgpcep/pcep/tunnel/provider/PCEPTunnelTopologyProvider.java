@@ -69,6 +69,8 @@ public final class PCEPTunnelTopologyProvider extends DefaultTopologyReference i
         } catch (final InterruptedException | ExecutionException e) {
             LOG.error("Failed to create Tunnel Topology root", e);
         }
+        // The topology has just been reset, drop whatever the listener indexed during a previous instantiation
+        this.ncl.rebuildIndex(null);
         this.reg = this.ncl.getDataProvider()
                 .registerDataTreeChangeListener(DataTreeIdentifier.create(LogicalDatastoreType.OPERATIONAL, this.src),
                         this.ncl);
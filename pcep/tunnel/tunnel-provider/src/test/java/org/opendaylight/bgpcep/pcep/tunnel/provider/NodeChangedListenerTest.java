@@ -78,11 +78,14 @@ public class NodeChangedListenerTest extends AbstractConcurrentDataBrokerTest {
     private static final String LSP2_NAME = "lsp2";
     private static final long LSP2_ID = 2;
 
+    private static final String NODE3_IPV4 = "41.41.41.41";
+
     private static final InstanceIdentifier<Topology> PCEP_TOPO_IID = InstanceIdentifier.builder(NetworkTopology.class)
             .child(Topology.class, new TopologyKey(PCEP_TOPOLOGY_ID)).build();
     private static final InstanceIdentifier<Topology> TUNNEL_TOPO_IID = InstanceIdentifier
             .builder(NetworkTopology.class).child(Topology.class, new TopologyKey(TUNNEL_TOPOLOGY_ID)).build();
 
+    private NodeChangedListener nodeListener;
     private ListenerRegistration<NodeChangedListener> listenerRegistration;
 
     @Before
@@ -94,10 +97,9 @@ public class NodeChangedListenerTest extends AbstractConcurrentDataBrokerTest {
         wTx.put(LogicalDatastoreType.OPERATIONAL, TUNNEL_TOPO_IID, new TopologyBuilder()
                 .withKey(new TopologyKey(TUNNEL_TOPOLOGY_ID)).setTopologyId(TUNNEL_TOPOLOGY_ID).build(), true);
         wTx.commit().get();
-        final NodeChangedListener nodeListener = new NodeChangedListener(getDataBroker(),
-                PCEP_TOPOLOGY_ID, TUNNEL_TOPO_IID);
+        this.nodeListener = new NodeChangedListener(getDataBroker(), PCEP_TOPOLOGY_ID, TUNNEL_TOPO_IID);
         this.listenerRegistration = getDataBroker().registerDataTreeChangeListener(DataTreeIdentifier.create(
-                LogicalDatastoreType.OPERATIONAL, PCEP_TOPO_IID.child(Node.class)), nodeListener);
+                LogicalDatastoreType.OPERATIONAL, PCEP_TOPO_IID.child(Node.class)), this.nodeListener);
     }
 
     @Test
@@ -193,6 +195,140 @@ public class NodeChangedListenerTest extends AbstractConcurrentDataBrokerTest {
         });
     }
 
+    @Test
+    public void testReplacedLink() throws InterruptedException, ExecutionException {
+        final NodeId srcId = ipNodeId(NODE1_IPV4);
+        final NodeId dstId = ipNodeId(NODE2_IPV4);
+        final NodeId newDstId = ipNodeId(NODE3_IPV4);
+
+        createNode(NODE1_ID, NODE1_IPV4, LSP1_NAME, LSP1_ID, NODE2_IPV4);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertEquals(1, topo.getLink().size());
+            return topo;
+        });
+
+        // same LSP reported with a new destination -> previous destination node is orphaned
+        createNode(NODE1_ID, NODE1_IPV4, LSP1_NAME, LSP1_ID, NODE3_IPV4);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertNotNull(findNode(topo, srcId));
+            assertNull(findNode(topo, dstId));
+            assertNotNull(findNode(topo, newDstId));
+            assertEquals(1, topo.getLink().size());
+            final Link link = topo.getLink().get(0);
+            assertEquals(srcId, link.getSource().getSourceNode());
+            assertEquals(newDstId, link.getDestination().getDestNode());
+            return topo;
+        });
+
+        removeNode(NODE1_ID);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNull(topo.getNode());
+            assertNull(topo.getLink());
+            return topo;
+        });
+    }
+
+    @Test
+    public void testRemoveLastReference() throws InterruptedException, ExecutionException {
+        final NodeId node1Id = ipNodeId(NODE1_IPV4);
+        final NodeId node2Id = ipNodeId(NODE2_IPV4);
+        final NodeId node3Id = ipNodeId(NODE3_IPV4);
+
+        // 39 -> 40 and 40 -> 41
+        createNode(NODE1_ID, NODE1_IPV4, LSP1_NAME, LSP1_ID, NODE2_IPV4);
+        createNode(NODE2_ID, NODE2_IPV4, LSP2_NAME, LSP2_ID, NODE3_IPV4);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(3, topo.getNode().size());
+            assertEquals(2, topo.getLink().size());
+            return topo;
+        });
+
+        // first link removed -> its source loses the last reference, its destination is still a source
+        removeNode(NODE1_ID);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertNull(findNode(topo, node1Id));
+            final Node node2 = findNode(topo, node2Id);
+            assertNotNull(node2);
+            assertEquals(1, node2.getTerminationPoint().size());
+            assertEquals(1, node2.getSupportingNode().size());
+            assertNotNull(findNode(topo, node3Id));
+            assertEquals(1, topo.getLink().size());
+            return topo;
+        });
+
+        removeNode(NODE2_ID);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNull(topo.getNode());
+            assertNull(topo.getLink());
+            return topo;
+        });
+    }
+
+    @Test
+    public void testRebuildIndex() throws InterruptedException, ExecutionException {
+        createNode(NODE1_ID, NODE1_IPV4, LSP1_NAME, LSP1_ID, NODE2_IPV4);
+        final Topology tunnelTopo = readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertEquals(1, topo.getLink().size());
+            return topo;
+        });
+
+        // drop the index and rebuild it from the stored topology, removal must still find the orphans
+        this.nodeListener.rebuildIndex(null);
+        this.nodeListener.rebuildIndex(tunnelTopo);
+        removeNode(NODE1_ID);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNull(topo.getNode());
+            assertNull(topo.getLink());
+            return topo;
+        });
+    }
+
+    @Test
+    public void testReinstantiation() throws InterruptedException, ExecutionException {
+        this.listenerRegistration.close();
+        final PCEPTunnelTopologyProvider provider = new PCEPTunnelTopologyProvider(getDataBroker(), PCEP_TOPO_IID,
+            PCEP_TOPOLOGY_ID, TUNNEL_TOPO_IID, TUNNEL_TOPOLOGY_ID);
+        provider.init();
+        createNode(NODE1_ID, NODE1_IPV4, LSP1_NAME, LSP1_ID, NODE2_IPV4);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertEquals(1, topo.getLink().size());
+            return topo;
+        });
+
+        // leadership flap: the topology is reset and the existing PCEP node is replayed to the listener
+        provider.close();
+        provider.init();
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertEquals(1, topo.getLink().size());
+            return topo;
+        });
+
+        // update after reinstantiation must still create the new destination node
+        createNode(NODE1_ID, NODE1_IPV4, LSP1_NAME, LSP1_ID, NODE3_IPV4);
+        readDataOperational(getDataBroker(), TUNNEL_TOPO_IID, topo -> {
+            assertNotNull(topo.getNode());
+            assertEquals(2, topo.getNode().size());
+            assertNotNull(findNode(topo, ipNodeId(NODE1_IPV4)));
+            assertNotNull(findNode(topo, ipNodeId(NODE3_IPV4)));
+            assertEquals(1, topo.getLink().size());
+            return topo;
+        });
+        provider.close();
+    }
+
     @After
     public void tearDown() {
         this.listenerRegistration.close();
@@ -229,6 +365,15 @@ public class NodeChangedListenerTest extends AbstractConcurrentDataBrokerTest {
         wTx.commit().get();
     }
 
+    private static NodeId ipNodeId(final String ipv4Address) {
+        return new NodeId("ip://" + new IpAddress(new Ipv4Address(ipv4Address)));
+    }
+
+    private static Node findNode(final Topology topology, final NodeId nodeId) {
+        return topology.getNode().stream().filter(node -> nodeId.equals(node.getNodeId())).findFirst()
+                .orElse(null);
+    }
+
     private void removeNode(final NodeId nodeId) throws InterruptedException, ExecutionException {
         final WriteTransaction wTx = getDataBroker().newWriteOnlyTransaction();
         wTx.delete(LogicalDatastoreType.OPERATIONAL, PCEP_TOPO_IID.builder()
@@ -36,28 +36,49 @@ final class InstructionImpl implements Instruction {
     private final List<InstructionImpl> dependencies;
     private final QueueInstruction queue;
     private final InstructionId id;
+    private final InstructionLane lane;
     private SettableFuture<ExecutionResult<Details>> executionFuture;
-    private InstructionStatus status = InstructionStatus.Queued;
+    /*
+     * Written only while holding the lock, but read without it, so that checking the status of dependencies never
+     * needs to acquire their locks.
+     */
+    private volatile InstructionStatus status = InstructionStatus.Queued;
     private Details heldUpDetails;
     private Timeout timeout;
 
     InstructionImpl(final QueueInstruction queue, final SettableFuture<Instruction> future, final InstructionId id,
-            final List<InstructionImpl> dependencies, final Timeout timeout) {
+            final List<InstructionImpl> dependencies, final InstructionLane lane) {
         this.schedulingFuture = requireNonNull(future);
         this.dependencies = requireNonNull(dependencies);
-        this.timeout = requireNonNull(timeout);
         this.queue = requireNonNull(queue);
         this.id = requireNonNull(id);
+        this.lane = requireNonNull(lane);
     }
 
     InstructionId getId() {
         return this.id;
     }
 
-    synchronized InstructionStatus getStatus() {
+    InstructionStatus getStatus() {
         return this.status;
     }
 
+    InstructionLane getLane() {
+        return this.lane;
+    }
+
+    /**
+     * Arm the deadline timeout of this instruction. If the timeout has already expired, it is processed immediately.
+     *
+     * @param newTimeout timeout invoking {@link #timeout()}
+     */
+    synchronized void setTimeout(final Timeout newTimeout) {
+        this.timeout = requireNonNull(newTimeout);
+        if (newTimeout.isExpired()) {
+            timeout();
+        }
+    }
+
     private synchronized void setStatus(final InstructionStatus newStatus, final Details details) {
         // Set the status
         this.status = newStatus;
@@ -214,19 +235,26 @@ final class InstructionImpl implements Instruction {
     }
 
     synchronized Iterator<InstructionImpl> getDependants() {
-        return this.dependants.iterator();
+        return ImmutableList.copyOf(this.dependants).iterator();
     }
 
-    synchronized void clean() {
-        for (final InstructionImpl dependency : this.dependencies) {
-            dependency.removeDependant(this);
+    void clean() {
+        // Other instructions are unlinked without holding our lock, as they may be locking us at the same time
+        final List<InstructionImpl> oldDependencies;
+        final List<InstructionImpl> oldDependants;
+        synchronized (this) {
+            oldDependencies = ImmutableList.copyOf(this.dependencies);
+            this.dependencies.clear();
+            oldDependants = ImmutableList.copyOf(this.dependants);
+            this.dependants.clear();
         }
-        this.dependencies.clear();
 
-        for (final InstructionImpl dependant : this.dependants) {
+        for (final InstructionImpl dependency : oldDependencies) {
+            dependency.removeDependant(this);
+        }
+        for (final InstructionImpl dependant : oldDependants) {
             dependant.removeDependency(this);
         }
-        this.dependants.clear();
 
         this.queue.instructionRemoved();
     }
@@ -263,7 +291,10 @@ final class InstructionImpl implements Instruction {
     }
 
     synchronized ListenableFuture<ExecutionResult<Details>> ready() {
-        Preconditions.checkState(this.status == InstructionStatus.Queued);
+        if (this.status != InstructionStatus.Queued) {
+            // Already scheduled or resolved through another dependency
+            return null;
+        }
         Preconditions.checkState(this.executionFuture == null);
         /*
          * Check all vertices we depend on. We start off as ready for
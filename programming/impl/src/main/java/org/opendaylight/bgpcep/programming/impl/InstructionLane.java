@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.programming.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serial execution lane on top of a shared executor. Tasks submitted to a single lane run one at a time, in the order
+ * they were submitted, while tasks of different lanes run in parallel. An idle lane occupies no executor thread.
+ * A keyed lane also counts the instructions assigned to it, so it can be dropped once none of them is left.
+ */
+final class InstructionLane {
+    private static final Logger LOG = LoggerFactory.getLogger(InstructionLane.class);
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final ListeningExecutorService executor;
+    private final Object key;
+    // Modified only while the lane is being computed in the owning map
+    private int users;
+
+    InstructionLane(final Object key, final ListeningExecutorService executor) {
+        this.key = key;
+        this.executor = requireNonNull(executor);
+    }
+
+    Object getKey() {
+        return this.key;
+    }
+
+    void acquire() {
+        this.users++;
+    }
+
+    /**
+     * Release an instruction assigned to this lane.
+     *
+     * @return True if no instructions are assigned to this lane anymore
+     */
+    boolean release() {
+        return --this.users == 0;
+    }
+
+    void execute(final Runnable task) {
+        this.tasks.add(task);
+        if (this.draining.compareAndSet(false, true)) {
+            this.executor.submit(this::drain);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:IllegalCatch")
+    private void drain() {
+        do {
+            Runnable task;
+            while ((task = this.tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (final RuntimeException e) {
+                    LOG.error("Instruction lane task {} failed", task, e);
+                }
+            }
+            this.draining.set(false);
+            // A task may have been added after the queue was found empty, but before the flag was cleared
+        } while (!this.tasks.isEmpty() && this.draining.compareAndSet(false, true));
+    }
+}
@@ -27,7 +27,7 @@ import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public final class InstructionSchedulerFactoryImpl implements InstructionSchedulerFactory {
+public final class InstructionSchedulerFactoryImpl implements InstructionSchedulerFactory, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(InstructionSchedulerFactoryImpl.class);
 
@@ -37,7 +37,10 @@ public final class InstructionSchedulerFactoryImpl implements InstructionSchedul
     private final RpcProviderService rpcProviderRegistry;
     private final BundleContext bundleContext;
     private final ClusterSingletonServiceProvider cssp;
-    private final ListeningExecutorService exec = MoreExecutors.listeningDecorator(Executors.newSingleThreadExecutor());
+    private final long statusPublishDelay;
+    private final boolean publishTerminalStatusOnly;
+    private final ListeningExecutorService exec = MoreExecutors.listeningDecorator(
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
 
     public InstructionSchedulerFactoryImpl(
             final DataBroker dataProvider,
@@ -45,13 +48,17 @@ public final class InstructionSchedulerFactoryImpl implements InstructionSchedul
             final NotificationPublishService notifs,
             final Timer timer,
             final ClusterSingletonServiceProvider cssp,
-            final BundleContext bundleContext) {
+            final BundleContext bundleContext,
+            final int statusPublishDelay,
+            final boolean publishTerminalStatusOnly) {
         this.dataProvider = requireNonNull(dataProvider);
         this.notifs = requireNonNull(notifs);
         this.timer = requireNonNull(timer);
         this.rpcProviderRegistry = requireNonNull(rpcProviderRegistry);
         this.bundleContext = requireNonNull(bundleContext);
         this.cssp = requireNonNull(cssp);
+        this.statusPublishDelay = statusPublishDelay;
+        this.publishTerminalStatusOnly = publishTerminalStatusOnly;
     }
 
     @Override
@@ -59,7 +66,8 @@ public final class InstructionSchedulerFactoryImpl implements InstructionSchedul
         LOG.info("Creating Instruction Scheduler {}.", instructionId);
 
         final ProgrammingServiceImpl programmingInst = new ProgrammingServiceImpl(this.dataProvider, this.notifs,
-                this.exec, this.rpcProviderRegistry, this.cssp, this.timer, instructionId);
+                this.exec, this.rpcProviderRegistry, this.cssp, this.timer, instructionId, this.statusPublishDelay,
+                this.publishTerminalStatusOnly);
         final Dictionary<String, String> properties = new Hashtable<>();
         properties.put(InstructionScheduler.class.getName(), instructionId);
         final ServiceRegistration<?> serviceRegistration = this.bundleContext
@@ -67,4 +75,10 @@ public final class InstructionSchedulerFactoryImpl implements InstructionSchedul
         programmingInst.setServiceRegistration(serviceRegistration);
         return programmingInst;
     }
+
+    @Override
+    public void close() {
+        LOG.info("Shutting down Instruction Scheduler executor");
+        this.exec.shutdown();
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.programming.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.Timer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.concurrent.GuardedBy;
+import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.common.api.LogicalDatastoreType;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionsQueue;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction.queue.Instruction;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction.queue.InstructionKey;
+import org.opendaylight.yangtools.yang.binding.InstanceIdentifier;
+import org.opendaylight.yangtools.yang.binding.KeyedInstanceIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes instruction status changes of a single instruction queue into the operational datastore. Changes are
+ * accumulated for at most the configured delay and then written in a single transaction, which carries only the
+ * latest state of each instruction changed in the meantime.
+ */
+final class InstructionStatusPublisher {
+    private static final Logger LOG = LoggerFactory.getLogger(InstructionStatusPublisher.class);
+
+    private final DataBroker dataProvider;
+    private final InstanceIdentifier<InstructionsQueue> qid;
+    private final Timer timer;
+    private final long delayMillis;
+    private final boolean terminalOnly;
+    /*
+     * Instructions changed since the last write, in order of their first change. A null value stands for
+     * an instruction which has been removed.
+     */
+    @GuardedBy("this")
+    private Map<InstructionKey, Instruction> pending = new LinkedHashMap<>();
+    @GuardedBy("this")
+    private boolean flushScheduled;
+
+    InstructionStatusPublisher(final DataBroker dataProvider,
+            final InstanceIdentifier<InstructionsQueue> qid, final Timer timer,
+            final long delayMillis, final boolean terminalOnly) {
+        this.dataProvider = requireNonNull(dataProvider);
+        this.qid = requireNonNull(qid);
+        this.timer = requireNonNull(timer);
+        this.delayMillis = delayMillis;
+        this.terminalOnly = terminalOnly;
+    }
+
+    void instructionUpdated(final Instruction instruction) {
+        if (this.terminalOnly && !isTerminal(instruction.getStatus())) {
+            return;
+        }
+        enqueue(instruction.key(), instruction);
+    }
+
+    void instructionRemoved(final InstructionKey key) {
+        enqueue(key, null);
+    }
+
+    /**
+     * Drop all changes which have not been written yet. Invoked before the instruction queue is removed, so a
+     * delayed write does not resurrect it.
+     */
+    synchronized void discardPending() {
+        this.pending.clear();
+    }
+
+    private void enqueue(final InstructionKey key, final Instruction instruction) {
+        final boolean flushNow;
+        synchronized (this) {
+            this.pending.put(key, instruction);
+            if (this.flushScheduled) {
+                return;
+            }
+            this.flushScheduled = this.delayMillis > 0;
+            flushNow = !this.flushScheduled;
+        }
+
+        if (flushNow) {
+            flush();
+        } else {
+            this.timer.newTimeout(timeout -> flush(), this.delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Batches are committed while holding the lock, so that they reach the datastore in the order they were taken
+    private synchronized void flush() {
+        this.flushScheduled = false;
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        final Map<InstructionKey, Instruction> batch = this.pending;
+        this.pending = new LinkedHashMap<>();
+
+        final WriteTransaction wt = this.dataProvider.newWriteOnlyTransaction();
+        for (final Map.Entry<InstructionKey, Instruction> entry : batch.entrySet()) {
+            final KeyedInstanceIdentifier<Instruction, InstructionKey> iid = this.qid.child(Instruction.class,
+                    entry.getKey());
+            if (entry.getValue() != null) {
+                wt.put(LogicalDatastoreType.OPERATIONAL, iid, entry.getValue());
+            } else {
+                wt.delete(LogicalDatastoreType.OPERATIONAL, iid);
+            }
+        }
+        wt.commit().addCallback(new FutureCallback<CommitInfo>() {
+            @Override
+            public void onSuccess(final CommitInfo result) {
+                LOG.debug("Instruction Queue {} updated with {} instruction changes",
+                        InstructionStatusPublisher.this.qid, batch.size());
+            }
+
+            @Override
+            public void onFailure(final Throwable trw) {
+                LOG.error("Failed to update Instruction Queue {}", InstructionStatusPublisher.this.qid, trw);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private static boolean isTerminal(final InstructionStatus status) {
+        switch (status) {
+            case Cancelled:
+            case Failed:
+            case Successful:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -9,6 +9,7 @@ package org.opendaylight.bgpcep.programming.impl;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -16,15 +17,14 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
-import io.netty.util.Timeout;
 import io.netty.util.Timer;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.GuardedBy;
 import org.opendaylight.bgpcep.programming.NanotimeUtil;
@@ -78,7 +78,9 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         ProgrammingService {
     private static final Logger LOG = LoggerFactory.getLogger(ProgrammingServiceImpl.class);
 
-    private final Map<InstructionId, InstructionImpl> insns = new HashMap<>();
+    private final ConcurrentMap<InstructionId, InstructionImpl> insns = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Object, InstructionLane> lanes = new ConcurrentHashMap<>();
+    private final InstructionLane defaultLane;
     private final InstanceIdentifier<InstructionsQueue> qid;
     private final NotificationPublishService notifs;
     private final ListeningExecutorService executor;
@@ -88,6 +90,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
     private final ServiceGroupIdentifier sgi;
     private final ClusterSingletonServiceRegistration csspReg;
     private final RpcProviderService rpcProviderRegistry;
+    private final InstructionStatusPublisher statusPublisher;
     @GuardedBy("this")
     private ObjectRegistration<ProgrammingService> reg;
     @GuardedBy("this")
@@ -107,24 +110,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         public void instructionUpdated(final InstructionStatus status, final Details details) {
             if (!status.equals(this.builder.getStatus())) {
                 this.builder.setStatus(status);
-
-                final WriteTransaction wt = ProgrammingServiceImpl.this.dataProvider.newWriteOnlyTransaction();
-                wt.put(LogicalDatastoreType.OPERATIONAL,
-                        ProgrammingServiceImpl.this.qid.child(
-                                org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming
-                                        .rev150720.instruction.queue.Instruction.class,
-                                new InstructionKey(this.builder.getId())), this.builder.build());
-                wt.commit().addCallback(new FutureCallback<CommitInfo>() {
-                    @Override
-                    public void onSuccess(final CommitInfo result) {
-                        LOG.debug("Instruction Queue {} updated", ProgrammingServiceImpl.this.qid);
-                    }
-
-                    @Override
-                    public void onFailure(final Throwable trw) {
-                        LOG.error("Failed to update Instruction Queue {}", ProgrammingServiceImpl.this.qid, trw);
-                    }
-                }, MoreExecutors.directExecutor());
+                ProgrammingServiceImpl.this.statusPublisher.instructionUpdated(this.builder.build());
             }
 
             try {
@@ -137,36 +123,31 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
 
         @Override
         public void instructionRemoved() {
-            final WriteTransaction wt = ProgrammingServiceImpl.this.dataProvider.newWriteOnlyTransaction();
-            wt.delete(LogicalDatastoreType.OPERATIONAL, ProgrammingServiceImpl.this.qid.child(
-                    org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.instruction
-                            .queue.Instruction.class,
-                    new InstructionKey(this.builder.getId())));
-            wt.commit().addCallback(new FutureCallback<CommitInfo>() {
-                @Override
-                public void onSuccess(final CommitInfo result) {
-                    LOG.debug("Instruction Queue {} removed", ProgrammingServiceImpl.this.qid);
-                }
-
-                @Override
-                public void onFailure(final Throwable trw) {
-                    LOG.error("Failed to remove Instruction Queue {}", ProgrammingServiceImpl.this.qid, trw);
-                }
-            }, MoreExecutors.directExecutor());
+            ProgrammingServiceImpl.this.statusPublisher.instructionRemoved(new InstructionKey(this.builder.getId()));
         }
     }
 
     ProgrammingServiceImpl(final DataBroker dataProvider, final NotificationPublishService notifs,
             final ListeningExecutorService executor, final RpcProviderService rpcProviderRegistry,
             final ClusterSingletonServiceProvider cssp, final Timer timer, final String instructionId) {
+        this(dataProvider, notifs, executor, rpcProviderRegistry, cssp, timer, instructionId, 0, false);
+    }
+
+    ProgrammingServiceImpl(final DataBroker dataProvider, final NotificationPublishService notifs,
+            final ListeningExecutorService executor, final RpcProviderService rpcProviderRegistry,
+            final ClusterSingletonServiceProvider cssp, final Timer timer, final String instructionId,
+            final long statusPublishDelayMillis, final boolean publishTerminalStatusOnly) {
         this.dataProvider = requireNonNull(dataProvider);
         this.instructionId = requireNonNull(instructionId);
         this.notifs = requireNonNull(notifs);
         this.executor = requireNonNull(executor);
+        this.defaultLane = new InstructionLane(null, executor);
         this.rpcProviderRegistry = requireNonNull(rpcProviderRegistry);
         this.timer = requireNonNull(timer);
         this.qid = KeyedInstanceIdentifier.builder(InstructionsQueue.class,
                 new InstructionsQueueKey(this.instructionId)).build();
+        this.statusPublisher = new InstructionStatusPublisher(dataProvider, this.qid, timer,
+                statusPublishDelayMillis, publishTerminalStatusOnly);
         this.sgi = ServiceGroupIdentifier.create(this.instructionId + "-service-group");
         LOG.info("Creating Programming Service {}.", this.sgi.getValue());
         this.csspReg = cssp.registerClusterSingletonService(this);
@@ -208,7 +189,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         return this.executor.submit(() -> realCleanInstructions(input));
     }
 
-    private synchronized RpcResult<CancelInstructionOutput> realCancelInstruction(final CancelInstructionInput input) {
+    private RpcResult<CancelInstructionOutput> realCancelInstruction(final CancelInstructionInput input) {
         final InstructionImpl instruction = this.insns.get(input.getId());
         if (instruction == null) {
             LOG.debug("Instruction {} not present in the graph", input.getId());
@@ -222,7 +203,7 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
                 .setFailure(instruction.tryCancel(null)).build());
     }
 
-    private synchronized RpcResult<CleanInstructionsOutput> realCleanInstructions(final CleanInstructionsInput input) {
+    private RpcResult<CleanInstructionsOutput> realCleanInstructions(final CleanInstructionsInput input) {
         final List<InstructionId> failed = new ArrayList<>();
 
         for (final InstructionId id : input.getId()) {
@@ -254,9 +235,10 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
 
             // The instruction is in a terminal state, we need to just unlink
             // it from its dependencies and dependents
-            instruction.clean();
-
-            this.insns.remove(id);
+            if (this.insns.remove(id, instruction)) {
+                instruction.clean();
+                releaseLane(instruction.getLane());
+            }
             LOG.debug("Instruction {} cleaned successfully", id);
         }
 
@@ -317,13 +299,17 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
     }
 
     @Override
-    public synchronized ListenableFuture<Instruction> scheduleInstruction(final SubmitInstructionInput input) throws
+    public ListenableFuture<Instruction> scheduleInstruction(final SubmitInstructionInput input) throws
             SchedulerException {
+        return scheduleInstruction(input, null);
+    }
+
+    @Override
+    public ListenableFuture<Instruction> scheduleInstruction(final SubmitInstructionInput input, final Object lane)
+            throws SchedulerException {
         final InstructionId id = input.getId();
-        if (this.insns.get(id) != null) {
-            LOG.info("Instruction ID {} already present", id);
-            throw new SchedulerException("Instruction ID currently in use",
-                    new FailureBuilder().setType(DuplicateInstructionId.class).build());
+        if (this.insns.containsKey(id)) {
+            throw duplicateInstruction(id);
         }
 
         // First things first: check the deadline
@@ -345,56 +331,87 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
          * like).
          */
 
-        // Schedule a timeout for the instruction
-        final Timeout t = this.timer.newTimeout(timeout -> timeoutInstruction(input.getId()), left.longValue(),
-                TimeUnit.NANOSECONDS);
-
-        // Put it into the instruction list
+        // Put it into the instruction list, unless a concurrent request has claimed the ID in the meantime
         final SettableFuture<Instruction> ret = SettableFuture.create();
         final InstructionImpl instruction = new InstructionImpl(new InstructionPusher(id, input.getDeadline()), ret, id,
-                dependencies, t);
-        this.insns.put(id, instruction);
+                dependencies, acquireLane(lane));
+        if (this.insns.putIfAbsent(id, instruction) != null) {
+            releaseLane(instruction.getLane());
+            throw duplicateInstruction(id);
+        }
 
-        // Attach it into its dependencies
+        /*
+         * Attach it into its dependencies. A dependency which completes before
+         * it sees the instruction attached is picked up by the readiness check
+         * below, one which completes after that checks the instruction again.
+         */
         for (final InstructionImpl d : dependencies) {
             d.addDependant(instruction);
         }
 
+        // Schedule a timeout for the instruction
+        instruction.setTimeout(this.timer.newTimeout(timeout -> instruction.timeout(), left.longValue(),
+                TimeUnit.NANOSECONDS));
+
         /*
          * All done. The next part is checking whether the instruction can
          * run, which we can figure out after sending out the acknowledgement.
          * This task should be ingress-weighed, so we reinsert it into the
-         * same execution service.
+         * lane of its target.
          */
-        this.executor.submit(() -> tryScheduleInstruction(instruction));
+        instruction.getLane().execute(() -> tryScheduleInstruction(instruction));
 
         return ret;
     }
 
-    @Override
-    public String getInstructionID() {
-        return this.instructionId;
+    private InstructionLane acquireLane(final Object key) {
+        if (key == null) {
+            return this.defaultLane;
+        }
+        return this.lanes.compute(key, (k, existing) -> {
+            final InstructionLane lane = existing != null ? existing : new InstructionLane(k, this.executor);
+            lane.acquire();
+            return lane;
+        });
     }
 
-    private synchronized void timeoutInstruction(final InstructionId id) {
-        final InstructionImpl instruction = this.insns.get(id);
-        if (instruction == null) {
-            LOG.warn("Instruction {} timed out, but not found in the queue", id);
-            return;
+    /*
+     * Drop the lane once no instruction is assigned to it. Any later instruction for the same key gets a new lane,
+     * which cannot reorder it with respect to instructions which have already been cleaned.
+     */
+    private void releaseLane(final InstructionLane lane) {
+        final Object key = lane.getKey();
+        if (key != null) {
+            this.lanes.computeIfPresent(key, (k, existing) -> existing == lane && lane.release() ? null : existing);
         }
+    }
 
-        instruction.timeout();
+    @VisibleForTesting
+    int getLaneCount() {
+        return this.lanes.size();
+    }
+
+    private static SchedulerException duplicateInstruction(final InstructionId id) {
+        LOG.info("Instruction ID {} already present", id);
+        return new SchedulerException("Instruction ID currently in use",
+                new FailureBuilder().setType(DuplicateInstructionId.class).build());
+    }
+
+    @Override
+    public String getInstructionID() {
+        return this.instructionId;
     }
 
-    private synchronized void tryScheduleDependants(final InstructionImpl instruction) {
-        // Walk all dependants and try to schedule them
+    private void tryScheduleDependants(final InstructionImpl instruction) {
+        // Walk all dependants and try to schedule them, each in its own lane
         final Iterator<InstructionImpl> it = instruction.getDependants();
         while (it.hasNext()) {
-            tryScheduleInstruction(it.next());
+            final InstructionImpl dependant = it.next();
+            dependant.getLane().execute(() -> tryScheduleInstruction(dependant));
         }
     }
 
-    private synchronized void tryScheduleInstruction(final InstructionImpl instruction) {
+    private void tryScheduleInstruction(final InstructionImpl instruction) {
         final ListenableFuture<ExecutionResult<Details>> f = instruction.ready();
         if (f != null) {
             Futures.addCallback(f, new FutureCallback<ExecutionResult<Details>>() {
@@ -423,6 +440,9 @@ public final class ProgrammingServiceImpl implements ClusterSingletonService, In
         for (final InstructionImpl instruction : this.insns.values()) {
             instruction.tryCancel(null);
         }
+        this.lanes.clear();
+        // The whole queue is removed below, do not let pending instruction changes write into it again
+        this.statusPublisher.discardPending();
         // Workaround for BUG-2283
         final WriteTransaction wt = this.dataProvider.newWriteOnlyTransaction();
         wt.delete(LogicalDatastoreType.OPERATIONAL, this.qid);
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019 Pantheon Technologies s.r.o. and others.  All rights reserved.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.opendaylight.bgpcep.programming.impl;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.HashedWheelTimer;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.opendaylight.bgpcep.programming.spi.Instruction;
+import org.opendaylight.bgpcep.programming.spi.SchedulerException;
+import org.opendaylight.mdsal.binding.api.DataBroker;
+import org.opendaylight.mdsal.binding.api.NotificationPublishService;
+import org.opendaylight.mdsal.binding.api.RpcProviderService;
+import org.opendaylight.mdsal.binding.api.WriteTransaction;
+import org.opendaylight.mdsal.common.api.CommitInfo;
+import org.opendaylight.mdsal.singleton.common.api.ClusterSingletonServiceProvider;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionId;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.InstructionStatus;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.Nanotime;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.SubmitInstructionInput;
+import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.topology.tunnel.pcep.programming.rev181109.PcepUpdateTunnelInputBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the time {@link ProgrammingServiceImpl} takes to schedule and run a batch of instructions, which depend on
+ * randomly chosen earlier instructions, spread over a number of lanes. Instructions are completed as soon as they
+ * are scheduled. Run via {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ProgrammingServiceImplBenchmark {
+    private static final Nanotime DEADLINE = new Nanotime(BigInteger.valueOf(Long.MAX_VALUE));
+    private static final int MAX_DEPENDENCIES = 2;
+    private static final int DEPENDENCY_WINDOW = 1000;
+
+    @Param({"100000"})
+    public int instructions;
+
+    @Param({"1", "1000"})
+    public int lanes;
+
+    private final DataBroker dataBroker = mock(DataBroker.class, withSettings().stubOnly());
+    private final NotificationPublishService notifs = mock(NotificationPublishService.class,
+            withSettings().stubOnly());
+    private final RpcProviderService rpcRegistry = mock(RpcProviderService.class, withSettings().stubOnly());
+    private final ClusterSingletonServiceProvider cssp = mock(ClusterSingletonServiceProvider.class,
+            withSettings().stubOnly());
+    private final List<SubmitInstructionInput> inputs = new ArrayList<>();
+    private ListeningExecutorService executor;
+    private HashedWheelTimer timer;
+    private ProgrammingServiceImpl service;
+
+    @Setup
+    public void setup() {
+        final WriteTransaction wt = mock(WriteTransaction.class, withSettings().stubOnly());
+        doReturn(CommitInfo.emptyFluentFuture()).when(wt).commit();
+        doReturn(wt).when(this.dataBroker).newWriteOnlyTransaction();
+
+        final Random random = new Random(0);
+        for (int i = 0; i < this.instructions; i++) {
+            final List<InstructionId> preconditions = new ArrayList<>(MAX_DEPENDENCIES);
+            for (int d = random.nextInt(MAX_DEPENDENCIES + 1); d > 0 && i > 0; d--) {
+                final InstructionId dependency = instructionId(i - 1 - random.nextInt(Math.min(i,
+                        DEPENDENCY_WINDOW)));
+                if (!preconditions.contains(dependency)) {
+                    preconditions.add(dependency);
+                }
+            }
+            this.inputs.add(new PcepUpdateTunnelInputBuilder().setId(instructionId(i)).setDeadline(DEADLINE)
+                    .setPreconditions(preconditions).build());
+        }
+
+        this.executor = MoreExecutors.listeningDecorator(
+                Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+        this.timer = new HashedWheelTimer();
+    }
+
+    @Setup(Level.Invocation)
+    public void setupService() {
+        this.service = new ProgrammingServiceImpl(this.dataBroker, this.notifs, this.executor, this.rpcRegistry,
+                this.cssp, this.timer, "benchmark-queue");
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.executor.shutdownNow();
+        this.timer.stop();
+    }
+
+    @Benchmark
+    public void scheduleInstructions() throws SchedulerException, InterruptedException {
+        final CountDownLatch done = new CountDownLatch(this.instructions);
+        final FutureCallback<Instruction> execute = new FutureCallback<Instruction>() {
+            @Override
+            public void onSuccess(final Instruction insn) {
+                if (insn.checkedExecutionStart()) {
+                    insn.executionCompleted(InstructionStatus.Successful, null);
+                }
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(final Throwable throwable) {
+                throw new IllegalStateException("Instruction failed to schedule", throwable);
+            }
+        };
+
+        for (int i = 0; i < this.instructions; i++) {
+            Futures.addCallback(this.service.scheduleInstruction(this.inputs.get(i), i % this.lanes), execute,
+                    MoreExecutors.directExecutor());
+        }
+        done.await();
+    }
+
+    private static InstructionId instructionId(final int index) {
+        return new InstructionId("insn-" + index);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProgrammingServiceImplBenchmark.class.getSimpleName()).build()).run();
+    }
+}
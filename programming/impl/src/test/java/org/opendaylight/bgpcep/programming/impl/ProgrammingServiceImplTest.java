@@ -9,27 +9,44 @@ package org.opendaylight.bgpcep.programming.impl;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.opendaylight.protocol.util.CheckTestUtil.checkNotPresentOperational;
 import static org.opendaylight.protocol.util.CheckTestUtil.checkPresentOperational;
+import static org.opendaylight.protocol.util.CheckTestUtil.readDataOperational;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import io.netty.util.HashedWheelTimer;
 import io.netty.util.Timer;
+import io.netty.util.TimerTask;
 import java.math.BigInteger;
+import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.opendaylight.bgpcep.programming.NanotimeUtil;
 import org.opendaylight.bgpcep.programming.spi.Instruction;
 import org.opendaylight.bgpcep.programming.spi.SchedulerException;
+import org.opendaylight.mdsal.binding.api.DataBroker;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.CancelInstructionInput;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.CancelInstructionInputBuilder;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.CleanInstructionsInput;
@@ -53,6 +70,10 @@ public class ProgrammingServiceImplTest extends AbstractProgrammingTest {
 
     private static final int INSTRUCTION_DEADLINE_OFFSET_IN_SECONDS = 3;
     private static final String INSTRUCTIONS_QUEUE_KEY = "test-instraction-queue";
+    private static final String TERMINAL_INSTRUCTIONS_QUEUE_KEY = "test-terminal-instruction-queue";
+    private static final String LANES_INSTRUCTIONS_QUEUE_KEY = "test-lanes-instruction-queue";
+    private static final String DELAYED_INSTRUCTIONS_QUEUE_KEY = "test-delayed-instruction-queue";
+    private static final long STATUS_PUBLISH_DELAY = 100;
     private final Timer timer = new HashedWheelTimer();
     private MockedExecutorWrapper mockedExecutorWrapper;
     private MockedNotificationServiceWrapper mockedNotificationServiceWrapper;
@@ -328,6 +349,207 @@ public class ProgrammingServiceImplTest extends AbstractProgrammingTest {
                 InstructionStatus.Successful);
     }
 
+    @Test
+    public void testPublishTerminalStatusOnly() throws Exception {
+        final ProgrammingServiceImpl terminalProgrammingService = new ProgrammingServiceImpl(getDataBroker(),
+                this.mockedNotificationServiceWrapper.getMockedNotificationService(),
+                this.mockedExecutorWrapper.getMockedExecutor(), this.rpcRegistry, this.cssp, this.timer,
+                TERMINAL_INSTRUCTIONS_QUEUE_KEY, 10, true);
+        terminalProgrammingService.instantiateServiceInstance();
+
+        final SubmitInstructionInput mockedSubmit = getMockedSubmitInstructionInput("mockedSubmit");
+        final Instruction instruction = terminalProgrammingService.scheduleInstruction(mockedSubmit).get();
+        instruction.checkedExecutionStart();
+
+        // Intermediate states are notified, but not written
+        this.mockedNotificationServiceWrapper.assertNotificationsCount(2);
+        checkNotPresentOperational(getDataBroker(),
+                buildInstructionIID(TERMINAL_INSTRUCTIONS_QUEUE_KEY, mockedSubmit.getId()));
+
+        instruction.executionCompleted(InstructionStatus.Successful, getDetails());
+        checkPresentOperational(getDataBroker(),
+                buildInstructionIID(TERMINAL_INSTRUCTIONS_QUEUE_KEY, mockedSubmit.getId()));
+        terminalProgrammingService.closeServiceInstance();
+    }
+
+    @Test
+    public void testParallelLanes() throws Exception {
+        final Queue<Runnable> pending = new ArrayDeque<>();
+        final ProgrammingServiceImpl lanesProgrammingService = createLanesProgrammingService(pending);
+
+        final ListenableFuture<Instruction> futureA1 = lanesProgrammingService.scheduleInstruction(
+                getMockedSubmitInstructionInput("mockedSubmitA1"), "laneA");
+        final ListenableFuture<Instruction> futureB1 = lanesProgrammingService.scheduleInstruction(
+                getMockedSubmitInstructionInput("mockedSubmitB1"), "laneB");
+        final ListenableFuture<Instruction> futureA2 = lanesProgrammingService.scheduleInstruction(
+                getMockedSubmitInstructionInput("mockedSubmitA2"), "laneA");
+
+        // Each lane occupies a single executor task, which may run concurrently with the other one
+        assertEquals(2, pending.size());
+        assertEquals(2, lanesProgrammingService.getLaneCount());
+        final Runnable laneA = pending.poll();
+        final Runnable laneB = pending.poll();
+
+        // Lane B proceeds while lane A has not run yet
+        laneB.run();
+        assertTrue(futureB1.isDone());
+        assertFalse(futureA1.isDone());
+        assertFalse(futureA2.isDone());
+
+        // Lane A runs its instructions in order
+        laneA.run();
+        assertTrue(futureA1.isDone());
+        assertTrue(futureA2.isDone());
+        assertTrue(pending.isEmpty());
+        lanesProgrammingService.closeServiceInstance();
+    }
+
+    @Test
+    public void testDependencyAcrossLanes() throws Exception {
+        final Queue<Runnable> pending = new ArrayDeque<>();
+        final ProgrammingServiceImpl lanesProgrammingService = createLanesProgrammingService(pending);
+
+        final SubmitInstructionInput mockedSubmit1 = getMockedSubmitInstructionInput("mockedSubmit1");
+        final ListenableFuture<Instruction> future1 = lanesProgrammingService.scheduleInstruction(mockedSubmit1,
+                "laneA");
+        final SubmitInstructionInput mockedSubmit2 = getMockedSubmitInstructionInput("mockedSubmit2",
+                "mockedSubmit1");
+        final ListenableFuture<Instruction> future2 = lanesProgrammingService.scheduleInstruction(mockedSubmit2,
+                "laneB");
+        runPending(pending);
+        assertTrue(future1.isDone());
+        assertFalse(future2.isDone());
+
+        // Completing the dependency schedules the dependant in its own lane
+        final Instruction instruction = future1.get();
+        instruction.checkedExecutionStart();
+        instruction.executionCompleted(InstructionStatus.Successful, getDetails());
+        assertFalse(future2.isDone());
+        assertEquals(1, pending.size());
+        runPending(pending);
+        assertTrue(future2.isDone());
+
+        future2.get().checkedExecutionStart();
+        future2.get().executionCompleted(InstructionStatus.Successful, getDetails());
+
+        // Lanes are dropped once their instructions are cleaned
+        final ListenableFuture<RpcResult<CleanInstructionsOutput>> cleanedInstructionOutput =
+                lanesProgrammingService.cleanInstructions(new CleanInstructionsInputBuilder()
+                        .setId(Lists.newArrayList(mockedSubmit1.getId(), mockedSubmit2.getId())).build());
+        runPending(pending);
+        assertCleanInstructionOutput(cleanedInstructionOutput, 0);
+        assertEquals(0, lanesProgrammingService.getLaneCount());
+        lanesProgrammingService.closeServiceInstance();
+    }
+
+    @Test
+    public void testCoalesceStatusChanges() throws Exception {
+        final Queue<TimerTask> flushes = new ArrayDeque<>();
+        final DataBroker dataBroker = createCountingDataBroker();
+        final ProgrammingServiceImpl delayedProgrammingService = createDelayedProgrammingService(dataBroker, flushes);
+        clearInvocations(dataBroker);
+
+        final SubmitInstructionInput mockedSubmit = getMockedSubmitInstructionInput("mockedSubmit");
+        final Instruction instruction = delayedProgrammingService.scheduleInstruction(mockedSubmit).get();
+        instruction.checkedExecutionStart();
+        instruction.executionCompleted(InstructionStatus.Successful, getDetails());
+
+        // All transitions are notified, but wait for a single write
+        this.mockedNotificationServiceWrapper.assertNotificationsCount(3);
+        assertEquals(1, flushes.size());
+        verify(dataBroker, never()).newWriteOnlyTransaction();
+
+        // The write carries only the final state
+        flushes.poll().run(null);
+        verify(dataBroker).newWriteOnlyTransaction();
+        readDataOperational(getDataBroker(),
+            buildInstructionIID(DELAYED_INSTRUCTIONS_QUEUE_KEY, mockedSubmit.getId()), insn -> {
+                assertEquals(InstructionStatus.Successful, insn.getStatus());
+                return insn;
+            });
+        delayedProgrammingService.closeServiceInstance();
+    }
+
+    @Test
+    public void testDiscardPendingStatusChanges() throws Exception {
+        final Queue<TimerTask> flushes = new ArrayDeque<>();
+        final DataBroker dataBroker = createCountingDataBroker();
+        final ProgrammingServiceImpl delayedProgrammingService = createDelayedProgrammingService(dataBroker, flushes);
+        final InstanceIdentifier<InstructionsQueue> qid = InstanceIdentifier.builder(InstructionsQueue.class,
+            new InstructionsQueueKey(DELAYED_INSTRUCTIONS_QUEUE_KEY)).build();
+        checkPresentOperational(getDataBroker(), qid);
+
+        delayedProgrammingService.scheduleInstruction(getMockedSubmitInstructionInput("mockedSubmit"));
+        assertEquals(1, flushes.size());
+        clearInvocations(dataBroker);
+
+        // Removing the queue drops the pending write, hence a late flush does not recreate it
+        delayedProgrammingService.closeServiceInstance().get();
+        checkNotPresentOperational(getDataBroker(), qid);
+        flushes.poll().run(null);
+        verify(dataBroker).newWriteOnlyTransaction();
+        checkNotPresentOperational(getDataBroker(), qid);
+    }
+
+    /*
+     * Create a data broker which counts write transactions handed out by the test data broker.
+     */
+    private DataBroker createCountingDataBroker() {
+        final DataBroker dataBroker = mock(DataBroker.class);
+        doAnswer(invocation -> getDataBroker().newWriteOnlyTransaction()).when(dataBroker).newWriteOnlyTransaction();
+        return dataBroker;
+    }
+
+    /*
+     * Create a programming service which delays status writes until the test runs the flushes it has scheduled.
+     * Instruction deadlines are still tracked by the real timer.
+     */
+    private ProgrammingServiceImpl createDelayedProgrammingService(final DataBroker dataBroker,
+            final Queue<TimerTask> flushes) {
+        final Timer delayedTimer = mock(Timer.class);
+        doAnswer(invocation -> this.timer.newTimeout(invocation.getArgument(0), invocation.getArgument(1),
+            invocation.getArgument(2))).when(delayedTimer).newTimeout(any(TimerTask.class), anyLong(),
+            eq(TimeUnit.NANOSECONDS));
+        doAnswer(invocation -> {
+            flushes.add(invocation.getArgument(0));
+            return null;
+        }).when(delayedTimer).newTimeout(any(TimerTask.class), eq(STATUS_PUBLISH_DELAY), eq(TimeUnit.MILLISECONDS));
+
+        final ProgrammingServiceImpl delayedProgrammingService = new ProgrammingServiceImpl(dataBroker,
+                this.mockedNotificationServiceWrapper.getMockedNotificationService(),
+                this.mockedExecutorWrapper.getMockedExecutor(), this.rpcRegistry, this.cssp, delayedTimer,
+                DELAYED_INSTRUCTIONS_QUEUE_KEY, STATUS_PUBLISH_DELAY, false);
+        delayedProgrammingService.instantiateServiceInstance();
+        return delayedProgrammingService;
+    }
+
+    /*
+     * Create a programming service on top of an executor which runs submitted tasks only when asked to, so that
+     * the test controls how lanes interleave.
+     */
+    private ProgrammingServiceImpl createLanesProgrammingService(final Queue<Runnable> pending) {
+        final ListeningExecutorService executor = mock(ListeningExecutorService.class);
+        doAnswer(invocation -> {
+            pending.add(invocation.getArgument(0));
+            return Futures.immediateFuture(null);
+        }).when(executor).submit(any(Runnable.class));
+        doAnswer(invocation -> Futures.immediateFuture(((Callable<?>) invocation.getArgument(0)).call()))
+                .when(executor).submit(any(Callable.class));
+
+        final ProgrammingServiceImpl lanesProgrammingService = new ProgrammingServiceImpl(getDataBroker(),
+                this.mockedNotificationServiceWrapper.getMockedNotificationService(), executor, this.rpcRegistry,
+                this.cssp, this.timer, LANES_INSTRUCTIONS_QUEUE_KEY);
+        lanesProgrammingService.instantiateServiceInstance();
+        return lanesProgrammingService;
+    }
+
+    private static void runPending(final Queue<Runnable> pending) {
+        Runnable task;
+        while ((task = pending.poll()) != null) {
+            task.run();
+        }
+    }
+
     private static Details getDetails() {
         return new DetailsBuilder().build();
     }
@@ -362,7 +584,13 @@ public class ProgrammingServiceImplTest extends AbstractProgrammingTest {
 
     private static KeyedInstanceIdentifier<org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming
             .rev150720.instruction.queue.Instruction, InstructionKey> buildInstructionIID(final InstructionId id) {
-        return InstanceIdentifier.builder(InstructionsQueue.class, new InstructionsQueueKey(INSTRUCTIONS_QUEUE_KEY))
+        return buildInstructionIID(INSTRUCTIONS_QUEUE_KEY, id);
+    }
+
+    private static KeyedInstanceIdentifier<org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming
+            .rev150720.instruction.queue.Instruction, InstructionKey> buildInstructionIID(final String queueKey,
+            final InstructionId id) {
+        return InstanceIdentifier.builder(InstructionsQueue.class, new InstructionsQueueKey(queueKey))
                 .build().child(org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720
                         .instruction.queue.Instruction.class, new InstructionKey(id));
     }
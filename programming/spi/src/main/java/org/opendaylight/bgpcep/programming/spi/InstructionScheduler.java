@@ -9,6 +9,7 @@ package org.opendaylight.bgpcep.programming.spi;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opendaylight.mdsal.singleton.common.api.ServiceGroupIdentifier;
 import org.opendaylight.yang.gen.v1.urn.opendaylight.params.xml.ns.yang.programming.rev150720.SubmitInstructionInput;
 import org.opendaylight.yangtools.concepts.Identifiable;
@@ -25,6 +26,21 @@ public interface InstructionScheduler extends Identifiable<ServiceGroupIdentifie
      */
     ListenableFuture<Instruction> scheduleInstruction(SubmitInstructionInput input) throws SchedulerException;
 
+    /**
+     * Schedule a new instruction for execution in a particular lane. Instructions in the same lane are processed in
+     * the order they were submitted, while instructions in different lanes, which do not depend on each other, may be
+     * processed concurrently. Default implementation ignores the lane.
+     *
+     * @param input Instruction scheduling information
+     * @param lane Lane key, typically the node the instruction targets, null for the default lane
+     * @return Scheduling future.
+     * @throws SchedulerException if a failure to schedule the instruction occurs.
+     */
+    default ListenableFuture<Instruction> scheduleInstruction(final SubmitInstructionInput input,
+            @Nullable final Object lane) throws SchedulerException {
+        return scheduleInstruction(input);
+    }
+
     /**
      * Returns InstructionID.
      *